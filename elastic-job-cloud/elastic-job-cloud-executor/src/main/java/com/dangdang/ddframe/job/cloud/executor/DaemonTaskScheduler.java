@@ -29,23 +29,33 @@ import org.apache.mesos.ExecutorDriver;
 import org.apache.mesos.Protos;
 import org.quartz.CronScheduleBuilder;
 import org.quartz.CronTrigger;
+import org.quartz.DisallowConcurrentExecution;
 import org.quartz.Job;
 import org.quartz.JobBuilder;
 import org.quartz.JobDetail;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 import org.quartz.TriggerBuilder;
 import org.quartz.impl.StdSchedulerFactory;
 import org.quartz.plugins.management.ShutdownHookPlugin;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 常驻作业调度器.
  * 
+ * <p>
+ * 同一执行器的全部常驻任务共享调度器, 每个任务以任务主键作为作业和触发器的标识.
+ * 是否错过执行的处理方式不同的任务分别使用两个调度器, 调度器数量不随任务数量增长.
+ * 同一任务的执行不会并发, 线程池按正在执行的任务数量伸缩, 长时间运行的任务不会阻塞其他任务的触发.
+ * </p>
+ * 
  * @author zhangliang
  * @author caohao
  */
@@ -60,8 +70,14 @@ public final class DaemonTaskScheduler {
     
     private static final String TASK_ID_DATA_MAP_KEY = "taskId";
     
+    private static final String SCHEDULER_NAME = "ELASTIC_JOB_CLOUD_DAEMON_SCHEDULER";
+    
+    private static final String MISFIRE_DISABLED_SCHEDULER_NAME = "ELASTIC_JOB_CLOUD_MISFIRE_DISABLED_DAEMON_SCHEDULER";
+    
     private static final ConcurrentHashMap<String, Scheduler> RUNNING_SCHEDULERS = new ConcurrentHashMap<>(1024, 1);
     
+    private static final Map<Boolean, Scheduler> SHARED_SCHEDULERS = new HashMap<>(2, 1);
+    
     private final ElasticJob elasticJob;
     
     private final JobRootConfiguration jobRootConfig;
@@ -76,30 +92,36 @@ public final class DaemonTaskScheduler {
      * 初始化作业.
      */
     public void init() {
-        JobDetail jobDetail = JobBuilder.newJob(DaemonJob.class).withIdentity(jobRootConfig.getTypeConfig().getCoreConfig().getJobName()).build();
+        JobDetail jobDetail = JobBuilder.newJob(DaemonJob.class).withIdentity(taskId.getValue()).build();
         jobDetail.getJobDataMap().put(ELASTIC_JOB_DATA_MAP_KEY, elasticJob);
         jobDetail.getJobDataMap().put(JOB_FACADE_DATA_MAP_KEY, jobFacade);
         jobDetail.getJobDataMap().put(EXECUTOR_DRIVER_DATA_MAP_KEY, executorDriver);
         jobDetail.getJobDataMap().put(TASK_ID_DATA_MAP_KEY, taskId);
         try {
-            scheduleJob(initializeScheduler(), jobDetail, taskId.getValue(), jobRootConfig.getTypeConfig().getCoreConfig().getCron());
+            scheduleJob(getSharedScheduler(jobRootConfig.getTypeConfig().getCoreConfig().isMisfire()), jobDetail, taskId.getValue(), jobRootConfig.getTypeConfig().getCoreConfig().getCron());
         } catch (final SchedulerException ex) {
             throw new JobSystemException(ex);
         }
     }
     
-    private Scheduler initializeScheduler() throws SchedulerException {
-        StdSchedulerFactory factory = new StdSchedulerFactory();
-        factory.initialize(getBaseQuartzProperties());
-        return factory.getScheduler();
+    private static Scheduler getSharedScheduler(final boolean misfire) throws SchedulerException {
+        synchronized (SHARED_SCHEDULERS) {
+            Scheduler result = SHARED_SCHEDULERS.get(misfire);
+            if (null == result || result.isShutdown()) {
+                StdSchedulerFactory factory = new StdSchedulerFactory();
+                factory.initialize(getBaseQuartzProperties(misfire));
+                result = factory.getScheduler();
+                SHARED_SCHEDULERS.put(misfire, result);
+            }
+            return result;
+        }
     }
     
-    private Properties getBaseQuartzProperties() {
+    private static Properties getBaseQuartzProperties(final boolean misfire) {
         Properties result = new Properties();
-        result.put("org.quartz.threadPool.class", org.quartz.simpl.SimpleThreadPool.class.getName());
-        result.put("org.quartz.threadPool.threadCount", "1");
-        result.put("org.quartz.scheduler.instanceName", taskId.getValue());
-        if (!jobRootConfig.getTypeConfig().getCoreConfig().isMisfire()) {
+        result.put("org.quartz.threadPool.class", DaemonThreadPool.class.getName());
+        result.put("org.quartz.scheduler.instanceName", misfire ? SCHEDULER_NAME : MISFIRE_DISABLED_SCHEDULER_NAME);
+        if (!misfire) {
             result.put("org.quartz.jobStore.misfireThreshold", "1");
         }
         result.put("org.quartz.plugin.shutdownhook.class", ShutdownHookPlugin.class.getName());
@@ -113,7 +135,7 @@ public final class DaemonTaskScheduler {
                 scheduler.scheduleJob(jobDetail, createTrigger(triggerIdentity, cron));
             }
             scheduler.start();
-            RUNNING_SCHEDULERS.putIfAbsent(scheduler.getSchedulerName(), scheduler);
+            RUNNING_SCHEDULERS.putIfAbsent(triggerIdentity, scheduler);
         } catch (final SchedulerException ex) {
             throw new JobSystemException(ex);
         }
@@ -126,13 +148,17 @@ public final class DaemonTaskScheduler {
     /**
      * 停止任务调度.
      * 
+     * <p>
+     * 仅移除该任务的作业和触发器, 共享调度器中的其他任务不受影响.
+     * </p>
+     * 
      * @param taskID 任务主键
      */
     public static void shutdown(final Protos.TaskID taskID) {
         Scheduler scheduler = RUNNING_SCHEDULERS.remove(taskID.getValue());
         if (null != scheduler) {
             try {
-                scheduler.shutdown();
+                scheduler.deleteJob(JobKey.jobKey(taskID.getValue()));
             } catch (final SchedulerException ex) {
                 throw new JobSystemException(ex);
             }
@@ -144,6 +170,7 @@ public final class DaemonTaskScheduler {
      * 
      * @author zhangliang
      */
+    @DisallowConcurrentExecution
     public static final class DaemonJob implements Job {
         
         @Setter
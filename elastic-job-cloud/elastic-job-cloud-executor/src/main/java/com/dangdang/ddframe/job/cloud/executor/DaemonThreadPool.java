@@ -0,0 +1,92 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.executor;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.quartz.spi.ThreadPool;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 常驻作业线程池.
+ * 
+ * <p>
+ * 每次作业执行在空闲线程中运行, 没有空闲线程时创建新线程, 线程空闲超时后回收.
+ * 同一任务的执行不会并发, 因此线程数量至多等于正在执行的常驻任务数量, 长时间运行的任务不会占用其他任务的线程.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class DaemonThreadPool implements ThreadPool {
+    
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+    
+    private String instanceName = "daemon";
+    
+    private ThreadPoolExecutor threadPoolExecutor;
+    
+    @Override
+    public void initialize() {
+        threadPoolExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), 
+                new BasicThreadFactory.Builder().namingPattern(instanceName + "-%s").build());
+    }
+    
+    @Override
+    public boolean runInThread(final Runnable runnable) {
+        try {
+            threadPoolExecutor.execute(runnable);
+            return true;
+        } catch (final RejectedExecutionException ex) {
+            return false;
+        }
+    }
+    
+    @Override
+    public int blockForAvailableThreads() {
+        return threadPoolExecutor.isShutdown() ? 0 : Integer.MAX_VALUE;
+    }
+    
+    @Override
+    public void shutdown(final boolean waitForJobsToComplete) {
+        threadPoolExecutor.shutdown();
+        if (waitForJobsToComplete) {
+            try {
+                threadPoolExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    @Override
+    public int getPoolSize() {
+        return threadPoolExecutor.getPoolSize();
+    }
+    
+    @Override
+    public void setInstanceId(final String instanceId) {
+    }
+    
+    @Override
+    public void setInstanceName(final String instanceName) {
+        this.instanceName = instanceName;
+    }
+}
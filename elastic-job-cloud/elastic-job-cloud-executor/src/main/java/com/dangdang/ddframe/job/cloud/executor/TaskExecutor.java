@@ -19,14 +19,18 @@ package com.dangdang.ddframe.job.cloud.executor;
 
 import com.dangdang.ddframe.job.api.ElasticJob;
 import com.dangdang.ddframe.job.api.script.ScriptJob;
+import com.dangdang.ddframe.job.context.TaskDataCodec;
 import com.dangdang.ddframe.job.event.JobEventBus;
 import com.dangdang.ddframe.job.event.rdb.JobEventRdbConfiguration;
 import com.dangdang.ddframe.job.exception.ExceptionUtil;
 import com.dangdang.ddframe.job.exception.JobSystemException;
+import com.dangdang.ddframe.job.executor.AbstractElasticJobExecutor;
 import com.dangdang.ddframe.job.executor.JobExecutorFactory;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
 import com.dangdang.ddframe.job.util.concurrent.ExecutorServiceObject;
 import com.google.common.base.Strings;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.dbcp.BasicDataSource;
@@ -39,24 +43,36 @@ import org.springframework.context.support.ClassPathXmlApplicationContext;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * 作业任务执行器.
+ * 
+ * <p>
+ * 按作业名称缓存解析后的作业配置, 作业实例和作业执行器, 作业配置上下文未变更时后续任务直接复用.
+ * 任务的并行度由任务声明的CPU份额决定, 超出的任务排队等待, 等待队列已满时任务被拒绝.
+ * </p>
  *
  * @author zhangliang
  */
 @Slf4j
 public final class TaskExecutor implements Executor {
     
-    private final ExecutorService executorService;
+    private static final int MAX_PARALLELISM = Runtime.getRuntime().availableProcessors() * 2;
+    
+    private static final int MAX_WAITING_TASKS = 1000;
+    
+    private final TaskThreadPool taskThreadPool;
     
     private final Map<String, ClassPathXmlApplicationContext> applicationContexts = new HashMap<>();
     
+    private final ConcurrentMap<String, CachedJob> cachedJobs = new ConcurrentHashMap<>();
+    
     private volatile JobEventBus jobEventBus = new JobEventBus();
     
     public TaskExecutor() {
-        executorService = new ExecutorServiceObject("cloud-task-executor", Runtime.getRuntime().availableProcessors() * 100).createExecutorService();
+        taskThreadPool = new TaskThreadPool(new ExecutorServiceObject("cloud-task-executor", MAX_PARALLELISM).createExecutorService(), MAX_PARALLELISM, MAX_WAITING_TASKS);
     }
     
     @Override
@@ -69,6 +85,7 @@ public final class TaskExecutor implements Executor {
             dataSource.setPassword(data.get("event_trace_rdb_password"));
             dataSource.setUsername(data.get("event_trace_rdb_username"));
             jobEventBus = new JobEventBus(new JobEventRdbConfiguration(dataSource));
+            cachedJobs.clear();
         }
     }
     
@@ -82,11 +99,16 @@ public final class TaskExecutor implements Executor {
     
     @Override
     public void launchTask(final ExecutorDriver executorDriver, final Protos.TaskInfo taskInfo) {
-        executorService.submit(new TaskThread(executorDriver, taskInfo));
+        if (!taskThreadPool.submit(new TaskThread(executorDriver, taskInfo))) {
+            log.warn("Elastic job: executor task queue is full, drop task '{}'.", taskInfo.getTaskId().getValue());
+            executorDriver.sendStatusUpdate(Protos.TaskStatus.newBuilder().setTaskId(taskInfo.getTaskId()).setState(Protos.TaskState.TASK_DROPPED)
+                    .setMessage(String.format("Executor task queue is full, %s", taskThreadPool.snapshot())).build());
+        }
     }
     
     @Override
     public void killTask(final ExecutorDriver executorDriver, final Protos.TaskID taskID) {
+        taskThreadPool.cancel(taskID.getValue());
         executorDriver.sendStatusUpdate(Protos.TaskStatus.newBuilder().setTaskId(taskID).setState(Protos.TaskState.TASK_KILLED).build());
         DaemonTaskScheduler.shutdown(taskID);
     }
@@ -109,28 +131,53 @@ public final class TaskExecutor implements Executor {
     }
     
     @RequiredArgsConstructor
-    class TaskThread implements Runnable {
+    class TaskThread implements Runnable, TaskThreadPool.QueuedTask {
         
         private final ExecutorDriver executorDriver;
         
         private final TaskInfo taskInfo;
         
+        @Override
+        public String getTaskId() {
+            return taskInfo.getTaskId().getValue();
+        }
+        
+        @Override
+        public double getCpus() {
+            double result = 0d;
+            for (Protos.Resource each : taskInfo.getResourcesList()) {
+                if ("cpus".equals(each.getName())) {
+                    result += each.getScalar().getValue();
+                }
+            }
+            return result;
+        }
+        
         @Override
         public void run() {
+            run(0L);
+        }
+        
+        @Override
+        public void run(final long queuedMilliseconds) {
             Thread.currentThread().setContextClassLoader(TaskThread.class.getClassLoader());
-            executorDriver.sendStatusUpdate(Protos.TaskStatus.newBuilder().setTaskId(taskInfo.getTaskId()).setState(Protos.TaskState.TASK_RUNNING).build());
-            Map<String, Object> data = SerializationUtils.deserialize(taskInfo.getData().toByteArray());
-            ShardingContexts shardingContexts = (ShardingContexts) data.get("shardingContext");
+            Protos.TaskStatus.Builder runningStatus = Protos.TaskStatus.newBuilder().setTaskId(taskInfo.getTaskId()).setState(Protos.TaskState.TASK_RUNNING);
+            if (queuedMilliseconds > 0L) {
+                runningStatus.setMessage(String.format("Queued %d ms in executor, %s", queuedMilliseconds, taskThreadPool.snapshot()));
+            }
+            executorDriver.sendStatusUpdate(runningStatus.build());
+            Map<String, Object> data = TaskDataCodec.decode(taskInfo.getData().toByteArray());
+            ShardingContexts shardingContexts = (ShardingContexts) data.get(TaskDataCodec.SHARDING_CONTEXT_KEY);
             @SuppressWarnings("unchecked")
-            JobConfigurationContext jobConfig = new JobConfigurationContext((Map<String, String>) data.get("jobConfigContext"));
+            Map<String, String> jobConfigContext = (Map<String, String>) data.get(TaskDataCodec.JOB_CONFIG_CONTEXT_KEY);
             try {
-                ElasticJob elasticJob = getElasticJobInstance(jobConfig);
-                final CloudJobFacade jobFacade = new CloudJobFacade(shardingContexts, jobConfig, jobEventBus);
+                CachedJob cachedJob = getCachedJob(jobConfigContext);
+                JobConfigurationContext jobConfig = cachedJob.getJobConfig();
                 if (jobConfig.isTransient()) {
-                    JobExecutorFactory.getJobExecutor(elasticJob, jobFacade).execute();
+                    cachedJob.getJobExecutor(shardingContexts).execute(shardingContexts);
                     executorDriver.sendStatusUpdate(Protos.TaskStatus.newBuilder().setTaskId(taskInfo.getTaskId()).setState(Protos.TaskState.TASK_FINISHED).build());
                 } else {
-                    new DaemonTaskScheduler(elasticJob, jobConfig, jobFacade, executorDriver, taskInfo.getTaskId()).init();
+                    new DaemonTaskScheduler(cachedJob.getElasticJob(), jobConfig, new CloudJobFacade(shardingContexts, jobConfig, jobEventBus), executorDriver, taskInfo.getTaskId()).init();
                 }
                 // CHECKSTYLE:OFF
             } catch (final Throwable ex) {
@@ -142,6 +189,18 @@ public final class TaskExecutor implements Executor {
             }
         }
         
+        private CachedJob getCachedJob(final Map<String, String> jobConfigContext) {
+            String jobName = jobConfigContext.get("jobName");
+            CachedJob result = null == jobName ? null : cachedJobs.get(jobName);
+            if (null != result && result.getJobConfigContext().equals(jobConfigContext)) {
+                return result;
+            }
+            JobConfigurationContext jobConfig = new JobConfigurationContext(jobConfigContext);
+            result = new CachedJob(jobConfigContext, jobConfig, getElasticJobInstance(jobConfig), jobEventBus);
+            cachedJobs.put(jobName, result);
+            return result;
+        }
+        
         private ElasticJob getElasticJobInstance(final JobConfigurationContext jobConfig) {
             if (!Strings.isNullOrEmpty(jobConfig.getBeanName()) && !Strings.isNullOrEmpty(jobConfig.getApplicationContext())) {
                 return getElasticJobBean(jobConfig);
@@ -178,4 +237,38 @@ public final class TaskExecutor implements Executor {
             }
         }
     }
+    
+    /**
+     * 缓存的作业.
+     * 
+     * <p>
+     * 作业执行器不保存执行状态, 同一作业的瞬时任务共享一个执行器.
+     * </p>
+     */
+    @RequiredArgsConstructor
+    @Getter(AccessLevel.PRIVATE)
+    private static final class CachedJob {
+        
+        private final Map<String, String> jobConfigContext;
+        
+        private final JobConfigurationContext jobConfig;
+        
+        private final ElasticJob elasticJob;
+        
+        private final JobEventBus jobEventBus;
+        
+        @Getter(AccessLevel.NONE)
+        private volatile AbstractElasticJobExecutor jobExecutor;
+        
+        AbstractElasticJobExecutor getJobExecutor(final ShardingContexts shardingContexts) {
+            if (null == jobExecutor) {
+                synchronized (this) {
+                    if (null == jobExecutor) {
+                        jobExecutor = JobExecutorFactory.getJobExecutor(elasticJob, new CloudJobFacade(shardingContexts, jobConfig, jobEventBus));
+                    }
+                }
+            }
+            return jobExecutor;
+        }
+    }
 }
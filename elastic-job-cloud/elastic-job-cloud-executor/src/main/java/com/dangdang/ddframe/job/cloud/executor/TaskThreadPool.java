@@ -0,0 +1,216 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.executor;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按任务CPU份额控制并行度的任务线程池.
+ * 
+ * <p>
+ * 并行度等于已接收且未完成的任务声明的CPU份额之和, 向下取整, 至少为1, 至多为最大并行度.
+ * 超出并行度的任务按接收顺序进入等待队列, 等待队列已满时拒绝新任务, 等待中的任务可被取消.
+ * 常驻作业的任务仅在初始化期间占用线程和CPU份额, 初始化完成后的作业执行由Quartz线程承担, 不计入并行度, 其负载由Mesos按任务资源隔离.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+final class TaskThreadPool {
+    
+    private static final double CPU_PRECISION = 0.000001d;
+    
+    private final ExecutorService executorService;
+    
+    private final int maxParallelism;
+    
+    private final int maxWaitingTasks;
+    
+    private final Queue<WaitingTask> waitingTasks = new ArrayDeque<>();
+    
+    private double acceptedCpus;
+    
+    private int runningTasks;
+    
+    private long rejectedTasks;
+    
+    private long queuedTasks;
+    
+    private long totalQueuedMilliseconds;
+    
+    private long maxQueuedMilliseconds;
+    
+    TaskThreadPool(final ExecutorService executorService, final int maxParallelism, final int maxWaitingTasks) {
+        this.executorService = executorService;
+        this.maxParallelism = maxParallelism;
+        this.maxWaitingTasks = maxWaitingTasks;
+    }
+    
+    /**
+     * 提交任务.
+     * 
+     * @param task 任务
+     * @return 任务是否被接收, 等待队列已满时返回false
+     */
+    synchronized boolean submit(final QueuedTask task) {
+        if (waitingTasks.size() >= maxWaitingTasks) {
+            rejectedTasks++;
+            return false;
+        }
+        acceptedCpus += task.getCpus();
+        waitingTasks.add(new WaitingTask(task, System.nanoTime(), !waitingTasks.isEmpty() || runningTasks >= getParallelism()));
+        dispatch();
+        return true;
+    }
+    
+    /**
+     * 取消等待中的任务.
+     * 
+     * @param taskId 任务主键
+     * @return 任务是否在等待队列中并被取消
+     */
+    synchronized boolean cancel(final String taskId) {
+        Iterator<WaitingTask> iterator = waitingTasks.iterator();
+        while (iterator.hasNext()) {
+            QueuedTask task = iterator.next().getTask();
+            if (task.getTaskId().equals(taskId)) {
+                iterator.remove();
+                releaseCpus(task);
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void dispatch() {
+        while (!waitingTasks.isEmpty() && runningTasks < getParallelism()) {
+            WaitingTask waitingTask = waitingTasks.poll();
+            long queuedMilliseconds = 0L;
+            if (waitingTask.isQueued()) {
+                queuedMilliseconds = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waitingTask.getSubmittedNanos());
+                queuedTasks++;
+                totalQueuedMilliseconds += queuedMilliseconds;
+                maxQueuedMilliseconds = Math.max(maxQueuedMilliseconds, queuedMilliseconds);
+            }
+            runningTasks++;
+            executorService.execute(new RunningTask(waitingTask.getTask(), queuedMilliseconds));
+        }
+    }
+    
+    private synchronized void complete(final QueuedTask task) {
+        runningTasks--;
+        releaseCpus(task);
+        dispatch();
+    }
+    
+    private void releaseCpus(final QueuedTask task) {
+        acceptedCpus -= task.getCpus();
+        if (acceptedCpus < CPU_PRECISION) {
+            acceptedCpus = 0d;
+        }
+    }
+    
+    /**
+     * 获取当前并行度.
+     * 
+     * @return 当前并行度
+     */
+    synchronized int getParallelism() {
+        return Math.max(1, Math.min(maxParallelism, (int) Math.floor(acceptedCpus + CPU_PRECISION)));
+    }
+    
+    /**
+     * 获取指标快照.
+     * 
+     * @return 指标名称和值的映射
+     */
+    synchronized Map<String, Long> snapshot() {
+        Map<String, Long> result = new LinkedHashMap<>(8, 1);
+        result.put("parallelism", (long) getParallelism());
+        result.put("running_tasks", (long) runningTasks);
+        result.put("waiting_tasks", (long) waitingTasks.size());
+        result.put("rejected_tasks", rejectedTasks);
+        result.put("queued_tasks", queuedTasks);
+        result.put("queued_avg_ms", 0L == queuedTasks ? 0L : totalQueuedMilliseconds / queuedTasks);
+        result.put("queued_max_ms", maxQueuedMilliseconds);
+        return result;
+    }
+    
+    /**
+     * 可排队的任务.
+     */
+    interface QueuedTask {
+        
+        /**
+         * 获取任务主键.
+         * 
+         * @return 任务主键
+         */
+        String getTaskId();
+        
+        /**
+         * 获取任务声明的CPU份额.
+         * 
+         * @return CPU份额
+         */
+        double getCpus();
+        
+        /**
+         * 执行任务.
+         * 
+         * @param queuedMilliseconds 任务在等待队列中的毫秒数, 未排队的任务为0
+         */
+        void run(long queuedMilliseconds);
+    }
+    
+    @RequiredArgsConstructor
+    @Getter
+    private static final class WaitingTask {
+        
+        private final QueuedTask task;
+        
+        private final long submittedNanos;
+        
+        private final boolean queued;
+    }
+    
+    @RequiredArgsConstructor
+    private final class RunningTask implements Runnable {
+        
+        private final QueuedTask task;
+        
+        private final long queuedMilliseconds;
+        
+        @Override
+        public void run() {
+            try {
+                task.run(queuedMilliseconds);
+            } finally {
+                complete(task);
+            }
+        }
+    }
+}
@@ -28,9 +28,11 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
         CloudJobFacadeTest.class,
         DaemonTaskSchedulerTest.class, 
+        DaemonThreadPoolTest.class, 
         JobConfigurationContextTest.class, 
         TaskExecutorTest.class, 
         TaskExecutorThreadTest.class, 
+        TaskThreadPoolTest.class, 
         AllLocalExecutorTests.class
     })
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -18,6 +18,10 @@
 package com.dangdang.ddframe.job.cloud.executor;
 
 import com.dangdang.ddframe.job.cloud.executor.fixture.TestScriptJobConfiguration;
+import com.dangdang.ddframe.job.config.JobCoreConfiguration;
+import com.dangdang.ddframe.job.config.JobRootConfiguration;
+import com.dangdang.ddframe.job.config.JobTypeConfiguration;
+import com.dangdang.ddframe.job.config.script.ScriptJobConfiguration;
 import com.dangdang.ddframe.job.context.ExecutionType;
 import com.dangdang.ddframe.job.executor.AbstractElasticJobExecutor;
 import com.dangdang.ddframe.job.executor.JobFacade;
@@ -32,7 +36,17 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.unitils.util.ReflectionUtils;
 
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -93,4 +107,38 @@ public final class DaemonTaskSchedulerTest {
         verify(executorDriver).sendStatusUpdate(TaskStatus.newBuilder().setTaskId(taskId).setState(TaskState.TASK_RUNNING).setMessage("COMPLETE").build());
         verify(shardingContexts).setCurrentJobEventSamplingCount(0);
     }
+    
+    @Test
+    public void assertInitAndShutdownWithSharedScheduler() throws NoSuchFieldException, SchedulerException {
+        TaskID otherTaskId = TaskID.newBuilder().setValue(String.format("%s@-@1@-@%s@-@fake_slave_id@-@0", "test_job", ExecutionType.READY)).build();
+        new DaemonTaskScheduler(null, createJobRootConfiguration(), jobFacade, executorDriver, taskId).init();
+        new DaemonTaskScheduler(null, createJobRootConfiguration(), jobFacade, executorDriver, otherTaskId).init();
+        Map<String, Scheduler> runningSchedulers = getRunningSchedulers();
+        Scheduler scheduler = runningSchedulers.get(taskId.getValue());
+        assertThat(runningSchedulers.get(otherTaskId.getValue()), sameInstance(scheduler));
+        assertTrue(scheduler.checkExists(JobKey.jobKey(taskId.getValue())));
+        assertTrue(scheduler.checkExists(JobKey.jobKey(otherTaskId.getValue())));
+        DaemonTaskScheduler.shutdown(taskId);
+        assertFalse(scheduler.checkExists(JobKey.jobKey(taskId.getValue())));
+        assertTrue(scheduler.checkExists(JobKey.jobKey(otherTaskId.getValue())));
+        assertFalse(scheduler.isShutdown());
+        DaemonTaskScheduler.shutdown(otherTaskId);
+        assertFalse(scheduler.checkExists(JobKey.jobKey(otherTaskId.getValue())));
+        assertTrue(runningSchedulers.isEmpty());
+    }
+    
+    private JobRootConfiguration createJobRootConfiguration() {
+        return new JobRootConfiguration() {
+            
+            @Override
+            public JobTypeConfiguration getTypeConfig() {
+                return new ScriptJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0 0 0 1 1 ? 2099", 3).build(), "test.sh");
+            }
+        };
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<String, Scheduler> getRunningSchedulers() throws NoSuchFieldException {
+        return (Map<String, Scheduler>) ReflectionUtils.getFieldValue(null, DaemonTaskScheduler.class.getDeclaredField("RUNNING_SCHEDULERS"));
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.executor;
+
+import org.junit.Test;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.Scheduler;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.StdSchedulerFactory;
+
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class DaemonThreadPoolTest {
+    
+    private static final String LATCH_DATA_MAP_KEY = "latch";
+    
+    @Test
+    public void assertRunInThreadWhenOtherThreadBlocked() throws InterruptedException {
+        DaemonThreadPool threadPool = new DaemonThreadPool();
+        threadPool.initialize();
+        final CountDownLatch blockLatch = new CountDownLatch(1);
+        final CountDownLatch runLatch = new CountDownLatch(1);
+        try {
+            assertTrue(threadPool.runInThread(new Runnable() {
+                
+                @Override
+                public void run() {
+                    await(blockLatch);
+                }
+            }));
+            assertTrue(threadPool.blockForAvailableThreads() > 0);
+            assertTrue(threadPool.runInThread(new Runnable() {
+                
+                @Override
+                public void run() {
+                    runLatch.countDown();
+                }
+            }));
+            assertTrue(runLatch.await(5L, TimeUnit.SECONDS));
+        } finally {
+            blockLatch.countDown();
+            threadPool.shutdown(true);
+        }
+        assertThat(threadPool.blockForAvailableThreads(), is(0));
+        assertFalse(threadPool.runInThread(new Runnable() {
+            
+            @Override
+            public void run() {
+            }
+        }));
+    }
+    
+    @Test
+    public void assertBlockedJobNotStopOtherJob() throws Exception {
+        Properties properties = new Properties();
+        properties.put("org.quartz.threadPool.class", DaemonThreadPool.class.getName());
+        properties.put("org.quartz.scheduler.instanceName", "DAEMON_THREAD_POOL_TEST");
+        StdSchedulerFactory factory = new StdSchedulerFactory();
+        factory.initialize(properties);
+        Scheduler scheduler = factory.getScheduler();
+        CountDownLatch blockLatch = new CountDownLatch(1);
+        CountDownLatch runLatch = new CountDownLatch(3);
+        try {
+            scheduleJob(scheduler, BlockedJob.class, blockLatch);
+            scheduleJob(scheduler, CountDownJob.class, runLatch);
+            scheduler.start();
+            assertTrue(runLatch.await(10L, TimeUnit.SECONDS));
+        } finally {
+            blockLatch.countDown();
+            scheduler.shutdown(true);
+        }
+    }
+    
+    private void scheduleJob(final Scheduler scheduler, final Class<? extends Job> jobClass, final CountDownLatch latch) throws Exception {
+        String jobName = jobClass.getSimpleName();
+        JobDetail jobDetail = JobBuilder.newJob(jobClass).withIdentity(jobName).build();
+        jobDetail.getJobDataMap().put(LATCH_DATA_MAP_KEY, latch);
+        scheduler.scheduleJob(jobDetail, TriggerBuilder.newTrigger().withIdentity(jobName).startNow()
+                .withSchedule(SimpleScheduleBuilder.repeatSecondlyForever().withMisfireHandlingInstructionNextWithRemainingCount()).build());
+    }
+    
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @DisallowConcurrentExecution
+    public static final class BlockedJob implements Job {
+        
+        @Override
+        public void execute(final JobExecutionContext context) {
+            await((CountDownLatch) context.getMergedJobDataMap().get(LATCH_DATA_MAP_KEY));
+        }
+    }
+    
+    @DisallowConcurrentExecution
+    public static final class CountDownJob implements Job {
+        
+        @Override
+        public void execute(final JobExecutionContext context) {
+            ((CountDownLatch) context.getMergedJobDataMap().get(LATCH_DATA_MAP_KEY)).countDown();
+        }
+    }
+}
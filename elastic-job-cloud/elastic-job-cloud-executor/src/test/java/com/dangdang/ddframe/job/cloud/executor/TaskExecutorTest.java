@@ -29,6 +29,8 @@ import org.apache.mesos.Protos.TaskInfo;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.unitils.util.ReflectionUtils;
@@ -36,6 +38,7 @@ import org.unitils.util.ReflectionUtils;
 import java.util.HashMap;
 import java.util.concurrent.ExecutorService;
 
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -58,7 +61,7 @@ public final class TaskExecutorTest {
     @Before
     public void setUp() throws NoSuchFieldException {
         taskExecutor = new TaskExecutor();
-        ReflectionUtils.setFieldValue(taskExecutor, "executorService", executorService);
+        ReflectionUtils.setFieldValue(taskExecutor, "taskThreadPool", new TaskThreadPool(executorService, 1, 1));
         executorInfo = ExecutorInfo.getDefaultInstance();
     }
     
@@ -69,6 +72,23 @@ public final class TaskExecutorTest {
         verify(executorDriver).sendStatusUpdate(Protos.TaskStatus.newBuilder().setTaskId(taskID).setState(Protos.TaskState.TASK_KILLED).build());
     }
     
+    @Test
+    public void assertKillWaitingTask() {
+        taskExecutor.launchTask(executorDriver, buildTaskInfo("fake_task_id_1"));
+        taskExecutor.launchTask(executorDriver, buildTaskInfo("fake_task_id_2"));
+        TaskID taskID = TaskID.newBuilder().setValue("fake_task_id_2").build();
+        taskExecutor.killTask(executorDriver, taskID);
+        verify(executorDriver).sendStatusUpdate(Protos.TaskStatus.newBuilder().setTaskId(taskID).setState(Protos.TaskState.TASK_KILLED).build());
+        taskExecutor.launchTask(executorDriver, buildTaskInfo("fake_task_id_3"));
+        verify(executorDriver, never()).sendStatusUpdate(ArgumentMatchers.argThat(new ArgumentMatcher<Protos.TaskStatus>() {
+            
+            @Override
+            public boolean matches(final Protos.TaskStatus argument) {
+                return Protos.TaskState.TASK_DROPPED == argument.getState();
+            }
+        }));
+    }
+    
     @Test
     public void assertRegisteredWithoutData() {
         // CHECKSTYLE:OFF
@@ -94,6 +114,26 @@ public final class TaskExecutorTest {
                 .setTaskId(TaskID.newBuilder().setValue("fake_task_id")).setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build());
     }
     
+    @Test
+    public void assertLaunchTaskWhenWaitingQueueIsFull() {
+        taskExecutor.launchTask(executorDriver, buildTaskInfo("fake_task_id_1"));
+        taskExecutor.launchTask(executorDriver, buildTaskInfo("fake_task_id_2"));
+        final TaskInfo droppedTaskInfo = buildTaskInfo("fake_task_id_3");
+        taskExecutor.launchTask(executorDriver, droppedTaskInfo);
+        verify(executorService).execute(ArgumentMatchers.<Runnable>any());
+        verify(executorDriver).sendStatusUpdate(ArgumentMatchers.argThat(new ArgumentMatcher<Protos.TaskStatus>() {
+            
+            @Override
+            public boolean matches(final Protos.TaskStatus argument) {
+                return droppedTaskInfo.getTaskId().equals(argument.getTaskId()) && Protos.TaskState.TASK_DROPPED == argument.getState();
+            }
+        }));
+    }
+    
+    private TaskInfo buildTaskInfo(final String taskId) {
+        return TaskInfo.newBuilder().setName("test_job").setTaskId(TaskID.newBuilder().setValue(taskId)).setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build();
+    }
+    
     @Test
     public void assertReregistered() {
         taskExecutor.reregistered(executorDriver, slaveInfo);
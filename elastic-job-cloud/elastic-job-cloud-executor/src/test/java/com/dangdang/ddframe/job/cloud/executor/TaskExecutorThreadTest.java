@@ -34,6 +34,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.unitils.util.ReflectionUtils;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -41,6 +42,11 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static junit.framework.TestCase.assertTrue;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -77,6 +83,34 @@ public final class TaskExecutorThreadTest {
         verify(executorDriver).sendStatusUpdate(Protos.TaskStatus.newBuilder().setTaskId(taskInfo.getTaskId()).setState(Protos.TaskState.TASK_FINISHED).build());
     }
     
+    @Test
+    public void assertLaunchTransientTaskRepeatedly() throws NoSuchFieldException {
+        TaskInfo taskInfo = buildJavaTransientTaskInfo();
+        TaskExecutor taskExecutor = new TaskExecutor();
+        taskExecutor.new TaskThread(executorDriver, taskInfo).run();
+        Object cachedJob = getCachedJobs(taskExecutor).get("test_job");
+        taskExecutor.new TaskThread(executorDriver, taskInfo).run();
+        verify(executorDriver, times(2)).sendStatusUpdate(Protos.TaskStatus.newBuilder().setTaskId(taskInfo.getTaskId()).setState(Protos.TaskState.TASK_FINISHED).build());
+        assertThat(getCachedJobs(taskExecutor).size(), is(1));
+        assertThat(getCachedJobs(taskExecutor).get("test_job"), sameInstance(cachedJob));
+    }
+    
+    @Test
+    public void assertLaunchTransientTaskWithChangedJobConfig() throws NoSuchFieldException {
+        TaskExecutor taskExecutor = new TaskExecutor();
+        taskExecutor.new TaskThread(executorDriver, buildJavaTransientTaskInfo()).run();
+        Object cachedJob = getCachedJobs(taskExecutor).get("test_job");
+        Map<String, String> changedJobConfigurationContext = buildBaseJobConfigurationContextMapWithJobClassAndCron(TestJob.class.getCanonicalName(), "ignoredCron");
+        changedJobConfigurationContext.put("scriptCommandLine", "echo \"changed\"");
+        taskExecutor.new TaskThread(executorDriver, buildTaskInfo(changedJobConfigurationContext).build()).run();
+        assertThat(getCachedJobs(taskExecutor).size(), is(1));
+        assertThat(getCachedJobs(taskExecutor).get("test_job"), not(sameInstance(cachedJob)));
+    }
+    
+    private Map<?, ?> getCachedJobs(final TaskExecutor taskExecutor) throws NoSuchFieldException {
+        return ReflectionUtils.getFieldValue(taskExecutor, TaskExecutor.class.getDeclaredField("cachedJobs"));
+    }
+    
     @Test
     public void assertLaunchTaskWithWrongElasticJobClass() {
         TaskInfo taskInfo = buildWrongElasticJobClass();
@@ -0,0 +1,138 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.executor;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public final class TaskThreadPoolTest {
+    
+    @Mock
+    private ExecutorService executorService;
+    
+    private TaskThreadPool taskThreadPool;
+    
+    @Before
+    public void setUp() {
+        taskThreadPool = new TaskThreadPool(executorService, 4, 2);
+    }
+    
+    @Test
+    public void assertSubmitWithinCpuShare() {
+        assertTrue(taskThreadPool.submit(new TestQueuedTask("test_task", 1d)));
+        assertTrue(taskThreadPool.submit(new TestQueuedTask("test_task", 1d)));
+        verify(executorService, times(2)).execute(any(Runnable.class));
+        assertThat(taskThreadPool.getParallelism(), is(2));
+        assertThat(taskThreadPool.snapshot().get("running_tasks"), is(2L));
+    }
+    
+    @Test
+    public void assertSubmitOverCpuShare() {
+        TestQueuedTask queuedTask = new TestQueuedTask("test_task", 0.5d);
+        assertTrue(taskThreadPool.submit(new TestQueuedTask("test_task", 0.5d)));
+        assertTrue(taskThreadPool.submit(queuedTask));
+        ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService).execute(runnableCaptor.capture());
+        assertThat(taskThreadPool.getParallelism(), is(1));
+        assertThat(taskThreadPool.snapshot().get("waiting_tasks"), is(1L));
+        runnableCaptor.getValue().run();
+        verify(executorService, times(2)).execute(runnableCaptor.capture());
+        List<Runnable> runnables = runnableCaptor.getAllValues();
+        runnables.get(runnables.size() - 1).run();
+        assertTrue(queuedTask.isExecuted());
+        Map<String, Long> snapshot = taskThreadPool.snapshot();
+        assertThat(snapshot.get("running_tasks"), is(0L));
+        assertThat(snapshot.get("waiting_tasks"), is(0L));
+        assertThat(snapshot.get("queued_tasks"), is(1L));
+        assertThat(taskThreadPool.getParallelism(), is(1));
+    }
+    
+    @Test
+    public void assertSubmitWithMaxParallelism() {
+        for (int i = 0; i < 6; i++) {
+            assertTrue(taskThreadPool.submit(new TestQueuedTask("test_task", 1d)));
+        }
+        verify(executorService, times(4)).execute(any(Runnable.class));
+        assertThat(taskThreadPool.getParallelism(), is(4));
+        assertThat(taskThreadPool.snapshot().get("waiting_tasks"), is(2L));
+    }
+    
+    @Test
+    public void assertSubmitWhenWaitingQueueIsFull() {
+        assertTrue(taskThreadPool.submit(new TestQueuedTask("test_task", 0.1d)));
+        assertTrue(taskThreadPool.submit(new TestQueuedTask("test_task", 0.1d)));
+        assertTrue(taskThreadPool.submit(new TestQueuedTask("test_task", 0.1d)));
+        assertFalse(taskThreadPool.submit(new TestQueuedTask("test_task", 0.1d)));
+        assertThat(taskThreadPool.snapshot().get("rejected_tasks"), is(1L));
+    }
+    
+    @Test
+    public void assertCancelWaitingTask() {
+        TestQueuedTask cancelledTask = new TestQueuedTask("cancelled_task", 1d);
+        assertTrue(taskThreadPool.submit(new TestQueuedTask("running_task", 0.5d)));
+        assertTrue(taskThreadPool.submit(cancelledTask));
+        assertThat(taskThreadPool.getParallelism(), is(1));
+        assertTrue(taskThreadPool.cancel("cancelled_task"));
+        assertFalse(taskThreadPool.cancel("cancelled_task"));
+        assertFalse(taskThreadPool.cancel("running_task"));
+        ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService).execute(runnableCaptor.capture());
+        runnableCaptor.getValue().run();
+        verify(executorService).execute(any(Runnable.class));
+        assertFalse(cancelledTask.isExecuted());
+        assertThat(taskThreadPool.snapshot().get("waiting_tasks"), is(0L));
+        assertThat(taskThreadPool.getParallelism(), is(1));
+    }
+    
+    @RequiredArgsConstructor
+    private static final class TestQueuedTask implements TaskThreadPool.QueuedTask {
+        
+        @Getter
+        private final String taskId;
+        
+        @Getter
+        private final double cpus;
+        
+        @Getter
+        private boolean executed;
+        
+        @Override
+        public void run(final long queuedMilliseconds) {
+            executed = true;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.config;
+
+import com.dangdang.ddframe.job.cloud.scheduler.config.app.CloudAppConfiguration;
+import com.dangdang.ddframe.job.cloud.scheduler.config.app.CloudAppConfigurationGsonFactory;
+import com.dangdang.ddframe.job.cloud.scheduler.config.app.CloudAppConfigurationNode;
+import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfiguration;
+import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfigurationGsonFactory;
+import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfigurationNode;
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.google.common.base.Charsets;
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import lombok.RequiredArgsConstructor;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 云作业配置仓库.
+ * 
+ * <p>
+ * 同一注册中心的作业配置服务和App配置服务共享一个仓库.
+ * 配置节点由注册中心数据缓存监听, 解析后的配置对象按节点的修改版本缓存, 节点未变更时直接从内存读取, 无需再次解析.
+ * 未启用数据缓存时直接读取注册中心.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class CloudConfigurationRepository {
+    
+    private static final LoadingCache<CoordinatorRegistryCenter, CloudConfigurationRepository> INSTANCES = CacheBuilder.newBuilder().weakKeys().build(
+            new CacheLoader<CoordinatorRegistryCenter, CloudConfigurationRepository>() {
+                
+                @Override
+                public CloudConfigurationRepository load(final CoordinatorRegistryCenter regCenter) {
+                    return new CloudConfigurationRepository(regCenter);
+                }
+            });
+    
+    private final CoordinatorRegistryCenter regCenter;
+    
+    private final ConfigurationIndex<CloudJobConfiguration> jobConfigIndex;
+    
+    private final ConfigurationIndex<CloudAppConfiguration> appConfigIndex;
+    
+    private CloudConfigurationRepository(final CoordinatorRegistryCenter regCenter) {
+        this.regCenter = regCenter;
+        jobConfigIndex = new ConfigurationIndex<>(regCenter, CloudJobConfigurationNode.ROOT, new Function<String, CloudJobConfiguration>() {
+            
+            @Override
+            public CloudJobConfiguration apply(final String input) {
+                return CloudJobConfigurationGsonFactory.fromJson(input);
+            }
+        });
+        appConfigIndex = new ConfigurationIndex<>(regCenter, CloudAppConfigurationNode.ROOT, new Function<String, CloudAppConfiguration>() {
+            
+            @Override
+            public CloudAppConfiguration apply(final String input) {
+                return CloudAppConfigurationGsonFactory.fromJson(input);
+            }
+        });
+    }
+    
+    /**
+     * 获取注册中心对应的云作业配置仓库.
+     * 
+     * @param regCenter 注册中心
+     * @return 云作业配置仓库
+     */
+    public static CloudConfigurationRepository getInstance(final CoordinatorRegistryCenter regCenter) {
+        return INSTANCES.getUnchecked(regCenter);
+    }
+    
+    /**
+     * 启动配置节点的数据缓存.
+     */
+    public void start() {
+        startCache(CloudJobConfigurationNode.ROOT);
+        startCache(CloudAppConfigurationNode.ROOT);
+    }
+    
+    private void startCache(final String rootPath) {
+        if (null == regCenter.getRawCache(rootPath)) {
+            regCenter.addCacheData(rootPath);
+        }
+    }
+    
+    /**
+     * 根据作业名称获取云作业配置.
+     * 
+     * @param jobName 作业名称
+     * @return 云作业配置
+     */
+    public Optional<CloudJobConfiguration> loadJobConfiguration(final String jobName) {
+        return jobConfigIndex.load(jobName);
+    }
+    
+    /**
+     * 获取所有注册的云作业配置.
+     * 
+     * @return 注册的云作业配置
+     */
+    public Collection<CloudJobConfiguration> loadAllJobConfigurations() {
+        return jobConfigIndex.loadAll();
+    }
+    
+    /**
+     * 根据云作业App名称获取App配置.
+     * 
+     * @param appName 云作业App名称
+     * @return 云作业App配置
+     */
+    public Optional<CloudAppConfiguration> loadAppConfiguration(final String appName) {
+        return appConfigIndex.load(appName);
+    }
+    
+    /**
+     * 获取所有注册的云作业App配置.
+     * 
+     * @return 注册的云作业App配置
+     */
+    public Collection<CloudAppConfiguration> loadAllAppConfigurations() {
+        return appConfigIndex.loadAll();
+    }
+    
+    @RequiredArgsConstructor
+    private static final class ConfigurationIndex<T> {
+        
+        private final CoordinatorRegistryCenter regCenter;
+        
+        private final String rootPath;
+        
+        private final Function<String, T> parser;
+        
+        private final ConcurrentMap<String, VersionedConfiguration<T>> configurations = new ConcurrentHashMap<>();
+        
+        Optional<T> load(final String name) {
+            String path = rootPath + "/" + name;
+            TreeCache cache = (TreeCache) regCenter.getRawCache(rootPath);
+            ChildData data = null == cache ? null : cache.getCurrentData(path);
+            if (null == data) {
+                configurations.remove(name);
+                return Optional.fromNullable(parser.apply(regCenter.get(path)));
+            }
+            VersionedConfiguration<T> result = configurations.get(name);
+            if (null != result && result.version == data.getStat().getMzxid()) {
+                return Optional.fromNullable(result.configuration);
+            }
+            result = new VersionedConfiguration<>(data.getStat().getMzxid(), null == data.getData() ? null : parser.apply(new String(data.getData(), Charsets.UTF_8)));
+            configurations.put(name, result);
+            return Optional.fromNullable(result.configuration);
+        }
+        
+        Collection<T> loadAll() {
+            List<String> names = getNames();
+            Collection<T> result = new ArrayList<>(names.size());
+            for (String each : names) {
+                Optional<T> config = load(each);
+                if (config.isPresent()) {
+                    result.add(config.get());
+                }
+            }
+            return result;
+        }
+        
+        private List<String> getNames() {
+            TreeCache cache = (TreeCache) regCenter.getRawCache(rootPath);
+            Map<String, ChildData> children = null == cache ? null : cache.getCurrentChildren(rootPath);
+            if (null != children) {
+                configurations.keySet().retainAll(children.keySet());
+                return new ArrayList<>(children.keySet());
+            }
+            if (!regCenter.isExisted(rootPath)) {
+                return Collections.emptyList();
+            }
+            return regCenter.getChildrenKeys(rootPath);
+        }
+    }
+    
+    @RequiredArgsConstructor
+    private static final class VersionedConfiguration<T> {
+        
+        private final long version;
+        
+        private final T configuration;
+    }
+}
@@ -17,14 +17,12 @@
 
 package com.dangdang.ddframe.job.cloud.scheduler.config.app;
 
+import com.dangdang.ddframe.job.cloud.scheduler.config.CloudConfigurationRepository;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import com.google.common.base.Optional;
 import lombok.RequiredArgsConstructor;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
 
 /**
  * 云作业App配置服务.
@@ -61,7 +59,7 @@ public final class CloudAppConfigurationService {
      * @return 云作业App配置
      */
     public Optional<CloudAppConfiguration> load(final String appName) {
-        return Optional.fromNullable(CloudAppConfigurationGsonFactory.fromJson(regCenter.get(CloudAppConfigurationNode.getRootNodePath(appName))));
+        return CloudConfigurationRepository.getInstance(regCenter).loadAppConfiguration(appName);
     }
     
     /**
@@ -70,18 +68,7 @@ public final class CloudAppConfigurationService {
      * @return 注册的云作业App配置
      */
     public Collection<CloudAppConfiguration> loadAll() {
-        if (!regCenter.isExisted(CloudAppConfigurationNode.ROOT)) {
-            return Collections.emptyList();
-        }
-        List<String> appNames = regCenter.getChildrenKeys(CloudAppConfigurationNode.ROOT);
-        Collection<CloudAppConfiguration> result = new ArrayList<>(appNames.size());
-        for (String each : appNames) {
-            Optional<CloudAppConfiguration> config = load(each);
-            if (config.isPresent()) {
-                result.add(config.get());
-            }
-        }
-        return result;
+        return CloudConfigurationRepository.getInstance(regCenter).loadAllAppConfigurations();
     }
     
     /**
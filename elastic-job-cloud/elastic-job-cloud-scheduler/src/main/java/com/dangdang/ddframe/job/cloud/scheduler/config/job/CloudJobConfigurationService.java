@@ -17,14 +17,12 @@
 
 package com.dangdang.ddframe.job.cloud.scheduler.config.job;
 
+import com.dangdang.ddframe.job.cloud.scheduler.config.CloudConfigurationRepository;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import com.google.common.base.Optional;
 import lombok.RequiredArgsConstructor;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
 
 /**
  * 作业配置服务.
@@ -60,18 +58,7 @@ public final class CloudJobConfigurationService {
      * @return 注册的云作业配置
      */
     public Collection<CloudJobConfiguration> loadAll() {
-        if (!regCenter.isExisted(CloudJobConfigurationNode.ROOT)) {
-            return Collections.emptyList();
-        }
-        List<String> jobNames = regCenter.getChildrenKeys(CloudJobConfigurationNode.ROOT);
-        Collection<CloudJobConfiguration> result = new ArrayList<>(jobNames.size());
-        for (String each : jobNames) {
-            Optional<CloudJobConfiguration> config = load(each);
-            if (config.isPresent()) {
-                result.add(config.get());
-            }
-        }
-        return result;
+        return CloudConfigurationRepository.getInstance(regCenter).loadAllJobConfigurations();
     }
     
     /**
@@ -81,7 +68,7 @@ public final class CloudJobConfigurationService {
      * @return 云作业配置
      */
     public Optional<CloudJobConfiguration> load(final String jobName) {
-        return Optional.fromNullable(CloudJobConfigurationGsonFactory.fromJson(regCenter.get(CloudJobConfigurationNode.getRootNodePath(jobName))));
+        return CloudConfigurationRepository.getInstance(regCenter).loadJobConfiguration(jobName);
     }
     
     /**
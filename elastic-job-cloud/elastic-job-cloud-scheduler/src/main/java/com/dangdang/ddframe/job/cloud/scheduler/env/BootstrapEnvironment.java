@@ -121,7 +121,9 @@ public final class BootstrapEnvironment {
      * @return Mesos框架配置对象
      */
     public FrameworkConfiguration getFrameworkConfiguration() {
-        return new FrameworkConfiguration(Integer.parseInt(getValue(EnvironmentArgument.JOB_STATE_QUEUE_SIZE)), Integer.parseInt(getValue(EnvironmentArgument.RECONCILE_INTERVAL_MINUTES)));
+        return new FrameworkConfiguration(Integer.parseInt(getValue(EnvironmentArgument.JOB_STATE_QUEUE_SIZE)), Integer.parseInt(getValue(EnvironmentArgument.RECONCILE_INTERVAL_MINUTES)),
+                Integer.parseInt(getValue(EnvironmentArgument.IMPLICIT_RECONCILE_INTERVAL_MINUTES)), Integer.parseInt(getValue(EnvironmentArgument.RECONCILE_STALE_SECONDS)),
+                Integer.parseInt(getValue(EnvironmentArgument.RECONCILE_BATCH_SIZE)), Long.parseLong(getValue(EnvironmentArgument.RECONCILE_BATCH_INTERVAL_MILLISECONDS)));
     }
     
     /**
@@ -174,6 +176,19 @@ public final class BootstrapEnvironment {
         return Optional.of(role);
     }
     
+    /**
+     * 是否以紧凑格式编码任务数据.
+     * 
+     * <p>
+     * 紧凑格式仅能被新版本的执行器解析, 需在全部应用使用新版本执行器重新打包部署后开启.
+     * </p>
+     * 
+     * @return 是否以紧凑格式编码任务数据
+     */
+    public boolean isCompactTaskData() {
+        return Boolean.parseBoolean(getValue(EnvironmentArgument.COMPACT_TASK_DATA));
+    }
+    
     private String getValue(final EnvironmentArgument environmentArgument) {
         String result = properties.getProperty(environmentArgument.getKey(), environmentArgument.getDefaultValue());
         if (environmentArgument.isRequired()) {
@@ -217,7 +232,17 @@ public final class BootstrapEnvironment {
 
         EVENT_TRACE_RDB_PASSWORD("event_trace_rdb_password", "", false),
     
-        RECONCILE_INTERVAL_MINUTES("reconcile_interval_minutes", "-1", false);
+        RECONCILE_INTERVAL_MINUTES("reconcile_interval_minutes", "-1", false),
+        
+        IMPLICIT_RECONCILE_INTERVAL_MINUTES("implicit_reconcile_interval_minutes", "1440", false),
+        
+        RECONCILE_STALE_SECONDS("reconcile_stale_seconds", "300", false),
+        
+        RECONCILE_BATCH_SIZE("reconcile_batch_size", "1000", false),
+        
+        RECONCILE_BATCH_INTERVAL_MILLISECONDS("reconcile_batch_interval_milliseconds", "1000", false),
+        
+        COMPACT_TASK_DATA("compact_task_data", "false", false);
         
         private final String key;
         
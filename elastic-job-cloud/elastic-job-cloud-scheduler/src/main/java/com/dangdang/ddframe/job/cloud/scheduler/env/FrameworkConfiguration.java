@@ -33,6 +33,14 @@ public final class FrameworkConfiguration {
     
     private final int reconcileIntervalMinutes;
     
+    private final int implicitReconcileIntervalMinutes;
+    
+    private final int reconcileStaleSeconds;
+    
+    private final int reconcileBatchSize;
+    
+    private final long reconcileBatchIntervalMilliseconds;
+    
     /**
      * 是否启用协调服务.
      * 
@@ -34,16 +34,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.codehaus.jettison.json.JSONException;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * App目标slave适配度限制器.
  * 
  * <p>
  * 选择slave时需要考虑其上是否运行有App的executor,如果没有运行executor需要将其资源消耗考虑进适配计算算法中.
+ * 每轮调度中作业与App的配置仅加载一次, 各slave已分配任务的资源随分配过程增量累计.
  * </p>
  * 
  * @author gaohongtao
@@ -56,6 +58,14 @@ public final class AppConstraintEvaluator implements ConstraintEvaluator {
     
     private final Set<String> runningApps = new HashSet<>();
     
+    private final ConcurrentMap<String, SlaveAssignedResource> slaveAssignedResources = new ConcurrentHashMap<>();
+    
+    private final ConcurrentMap<String, AppResource> taskAppResources = new ConcurrentHashMap<>();
+    
+    private final ConcurrentMap<String, AppResource> jobAppResources = new ConcurrentHashMap<>();
+    
+    private final ConcurrentMap<String, Optional<CloudAppConfiguration>> appConfigs = new ConcurrentHashMap<>();
+    
     private final FacadeService facadeService;
     
     /**
@@ -84,6 +94,10 @@ public final class AppConstraintEvaluator implements ConstraintEvaluator {
     
     void clearAppRunningState() {
         runningApps.clear();
+        slaveAssignedResources.clear();
+        taskAppResources.clear();
+        jobAppResources.clear();
+        appConfigs.clear();
     }
     
     @Override
@@ -93,31 +107,27 @@ public final class AppConstraintEvaluator implements ConstraintEvaluator {
     
     @Override
     public Result evaluate(final TaskRequest taskRequest, final VirtualMachineCurrentState targetVM, final TaskTrackerState taskTrackerState) {
-        double assigningCpus = 0.0d;
-        double assigningMemoryMB = 0.0d;
+        double assigningCpus;
+        double assigningMemoryMB;
         final String slaveId = targetVM.getAllCurrentOffers().iterator().next().getSlaveId().getValue();
         try {
-            if (isAppRunningOnSlave(taskRequest.getId(), slaveId)) {
+            AppResource appResource = getAppResource(taskRequest.getId());
+            if (isAppRunningOnSlave(appResource, slaveId)) {
                 return new Result(true, "");
             }
-            Set<String> calculatedApps = new HashSet<>();
-            List<TaskRequest> taskRequests = new ArrayList<>(targetVM.getTasksCurrentlyAssigned().size() + 1);
-            taskRequests.add(taskRequest);
-            for (TaskAssignmentResult each : targetVM.getTasksCurrentlyAssigned()) {
-                taskRequests.add(each.getRequest());
-            }
-            for (TaskRequest each : taskRequests) {
-                assigningCpus += each.getCPUs();
-                assigningMemoryMB += each.getMemory();
-                if (isAppRunningOnSlave(each.getId(), slaveId)) {
-                    continue;
+            SlaveAssignedResource slaveAssignedResource = getSlaveAssignedResource(slaveId);
+            synchronized (slaveAssignedResource) {
+                slaveAssignedResource.refresh(targetVM.getTasksCurrentlyAssigned());
+                if (null != slaveAssignedResource.lackConfigException) {
+                    throw slaveAssignedResource.lackConfigException;
                 }
-                CloudAppConfiguration assigningAppConfig = getAppConfiguration(each.getId());
-                if (!calculatedApps.add(assigningAppConfig.getAppName())) {
-                    continue;
+                assigningCpus = slaveAssignedResource.cpus + taskRequest.getCPUs();
+                assigningMemoryMB = slaveAssignedResource.memoryMB + taskRequest.getMemory();
+                CloudAppConfiguration assigningAppConfig = appResource.getAppConfiguration();
+                if (!slaveAssignedResource.calculatedApps.contains(assigningAppConfig.getAppName())) {
+                    assigningCpus += assigningAppConfig.getCpuCount();
+                    assigningMemoryMB += assigningAppConfig.getMemoryMB();
                 }
-                assigningCpus += assigningAppConfig.getCpuCount();
-                assigningMemoryMB += assigningAppConfig.getMemoryMB();
             }
         } catch (final LackConfigException ex) {
             log.warn("Lack config, disable {}", getName(), ex);
@@ -137,30 +147,139 @@ public final class AppConstraintEvaluator implements ConstraintEvaluator {
                 .cpuCores(), assigningMemoryMB, targetVM.getCurrAvailableResources().memoryMB()));
     }
     
-    private boolean isAppRunningOnSlave(final String taskId, final String slaveId) throws LackConfigException {
-        TaskContext taskContext = TaskContext.from(taskId);
-        taskContext.setSlaveId(slaveId);
-        return runningApps.contains(taskContext.getExecutorId(getJobConfiguration(taskContext).getAppName()));
+    private boolean isAppRunningOnSlave(final AppResource appResource, final String slaveId) throws LackConfigException {
+        return runningApps.contains(TaskContext.getExecutorId(appResource.getAppName(), slaveId));
+    }
+    
+    private SlaveAssignedResource getSlaveAssignedResource(final String slaveId) {
+        SlaveAssignedResource result = slaveAssignedResources.get(slaveId);
+        if (null != result) {
+            return result;
+        }
+        SlaveAssignedResource created = new SlaveAssignedResource(slaveId);
+        result = slaveAssignedResources.putIfAbsent(slaveId, created);
+        return null == result ? created : result;
+    }
+    
+    private AppResource getAppResource(final String taskId) {
+        AppResource result = taskAppResources.get(taskId);
+        if (null == result) {
+            result = getJobAppResource(TaskContext.from(taskId).getMetaInfo().getJobName());
+            taskAppResources.putIfAbsent(taskId, result);
+        }
+        return result;
+    }
+    
+    private AppResource getJobAppResource(final String jobName) {
+        AppResource result = jobAppResources.get(jobName);
+        if (null == result) {
+            Optional<CloudJobConfiguration> jobConfigOptional = facadeService.load(jobName);
+            result = jobConfigOptional.isPresent() ? new AppResource(jobName, jobConfigOptional.get().getAppName(), getAppConfiguration(jobConfigOptional.get().getAppName()))
+                    : new AppResource(jobName, null, Optional.<CloudAppConfiguration>absent());
+            jobAppResources.putIfAbsent(jobName, result);
+        }
+        return result;
     }
     
-    private CloudAppConfiguration getAppConfiguration(final String taskId) throws LackConfigException {
-        CloudJobConfiguration jobConfig = getJobConfiguration(TaskContext.from(taskId));
-        Optional<CloudAppConfiguration> appConfigOptional = facadeService.loadAppConfig(jobConfig.getAppName());
-        if (!appConfigOptional.isPresent()) {
-            throw new LackConfigException("APP", jobConfig.getAppName());
+    private Optional<CloudAppConfiguration> getAppConfiguration(final String appName) {
+        Optional<CloudAppConfiguration> result = appConfigs.get(appName);
+        if (null == result) {
+            result = facadeService.loadAppConfig(appName);
+            appConfigs.putIfAbsent(appName, result);
         }
-        return appConfigOptional.get();
+        return result;
     }
     
-    private CloudJobConfiguration getJobConfiguration(final TaskContext taskContext) throws LackConfigException {
-        Optional<CloudJobConfiguration> jobConfigOptional = facadeService.load(taskContext.getMetaInfo().getJobName());
-        if (!jobConfigOptional.isPresent()) {
-            throw new LackConfigException("JOB", taskContext.getMetaInfo().getJobName());
+    /**
+     * 作业所属App的资源配置.
+     */
+    @RequiredArgsConstructor
+    private static final class AppResource {
+        
+        private final String jobName;
+        
+        private final String appName;
+        
+        private final Optional<CloudAppConfiguration> appConfig;
+        
+        String getAppName() throws LackConfigException {
+            if (null == appName) {
+                throw new LackConfigException("JOB", jobName);
+            }
+            return appName;
+        }
+        
+        CloudAppConfiguration getAppConfiguration() throws LackConfigException {
+            if (!appConfig.isPresent()) {
+                throw new LackConfigException("APP", getAppName());
+            }
+            return appConfig.get();
+        }
+    }
+    
+    /**
+     * Slave上本轮已分配任务的资源累计.
+     * 
+     * <p>
+     * Fenzo仅会向已分配任务集合中追加任务, 因此只需累加新增的任务即可得到已分配资源总量.
+     * </p>
+     */
+    @RequiredArgsConstructor
+    private final class SlaveAssignedResource {
+        
+        private final String slaveId;
+        
+        private final Set<String> assignedTaskIds = new HashSet<>();
+        
+        private final Set<String> calculatedApps = new HashSet<>();
+        
+        private double cpus;
+        
+        private double memoryMB;
+        
+        private LackConfigException lackConfigException;
+        
+        void refresh(final Collection<TaskAssignmentResult> tasksCurrentlyAssigned) {
+            if (tasksCurrentlyAssigned.size() == assignedTaskIds.size()) {
+                return;
+            }
+            if (tasksCurrentlyAssigned.size() < assignedTaskIds.size()) {
+                reset();
+            }
+            for (TaskAssignmentResult each : tasksCurrentlyAssigned) {
+                if (assignedTaskIds.add(each.getRequest().getId())) {
+                    add(each.getRequest());
+                }
+            }
+        }
+        
+        private void reset() {
+            assignedTaskIds.clear();
+            calculatedApps.clear();
+            cpus = 0.0d;
+            memoryMB = 0.0d;
+            lackConfigException = null;
+        }
+        
+        private void add(final TaskRequest taskRequest) {
+            cpus += taskRequest.getCPUs();
+            memoryMB += taskRequest.getMemory();
+            AppResource appResource = getAppResource(taskRequest.getId());
+            try {
+                if (isAppRunningOnSlave(appResource, slaveId) || calculatedApps.contains(appResource.getAppName())) {
+                    return;
+                }
+                CloudAppConfiguration appConfig = appResource.getAppConfiguration();
+                calculatedApps.add(appConfig.getAppName());
+                cpus += appConfig.getCpuCount();
+                memoryMB += appConfig.getMemoryMB();
+            } catch (final LackConfigException ex) {
+                lackConfigException = ex;
+            }
         }
-        return jobConfigOptional.get();
     }
     
-    private class LackConfigException extends Exception {
+    private static class LackConfigException extends Exception {
         
         LackConfigException(final String scope, final String configName) {
             super(String.format("Lack %s's config %s", scope, configName));
@@ -17,6 +17,7 @@
 
 package com.dangdang.ddframe.job.cloud.scheduler.mesos;
 
+import com.dangdang.ddframe.job.cloud.scheduler.config.CloudConfigurationRepository;
 import com.dangdang.ddframe.job.cloud.scheduler.config.app.CloudAppConfiguration;
 import com.dangdang.ddframe.job.cloud.scheduler.config.app.CloudAppConfigurationService;
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfiguration;
@@ -59,6 +60,8 @@ public final class FacadeService {
     
     private final CloudJobConfigurationService jobConfigService;
     
+    private final CloudConfigurationRepository configRepository;
+    
     private final ReadyService readyService;
     
     private final RunningService runningService;
@@ -74,6 +77,7 @@ public final class FacadeService {
     public FacadeService(final CoordinatorRegistryCenter regCenter) {
         appConfigService = new CloudAppConfigurationService(regCenter);
         jobConfigService = new CloudJobConfigurationService(regCenter);
+        configRepository = CloudConfigurationRepository.getInstance(regCenter);
         readyService = new ReadyService(regCenter);
         runningService = new RunningService(regCenter);
         failoverService = new FailoverService(regCenter);
@@ -87,7 +91,9 @@ public final class FacadeService {
      */
     public void start() {
         log.info("Elastic Job: Start facade service");
+        configRepository.start();
         runningService.start();
+        readyService.start();
     }
     
     /**
@@ -143,6 +149,15 @@ public final class FacadeService {
         runningService.add(taskContext);
     }
     
+    /**
+     * 将多个任务运行时上下文放入运行时队列.
+     *
+     * @param taskContexts 任务运行时上下文集合
+     */
+    public void addRunning(final Collection<TaskContext> taskContexts) {
+        runningService.add(taskContexts);
+    }
+    
     /**
      * 更新常驻作业运行状态.
      * 
@@ -162,6 +177,15 @@ public final class FacadeService {
         runningService.remove(taskContext);
     }
     
+    /**
+     * 将任务批量从运行时队列删除.
+     *
+     * @param taskContexts 任务运行时上下文集合
+     */
+    public void removeRunning(final Collection<TaskContext> taskContexts) {
+        runningService.remove(taskContexts);
+    }
+    
     /**
      * 记录失效转移队列.
      * 
@@ -345,5 +369,6 @@ public final class FacadeService {
         log.info("Elastic Job: Stop facade service");
         // TODO 停止作业调度
         runningService.clear();
+        readyService.stop();
     }
 }
@@ -24,12 +24,17 @@ import lombok.NoArgsConstructor;
 import org.apache.mesos.Protos;
 
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Map;
 
 /**
  * 资源预占队列.
+ * 
+ * <p>
+ * 资源按主机合并存放, 同一主机的资源在出栈时相邻, 重复的资源只保留一份, 被撤销的资源在出栈前即可移除.
+ * </p>
  *
  * @author zhangliang
  */
@@ -38,7 +43,9 @@ public final class LeasesQueue {
     
     private static final LeasesQueue INSTANCE = new LeasesQueue();
     
-    private final BlockingQueue<VirtualMachineLease> queue = new LinkedBlockingQueue<>();
+    private final Map<String, Map<String, VirtualMachineLease>> hostLeases = new LinkedHashMap<>();
+    
+    private int size;
     
     /**
      * 获取实例.
@@ -54,8 +61,45 @@ public final class LeasesQueue {
      *
      * @param offer 资源
      */
-    public void offer(final Protos.Offer offer) {
-        queue.offer(new VMLeaseObject(offer));
+    public synchronized void offer(final Protos.Offer offer) {
+        Map<String, VirtualMachineLease> leases = hostLeases.get(offer.getHostname());
+        if (null == leases) {
+            leases = new LinkedHashMap<>();
+            hostLeases.put(offer.getHostname(), leases);
+        }
+        if (null == leases.put(offer.getId().getValue(), new VMLeaseObject(offer))) {
+            size++;
+        }
+    }
+    
+    /**
+     * 撤销队列中尚未出栈的资源.
+     * 
+     * @param offerId 资源ID
+     * @return 资源是否仍在队列中
+     */
+    public synchronized boolean rescind(final String offerId) {
+        Iterator<Map<String, VirtualMachineLease>> iterator = hostLeases.values().iterator();
+        while (iterator.hasNext()) {
+            Map<String, VirtualMachineLease> leases = iterator.next();
+            if (null != leases.remove(offerId)) {
+                size--;
+                if (leases.isEmpty()) {
+                    iterator.remove();
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 获取队列中的资源数量.
+     * 
+     * @return 资源数量
+     */
+    public synchronized int size() {
+        return size;
     }
     
     /**
@@ -63,9 +107,13 @@ public final class LeasesQueue {
      * 
      * @return 队列资源集合
      */
-    public List<VirtualMachineLease> drainTo() {
-        List<VirtualMachineLease> result = new ArrayList<>(queue.size());
-        queue.drainTo(result);
+    public synchronized List<VirtualMachineLease> drainTo() {
+        List<VirtualMachineLease> result = new ArrayList<>(size);
+        for (Map<String, VirtualMachineLease> each : hostLeases.values()) {
+            result.addAll(each.values());
+        }
+        hostLeases.clear();
+        size = 0;
         return result;
     }
 }
@@ -20,16 +20,19 @@ package com.dangdang.ddframe.job.cloud.scheduler.mesos;
 import com.dangdang.ddframe.job.cloud.scheduler.env.BootstrapEnvironment;
 import com.dangdang.ddframe.job.cloud.scheduler.env.FrameworkConfiguration;
 import com.dangdang.ddframe.job.context.TaskContext;
-import com.google.common.base.Function;
-import com.google.common.collect.Collections2;
+import com.dangdang.ddframe.job.util.concurrent.BlockUtils;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.AbstractScheduledService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.mesos.Protos;
 import org.apache.mesos.SchedulerDriver;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
@@ -37,6 +40,11 @@ import java.util.concurrent.locks.ReentrantLock;
 /**
  * 协调Mesos与调度器之间的作业状态.
  * 
+ * <p>
+ * 定时协调仅针对超过阈值时间未收到状态更新的运行中任务, 协调请求按批次分页发送并在批次之间暂停, 协调开销随过期任务数而非集群规模增长.
+ * 隐式协调会使Mesos返回全部任务的状态, 因此仅在首次协调时以及按独立的更长间隔执行.
+ * </p>
+ * 
  * @author gaohongtao
  */
 @RequiredArgsConstructor
@@ -49,40 +57,73 @@ public class ReconcileService extends AbstractScheduledService {
     
     private final ReentrantLock lock = new ReentrantLock();
     
+    private long lastImplicitReconcileTime;
+    
     @Override
     protected void runOneIteration() throws Exception {
         lock.lock();
         try {
-            explicitReconcile();
-            implicitReconcile();
+            incrementalReconcile();
+            if (isImplicitReconcileDue()) {
+                implicitReconcile();
+            }
         } finally {
             lock.unlock();
         }
     }
     
+    private boolean isImplicitReconcileDue() {
+        if (0L == lastImplicitReconcileTime) {
+            return true;
+        }
+        int intervalMinutes = BootstrapEnvironment.getInstance().getFrameworkConfiguration().getImplicitReconcileIntervalMinutes();
+        return intervalMinutes > 0 && System.currentTimeMillis() - lastImplicitReconcileTime >= TimeUnit.MINUTES.toMillis(intervalMinutes);
+    }
+    
     /**
      * 全量的显示协调.
      */
     public void explicitReconcile() {
         lock.lock();
         try {
-            Set<TaskContext> runningTask = new HashSet<>();
-            for (Set<TaskContext> each : facadeService.getAllRunningTasks().values()) {
-                runningTask.addAll(each);
-            }
+            Set<TaskContext> runningTask = getRunningTasks();
             if (runningTask.isEmpty()) {
                 return;
             }
             log.info("Requesting {} tasks reconciliation with the Mesos master", runningTask.size());
-            schedulerDriver.reconcileTasks(Collections2.transform(runningTask, new Function<TaskContext, Protos.TaskStatus>() {
-                @Override
-                public Protos.TaskStatus apply(final TaskContext input) {
-                    return Protos.TaskStatus.newBuilder()
-                            .setTaskId(Protos.TaskID.newBuilder().setValue(input.getId()).build())
-                            .setSlaveId(Protos.SlaveID.newBuilder().setValue(input.getSlaveId()).build())
-                            .setState(Protos.TaskState.TASK_RUNNING).build();
+            reconcileInBatches(runningTask);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 增量的显示协调.
+     * 
+     * <p>
+     * 仅协调状态过期的运行中任务, 已发起协调的任务在下次过期前不再重复协调.
+     * </p>
+     */
+    public void incrementalReconcile() {
+        lock.lock();
+        try {
+            Set<TaskContext> runningTask = getRunningTasks();
+            TaskStatusTracker tracker = TaskStatusTracker.getInstance();
+            Set<String> runningTaskIds = new HashSet<>(runningTask.size());
+            List<TaskContext> staleTasks = new ArrayList<>();
+            long staleMillis = BootstrapEnvironment.getInstance().getFrameworkConfiguration().getReconcileStaleSeconds() * 1000L;
+            for (TaskContext each : runningTask) {
+                runningTaskIds.add(each.getId());
+                if (tracker.isStale(each.getId(), staleMillis)) {
+                    staleTasks.add(each);
                 }
-            }));
+            }
+            tracker.retain(runningTaskIds);
+            if (staleTasks.isEmpty()) {
+                return;
+            }
+            log.info("Requesting {} of {} running tasks reconciliation with the Mesos master", staleTasks.size(), runningTask.size());
+            reconcileInBatches(staleTasks);
         } finally {
             lock.unlock();
         }
@@ -95,11 +136,42 @@ public class ReconcileService extends AbstractScheduledService {
         lock.lock();
         try {
             schedulerDriver.reconcileTasks(Collections.<Protos.TaskStatus>emptyList());
+            lastImplicitReconcileTime = System.currentTimeMillis();
         } finally {
             lock.unlock();
         }
     }
     
+    private Set<TaskContext> getRunningTasks() {
+        Set<TaskContext> result = new HashSet<>();
+        for (Set<TaskContext> each : facadeService.getAllRunningTasks().values()) {
+            result.addAll(each);
+        }
+        return result;
+    }
+    
+    private void reconcileInBatches(final Collection<TaskContext> taskContexts) {
+        FrameworkConfiguration configuration = BootstrapEnvironment.getInstance().getFrameworkConfiguration();
+        List<List<TaskContext>> batches = Lists.partition(new ArrayList<>(taskContexts), Math.max(configuration.getReconcileBatchSize(), 1));
+        for (int i = 0; i < batches.size(); i++) {
+            if (i > 0) {
+                BlockUtils.sleep(configuration.getReconcileBatchIntervalMilliseconds());
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+            List<Protos.TaskStatus> taskStatuses = new ArrayList<>(batches.get(i).size());
+            for (TaskContext each : batches.get(i)) {
+                taskStatuses.add(Protos.TaskStatus.newBuilder()
+                        .setTaskId(Protos.TaskID.newBuilder().setValue(each.getId()).build())
+                        .setSlaveId(Protos.SlaveID.newBuilder().setValue(each.getSlaveId()).build())
+                        .setState(Protos.TaskState.TASK_RUNNING).build());
+                TaskStatusTracker.getInstance().touch(each.getId());
+            }
+            schedulerDriver.reconcileTasks(taskStatuses);
+        }
+    }
+    
     @Override
     protected Scheduler scheduler() {
         FrameworkConfiguration configuration = BootstrapEnvironment.getInstance().getFrameworkConfiguration();
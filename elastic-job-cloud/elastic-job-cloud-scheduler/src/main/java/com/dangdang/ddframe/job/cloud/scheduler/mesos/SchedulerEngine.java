@@ -18,30 +18,40 @@
 package com.dangdang.ddframe.job.cloud.scheduler.mesos;
 
 import com.dangdang.ddframe.job.cloud.scheduler.ha.FrameworkIDService;
+import com.dangdang.ddframe.job.cloud.scheduler.state.TaskLaunchSignal;
 import com.dangdang.ddframe.job.cloud.scheduler.statistics.StatisticManager;
 import com.dangdang.ddframe.job.context.TaskContext;
 import com.dangdang.ddframe.job.event.JobEventBus;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.Source;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.State;
+import com.dangdang.ddframe.job.util.concurrent.ExecutorServiceObject;
+import com.google.common.collect.Sets;
 import com.netflix.fenzo.TaskScheduler;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.mesos.Protos;
 import org.apache.mesos.Scheduler;
 import org.apache.mesos.SchedulerDriver;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 作业云引擎.
  *
  * @author zhangliang
  */
-@RequiredArgsConstructor
 @Slf4j
 public final class SchedulerEngine implements Scheduler {
     
+    private static final Set<Protos.TaskState> TERMINATED_STATES = Sets.immutableEnumSet(Protos.TaskState.TASK_FINISHED, Protos.TaskState.TASK_KILLED, 
+            Protos.TaskState.TASK_LOST, Protos.TaskState.TASK_DROPPED, Protos.TaskState.TASK_GONE, Protos.TaskState.TASK_GONE_BY_OPERATOR, 
+            Protos.TaskState.TASK_FAILED, Protos.TaskState.TASK_ERROR);
+    
     private final TaskScheduler taskScheduler;
     
     private final FacadeService facadeService;
@@ -52,6 +62,33 @@ public final class SchedulerEngine implements Scheduler {
     
     private final StatisticManager statisticManager;
     
+    private final ExecutorService taskStatusExecutor;
+    
+    private final TaskStatusDispatcher taskStatusDispatcher;
+    
+    public SchedulerEngine(final TaskScheduler taskScheduler, final FacadeService facadeService, final JobEventBus jobEventBus, 
+                           final FrameworkIDService frameworkIDService, final StatisticManager statisticManager) {
+        this(taskScheduler, facadeService, jobEventBus, frameworkIDService, statisticManager, 
+                new ExecutorServiceObject("cloud-task-status", Runtime.getRuntime().availableProcessors()).createExecutorService());
+    }
+    
+    SchedulerEngine(final TaskScheduler taskScheduler, final FacadeService facadeService, final JobEventBus jobEventBus, 
+                    final FrameworkIDService frameworkIDService, final StatisticManager statisticManager, final ExecutorService taskStatusExecutor) {
+        this.taskScheduler = taskScheduler;
+        this.facadeService = facadeService;
+        this.jobEventBus = jobEventBus;
+        this.frameworkIDService = frameworkIDService;
+        this.statisticManager = statisticManager;
+        this.taskStatusExecutor = taskStatusExecutor;
+        taskStatusDispatcher = new TaskStatusDispatcher(new TaskStatusDispatcher.TaskStatusHandler() {
+            
+            @Override
+            public void handle(final SchedulerDriver schedulerDriver, final List<Protos.TaskStatus> taskStatuses) {
+                updateTaskStatuses(schedulerDriver, taskStatuses);
+            }
+        }, taskStatusExecutor, Runtime.getRuntime().availableProcessors());
+    }
+    
     @Override
     public void registered(final SchedulerDriver schedulerDriver, final Protos.FrameworkID frameworkID, final Protos.MasterInfo masterInfo) {
         log.info("call registered");
@@ -71,44 +108,94 @@ public final class SchedulerEngine implements Scheduler {
     public void resourceOffers(final SchedulerDriver schedulerDriver, final List<Protos.Offer> offers) {
         for (Protos.Offer offer: offers) {
             log.trace("Adding offer {} from host {}", offer.getId(), offer.getHostname());
+            TaskLaunchMetrics.getInstance().recordOfferReceived(offer.getId().getValue());
             LeasesQueue.getInstance().offer(offer);
         }
+        TaskLaunchSignal.getInstance().signal();
     }
     
     @Override
     public void offerRescinded(final SchedulerDriver schedulerDriver, final Protos.OfferID offerID) {
         log.trace("call offerRescinded: {}", offerID);
-        taskScheduler.expireLease(offerID.getValue());
+        TaskLaunchMetrics.getInstance().recordOfferRemoved(offerID.getValue());
+        if (!LeasesQueue.getInstance().rescind(offerID.getValue())) {
+            taskScheduler.expireLease(offerID.getValue());
+        }
     }
     
     @Override
     public void statusUpdate(final SchedulerDriver schedulerDriver, final Protos.TaskStatus taskStatus) {
         String taskId = taskStatus.getTaskId().getValue();
-        TaskContext taskContext = TaskContext.from(taskId);
-        String jobName = taskContext.getMetaInfo().getJobName();
         log.trace("call statusUpdate task state is: {}, task id is: {}", taskStatus.getState(), taskId);
+        if (TERMINATED_STATES.contains(taskStatus.getState())) {
+            TaskLaunchMetrics.getInstance().recordTaskTerminated(taskId);
+            TaskStatusTracker.getInstance().remove(taskId);
+        } else {
+            if (Protos.TaskState.TASK_RUNNING == taskStatus.getState()) {
+                TaskLaunchMetrics.getInstance().recordTaskRunning(taskId);
+            }
+            TaskStatusTracker.getInstance().touch(taskId);
+        }
+        taskStatusDispatcher.dispatch(schedulerDriver, TaskContext.MetaInfo.from(taskId).getJobName(), taskStatus);
+    }
+    
+    private void updateTaskStatuses(final SchedulerDriver schedulerDriver, final List<Protos.TaskStatus> taskStatuses) {
+        List<TaskContext> taskContexts = new ArrayList<>(taskStatuses.size());
+        List<TaskContext> terminatedTaskContexts = new ArrayList<>(taskStatuses.size());
+        for (Protos.TaskStatus each : taskStatuses) {
+            TaskContext taskContext = TaskContext.from(each.getTaskId().getValue());
+            taskContexts.add(taskContext);
+            if (TERMINATED_STATES.contains(each.getState())) {
+                terminatedTaskContexts.add(taskContext);
+            }
+        }
+        if (!terminatedTaskContexts.isEmpty()) {
+            facadeService.removeRunning(terminatedTaskContexts);
+        }
+        Set<TaskContext> terminatedTaskContextSet = new HashSet<>(terminatedTaskContexts);
+        for (int i = 0; i < taskStatuses.size(); i++) {
+            Protos.TaskStatus each = taskStatuses.get(i);
+            try {
+                updateTaskStatus(schedulerDriver, each, taskContexts.get(i), terminatedTaskContextSet.contains(taskContexts.get(i)));
+                //CHECKSTYLE:OFF
+            } catch (final Exception ex) {
+                //CHECKSTYLE:ON
+                log.error("Elastic job: update task status error, task id is: {}", each.getTaskId().getValue(), ex);
+                continue;
+            }
+            schedulerDriver.acknowledgeStatusUpdate(each);
+        }
+    }
+    
+    private void updateTaskStatus(final SchedulerDriver schedulerDriver, final Protos.TaskStatus taskStatus, final TaskContext taskContext, final boolean terminatedInBatch) {
+        String taskId = taskStatus.getTaskId().getValue();
+        String jobName = taskContext.getMetaInfo().getJobName();
         jobEventBus.post(new JobStatusTraceEvent(jobName, taskContext.getId(), taskContext.getSlaveId(), Source.CLOUD_SCHEDULER, 
                 taskContext.getType(), String.valueOf(taskContext.getMetaInfo().getShardingItems()), State.valueOf(taskStatus.getState().name()), taskStatus.getMessage()));
         switch (taskStatus.getState()) {
             case TASK_RUNNING:
+                if (terminatedInBatch) {
+                    break;
+                }
                 if (!facadeService.load(jobName).isPresent()) {
                     schedulerDriver.killTask(Protos.TaskID.newBuilder().setValue(taskId).build());
                 }
                 if ("BEGIN".equals(taskStatus.getMessage())) {
                     facadeService.updateDaemonStatus(taskContext, false);
+                    statisticManager.taskStarted(taskContext);
                 } else if ("COMPLETE".equals(taskStatus.getMessage())) {
                     facadeService.updateDaemonStatus(taskContext, true);
-                    statisticManager.taskRunSuccessfully();
+                    statisticManager.taskRunSuccessfully(taskContext);
+                } else {
+                    statisticManager.taskStarted(taskContext);
                 }
                 break;
             case TASK_FINISHED:
-                facadeService.removeRunning(taskContext);
                 unAssignTask(taskId);
-                statisticManager.taskRunSuccessfully();
+                statisticManager.taskRunSuccessfully(taskContext);
                 break;
             case TASK_KILLED:
                 log.warn("task id is: {}, status is: {}, message is: {}, source is: {}", taskId, taskStatus.getState(), taskStatus.getMessage(), taskStatus.getSource());
-                facadeService.removeRunning(taskContext);
                 facadeService.addDaemonJobToReadyQueue(jobName);
                 unAssignTask(taskId);
                 break;
@@ -119,15 +206,14 @@ public final class SchedulerEngine implements Scheduler {
             case TASK_FAILED:
             case TASK_ERROR:
                 log.warn("task id is: {}, status is: {}, message is: {}, source is: {}", taskId, taskStatus.getState(), taskStatus.getMessage(), taskStatus.getSource());
-                facadeService.removeRunning(taskContext);
                 facadeService.recordFailoverTask(taskContext);
                 unAssignTask(taskId);
-                statisticManager.taskRunFailed();
+                statisticManager.taskRunFailed(taskContext);
                 break;
             case TASK_UNKNOWN:
             case TASK_UNREACHABLE:
                 log.error("task id is: {}, status is: {}, message is: {}, source is: {}", taskId, taskStatus.getState(), taskStatus.getMessage(), taskStatus.getSource());
-                statisticManager.taskRunFailed();
+                statisticManager.taskRunFailed(taskContext);
                 break;
             default:
                 break;
@@ -141,6 +227,28 @@ public final class SchedulerEngine implements Scheduler {
         }
     }
     
+    /**
+     * 停止处理任务状态更新.
+     * 
+     * <p>
+     * 尚未处理的状态更新未被确认, Mesos会将其重新发送给下一个注册的调度器.
+     * </p>
+     */
+    public void shutdown() {
+        taskStatusExecutor.shutdownNow();
+    }
+    
+    /**
+     * 等待正在处理的任务状态更新结束.
+     * 
+     * @param timeoutMilliseconds 等待超时毫秒数
+     * @return 是否在超时前结束
+     * @throws InterruptedException 等待被中断
+     */
+    public boolean awaitTermination(final long timeoutMilliseconds) throws InterruptedException {
+        return taskStatusExecutor.awaitTermination(timeoutMilliseconds, TimeUnit.MILLISECONDS);
+    }
+    
     @Override
     public void frameworkMessage(final SchedulerDriver schedulerDriver, final Protos.ExecutorID executorID, final Protos.SlaveID slaveID, final byte[] bytes) {
         log.trace("call frameworkMessage slaveID: {}, bytes: {}", slaveID, new String(bytes));
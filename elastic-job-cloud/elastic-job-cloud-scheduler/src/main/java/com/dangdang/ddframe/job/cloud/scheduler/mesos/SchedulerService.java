@@ -57,6 +57,8 @@ public final class SchedulerService {
     
     private final FacadeService facadeService;
     
+    private final SchedulerEngine schedulerEngine;
+    
     private final SchedulerDriver schedulerDriver;
     
     private final ProducerManager producerManager;
@@ -77,7 +79,9 @@ public final class SchedulerService {
         statisticManager = StatisticManager.getInstance(regCenter, env.getJobEventRdbConfiguration());
         TaskScheduler taskScheduler = getTaskScheduler();
         JobEventBus jobEventBus = getJobEventBus();
-        schedulerDriver = getSchedulerDriver(taskScheduler, jobEventBus, new FrameworkIDService(regCenter));
+        FrameworkIDService frameworkIDService = new FrameworkIDService(regCenter);
+        schedulerEngine = new SchedulerEngine(taskScheduler, facadeService, jobEventBus, frameworkIDService, statisticManager);
+        schedulerDriver = getSchedulerDriver(frameworkIDService);
         producerManager = new ProducerManager(schedulerDriver, regCenter);
         cloudJobConfigurationListener =  new CloudJobConfigurationListener(regCenter, producerManager);
         taskLaunchScheduledService = new TaskLaunchScheduledService(schedulerDriver, taskScheduler, facadeService, jobEventBus);
@@ -85,7 +89,7 @@ public final class SchedulerService {
         restfulService = new RestfulService(regCenter, env.getRestfulServerConfiguration(), producerManager, reconcileService);
     }
     
-    private SchedulerDriver getSchedulerDriver(final TaskScheduler taskScheduler, final JobEventBus jobEventBus, final FrameworkIDService frameworkIDService) {
+    private SchedulerDriver getSchedulerDriver(final FrameworkIDService frameworkIDService) {
         Optional<String> frameworkIDOptional = frameworkIDService.fetch();
         Protos.FrameworkInfo.Builder builder = Protos.FrameworkInfo.newBuilder();
         if (frameworkIDOptional.isPresent()) {
@@ -102,7 +106,7 @@ public final class SchedulerService {
         Protos.FrameworkInfo frameworkInfo = builder.setUser(mesosConfig.getUser()).setName(frameworkName)
                 .setHostname(mesosConfig.getHostname()).setFailoverTimeout(FRAMEWORK_FAILOVER_TIMEOUT_SECONDS)
                 .setWebuiUrl(WEB_UI_PROTOCOL + env.getFrameworkHostPort()).setCheckpoint(true).build();
-        return new MesosSchedulerDriver(new SchedulerEngine(taskScheduler, facadeService, jobEventBus, frameworkIDService, statisticManager), frameworkInfo, mesosConfig.getUrl());
+        return new MesosSchedulerDriver(schedulerEngine, frameworkInfo, mesosConfig.getUrl(), false);
     }
     
     private TaskScheduler getTaskScheduler() {
@@ -152,6 +156,7 @@ public final class SchedulerService {
         statisticManager.shutdown();
         producerManager.shutdown();
         schedulerDriver.stop(true);
+        schedulerEngine.shutdown();
         facadeService.stop();
         if (env.getFrameworkConfiguration().isEnabledReconcile()) {
             reconcileService.stopAsync();
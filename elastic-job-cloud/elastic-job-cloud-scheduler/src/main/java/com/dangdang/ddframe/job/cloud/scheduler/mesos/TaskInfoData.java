@@ -21,8 +21,12 @@ import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfiguration
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobExecutionType;
 import com.dangdang.ddframe.job.config.dataflow.DataflowJobConfiguration;
 import com.dangdang.ddframe.job.config.script.ScriptJobConfiguration;
+import com.dangdang.ddframe.job.context.TaskDataCodec;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
 import com.dangdang.ddframe.job.executor.handler.JobProperties;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.SerializationUtils;
 
@@ -31,29 +35,57 @@ import java.util.Map;
 
 /**
  * 随任务传递的数据.
+ * 
+ * <p>
+ * 作业配置上下文按作业配置版本构建一次, 同一版本的所有任务共享.
+ * 默认使用所有版本执行器均可解析的Java序列化格式, 开启紧凑格式后共享编码后的片段, 紧凑格式仅能被新版本执行器解析.
+ * </p>
  *
  * @author zhangliang
  */
 @RequiredArgsConstructor
 public final class TaskInfoData {
     
+    private static final LoadingCache<CloudJobConfiguration, Map<String, String>> JOB_CONFIG_CONTEXTS = CacheBuilder.newBuilder().weakKeys().build(
+            new CacheLoader<CloudJobConfiguration, Map<String, String>>() {
+                
+                @Override
+                public Map<String, String> load(final CloudJobConfiguration jobConfig) {
+                    return buildJobConfigurationContext(jobConfig);
+                }
+            });
+    
+    private static final LoadingCache<CloudJobConfiguration, byte[]> JOB_CONFIG_CONTEXT_FRAGMENTS = CacheBuilder.newBuilder().weakKeys().build(
+            new CacheLoader<CloudJobConfiguration, byte[]>() {
+                
+                @Override
+                public byte[] load(final CloudJobConfiguration jobConfig) {
+                    return TaskDataCodec.encodeJobConfigContext(JOB_CONFIG_CONTEXTS.getUnchecked(jobConfig));
+                }
+            });
+    
     private final ShardingContexts shardingContexts;
     
     private final CloudJobConfiguration jobConfig;
     
+    private final boolean compact;
+    
     /**
      * 序列化.
      * 
      * @return 序列化后的字节数组
      */
     public byte[] serialize() {
+        if (compact) {
+            return TaskDataCodec.encode(shardingContexts, JOB_CONFIG_CONTEXT_FRAGMENTS.getUnchecked(jobConfig));
+        }
         LinkedHashMap<String, Object> result = new LinkedHashMap<>(2, 1);
-        result.put("shardingContext", shardingContexts);
-        result.put("jobConfigContext", buildJobConfigurationContext());
+        result.put(TaskDataCodec.SHARDING_CONTEXT_KEY, shardingContexts);
+        result.put(TaskDataCodec.JOB_CONFIG_CONTEXT_KEY, JOB_CONFIG_CONTEXTS.getUnchecked(jobConfig));
         return SerializationUtils.serialize(result);
     }
     
-    private Map<String, String> buildJobConfigurationContext() {
+    private static Map<String, String> buildJobConfigurationContext(final CloudJobConfiguration jobConfig) {
         Map<String, String> result = new LinkedHashMap<>(16, 1);
         result.put("jobType", jobConfig.getTypeConfig().getJobType().name());
         result.put("jobName", jobConfig.getJobName());
@@ -0,0 +1,287 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.mesos;
+
+import com.dangdang.ddframe.job.cloud.scheduler.statistics.LatencyHistogram;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.netflix.fenzo.VirtualMachineLease;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.mesos.Protos;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 任务提交指标.
+ * 
+ * <p>
+ * 记录每轮任务提交中各阶段的耗时, 以及资源从到达调度器到任务首次运行的各段延迟, 指标自调度器启动后累计.
+ * 资源到达时间和任务提交时间只保存有限数量和时长, 超出后对应的延迟不再记录.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TaskLaunchMetrics {
+    
+    private static final TaskLaunchMetrics INSTANCE = new TaskLaunchMetrics();
+    
+    private static final int MAX_TRACKED_OFFERS = 10000;
+    
+    private static final int MAX_TRACKED_TASKS = 100000;
+    
+    private static final long TRACKING_EXPIRE_HOURS = 1L;
+    
+    private final AtomicLong roundCount = new AtomicLong();
+    
+    private final AtomicLong launchedTaskCount = new AtomicLong();
+    
+    private final AtomicLong idleRoundCount = new AtomicLong();
+    
+    private final AtomicLong declinedOfferCount = new AtomicLong();
+    
+    private final Map<Stage, LatencyMetrics> stageMetricsMap = createLatencyMetricsMap(Stage.class);
+    
+    private final Map<Hop, LatencyMetrics> hopMetricsMap = createLatencyMetricsMap(Hop.class);
+    
+    private final LatencyHistogram roundTasks = new LatencyHistogram();
+    
+    private final LatencyHistogram roundOffers = new LatencyHistogram();
+    
+    private final Cache<String, Long> offerReceivedTimes = CacheBuilder.newBuilder()
+            .maximumSize(MAX_TRACKED_OFFERS).expireAfterWrite(TRACKING_EXPIRE_HOURS, TimeUnit.HOURS).build();
+    
+    private final Cache<String, long[]> taskLaunchedTimes = CacheBuilder.newBuilder()
+            .maximumSize(MAX_TRACKED_TASKS).expireAfterWrite(TRACKING_EXPIRE_HOURS, TimeUnit.HOURS).build();
+    
+    /**
+     * 获取任务提交指标实例.
+     * 
+     * @return 任务提交指标实例
+     */
+    public static TaskLaunchMetrics getInstance() {
+        return INSTANCE;
+    }
+    
+    private static <T extends Enum<T>> Map<T, LatencyMetrics> createLatencyMetricsMap(final Class<T> keyType) {
+        Map<T, LatencyMetrics> result = new EnumMap<>(keyType);
+        for (T each : keyType.getEnumConstants()) {
+            result.put(each, new LatencyMetrics());
+        }
+        return result;
+    }
+    
+    /**
+     * 记录阶段耗时.
+     * 
+     * @param stage 任务提交阶段
+     * @param milliseconds 耗时毫秒数
+     */
+    void recordStage(final Stage stage, final long milliseconds) {
+        stageMetricsMap.get(stage).record(milliseconds);
+    }
+    
+    /**
+     * 记录一轮任务提交.
+     * 
+     * @param launchedTasks 本轮提交的任务数量
+     * @param offers 本轮参与调度的资源数量
+     * @param milliseconds 本轮开始至任务提交完成的毫秒数
+     */
+    void recordRound(final int launchedTasks, final int offers, final long milliseconds) {
+        roundCount.incrementAndGet();
+        launchedTaskCount.addAndGet(launchedTasks);
+        roundTasks.record(launchedTasks);
+        roundOffers.record(offers);
+        hopMetricsMap.get(Hop.ROUND_TO_LAUNCH).record(milliseconds);
+    }
+    
+    /**
+     * 记录一轮无待运行任务的空闲调度.
+     * 
+     * @param declinedOffers 本轮拒绝的资源数量
+     */
+    void recordIdleRound(final int declinedOffers) {
+        idleRoundCount.incrementAndGet();
+        declinedOfferCount.addAndGet(declinedOffers);
+    }
+    
+    /**
+     * 记录资源到达.
+     * 
+     * @param offerId 资源ID
+     */
+    void recordOfferReceived(final String offerId) {
+        offerReceivedTimes.put(offerId, System.currentTimeMillis());
+    }
+    
+    /**
+     * 记录资源从队列中取出.
+     * 
+     * @param leases 取出的资源集合
+     */
+    void recordOffersDrained(final Collection<VirtualMachineLease> leases) {
+        long now = System.currentTimeMillis();
+        for (VirtualMachineLease each : leases) {
+            Long receivedTime = offerReceivedTimes.getIfPresent(each.getId());
+            if (null != receivedTime) {
+                hopMetricsMap.get(Hop.OFFER_WAIT).record(now - receivedTime);
+            }
+        }
+    }
+    
+    /**
+     * 记录资源不再可用.
+     * 
+     * @param offerId 资源ID
+     */
+    void recordOfferRemoved(final String offerId) {
+        offerReceivedTimes.invalidate(offerId);
+    }
+    
+    /**
+     * 记录任务提交至Mesos.
+     * 
+     * @param offerIds 任务使用的资源ID集合
+     * @param taskInfos 任务集合
+     */
+    void recordTasksLaunched(final Collection<Protos.OfferID> offerIds, final Collection<Protos.TaskInfo> taskInfos) {
+        long now = System.currentTimeMillis();
+        long offerReceivedTime = now;
+        for (Protos.OfferID each : offerIds) {
+            Long receivedTime = offerReceivedTimes.getIfPresent(each.getValue());
+            if (null != receivedTime) {
+                offerReceivedTime = Math.min(offerReceivedTime, receivedTime);
+                offerReceivedTimes.invalidate(each.getValue());
+            }
+        }
+        for (Protos.TaskInfo each : taskInfos) {
+            taskLaunchedTimes.put(each.getTaskId().getValue(), new long[] {now, offerReceivedTime});
+        }
+    }
+    
+    /**
+     * 记录任务运行.
+     * 
+     * <p>只记录提交后的首次运行状态.</p>
+     * 
+     * @param taskId 任务ID
+     */
+    void recordTaskRunning(final String taskId) {
+        long[] launchedTimes = taskLaunchedTimes.asMap().remove(taskId);
+        if (null == launchedTimes) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        hopMetricsMap.get(Hop.LAUNCH_TO_RUNNING).record(now - launchedTimes[0]);
+        hopMetricsMap.get(Hop.OFFER_TO_RUNNING).record(now - launchedTimes[1]);
+    }
+    
+    /**
+     * 记录任务终止.
+     * 
+     * @param taskId 任务ID
+     */
+    void recordTaskTerminated(final String taskId) {
+        taskLaunchedTimes.invalidate(taskId);
+    }
+    
+    /**
+     * 获取指标快照.
+     * 
+     * @return 指标名称和值的映射
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> result = new LinkedHashMap<>(Stage.values().length * 6 + Hop.values().length * 6 + 10, 1);
+        long rounds = roundCount.get();
+        result.put("round_count", rounds);
+        result.put("launched_task_count", launchedTaskCount.get());
+        result.put("idle_round_count", idleRoundCount.get());
+        result.put("declined_offer_count", declinedOfferCount.get());
+        putCountSnapshot(result, "round_tasks", roundTasks.snapshot());
+        putCountSnapshot(result, "round_offers", roundOffers.snapshot());
+        for (Map.Entry<Stage, LatencyMetrics> entry : stageMetricsMap.entrySet()) {
+            String prefix = entry.getKey().name().toLowerCase();
+            result.put(prefix + "_last_ms", entry.getValue().lastMilliseconds.get());
+            putLatencySnapshot(result, prefix, entry.getValue().histogram.snapshot());
+        }
+        for (Map.Entry<Hop, LatencyMetrics> entry : hopMetricsMap.entrySet()) {
+            String prefix = entry.getKey().name().toLowerCase();
+            LatencyHistogram.Snapshot snapshot = entry.getValue().histogram.snapshot();
+            result.put(prefix + "_count", snapshot.getCount());
+            putLatencySnapshot(result, prefix, snapshot);
+        }
+        return result;
+    }
+    
+    private void putCountSnapshot(final Map<String, Long> result, final String prefix, final LatencyHistogram.Snapshot snapshot) {
+        result.put(prefix + "_avg", snapshot.getMean());
+        result.put(prefix + "_p50", snapshot.getPercentile(50d));
+        result.put(prefix + "_p99", snapshot.getPercentile(99d));
+        result.put(prefix + "_max", snapshot.getMax());
+    }
+    
+    private void putLatencySnapshot(final Map<String, Long> result, final String prefix, final LatencyHistogram.Snapshot snapshot) {
+        result.put(prefix + "_avg_ms", snapshot.getMean());
+        result.put(prefix + "_p50_ms", snapshot.getPercentile(50d));
+        result.put(prefix + "_p90_ms", snapshot.getPercentile(90d));
+        result.put(prefix + "_p99_ms", snapshot.getPercentile(99d));
+        result.put(prefix + "_max_ms", snapshot.getMax());
+    }
+    
+    /**
+     * 任务提交阶段.
+     */
+    public enum Stage {
+        
+        GATHER, SCHEDULE, VALIDATE, BUILD, LAUNCH
+    }
+    
+    /**
+     * 资源到达至任务运行的延迟区段.
+     * 
+     * <ul>
+     *     <li>OFFER_WAIT: 资源到达至被调度取出.</li>
+     *     <li>ROUND_TO_LAUNCH: 一轮调度开始至任务提交完成.</li>
+     *     <li>LAUNCH_TO_RUNNING: 任务提交至首次运行.</li>
+     *     <li>OFFER_TO_RUNNING: 任务使用的资源到达至任务首次运行.</li>
+     * </ul>
+     */
+    public enum Hop {
+        
+        OFFER_WAIT, ROUND_TO_LAUNCH, LAUNCH_TO_RUNNING, OFFER_TO_RUNNING
+    }
+    
+    private static final class LatencyMetrics {
+        
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        
+        private final AtomicLong lastMilliseconds = new AtomicLong();
+        
+        void record(final long milliseconds) {
+            histogram.record(milliseconds);
+            lastMilliseconds.set(milliseconds);
+        }
+    }
+}
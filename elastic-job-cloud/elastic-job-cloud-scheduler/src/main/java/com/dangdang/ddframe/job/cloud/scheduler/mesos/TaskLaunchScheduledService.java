@@ -19,9 +19,11 @@ package com.dangdang.ddframe.job.cloud.scheduler.mesos;
 
 import com.dangdang.ddframe.job.api.JobType;
 import com.dangdang.ddframe.job.cloud.scheduler.env.BootstrapEnvironment;
+import com.dangdang.ddframe.job.cloud.scheduler.mesos.TaskLaunchMetrics.Stage;
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfiguration;
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobExecutionType;
 import com.dangdang.ddframe.job.cloud.scheduler.config.app.CloudAppConfiguration;
+import com.dangdang.ddframe.job.cloud.scheduler.state.TaskLaunchSignal;
 import com.dangdang.ddframe.job.config.script.ScriptJobConfiguration;
 import com.dangdang.ddframe.job.context.ExecutionType;
 import com.dangdang.ddframe.job.context.TaskContext;
@@ -29,13 +31,16 @@ import com.dangdang.ddframe.job.event.JobEventBus;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.Source;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
+import com.dangdang.ddframe.job.util.concurrent.ExecutorServiceObject;
 import com.dangdang.ddframe.job.util.config.ShardingItemParameters;
 import com.dangdang.ddframe.job.util.json.GsonFactory;
-import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Iterables;
-import com.google.common.util.concurrent.AbstractScheduledService;
+import com.google.common.util.concurrent.AbstractExecutionThreadService;
 import com.google.protobuf.ByteString;
 import com.netflix.fenzo.TaskAssignmentResult;
 import com.netflix.fenzo.TaskRequest;
@@ -54,21 +59,40 @@ import org.apache.mesos.SchedulerDriver;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
  * 任务提交调度服务.
  * 
+ * <p>
+ * 作业进入队列或收到新资源时立即进行下一轮调度, 两轮调度之间至少间隔最小调度间隔, 以便合并高负载时的调度请求.
+ * 无任务提交时调度间隔逐轮倍增直至最大调度间隔.
+ * 没有待运行任务时拒绝新收到的资源, 再次出现待运行任务时请求Mesos重新提供资源.
+ * </p>
+ * 
  * @author zhangliang
  * @author gaohongtao
  */
 @RequiredArgsConstructor
 @Slf4j
-public final class TaskLaunchScheduledService extends AbstractScheduledService {
+public final class TaskLaunchScheduledService extends AbstractExecutionThreadService {
+    
+    private static final int SCRIPT_COMMAND_LINE_CACHE_SIZE = 1024;
+    
+    private static final long MIN_LAUNCH_INTERVAL_MILLISECONDS = 100L;
+    
+    private static final long MAX_LAUNCH_INTERVAL_MILLISECONDS = 10000L;
+    
+    private static final Protos.Filters IDLE_OFFER_FILTERS = Protos.Filters.newBuilder().setRefuseSeconds(30D).build();
     
     private final SchedulerDriver schedulerDriver;
     
@@ -80,75 +104,186 @@ public final class TaskLaunchScheduledService extends AbstractScheduledService {
     
     private final BootstrapEnvironment env = BootstrapEnvironment.getInstance();
     
+    private final TaskLaunchMetrics launchMetrics = TaskLaunchMetrics.getInstance();
+    
+    private final TaskLaunchSignal launchSignal = TaskLaunchSignal.getInstance();
+    
+    private final LoadingCache<CloudJobConfiguration, Map<Integer, String>> shardingItemParametersCache = CacheBuilder.newBuilder().weakKeys().build(
+            new CacheLoader<CloudJobConfiguration, Map<Integer, String>>() {
+                
+                @Override
+                public Map<Integer, String> load(final CloudJobConfiguration jobConfig) {
+                    return new ShardingItemParameters(jobConfig.getTypeConfig().getCoreConfig().getShardingItemParameters()).getMap();
+                }
+            });
+    
+    private final LoadingCache<String, String> scriptCommandLineCache = CacheBuilder.newBuilder().maximumSize(SCRIPT_COMMAND_LINE_CACHE_SIZE).build(
+            new CacheLoader<String, String>() {
+                
+                @Override
+                public String load(final String script) {
+                    CommandLine commandLine = CommandLine.parse(script);
+                    StringBuilder result = new StringBuilder(commandLine.getExecutable());
+                    for (String each : commandLine.getArguments()) {
+                        result.append(' ').append(each);
+                    }
+                    return result.toString();
+                }
+            });
+    
+    private volatile ByteString jobEventRdbConfigurationData;
+    
+    private ExecutorService taskInfoBuildExecutor;
+    
+    private long launchInterval = MIN_LAUNCH_INTERVAL_MILLISECONDS;
+    
+    private boolean offersDeclined;
+    
     @Override
     protected String serviceName() {
         return "task-launch-processor";
     }
     
-    @Override
-    protected Scheduler scheduler() {
-        return Scheduler.newFixedDelaySchedule(2, 10, TimeUnit.SECONDS);
-    }
-    
     @Override
     protected void startUp() throws Exception {
         log.info("Elastic Job: Start {}", serviceName());
         AppConstraintEvaluator.init(facadeService);
+        taskInfoBuildExecutor = new ExecutorServiceObject("task-info-builder", Runtime.getRuntime().availableProcessors()).createExecutorService();
     }
     
     @Override
     protected void shutDown() throws Exception {
         log.info("Elastic Job: Stop {}", serviceName());
+        taskInfoBuildExecutor.shutdown();
     }
     
     @Override
-    protected void runOneIteration() throws Exception {
+    protected void run() throws Exception {
+        while (isRunning()) {
+            launchSignal.await(launchInterval, TimeUnit.MILLISECONDS);
+            if (!isRunning()) {
+                return;
+            }
+            long startTime = System.currentTimeMillis();
+            launchInterval = runOneIteration() > 0 ? MIN_LAUNCH_INTERVAL_MILLISECONDS : Math.min(launchInterval * 2, MAX_LAUNCH_INTERVAL_MILLISECONDS);
+            long elapsed = System.currentTimeMillis() - startTime;
+            if (elapsed < MIN_LAUNCH_INTERVAL_MILLISECONDS) {
+                Thread.sleep(MIN_LAUNCH_INTERVAL_MILLISECONDS - elapsed);
+            }
+        }
+    }
+    
+    @Override
+    protected void triggerShutdown() {
+        launchSignal.signal();
+    }
+    
+    int runOneIteration() {
         try {
+            long roundStartTime = System.currentTimeMillis();
+            long startTime = roundStartTime;
             LaunchingTasks launchingTasks = new LaunchingTasks(facadeService.getEligibleJobContext());
             List<TaskRequest> taskRequests = launchingTasks.getPendingTasks();
-            if (!taskRequests.isEmpty()) {
-                AppConstraintEvaluator.getInstance().loadAppRunningState();
+            if (taskRequests.isEmpty()) {
+                declineIdleOffers();
+                return 0;
+            }
+            if (offersDeclined) {
+                offersDeclined = false;
+                schedulerDriver.reviveOffers();
             }
-            Collection<VMAssignmentResult> vmAssignmentResults = taskScheduler.scheduleOnce(taskRequests, LeasesQueue.getInstance().drainTo()).getResultMap().values();
+            AppConstraintEvaluator.getInstance().loadAppRunningState();
+            List<VirtualMachineLease> leases = LeasesQueue.getInstance().drainTo();
+            launchMetrics.recordOffersDrained(leases);
+            startTime = recordStage(Stage.GATHER, startTime);
+            Collection<VMAssignmentResult> vmAssignmentResults = taskScheduler.scheduleOnce(taskRequests, leases).getResultMap().values();
+            startTime = recordStage(Stage.SCHEDULE, startTime);
+            Collection<String> integrityViolationJobs = launchingTasks.getIntegrityViolationJobs(vmAssignmentResults);
+            startTime = recordStage(Stage.VALIDATE, startTime);
             List<TaskContext> taskContextsList = new LinkedList<>();
             Map<List<Protos.OfferID>, List<Protos.TaskInfo>> offerIdTaskInfoMap = new HashMap<>();
-            for (VMAssignmentResult each: vmAssignmentResults) {
-                List<VirtualMachineLease> leasesUsed = each.getLeasesUsed();
-                List<Protos.TaskInfo> taskInfoList = new ArrayList<>(each.getTasksAssigned().size() * 10);
-                taskInfoList.addAll(getTaskInfoList(launchingTasks.getIntegrityViolationJobs(vmAssignmentResults), each, leasesUsed.get(0).hostname(), leasesUsed.get(0).getOffer()));
-                for (Protos.TaskInfo taskInfo : taskInfoList) {
-                    taskContextsList.add(TaskContext.from(taskInfo.getTaskId().getValue()));
+            for (Entry<VMAssignmentResult, Map<TaskAssignmentResult, Protos.TaskInfo>> entry : buildTaskInfos(integrityViolationJobs, vmAssignmentResults).entrySet()) {
+                List<VirtualMachineLease> leasesUsed = entry.getKey().getLeasesUsed();
+                String hostname = leasesUsed.get(0).hostname();
+                List<Protos.TaskInfo> taskInfoList = new ArrayList<>(entry.getValue().size());
+                for (Entry<TaskAssignmentResult, Protos.TaskInfo> each : entry.getValue().entrySet()) {
+                    taskInfoList.add(each.getValue());
+                    facadeService.addMapping(each.getValue().getTaskId().getValue(), hostname);
+                    taskScheduler.getTaskAssigner().call(each.getKey().getRequest(), hostname);
+                    taskContextsList.add(TaskContext.from(each.getValue().getTaskId().getValue()));
                 }
                 offerIdTaskInfoMap.put(getOfferIDs(leasesUsed), taskInfoList);
             }
+            startTime = recordStage(Stage.BUILD, startTime);
+            facadeService.addRunning(taskContextsList);
             for (TaskContext each : taskContextsList) {
-                facadeService.addRunning(each);
                 jobEventBus.post(createJobStatusTraceEvent(each));
             }
             facadeService.removeLaunchTasksFromQueue(taskContextsList);
             for (Entry<List<OfferID>, List<TaskInfo>> each : offerIdTaskInfoMap.entrySet()) {
                 schedulerDriver.launchTasks(each.getKey(), each.getValue());
+                launchMetrics.recordTasksLaunched(each.getKey(), each.getValue());
             }
+            long endTime = recordStage(Stage.LAUNCH, startTime);
+            launchMetrics.recordRound(taskContextsList.size(), leases.size(), endTime - roundStartTime);
+            return taskContextsList.size();
             //CHECKSTYLE:OFF
         } catch (Throwable throwable) {
             //CHECKSTYLE:ON
             log.error("Launch task error", throwable);
+            return 0;
         } finally {
             AppConstraintEvaluator.getInstance().clearAppRunningState();
         }
     }
     
-    private List<Protos.TaskInfo> getTaskInfoList(final Collection<String> integrityViolationJobs, final VMAssignmentResult vmAssignmentResult, final String hostname, final Protos.Offer offer) {
-        List<Protos.TaskInfo> result = new ArrayList<>(vmAssignmentResult.getTasksAssigned().size());
+    private void declineIdleOffers() {
+        List<VirtualMachineLease> leases = LeasesQueue.getInstance().drainTo();
+        launchMetrics.recordOffersDrained(leases);
+        for (VirtualMachineLease each : leases) {
+            schedulerDriver.declineOffer(each.getOffer().getId(), IDLE_OFFER_FILTERS);
+            launchMetrics.recordOfferRemoved(each.getId());
+        }
+        if (!leases.isEmpty()) {
+            offersDeclined = true;
+        }
+        launchMetrics.recordIdleRound(leases.size());
+    }
+    
+    private long recordStage(final Stage stage, final long startTime) {
+        long result = System.currentTimeMillis();
+        launchMetrics.recordStage(stage, result - startTime);
+        return result;
+    }
+    
+    private Map<VMAssignmentResult, Map<TaskAssignmentResult, Protos.TaskInfo>> buildTaskInfos(
+            final Collection<String> integrityViolationJobs, final Collection<VMAssignmentResult> vmAssignmentResults) throws InterruptedException, ExecutionException {
+        Map<VMAssignmentResult, Future<Map<TaskAssignmentResult, Protos.TaskInfo>>> futures = new LinkedHashMap<>(vmAssignmentResults.size(), 1);
+        for (final VMAssignmentResult each : vmAssignmentResults) {
+            futures.put(each, taskInfoBuildExecutor.submit(new Callable<Map<TaskAssignmentResult, Protos.TaskInfo>>() {
+                
+                @Override
+                public Map<TaskAssignmentResult, Protos.TaskInfo> call() throws Exception {
+                    return getTaskInfoMap(integrityViolationJobs, each, each.getLeasesUsed().get(0).getOffer());
+                }
+            }));
+        }
+        Map<VMAssignmentResult, Map<TaskAssignmentResult, Protos.TaskInfo>> result = new LinkedHashMap<>(futures.size(), 1);
+        for (Entry<VMAssignmentResult, Future<Map<TaskAssignmentResult, Protos.TaskInfo>>> entry : futures.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        return result;
+    }
+    
+    private Map<TaskAssignmentResult, Protos.TaskInfo> getTaskInfoMap(final Collection<String> integrityViolationJobs, final VMAssignmentResult vmAssignmentResult, final Protos.Offer offer) {
+        Map<TaskAssignmentResult, Protos.TaskInfo> result = new LinkedHashMap<>(vmAssignmentResult.getTasksAssigned().size(), 1);
         for (TaskAssignmentResult each: vmAssignmentResult.getTasksAssigned()) {
             TaskContext taskContext = TaskContext.from(each.getTaskId());
             String jobName = taskContext.getMetaInfo().getJobName();
             if (!integrityViolationJobs.contains(jobName) && !facadeService.isRunning(taskContext) && !facadeService.isJobDisabled(jobName)) {
                 Protos.TaskInfo taskInfo = getTaskInfo(offer, each);
                 if (null != taskInfo) {
-                    result.add(taskInfo);
-                    facadeService.addMapping(taskInfo.getTaskId().getValue(), hostname);
-                    taskScheduler.getTaskAssigner().call(each.getRequest(), hostname);
+                    result.put(each, taskInfo);
                 }
             }
         }
@@ -184,7 +319,7 @@ public final class TaskLaunchScheduledService extends AbstractScheduledService {
     }
     
     private ShardingContexts getShardingContexts(final TaskContext taskContext, final CloudAppConfiguration appConfig, final CloudJobConfiguration jobConfig) {
-        Map<Integer, String> shardingItemParameters = new ShardingItemParameters(jobConfig.getTypeConfig().getCoreConfig().getShardingItemParameters()).getMap();
+        Map<Integer, String> shardingItemParameters = shardingItemParametersCache.getUnchecked(jobConfig);
         Map<Integer, String> assignedShardingItemParameters = new HashMap<>(1, 1);
         int shardingItem = taskContext.getMetaInfo().getShardingItems().get(0);
         assignedShardingItemParameters.put(shardingItem, shardingItemParameters.containsKey(shardingItem) ? shardingItemParameters.get(shardingItem) : "");
@@ -198,7 +333,7 @@ public final class TaskLaunchScheduledService extends AbstractScheduledService {
                 .setName(taskContext.getTaskName()).setSlaveId(offer.getSlaveId())
                 .addResources(buildResource("cpus", jobConfig.getCpuCount(), offer.getResourcesList()))
                 .addResources(buildResource("mem", jobConfig.getMemoryMB(), offer.getResourcesList()))
-                .setData(ByteString.copyFrom(new TaskInfoData(shardingContexts, jobConfig).serialize()));
+                .setData(ByteString.copyFrom(new TaskInfoData(shardingContexts, jobConfig, env.isCompactTaskData()).serialize()));
         return result.setCommand(command).build();
     }
     
@@ -208,17 +343,24 @@ public final class TaskLaunchScheduledService extends AbstractScheduledService {
                 .setName(taskContext.getTaskName()).setSlaveId(offer.getSlaveId())
                 .addResources(buildResource("cpus", jobConfig.getCpuCount(), offer.getResourcesList()))
                 .addResources(buildResource("mem", jobConfig.getMemoryMB(), offer.getResourcesList()))
-                .setData(ByteString.copyFrom(new TaskInfoData(shardingContexts, jobConfig).serialize()));
+                .setData(ByteString.copyFrom(new TaskInfoData(shardingContexts, jobConfig, env.isCompactTaskData()).serialize()));
         Protos.ExecutorInfo.Builder executorBuilder = Protos.ExecutorInfo.newBuilder().setExecutorId(Protos.ExecutorID.newBuilder()
                 .setValue(taskContext.getExecutorId(jobConfig.getAppName()))).setCommand(command)
                 .addResources(buildResource("cpus", appConfig.getCpuCount(), offer.getResourcesList()))
                 .addResources(buildResource("mem", appConfig.getMemoryMB(), offer.getResourcesList()));
         if (env.getJobEventRdbConfiguration().isPresent()) {
-            executorBuilder.setData(ByteString.copyFrom(SerializationUtils.serialize(env.getJobEventRdbConfigurationMap()))).build();
+            executorBuilder.setData(getJobEventRdbConfigurationData());
         }
         return result.setExecutor(executorBuilder.build()).build();
     }
     
+    private ByteString getJobEventRdbConfigurationData() {
+        if (null == jobEventRdbConfigurationData) {
+            jobEventRdbConfigurationData = ByteString.copyFrom(SerializationUtils.serialize(env.getJobEventRdbConfigurationMap()));
+        }
+        return jobEventRdbConfigurationData;
+    }
+    
     private Protos.CommandInfo.URI buildURI(final CloudAppConfiguration appConfig, final boolean isCommandExecutor) {
         Protos.CommandInfo.URI.Builder result = Protos.CommandInfo.URI.newBuilder().setValue(appConfig.getAppURL()).setCache(appConfig.isAppCacheEnable());
         if (isCommandExecutor && !SupportedExtractionType.isExtraction(appConfig.getAppURL())) {
@@ -232,9 +374,7 @@ public final class TaskLaunchScheduledService extends AbstractScheduledService {
     private Protos.CommandInfo buildCommand(final Protos.CommandInfo.URI uri, final String script, final ShardingContexts shardingContexts, final boolean isCommandExecutor) {
         Protos.CommandInfo.Builder result = Protos.CommandInfo.newBuilder().addUris(uri).setShell(true);
         if (isCommandExecutor) {
-            CommandLine commandLine = CommandLine.parse(script);
-            commandLine.addArgument(GsonFactory.getGson().toJson(shardingContexts), false);
-            result.setValue(Joiner.on(" ").join(commandLine.getExecutable(), Joiner.on(" ").join(commandLine.getArguments())));
+            result.setValue(scriptCommandLineCache.getUnchecked(script) + " " + GsonFactory.getGson().toJson(shardingContexts));
         } else {
             result.setValue(script);
         }
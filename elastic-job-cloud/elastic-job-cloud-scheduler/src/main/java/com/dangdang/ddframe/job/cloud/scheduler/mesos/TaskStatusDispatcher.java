@@ -0,0 +1,125 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.mesos;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.mesos.Protos;
+import org.apache.mesos.SchedulerDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 任务状态更新分发器.
+ * 
+ * <p>
+ * 状态更新按作业名称分配到固定数量的分区, 同一分区的状态更新按接收顺序串行地批量处理, 不同分区之间并行处理.
+ * 处理过程不占用Mesos回调线程.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Slf4j
+final class TaskStatusDispatcher {
+    
+    private static final int MAX_BATCH_SIZE = 256;
+    
+    private final TaskStatusHandler taskStatusHandler;
+    
+    private final ExecutorService executorService;
+    
+    private final List<Partition> partitions;
+    
+    private volatile SchedulerDriver schedulerDriver;
+    
+    TaskStatusDispatcher(final TaskStatusHandler taskStatusHandler, final ExecutorService executorService, final int partitionCount) {
+        this.taskStatusHandler = taskStatusHandler;
+        this.executorService = executorService;
+        partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new Partition());
+        }
+    }
+    
+    /**
+     * 分发任务状态更新.
+     * 
+     * @param schedulerDriver 调度器驱动
+     * @param jobName 作业名称
+     * @param taskStatus 任务状态
+     */
+    void dispatch(final SchedulerDriver schedulerDriver, final String jobName, final Protos.TaskStatus taskStatus) {
+        this.schedulerDriver = schedulerDriver;
+        partitions.get((jobName.hashCode() & Integer.MAX_VALUE) % partitions.size()).offer(taskStatus);
+    }
+    
+    /**
+     * 任务状态处理器.
+     */
+    interface TaskStatusHandler {
+        
+        /**
+         * 处理同一分区中按接收顺序排列的一批任务状态.
+         * 
+         * @param schedulerDriver 调度器驱动
+         * @param taskStatuses 任务状态集合
+         */
+        void handle(SchedulerDriver schedulerDriver, List<Protos.TaskStatus> taskStatuses);
+    }
+    
+    private final class Partition implements Runnable {
+        
+        private final BlockingQueue<Protos.TaskStatus> queue = new LinkedBlockingQueue<>();
+        
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        
+        void offer(final Protos.TaskStatus taskStatus) {
+            queue.offer(taskStatus);
+            if (scheduled.compareAndSet(false, true)) {
+                executorService.execute(this);
+            }
+        }
+        
+        @Override
+        public void run() {
+            List<Protos.TaskStatus> batch = new ArrayList<>(MAX_BATCH_SIZE);
+            while (true) {
+                queue.drainTo(batch, MAX_BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    scheduled.set(false);
+                    if (queue.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    taskStatusHandler.handle(schedulerDriver, batch);
+                    //CHECKSTYLE:OFF
+                } catch (final Throwable throwable) {
+                    //CHECKSTYLE:ON
+                    log.error("Elastic job: handle task status error", throwable);
+                }
+                batch.clear();
+            }
+        }
+    }
+}
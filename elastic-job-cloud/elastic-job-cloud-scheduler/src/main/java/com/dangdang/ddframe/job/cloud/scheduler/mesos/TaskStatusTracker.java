@@ -0,0 +1,109 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.mesos;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 任务状态时间跟踪器.
+ * 
+ * <p>
+ * 记录每个运行中任务最近一次收到状态更新或发起协调的时间, 供增量协调筛选状态过期的任务.
+ * 首次被查询的任务以查询时间作为起点, 调度器重启或新提交的任务因此不会被立即协调.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TaskStatusTracker {
+    
+    private static final TaskStatusTracker INSTANCE = new TaskStatusTracker();
+    
+    private final ConcurrentMap<String, Long> lastStatusTimes = new ConcurrentHashMap<>();
+    
+    /**
+     * 获取实例.
+     * 
+     * @return 单例对象
+     */
+    public static TaskStatusTracker getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * 记录任务状态时间.
+     * 
+     * @param taskId 任务主键
+     */
+    public void touch(final String taskId) {
+        touch(taskId, System.currentTimeMillis());
+    }
+    
+    void touch(final String taskId, final long timestamp) {
+        lastStatusTimes.put(taskId, timestamp);
+    }
+    
+    /**
+     * 移除任务状态时间.
+     * 
+     * @param taskId 任务主键
+     */
+    public void remove(final String taskId) {
+        lastStatusTimes.remove(taskId);
+    }
+    
+    /**
+     * 判断任务状态是否过期.
+     * 
+     * @param taskId 任务主键
+     * @param staleMillis 过期阈值毫秒数
+     * @return 任务状态是否过期
+     */
+    public boolean isStale(final String taskId, final long staleMillis) {
+        long now = System.currentTimeMillis();
+        Long lastStatusTime = lastStatusTimes.putIfAbsent(taskId, now);
+        return null != lastStatusTime && now - lastStatusTime >= staleMillis;
+    }
+    
+    /**
+     * 仅保留运行中任务的状态时间.
+     * 
+     * <p>
+     * 用于清理未收到终止状态的任务.
+     * </p>
+     * 
+     * @param runningTaskIds 运行中任务主键集合
+     */
+    public void retain(final Collection<String> runningTaskIds) {
+        lastStatusTimes.keySet().retainAll(runningTaskIds);
+    }
+    
+    /**
+     * 获取跟踪的任务数量.
+     * 
+     * @return 跟踪的任务数量
+     */
+    public int size() {
+        return lastStatusTimes.size();
+    }
+}
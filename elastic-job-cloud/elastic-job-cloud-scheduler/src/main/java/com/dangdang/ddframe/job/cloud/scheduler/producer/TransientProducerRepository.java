@@ -19,50 +19,91 @@ package com.dangdang.ddframe.job.cloud.scheduler.producer;
 
 import org.quartz.JobKey;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * 瞬时作业生成器数据访问对象.
+ * 
+ * <p>
+ * 作业名称到作业生成器的反向索引使注册和注销无需遍历全部生成器, 读写均无需加锁.
+ * 同一作业的放入和移除须由调用方串行执行, 否则并发的移除可能使作业残留在作业生成器中.
+ * </p>
  *
  * @author caohao
  * @author zhangliang
  */
 final class TransientProducerRepository {
     
-    private final ConcurrentHashMap<JobKey, List<String>> cronTasks = new ConcurrentHashMap<>(256, 1);
+    private final ConcurrentMap<JobKey, Set<String>> cronTasks = new ConcurrentHashMap<>(256, 1);
     
-    synchronized void put(final JobKey jobKey, final String jobName) {
-        remove(jobName);
-        List<String> taskList = cronTasks.get(jobKey);
-        if (null == taskList) {
-            taskList = new CopyOnWriteArrayList<>();
-            taskList.add(jobName);
-            cronTasks.put(jobKey, taskList);
-            return;
+    private final ConcurrentMap<String, JobKey> jobKeys = new ConcurrentHashMap<>(256, 1);
+    
+    /**
+     * 将作业放入作业生成器.
+     * 
+     * @param jobKey 作业生成器主键
+     * @param jobName 作业名称
+     * @return 作业此前所在的其他作业生成器主键, 不存在则返回null
+     */
+    JobKey put(final JobKey jobKey, final String jobName) {
+        JobKey result = jobKeys.put(jobName, jobKey);
+        if (null != result && !result.equals(jobKey)) {
+            removeFromCron(result, jobName);
         }
-        if (!taskList.contains(jobName)) {
-            taskList.add(jobName);
+        addToCron(jobKey, jobName);
+        return null == result || result.equals(jobKey) ? null : result;
+    }
+    
+    private void addToCron(final JobKey jobKey, final String jobName) {
+        while (true) {
+            Set<String> jobNames = getOrCreateJobNames(jobKey);
+            jobNames.add(jobName);
+            if (jobNames == cronTasks.get(jobKey)) {
+                return;
+            }
         }
     }
     
-    synchronized void remove(final String jobName) {
-        for (Entry<JobKey, List<String>> each : cronTasks.entrySet()) {
-            JobKey jobKey = each.getKey();
-            List<String> jobNames = each.getValue();
-            jobNames.remove(jobName);
-            if (jobNames.isEmpty()) {
-                cronTasks.remove(jobKey);
+    private Set<String> getOrCreateJobNames(final JobKey jobKey) {
+        Set<String> result = cronTasks.get(jobKey);
+        if (null != result) {
+            return result;
+        }
+        Set<String> created = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        result = cronTasks.putIfAbsent(jobKey, created);
+        return null == result ? created : result;
+    }
+    
+    void remove(final String jobName) {
+        JobKey jobKey = jobKeys.remove(jobName);
+        if (null != jobKey) {
+            removeFromCron(jobKey, jobName);
+        }
+    }
+    
+    private void removeFromCron(final JobKey jobKey, final String jobName) {
+        Set<String> jobNames = cronTasks.get(jobKey);
+        if (null == jobNames) {
+            return;
+        }
+        jobNames.remove(jobName);
+        if (jobNames.isEmpty() && cronTasks.remove(jobKey, jobNames)) {
+            for (String each : jobNames) {
+                if (jobKey.equals(jobKeys.get(each))) {
+                    addToCron(jobKey, each);
+                }
             }
         }
     }
     
     List<String> get(final JobKey jobKey) {
-        List<String> result = cronTasks.get(jobKey);
-        return null == result ? Collections.<String>emptyList() : result;
+        Set<String> result = cronTasks.get(jobKey);
+        return null == result ? Collections.<String>emptyList() : new ArrayList<>(result);
     }
     
     boolean containsKey(final JobKey jobKey) {
@@ -71,5 +112,6 @@ final class TransientProducerRepository {
     
     void removeAll() {
         cronTasks.clear();
+        jobKeys.clear();
     }
 }
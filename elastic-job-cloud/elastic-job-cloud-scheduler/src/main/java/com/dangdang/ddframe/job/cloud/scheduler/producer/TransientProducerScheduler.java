@@ -20,6 +20,7 @@ package com.dangdang.ddframe.job.cloud.scheduler.producer;
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfiguration;
 import com.dangdang.ddframe.job.cloud.scheduler.state.ready.ReadyService;
 import com.dangdang.ddframe.job.exception.JobSystemException;
+import com.google.common.util.concurrent.Striped;
 import lombok.Setter;
 import org.quartz.CronScheduleBuilder;
 import org.quartz.Job;
@@ -39,18 +40,32 @@ import org.quartz.simpl.SimpleThreadPool;
 
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.locks.Lock;
 
 /**
  * 发布瞬时作业任务的调度器.
+ * 
+ * <p>
+ * 注册和注销仅对同一作业和同一cron表达式的操作加锁, 不同作业可并发注册, 同一作业的注册和注销串行执行.
+ * 每次触发将该cron表达式的全部作业批量放入待执行队列.
+ * </p>
  *
  * @author caohao
  */
 final class TransientProducerScheduler {
     
+    private static final int JOB_LOCK_STRIPES = 64;
+    
+    private static final int CRON_LOCK_STRIPES = 64;
+    
     private final TransientProducerRepository repository;
     
     private final ReadyService readyService;
     
+    private final Striped<Lock> jobLocks = Striped.lock(JOB_LOCK_STRIPES);
+    
+    private final Striped<Lock> cronLocks = Striped.lock(CRON_LOCK_STRIPES);
+    
     private Scheduler scheduler;
     
     TransientProducerScheduler(final ReadyService readyService) {
@@ -87,17 +102,34 @@ final class TransientProducerScheduler {
         return result;
     }
     
-    // TODO 并发优化
-    synchronized void register(final CloudJobConfiguration jobConfig) {
+    void register(final CloudJobConfiguration jobConfig) {
+        Lock jobLock = jobLocks.get(jobConfig.getJobName());
+        jobLock.lock();
+        try {
+            registerWithJobLock(jobConfig);
+        } finally {
+            jobLock.unlock();
+        }
+    }
+    
+    private void registerWithJobLock(final CloudJobConfiguration jobConfig) {
         String cron = jobConfig.getTypeConfig().getCoreConfig().getCron();
         JobKey jobKey = buildJobKey(cron);
-        repository.put(jobKey, jobConfig.getJobName());
+        JobKey previousJobKey;
+        Lock lock = cronLocks.get(cron);
+        lock.lock();
         try {
+            previousJobKey = repository.put(jobKey, jobConfig.getJobName());
             if (!scheduler.checkExists(jobKey)) {
                 scheduler.scheduleJob(buildJobDetail(jobKey), buildTrigger(jobKey.getName()));
             }
         } catch (final SchedulerException ex) {
             throw new JobSystemException(ex);
+        } finally {
+            lock.unlock();
+        }
+        if (null != previousJobKey) {
+            unscheduleIfEmpty(previousJobKey.getName());
         }
     }
     
@@ -112,15 +144,28 @@ final class TransientProducerScheduler {
         return TriggerBuilder.newTrigger().withIdentity(cron).withSchedule(CronScheduleBuilder.cronSchedule(cron).withMisfireHandlingInstructionDoNothing()).build();
     }
     
-    synchronized void deregister(final CloudJobConfiguration jobConfig) {
-        repository.remove(jobConfig.getJobName());
-        String cron = jobConfig.getTypeConfig().getCoreConfig().getCron();
-        if (!repository.containsKey(buildJobKey(cron))) {
-            try {
+    void deregister(final CloudJobConfiguration jobConfig) {
+        Lock jobLock = jobLocks.get(jobConfig.getJobName());
+        jobLock.lock();
+        try {
+            repository.remove(jobConfig.getJobName());
+            unscheduleIfEmpty(jobConfig.getTypeConfig().getCoreConfig().getCron());
+        } finally {
+            jobLock.unlock();
+        }
+    }
+    
+    private void unscheduleIfEmpty(final String cron) {
+        Lock lock = cronLocks.get(cron);
+        lock.lock();
+        try {
+            if (!repository.containsKey(buildJobKey(cron))) {
                 scheduler.unscheduleJob(TriggerKey.triggerKey(cron));
-            } catch (final SchedulerException ex) {
-                throw new JobSystemException(ex);
             }
+        } catch (final SchedulerException ex) {
+            throw new JobSystemException(ex);
+        } finally {
+            lock.unlock();
         }
     }
     
@@ -149,8 +194,8 @@ final class TransientProducerScheduler {
         @Override
         public void execute(final JobExecutionContext context) throws JobExecutionException {
             List<String> jobNames = repository.get(context.getJobDetail().getKey());
-            for (String each : jobNames) {
-                readyService.addTransient(each);
+            if (!jobNames.isEmpty()) {
+                readyService.addTransient(jobNames);
             }
         }
     }
@@ -37,6 +37,7 @@ import com.dangdang.ddframe.job.exception.JobSystemException;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import com.dangdang.ddframe.job.statistics.StatisticInterval;
 import com.dangdang.ddframe.job.statistics.type.job.JobExecutionTypeStatistics;
+import com.dangdang.ddframe.job.statistics.type.job.JobPerformanceStatistics;
 import com.dangdang.ddframe.job.statistics.type.job.JobRegisterStatistics;
 import com.dangdang.ddframe.job.statistics.type.job.JobRunningStatistics;
 import com.dangdang.ddframe.job.statistics.type.job.JobTypeStatistics;
@@ -483,4 +484,28 @@ public final class CloudJobRestfulApi {
     public List<JobRegisterStatistics> findJobRegisterStatistics() {
         return statisticManager.findJobRegisterStatisticsSinceOnline();
     }
+    
+    /**
+     * 获取作业或应用的性能统计数据集合.
+     * 
+     * @param dimension 统计维度
+     * @param name 作业名称或应用名称
+     * @param since 时间跨度
+     * @return 性能统计数据集合
+     */
+    @GET
+    @Path("/statistics/performance/{dimension}/{name}")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public List<JobPerformanceStatistics> findJobPerformanceStatistics(@PathParam("dimension") final String dimension, @PathParam("name") final String name, 
+                                                                       @QueryParam("since") final String since) {
+        if (!"last24hours".equals(since)) {
+            return Collections.emptyList();
+        }
+        for (JobPerformanceStatistics.Dimension each : JobPerformanceStatistics.Dimension.values()) {
+            if (each.name().equalsIgnoreCase(dimension)) {
+                return statisticManager.findJobPerformanceStatisticsDaily(each, name);
+            }
+        }
+        return Collections.emptyList();
+    }
 }
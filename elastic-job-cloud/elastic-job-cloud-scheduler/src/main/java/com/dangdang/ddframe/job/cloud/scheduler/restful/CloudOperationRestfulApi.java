@@ -19,7 +19,9 @@ package com.dangdang.ddframe.job.cloud.scheduler.restful;
 
 import com.dangdang.ddframe.job.cloud.scheduler.mesos.MesosStateService;
 import com.dangdang.ddframe.job.cloud.scheduler.mesos.ReconcileService;
+import com.dangdang.ddframe.job.cloud.scheduler.mesos.TaskLaunchMetrics;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.util.rdb.RdbQueryMetrics;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.gson.JsonArray;
@@ -30,6 +32,7 @@ import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.QueryParam;
+import java.util.Map;
 
 /**
  * 作业云维护服务.
@@ -100,4 +103,26 @@ public final class CloudOperationRestfulApi {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(appName), "Lack param 'appName'");
         return mesosStateService.sandbox(appName);
     }
+    
+    /**
+     * 获取任务提交指标.
+     *
+     * @return 任务提交指标
+     */
+    @GET
+    @Path("/metrics/launch")
+    public Map<String, Long> launchMetrics() {
+        return TaskLaunchMetrics.getInstance().snapshot();
+    }
+    
+    /**
+     * 获取数据库语句执行指标.
+     *
+     * @return 数据库语句执行指标
+     */
+    @GET
+    @Path("/metrics/rdb")
+    public Map<String, Long> rdbMetrics() {
+        return RdbQueryMetrics.getInstance().snapshot();
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.state;
+
+import com.dangdang.ddframe.job.reg.base.AsyncRegistryCenter;
+import com.dangdang.ddframe.job.reg.base.AsyncRegistryCenterUtils;
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.google.common.util.concurrent.ListenableFuture;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 状态节点批量读取.
+ * 
+ * <p>
+ * 注册中心支持异步操作时, 先发出全部读取请求再统一等待结果.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+public final class StateNodeReader {
+    
+    private final CoordinatorRegistryCenter regCenter;
+    
+    /**
+     * 直接从注册中心而非本地缓存获取多个节点数据.
+     * 
+     * @param keys 节点路径列表
+     * @return 与节点路径列表顺序一致的节点数据列表, 节点不存在时为null
+     */
+    public List<String> getDirectly(final List<String> keys) {
+        if (!(regCenter instanceof AsyncRegistryCenter)) {
+            List<String> result = new ArrayList<>(keys.size());
+            for (String each : keys) {
+                result.add(regCenter.getDirectly(each));
+            }
+            return result;
+        }
+        List<ListenableFuture<String>> futures = new ArrayList<>(keys.size());
+        for (String each : keys) {
+            futures.add(((AsyncRegistryCenter) regCenter).getDirectlyAsync(each));
+        }
+        return AsyncRegistryCenterUtils.awaitAll(futures);
+    }
+    
+    /**
+     * 判断多个节点是否存在.
+     * 
+     * @param keys 节点路径列表
+     * @return 与节点路径列表顺序一致的是否存在列表
+     */
+    public List<Boolean> isExisted(final List<String> keys) {
+        List<Boolean> result = new ArrayList<>(keys.size());
+        if (!(regCenter instanceof AsyncRegistryCenter)) {
+            for (String each : keys) {
+                result.add(regCenter.isExisted(each));
+            }
+            return result;
+        }
+        List<ListenableFuture<Boolean>> futures = new ArrayList<>(keys.size());
+        for (String each : keys) {
+            futures.add(((AsyncRegistryCenter) regCenter).isExistedAsync(each));
+        }
+        for (Boolean each : AsyncRegistryCenterUtils.awaitAll(futures)) {
+            result.add(Boolean.TRUE.equals(each));
+        }
+        return result;
+    }
+    
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.state;
+
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.exception.RegExceptionHandler;
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.transaction.CuratorTransaction;
+import org.apache.curator.framework.api.transaction.CuratorTransactionBridge;
+import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
+import org.apache.zookeeper.KeeperException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 状态节点批量事务.
+ * 
+ * <p>
+ * 收集多个状态节点的写操作, 提交时按固定大小分块, 每块在一个注册中心事务中提交.
+ * 某块因节点已存在或已不存在等原因提交失败时, 逐个执行该块中的操作: 创建时忽略已存在的节点并自动创建父节点, 更新时节点不存在则创建.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+@Slf4j
+public final class StateNodeTransaction {
+    
+    static final int CHUNK_SIZE = 256;
+    
+    private final CoordinatorRegistryCenter regCenter;
+    
+    private final List<Operation> operations = new ArrayList<>();
+    
+    /**
+     * 创建节点.
+     * 
+     * <p>父节点须已存在或在此之前加入本事务.</p>
+     * 
+     * @param key 节点路径
+     * @param value 节点数据
+     * @return 状态节点批量事务
+     */
+    public StateNodeTransaction create(final String key, final String value) {
+        operations.add(new Operation(OperationType.CREATE, key, value));
+        return this;
+    }
+    
+    /**
+     * 更新已存在节点的数据.
+     * 
+     * @param key 节点路径
+     * @param value 节点数据
+     * @return 状态节点批量事务
+     */
+    public StateNodeTransaction update(final String key, final String value) {
+        operations.add(new Operation(OperationType.UPDATE, key, value));
+        return this;
+    }
+    
+    /**
+     * 删除节点.
+     * 
+     * @param key 节点路径
+     * @return 状态节点批量事务
+     */
+    public StateNodeTransaction remove(final String key) {
+        operations.add(new Operation(OperationType.REMOVE, key, null));
+        return this;
+    }
+    
+    /**
+     * 提交所有操作.
+     */
+    public void commit() {
+        for (List<Operation> each : Lists.partition(operations, CHUNK_SIZE)) {
+            commit(each);
+        }
+        operations.clear();
+    }
+    
+    private void commit(final List<Operation> chunk) {
+        Object rawClient = regCenter.getRawClient();
+        if (1 == chunk.size() || !(rawClient instanceof CuratorFramework)) {
+            executeDirectly(chunk);
+            return;
+        }
+        try {
+            CuratorTransaction transaction = ((CuratorFramework) rawClient).inTransaction();
+            CuratorTransactionFinal transactionFinal = null;
+            for (Operation each : chunk) {
+                transactionFinal = each.appendTo(transaction).and();
+                transaction = transactionFinal;
+            }
+            transactionFinal.commit();
+        } catch (final KeeperException ex) {
+            log.debug("Elastic job: state node transaction failed, execute one by one, cause is: {}", ex.getMessage());
+            executeDirectly(chunk);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            RegExceptionHandler.handleException(ex);
+        }
+    }
+    
+    private void executeDirectly(final List<Operation> chunk) {
+        for (Operation each : chunk) {
+            each.executeDirectly(regCenter);
+        }
+    }
+    
+    private enum OperationType {
+        
+        CREATE, UPDATE, REMOVE
+    }
+    
+    @RequiredArgsConstructor
+    private static final class Operation {
+        
+        private final OperationType type;
+        
+        private final String key;
+        
+        private final String value;
+        
+        CuratorTransactionBridge appendTo(final CuratorTransaction transaction) throws Exception {
+            switch (type) {
+                case CREATE:
+                    return transaction.create().forPath(key, value.getBytes(Charsets.UTF_8));
+                case UPDATE:
+                    return transaction.setData().forPath(key, value.getBytes(Charsets.UTF_8));
+                case REMOVE:
+                    return transaction.delete().forPath(key);
+                default:
+                    throw new UnsupportedOperationException(type.name());
+            }
+        }
+        
+        void executeDirectly(final CoordinatorRegistryCenter regCenter) {
+            switch (type) {
+                case CREATE:
+                    if (!regCenter.isExisted(key)) {
+                        regCenter.persist(key, value);
+                    }
+                    break;
+                case UPDATE:
+                    regCenter.persist(key, value);
+                    break;
+                case REMOVE:
+                    regCenter.remove(key);
+                    break;
+                default:
+                    throw new UnsupportedOperationException(type.name());
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.state;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务提交信号.
+ * 
+ * <p>
+ * 作业进入待执行队列或失效转移队列, 以及收到新的资源时发出信号, 唤醒任务提交调度尽快进行下一轮调度.
+ * 多次信号在被消费前合并为一次.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TaskLaunchSignal {
+    
+    private static final TaskLaunchSignal INSTANCE = new TaskLaunchSignal();
+    
+    private final Object lock = new Object();
+    
+    private volatile boolean signaled;
+    
+    /**
+     * 获取实例.
+     * 
+     * @return 单例对象
+     */
+    public static TaskLaunchSignal getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * 发出信号.
+     */
+    public void signal() {
+        if (signaled) {
+            return;
+        }
+        synchronized (lock) {
+            signaled = true;
+            lock.notifyAll();
+        }
+    }
+    
+    /**
+     * 等待信号并消费.
+     * 
+     * @param timeout 最长等待时间
+     * @param unit 时间单位
+     * @return 等待期间是否收到信号
+     * @throws InterruptedException 等待被中断
+     */
+    public boolean await(final long timeout, final TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (lock) {
+            long remaining = deadline - System.nanoTime();
+            while (!signaled && remaining > 0) {
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            boolean result = signaled;
+            signaled = false;
+            return result;
+        }
+    }
+}
@@ -21,6 +21,8 @@ import com.dangdang.ddframe.job.cloud.scheduler.env.BootstrapEnvironment;
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfiguration;
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfigurationService;
 import com.dangdang.ddframe.job.cloud.scheduler.context.JobContext;
+import com.dangdang.ddframe.job.cloud.scheduler.state.StateNodeTransaction;
+import com.dangdang.ddframe.job.cloud.scheduler.state.TaskLaunchSignal;
 import com.dangdang.ddframe.job.cloud.scheduler.state.running.RunningService;
 import com.dangdang.ddframe.job.context.ExecutionType;
 import com.dangdang.ddframe.job.context.TaskContext;
@@ -78,6 +80,7 @@ public final class FailoverService {
         if (!regCenter.isExisted(failoverTaskNodePath) && !runningService.isTaskRunning(taskContext.getMetaInfo())) {
             // TODO Daemon类型作业增加存储是否立即失效转移
             regCenter.persist(failoverTaskNodePath, taskContext.getId());
+            TaskLaunchSignal.getInstance().signal();
         }
     }
     
@@ -129,9 +132,11 @@ public final class FailoverService {
      * @param metaInfoList 待删除的任务元信息集合
      */
     public void remove(final Collection<TaskContext.MetaInfo> metaInfoList) {
+        StateNodeTransaction transaction = new StateNodeTransaction(regCenter);
         for (TaskContext.MetaInfo each : metaInfoList) {
-            regCenter.remove(FailoverNode.getFailoverTaskNodePath(each.toString()));
+            transaction.remove(FailoverNode.getFailoverTaskNodePath(each.toString()));
         }
+        transaction.commit();
     }
     
     /**
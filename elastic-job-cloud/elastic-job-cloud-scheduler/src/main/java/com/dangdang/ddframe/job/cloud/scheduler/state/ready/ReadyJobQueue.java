@@ -0,0 +1,345 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.state.ready;
+
+import com.dangdang.ddframe.job.cloud.scheduler.state.StateNodeTransaction;
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.google.common.base.Strings;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 待运行作业队列的本地索引.
+ * 
+ * <p>
+ * 同一注册中心共享一个索引, 首次使用时从注册中心加载.
+ * 入队和出队只修改内存中的计数并记录变更的作业, 变更由后台线程合并后以批量事务异步写入注册中心.
+ * 写入失败时按指数退避延迟重试, 直至写入成功或队列关闭.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Slf4j
+final class ReadyJobQueue {
+    
+    private static final LoadingCache<CoordinatorRegistryCenter, ReadyJobQueue> INSTANCES = CacheBuilder.newBuilder().weakKeys().build(
+            new CacheLoader<CoordinatorRegistryCenter, ReadyJobQueue>() {
+                
+                @Override
+                public ReadyJobQueue load(final CoordinatorRegistryCenter regCenter) {
+                    return new ReadyJobQueue(regCenter, Executors.newSingleThreadScheduledExecutor(
+                            new BasicThreadFactory.Builder().namingPattern("cloud-ready-queue-sync-%s").daemon(true).build()));
+                }
+            });
+    
+    private final CoordinatorRegistryCenter regCenter;
+    
+    private static final long MIN_RETRY_DELAY_MILLISECONDS = 100L;
+    
+    private static final long MAX_RETRY_DELAY_MILLISECONDS = 30000L;
+    
+    private final ScheduledExecutorService syncExecutor;
+    
+    private final Map<String, Integer> readyJobs = new LinkedHashMap<>();
+    
+    private final Set<String> persistedJobs = new HashSet<>();
+    
+    private final Set<String> dirtyJobs = new LinkedHashSet<>();
+    
+    private final AtomicBoolean syncScheduled = new AtomicBoolean();
+    
+    private final Object syncLock = new Object();
+    
+    private final Runnable syncTask = new Runnable() {
+        
+        @Override
+        public void run() {
+            sync();
+        }
+    };
+    
+    private boolean loaded;
+    
+    private long retryDelayMilliseconds;
+    
+    ReadyJobQueue(final CoordinatorRegistryCenter regCenter, final ScheduledExecutorService syncExecutor) {
+        this.regCenter = regCenter;
+        this.syncExecutor = syncExecutor;
+    }
+    
+    /**
+     * 获取注册中心对应的待运行作业队列.
+     * 
+     * @param regCenter 注册中心
+     * @return 待运行作业队列
+     */
+    static ReadyJobQueue getInstance(final CoordinatorRegistryCenter regCenter) {
+        return INSTANCES.getUnchecked(regCenter);
+    }
+    
+    /**
+     * 从注册中心重新加载队列.
+     */
+    synchronized void load() {
+        readyJobs.clear();
+        persistedJobs.clear();
+        dirtyJobs.clear();
+        if (regCenter.isExisted(ReadyNode.ROOT)) {
+            for (String each : regCenter.getChildrenKeys(ReadyNode.ROOT)) {
+                String times = regCenter.get(ReadyNode.getReadyJobNodePath(each));
+                persistedJobs.add(each);
+                if (!Strings.isNullOrEmpty(times)) {
+                    readyJobs.put(each, Integer.parseInt(times));
+                }
+            }
+        }
+        loaded = true;
+    }
+    
+    private void loadIfNecessary() {
+        if (!loaded) {
+            load();
+        }
+    }
+    
+    /**
+     * 获取队列中的作业数量.
+     * 
+     * @return 作业数量
+     */
+    synchronized int size() {
+        loadIfNecessary();
+        return readyJobs.size();
+    }
+    
+    /**
+     * 获取作业待运行次数.
+     * 
+     * @param jobName 作业名称
+     * @return 待运行次数, 作业不在队列中返回null
+     */
+    synchronized Integer get(final String jobName) {
+        loadIfNecessary();
+        return readyJobs.get(jobName);
+    }
+    
+    /**
+     * 获取队列中的全部作业名称.
+     * 
+     * @return 按入队顺序排列的作业名称
+     */
+    synchronized List<String> getJobNames() {
+        loadIfNecessary();
+        return new ArrayList<>(readyJobs.keySet());
+    }
+    
+    /**
+     * 获取队列中的全部作业及其待运行次数.
+     * 
+     * @return 作业名称和待运行次数的映射
+     */
+    synchronized Map<String, Integer> getAll() {
+        loadIfNecessary();
+        return new LinkedHashMap<>(readyJobs);
+    }
+    
+    /**
+     * 批量将作业放入队列.
+     * 
+     * <p>队列中的作业数量超过容量后不再放入新的作业, 已在队列中的作业不受影响.</p>
+     *
+     * @param jobNames 作业名称集合
+     * @param accumulative 是否累加待运行次数, 不累加则待运行次数置为1
+     * @param capacity 队列容量
+     * @return 因超过容量未放入队列的作业数量
+     */
+    int addAll(final Collection<String> jobNames, final boolean accumulative, final int capacity) {
+        int result = 0;
+        boolean changed = false;
+        synchronized (this) {
+            loadIfNecessary();
+            for (String each : jobNames) {
+                Integer times = readyJobs.get(each);
+                if (null == times && readyJobs.size() > capacity) {
+                    result++;
+                    continue;
+                }
+                int newTimes = null != times && accumulative ? times + 1 : 1;
+                if (null == times || times != newTimes) {
+                    readyJobs.put(each, newTimes);
+                    dirtyJobs.add(each);
+                    changed = true;
+                }
+            }
+        }
+        if (changed) {
+            scheduleSync();
+        }
+        return result;
+    }
+    
+    /**
+     * 设置作业待运行次数.
+     * 
+     * @param jobName 作业名称
+     * @param times 待运行次数
+     */
+    void set(final String jobName, final int times) {
+        synchronized (this) {
+            loadIfNecessary();
+            if (Integer.valueOf(times).equals(readyJobs.get(jobName))) {
+                return;
+            }
+            readyJobs.put(jobName, times);
+            dirtyJobs.add(jobName);
+        }
+        scheduleSync();
+    }
+    
+    /**
+     * 作业待运行次数减一, 减至零时移出队列.
+     * 
+     * @param jobNames 作业名称集合
+     */
+    void decrease(final Collection<String> jobNames) {
+        synchronized (this) {
+            loadIfNecessary();
+            for (String each : jobNames) {
+                Integer times = readyJobs.get(each);
+                if (null == times) {
+                    continue;
+                }
+                if (times <= 1) {
+                    readyJobs.remove(each);
+                } else {
+                    readyJobs.put(each, times - 1);
+                }
+                dirtyJobs.add(each);
+            }
+        }
+        scheduleSync();
+    }
+    
+    /**
+     * 将作业移出队列.
+     * 
+     * @param jobName 作业名称
+     */
+    void remove(final String jobName) {
+        synchronized (this) {
+            loadIfNecessary();
+            readyJobs.remove(jobName);
+            dirtyJobs.add(jobName);
+        }
+        scheduleSync();
+    }
+    
+    private void scheduleSync() {
+        if (!syncExecutor.isShutdown() && syncScheduled.compareAndSet(false, true)) {
+            syncExecutor.execute(syncTask);
+        }
+    }
+    
+    private void scheduleRetry() {
+        retryDelayMilliseconds = 0L == retryDelayMilliseconds ? MIN_RETRY_DELAY_MILLISECONDS : Math.min(retryDelayMilliseconds * 2, MAX_RETRY_DELAY_MILLISECONDS);
+        if (!syncExecutor.isShutdown() && syncScheduled.compareAndSet(false, true)) {
+            syncExecutor.schedule(syncTask, retryDelayMilliseconds, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * 将尚未同步的变更写入注册中心.
+     */
+    void sync() {
+        synchronized (syncLock) {
+            syncScheduled.set(false);
+            StateNodeTransaction transaction = new StateNodeTransaction(regCenter);
+            Collection<String> syncingJobs;
+            synchronized (this) {
+                if (dirtyJobs.isEmpty()) {
+                    return;
+                }
+                syncingJobs = new ArrayList<>(dirtyJobs);
+                dirtyJobs.clear();
+                for (String each : syncingJobs) {
+                    appendTo(transaction, each);
+                }
+            }
+            try {
+                transaction.commit();
+                retryDelayMilliseconds = 0L;
+                //CHECKSTYLE:OFF
+            } catch (final Exception ex) {
+                //CHECKSTYLE:ON
+                synchronized (this) {
+                    persistedJobs.addAll(syncingJobs);
+                    dirtyJobs.addAll(syncingJobs);
+                }
+                scheduleRetry();
+                log.error("Elastic job: sync ready queue to registry center error, will retry in {} ms.", retryDelayMilliseconds, ex);
+            }
+        }
+    }
+    
+    private void appendTo(final StateNodeTransaction transaction, final String jobName) {
+        String readyJobNode = ReadyNode.getReadyJobNodePath(jobName);
+        Integer times = readyJobs.get(jobName);
+        if (null == times) {
+            if (persistedJobs.remove(jobName)) {
+                transaction.remove(readyJobNode);
+            }
+        } else if (persistedJobs.add(jobName)) {
+            transaction.create(readyJobNode, times.toString());
+        } else {
+            transaction.update(readyJobNode, times.toString());
+        }
+    }
+    
+    /**
+     * 同步尚未写入的变更, 关闭同步线程并清空本地索引.
+     * 
+     * <p>关闭后注册中心对应的队列在下次获取时重新创建并从注册中心加载.</p>
+     */
+    void close() {
+        sync();
+        syncExecutor.shutdownNow();
+        INSTANCES.invalidate(regCenter);
+        synchronized (this) {
+            readyJobs.clear();
+            persistedJobs.clear();
+            dirtyJobs.clear();
+            loaded = false;
+        }
+    }
+}
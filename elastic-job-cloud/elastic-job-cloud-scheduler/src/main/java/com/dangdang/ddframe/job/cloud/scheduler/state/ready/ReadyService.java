@@ -23,23 +23,25 @@ import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfiguration
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobExecutionType;
 import com.dangdang.ddframe.job.context.ExecutionType;
 import com.dangdang.ddframe.job.cloud.scheduler.context.JobContext;
+import com.dangdang.ddframe.job.cloud.scheduler.state.TaskLaunchSignal;
 import com.dangdang.ddframe.job.cloud.scheduler.state.running.RunningService;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
-import com.google.common.base.Function;
 import com.google.common.base.Optional;
-import com.google.common.base.Strings;
-import com.google.common.collect.Collections2;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
 /**
  * 待运行作业队列服务.
+ * 
+ * <p>
+ * 队列由本地索引维护, 入队和出队无需访问注册中心, 变更异步同步至注册中心.
+ * </p>
  *
  * @author zhangliang
  * @author liguangyun
@@ -61,27 +63,66 @@ public final class ReadyService {
         runningService = new RunningService(regCenter);
     }
     
+    /**
+     * 从注册中心加载待执行队列.
+     */
+    public void start() {
+        getReadyJobQueue().load();
+    }
+    
+    /**
+     * 将待执行队列尚未同步的变更写入注册中心并释放本地索引.
+     */
+    public void stop() {
+        getReadyJobQueue().close();
+    }
+    
+    private ReadyJobQueue getReadyJobQueue() {
+        return ReadyJobQueue.getInstance(regCenter);
+    }
+    
     /**
      * 将瞬时作业放入待执行队列.
      * 
      * @param jobName 作业名称
      */
     public void addTransient(final String jobName) {
-        if (regCenter.getNumChildren(ReadyNode.ROOT) > env.getFrameworkConfiguration().getJobStateQueueSize()) {
-            log.warn("Cannot add transient job, caused by read state queue size is larger than {}.", env.getFrameworkConfiguration().getJobStateQueueSize());
+        addTransient(Collections.singletonList(jobName));
+    }
+    
+    /**
+     * 将多个瞬时作业批量放入待执行队列.
+     * 
+     * @param jobNames 作业名称集合
+     */
+    public void addTransient(final Collection<String> jobNames) {
+        ReadyJobQueue readyJobQueue = getReadyJobQueue();
+        int jobStateQueueSize = env.getFrameworkConfiguration().getJobStateQueueSize();
+        if (readyJobQueue.size() > jobStateQueueSize) {
+            log.warn("Cannot add transient job, caused by read state queue size is larger than {}.", jobStateQueueSize);
             return;
         }
-        Optional<CloudJobConfiguration> cloudJobConfig = configService.load(jobName);
-        if (!cloudJobConfig.isPresent() || CloudJobExecutionType.TRANSIENT != cloudJobConfig.get().getJobExecutionType()) {
+        List<String> misfireJobNames = new ArrayList<>(jobNames.size());
+        List<String> misfireDisabledJobNames = new ArrayList<>(jobNames.size());
+        for (String each : jobNames) {
+            Optional<CloudJobConfiguration> cloudJobConfig = configService.load(each);
+            if (!cloudJobConfig.isPresent() || CloudJobExecutionType.TRANSIENT != cloudJobConfig.get().getJobExecutionType()) {
+                continue;
+            }
+            if (cloudJobConfig.get().getTypeConfig().getCoreConfig().isMisfire()) {
+                misfireJobNames.add(each);
+            } else {
+                misfireDisabledJobNames.add(each);
+            }
+        }
+        if (misfireJobNames.isEmpty() && misfireDisabledJobNames.isEmpty()) {
             return;
         }
-        String readyJobNode = ReadyNode.getReadyJobNodePath(jobName);
-        String times = regCenter.getDirectly(readyJobNode);
-        if (cloudJobConfig.get().getTypeConfig().getCoreConfig().isMisfire()) {
-            regCenter.persist(readyJobNode, Integer.toString(null == times ? 1 : Integer.parseInt(times) + 1));
-        } else {
-            regCenter.persist(ReadyNode.getReadyJobNodePath(jobName), "1");
+        int rejectedCount = readyJobQueue.addAll(misfireJobNames, true, jobStateQueueSize) + readyJobQueue.addAll(misfireDisabledJobNames, false, jobStateQueueSize);
+        if (rejectedCount > 0) {
+            log.warn("Cannot add {} transient jobs, caused by read state queue size is larger than {}.", rejectedCount, jobStateQueueSize);
         }
+        TaskLaunchSignal.getInstance().signal();
     }
     
     /**
@@ -90,7 +131,7 @@ public final class ReadyService {
      * @param jobName 作业名称
      */
     public void addDaemon(final String jobName) {
-        if (regCenter.getNumChildren(ReadyNode.ROOT) > env.getFrameworkConfiguration().getJobStateQueueSize()) {
+        if (getReadyJobQueue().size() > env.getFrameworkConfiguration().getJobStateQueueSize()) {
             log.warn("Cannot add daemon job, caused by read state queue size is larger than {}.", env.getFrameworkConfiguration().getJobStateQueueSize());
             return;
         }
@@ -98,7 +139,8 @@ public final class ReadyService {
         if (!cloudJobConfig.isPresent() || CloudJobExecutionType.DAEMON != cloudJobConfig.get().getJobExecutionType() || runningService.isJobRunning(jobName)) {
             return;
         }
-        regCenter.persist(ReadyNode.getReadyJobNodePath(jobName), "1");
+        getReadyJobQueue().set(jobName, 1);
+        TaskLaunchSignal.getInstance().signal();
     }
     
     /**
@@ -108,8 +150,8 @@ public final class ReadyService {
      */
     public void setMisfireDisabled(final String jobName) {
         Optional<CloudJobConfiguration> cloudJobConfig = configService.load(jobName);
-        if (cloudJobConfig.isPresent() && null != regCenter.getDirectly(ReadyNode.getReadyJobNodePath(jobName))) {
-            regCenter.persist(ReadyNode.getReadyJobNodePath(jobName), "1");
+        if (cloudJobConfig.isPresent() && null != getReadyJobQueue().get(jobName)) {
+            getReadyJobQueue().set(jobName, 1);
         }
     }
     
@@ -120,17 +162,14 @@ public final class ReadyService {
      * @return 有资格执行的作业上下文集合
      */
     public Collection<JobContext> getAllEligibleJobContexts(final Collection<JobContext> ineligibleJobContexts) {
-        if (!regCenter.isExisted(ReadyNode.ROOT)) {
+        List<String> jobNames = getReadyJobQueue().getJobNames();
+        if (jobNames.isEmpty()) {
             return Collections.emptyList();
         }
-        Collection<String> ineligibleJobNames = Collections2.transform(ineligibleJobContexts, new Function<JobContext, String>() {
-            
-            @Override
-            public String apply(final JobContext input) {
-                return input.getJobConfig().getJobName();
-            }
-        });
-        List<String> jobNames = regCenter.getChildrenKeys(ReadyNode.ROOT);
+        Collection<String> ineligibleJobNames = new HashSet<>(ineligibleJobContexts.size(), 1);
+        for (JobContext each : ineligibleJobContexts) {
+            ineligibleJobNames.add(each.getJobConfig().getJobName());
+        }
         List<JobContext> result = new ArrayList<>(jobNames.size());
         for (String each : jobNames) {
             if (ineligibleJobNames.contains(each)) {
@@ -138,7 +177,7 @@ public final class ReadyService {
             }
             Optional<CloudJobConfiguration> jobConfig = configService.load(each);
             if (!jobConfig.isPresent()) {
-                regCenter.remove(ReadyNode.getReadyJobNodePath(each));
+                getReadyJobQueue().remove(each);
                 continue;
             }
             if (!runningService.isJobRunning(each)) {
@@ -154,16 +193,7 @@ public final class ReadyService {
      * @param jobNames 待删除的作业名集合
      */
     public void remove(final Collection<String> jobNames) {
-        for (String each : jobNames) {
-            String readyJobNode = ReadyNode.getReadyJobNodePath(each);
-            String timesStr = regCenter.getDirectly(readyJobNode);
-            int times = null == timesStr ? 0 : Integer.parseInt(timesStr);
-            if (times <= 1) {
-                regCenter.remove(readyJobNode);
-            } else {
-                regCenter.persist(readyJobNode, Integer.toString(times - 1));
-            }
-        }
+        getReadyJobQueue().decrease(jobNames);
     }
     
     /**
@@ -172,17 +202,6 @@ public final class ReadyService {
      * @return 待运行的全部任务
      */
     public Map<String, Integer> getAllReadyTasks() {
-        if (!regCenter.isExisted(ReadyNode.ROOT)) {
-            return Collections.emptyMap();
-        }
-        List<String> jobNames = regCenter.getChildrenKeys(ReadyNode.ROOT);
-        Map<String, Integer> result = new HashMap<>(jobNames.size(), 1);
-        for (String each : jobNames) {
-            String times = regCenter.get(ReadyNode.getReadyJobNodePath(each));
-            if (!Strings.isNullOrEmpty(times)) {
-                result.put(each, Integer.parseInt(times));
-            }
-        }
-        return result;
+        return getReadyJobQueue().getAll();
     }
 }
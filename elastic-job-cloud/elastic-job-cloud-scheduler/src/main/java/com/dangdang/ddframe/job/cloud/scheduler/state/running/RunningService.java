@@ -20,24 +20,26 @@ package com.dangdang.ddframe.job.cloud.scheduler.state.running;
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfiguration;
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfigurationService;
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobExecutionType;
+import com.dangdang.ddframe.job.cloud.scheduler.state.StateNodeReader;
+import com.dangdang.ddframe.job.cloud.scheduler.state.StateNodeTransaction;
 import com.dangdang.ddframe.job.context.TaskContext;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
-import com.google.common.base.Function;
 import com.google.common.base.Optional;
-import com.google.common.base.Predicate;
-import com.google.common.collect.Iterators;
-import com.google.common.collect.Lists;
+import com.google.common.collect.ConcurrentHashMultiset;
 import com.google.common.collect.Sets;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 任务运行时服务.
@@ -53,6 +55,12 @@ public final class RunningService {
     @Getter
     private static final ConcurrentHashMap<String, Set<TaskContext>> RUNNING_TASKS = new ConcurrentHashMap<>(TASK_INITIAL_SIZE);
     
+    private static final ConcurrentHashMap<String, TaskContext> RUNNING_TASK_ID_INDEX = new ConcurrentHashMap<>(TASK_INITIAL_SIZE);
+    
+    private static final ConcurrentHashMultiset<TaskContext.MetaInfo> RUNNING_META_INFO_INDEX = ConcurrentHashMultiset.create();
+    
+    private static final AtomicInteger RUNNING_TASK_COUNT = new AtomicInteger();
+    
     private static final ConcurrentHashMap<String, String> TASK_HOSTNAME_MAPPER = new ConcurrentHashMap<>(TASK_INITIAL_SIZE);
     
     private final CoordinatorRegistryCenter regCenter;
@@ -75,13 +83,10 @@ public final class RunningService {
                 remove(each);
                 continue;
             }
-            RUNNING_TASKS.put(each, Sets.newCopyOnWriteArraySet(Lists.transform(regCenter.getChildrenKeys(RunningNode.getRunningJobNodePath(each)), new Function<String, TaskContext>() {
-                
-                @Override
-                public TaskContext apply(final String input) {
-                    return TaskContext.from(regCenter.get(RunningNode.getRunningTaskNodePath(TaskContext.MetaInfo.from(input).toString())));
-                }
-            })));
+            getJobRunningTasks(each);
+            for (String taskMetaInfo : regCenter.getChildrenKeys(RunningNode.getRunningJobNodePath(each))) {
+                addToIndex(TaskContext.from(regCenter.get(RunningNode.getRunningTaskNodePath(TaskContext.MetaInfo.from(taskMetaInfo).toString()))));
+            }
         }
     }
     
@@ -94,7 +99,7 @@ public final class RunningService {
         if (!configurationService.load(taskContext.getMetaInfo().getJobName()).isPresent()) {
             return;
         }
-        getRunningTasks(taskContext.getMetaInfo().getJobName()).add(taskContext);
+        addToIndex(taskContext);
         if (!isDaemon(taskContext.getMetaInfo().getJobName())) {
             return;
         }
@@ -104,6 +109,68 @@ public final class RunningService {
         }
     }
     
+    /**
+     * 将多个任务运行时上下文放入运行时队列.
+     * 
+     * <p>常驻作业的运行节点在注册中心事务中批量创建.</p>
+     * 
+     * @param taskContexts 任务运行时上下文集合
+     */
+    public void add(final Collection<TaskContext> taskContexts) {
+        List<TaskContext> daemonTaskContexts = new ArrayList<>(taskContexts.size());
+        Set<String> jobNames = new LinkedHashSet<>();
+        for (TaskContext each : taskContexts) {
+            String jobName = each.getMetaInfo().getJobName();
+            if (!configurationService.load(jobName).isPresent()) {
+                continue;
+            }
+            addToIndex(each);
+            if (isDaemon(jobName)) {
+                daemonTaskContexts.add(each);
+                jobNames.add(jobName);
+            }
+        }
+        if (daemonTaskContexts.isEmpty()) {
+            return;
+        }
+        List<String> nodePaths = new ArrayList<>(jobNames.size() + daemonTaskContexts.size());
+        for (String each : jobNames) {
+            nodePaths.add(RunningNode.getRunningJobNodePath(each));
+        }
+        for (TaskContext each : daemonTaskContexts) {
+            nodePaths.add(RunningNode.getRunningTaskNodePath(each.getMetaInfo().toString()));
+        }
+        List<Boolean> existed = new StateNodeReader(regCenter).isExisted(nodePaths);
+        StateNodeTransaction transaction = new StateNodeTransaction(regCenter);
+        for (int i = 0; i < jobNames.size(); i++) {
+            if (!existed.get(i)) {
+                transaction.create(nodePaths.get(i), "");
+            }
+        }
+        for (int i = 0; i < daemonTaskContexts.size(); i++) {
+            if (!existed.get(jobNames.size() + i)) {
+                transaction.create(nodePaths.get(jobNames.size() + i), daemonTaskContexts.get(i).getId());
+            }
+        }
+        transaction.commit();
+    }
+    
+    private void addToIndex(final TaskContext taskContext) {
+        if (getJobRunningTasks(taskContext.getMetaInfo().getJobName()).add(taskContext)) {
+            RUNNING_TASK_ID_INDEX.put(taskContext.getId(), taskContext);
+            RUNNING_META_INFO_INDEX.add(taskContext.getMetaInfo());
+            RUNNING_TASK_COUNT.incrementAndGet();
+        }
+    }
+    
+    private void removeFromIndex(final Set<TaskContext> jobRunningTasks, final TaskContext taskContext) {
+        if (jobRunningTasks.remove(taskContext)) {
+            RUNNING_TASK_ID_INDEX.remove(taskContext.getId());
+            RUNNING_META_INFO_INDEX.remove(taskContext.getMetaInfo());
+            RUNNING_TASK_COUNT.decrementAndGet();
+        }
+    }
+    
     private boolean isDaemon(final String jobName) {
         Optional<CloudJobConfiguration> cloudJobConfigurationOptional = configurationService.load(jobName);
         return cloudJobConfigurationOptional.isPresent() && CloudJobExecutionType.DAEMON == cloudJobConfigurationOptional.get().getJobExecutionType();
@@ -111,36 +178,33 @@ public final class RunningService {
     
     /**
      * 更新作业闲置状态.
+     * 
+     * <p>任务不在运行时队列中时将其放入运行时队列.</p>
+     * 
      * @param taskContext 任务运行时上下文
      * @param isIdle 是否闲置
      */
     public void updateIdle(final TaskContext taskContext, final boolean isIdle) {
-        synchronized (RUNNING_TASKS) {
-            Optional<TaskContext> taskContextOptional = findTask(taskContext);
-            if (taskContextOptional.isPresent()) {
-                taskContextOptional.get().setIdle(isIdle);
-            } else {
-                add(taskContext);
-            }
+        TaskContext runningTaskContext = RUNNING_TASK_ID_INDEX.get(taskContext.getId());
+        if (null != runningTaskContext) {
+            runningTaskContext.setIdle(isIdle);
+        } else {
+            add(taskContext);
         }
     }
     
-    private Optional<TaskContext> findTask(final TaskContext taskContext) {
-        return Iterators.tryFind(getRunningTasks(taskContext.getMetaInfo().getJobName()).iterator(), new Predicate<TaskContext>() {
-            @Override
-            public boolean apply(final TaskContext input) {
-                return input.equals(taskContext);
-            }
-        });
-    }
-    
     /**
      * 将作业从运行时队列删除.
      *
      * @param jobName 作业名称
      */
     public void remove(final String jobName) {
-        RUNNING_TASKS.remove(jobName);
+        Set<TaskContext> jobRunningTasks = RUNNING_TASKS.remove(jobName);
+        if (null != jobRunningTasks) {
+            for (TaskContext each : jobRunningTasks) {
+                removeFromIndex(jobRunningTasks, each);
+            }
+        }
         if (!isDaemonOrAbsent(jobName)) {
             return;
         }
@@ -153,14 +217,32 @@ public final class RunningService {
      * @param taskContext 任务运行时上下文
      */
     public void remove(final TaskContext taskContext) {
-        getRunningTasks(taskContext.getMetaInfo().getJobName()).remove(taskContext);
-        if (!isDaemonOrAbsent(taskContext.getMetaInfo().getJobName())) {
-            return;
+        remove(Collections.singletonList(taskContext));
+    }
+    
+    /**
+     * 将任务批量从运行时队列删除.
+     * 
+     * <p>运行中常驻作业的任务节点在一个批量事务中删除.</p>
+     * 
+     * @param taskContexts 任务运行时上下文集合
+     */
+    public void remove(final Collection<TaskContext> taskContexts) {
+        StateNodeTransaction transaction = new StateNodeTransaction(regCenter);
+        Collection<String> jobRootNodes = new LinkedHashSet<>();
+        for (TaskContext each : taskContexts) {
+            String jobName = each.getMetaInfo().getJobName();
+            removeFromIndex(getJobRunningTasks(jobName), each);
+            if (isDaemonOrAbsent(jobName)) {
+                transaction.remove(RunningNode.getRunningTaskNodePath(each.getMetaInfo().toString()));
+                jobRootNodes.add(RunningNode.getRunningJobNodePath(jobName));
+            }
         }
-        regCenter.remove(RunningNode.getRunningTaskNodePath(taskContext.getMetaInfo().toString()));
-        String jobRootNode = RunningNode.getRunningJobNodePath(taskContext.getMetaInfo().getJobName());
-        if (regCenter.isExisted(jobRootNode) && regCenter.getChildrenKeys(jobRootNode).isEmpty()) {
-            regCenter.remove(jobRootNode);
+        transaction.commit();
+        for (String each : jobRootNodes) {
+            if (regCenter.isExisted(each) && regCenter.getChildrenKeys(each).isEmpty()) {
+                regCenter.remove(each);
+            }
         }
     }
     
@@ -186,12 +268,7 @@ public final class RunningService {
      * @return 任务是否运行
      */
     public boolean isTaskRunning(final TaskContext.MetaInfo metaInfo) {
-        for (TaskContext each : getRunningTasks(metaInfo.getJobName())) {
-            if (each.getMetaInfo().equals(metaInfo)) {
-                return true;
-            }
-        }
-        return false;
+        return RUNNING_META_INFO_INDEX.contains(metaInfo);
     }
     
     /**
@@ -201,11 +278,43 @@ public final class RunningService {
      * @return 运行中的任务集合
      */
     public Collection<TaskContext> getRunningTasks(final String jobName) {
-        Set<TaskContext> taskContexts = new CopyOnWriteArraySet<>();
-        Collection<TaskContext> result = RUNNING_TASKS.putIfAbsent(jobName, taskContexts);
+        return getJobRunningTasks(jobName);
+    }
+    
+    private Set<TaskContext> getJobRunningTasks(final String jobName) {
+        Set<TaskContext> result = RUNNING_TASKS.get(jobName);
+        if (null != result) {
+            return result;
+        }
+        Set<TaskContext> taskContexts = Collections.newSetFromMap(new ConcurrentHashMap<TaskContext, Boolean>());
+        result = RUNNING_TASKS.putIfAbsent(jobName, taskContexts);
         return null == result ? taskContexts : result;
     }
     
+    /**
+     * 获取运行中的作业数量.
+     * 
+     * @return 运行中的作业数量
+     */
+    public int getRunningJobCount() {
+        int result = 0;
+        for (Set<TaskContext> each : RUNNING_TASKS.values()) {
+            if (!each.isEmpty()) {
+                result++;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 获取运行中的任务数量.
+     * 
+     * @return 运行中的任务数量
+     */
+    public int getRunningTaskCount() {
+        return RUNNING_TASK_COUNT.get();
+    }
+    
     /**
      * 获取运行中的全部任务.
      *
@@ -263,6 +372,9 @@ public final class RunningService {
      */
     public void clear() {
         RUNNING_TASKS.clear();
+        RUNNING_TASK_ID_INDEX.clear();
+        RUNNING_META_INFO_INDEX.clear();
+        RUNNING_TASK_COUNT.set(0);
         TASK_HOSTNAME_MAPPER.clear();
     }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.statistics;
+
+import com.dangdang.ddframe.job.statistics.type.job.JobPerformanceStatistics;
+import com.dangdang.ddframe.job.statistics.type.job.JobPerformanceStatistics.Dimension;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 作业性能流式聚合器.
+ * 
+ * <p>
+ * 任务运行结果到达时按作业和应用两个维度累加成功数、失败数和运行耗时, 不访问数据库.
+ * 统计作业定期取出一个统计周期的聚合结果并清零, 批量写入数据库.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class JobPerformanceAggregator {
+    
+    private final ConcurrentMap<String, PerformanceCounter> jobCounters = new ConcurrentHashMap<>();
+    
+    private final ConcurrentMap<String, PerformanceCounter> appCounters = new ConcurrentHashMap<>();
+    
+    /**
+     * 记录任务运行成功.
+     * 
+     * @param jobName 作业名称
+     * @param appName 应用名称, 未知时为null
+     * @param latency 运行耗时毫秒数, 未知时小于0
+     */
+    public void recordSuccess(final String jobName, final String appName, final long latency) {
+        getCounter(jobCounters, jobName).record(true, latency);
+        if (null != appName) {
+            getCounter(appCounters, appName).record(true, latency);
+        }
+    }
+    
+    /**
+     * 记录任务运行失败.
+     * 
+     * @param jobName 作业名称
+     * @param appName 应用名称, 未知时为null
+     * @param latency 运行耗时毫秒数, 未知时小于0
+     */
+    public void recordFailure(final String jobName, final String appName, final long latency) {
+        getCounter(jobCounters, jobName).record(false, latency);
+        if (null != appName) {
+            getCounter(appCounters, appName).record(false, latency);
+        }
+    }
+    
+    private PerformanceCounter getCounter(final ConcurrentMap<String, PerformanceCounter> counters, final String name) {
+        PerformanceCounter result = counters.get(name);
+        if (null != result) {
+            return result;
+        }
+        result = new PerformanceCounter();
+        PerformanceCounter previous = counters.putIfAbsent(name, result);
+        return null == previous ? result : previous;
+    }
+    
+    /**
+     * 取出上一次取出后的聚合结果并清零.
+     * 
+     * <p>统计周期内没有任务运行结果的作业和应用不生成统计数据.</p>
+     * 
+     * @param statisticsTime 统计时间
+     * @return 作业性能统计数据集合
+     */
+    public List<JobPerformanceStatistics> drain(final Date statisticsTime) {
+        List<JobPerformanceStatistics> result = new ArrayList<>(jobCounters.size() + appCounters.size());
+        drain(Dimension.JOB, jobCounters, statisticsTime, result);
+        drain(Dimension.APP, appCounters, statisticsTime, result);
+        return result;
+    }
+    
+    private void drain(final Dimension dimension, final Map<String, PerformanceCounter> counters, final Date statisticsTime, final List<JobPerformanceStatistics> result) {
+        for (Map.Entry<String, PerformanceCounter> entry : counters.entrySet()) {
+            PerformanceCounter counter = entry.getValue();
+            int successCount = (int) counter.success.sumThenReset();
+            int failedCount = (int) counter.failed.sumThenReset();
+            LatencyHistogram.Snapshot latency = counter.latencyHistogram.snapshotAndReset();
+            if (0 == successCount && 0 == failedCount) {
+                continue;
+            }
+            result.add(new JobPerformanceStatistics(dimension, entry.getKey(), successCount, failedCount, 
+                    latency.getMean(), latency.getPercentile(50d), latency.getPercentile(90d), latency.getPercentile(99d), latency.getMax(), statisticsTime));
+        }
+    }
+    
+    private static final class PerformanceCounter {
+        
+        private final StripedCounter success = new StripedCounter();
+        
+        private final StripedCounter failed = new StripedCounter();
+        
+        private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+        
+        void record(final boolean succeed, final long latency) {
+            if (succeed) {
+                success.increment();
+            } else {
+                failed.increment();
+            }
+            latencyHistogram.record(latency);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.statistics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 耗时直方图.
+ * 
+ * <p>
+ * 采用对数线性分桶: 小于8的值每个值一个桶, 之后每个2的幂区间均分为8个桶, 相对误差不超过12.5%.
+ * 记录时只做一次原子累加, 分桶数量固定, 内存占用与记录次数无关.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class LatencyHistogram {
+    
+    private static final int SUB_BUCKET_BITS = 3;
+    
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    
+    private static final int MAX_EXPONENT = 40;
+    
+    private static final long MAX_TRACKABLE_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+    
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    
+    private final StripedCounter sum = new StripedCounter();
+    
+    private final AtomicLong max = new AtomicLong();
+    
+    /**
+     * 记录耗时.
+     * 
+     * @param value 耗时, 小于0的值忽略
+     */
+    public void record(final long value) {
+        if (value < 0L) {
+            return;
+        }
+        long trackableValue = Math.min(value, MAX_TRACKABLE_VALUE);
+        buckets.incrementAndGet(getBucketIndex(trackableValue));
+        sum.add(trackableValue);
+        long current = max.get();
+        while (trackableValue > current && !max.compareAndSet(current, trackableValue)) {
+            current = max.get();
+        }
+    }
+    
+    /**
+     * 获取快照.
+     * 
+     * <p>快照期间的并发记录可能只计入部分统计值.</p>
+     * 
+     * @return 直方图快照
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        return new Snapshot(counts, count, sum.sum(), max.get());
+    }
+    
+    /**
+     * 获取快照并清空直方图.
+     * 
+     * @return 直方图快照
+     */
+    public Snapshot snapshotAndReset() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.getAndSet(i, 0L);
+            count += counts[i];
+        }
+        return new Snapshot(counts, count, sum.sumThenReset(), max.getAndSet(0L));
+    }
+    
+    static int getBucketIndex(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+    
+    static long getBucketUpperBound(final int bucketIndex) {
+        if (bucketIndex < SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+        int exponent = bucketIndex / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucket = bucketIndex % SUB_BUCKET_COUNT;
+        long lowerBound = (long) (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+    
+    /**
+     * 耗时直方图快照.
+     */
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    @Getter
+    public static final class Snapshot {
+        
+        @Getter(AccessLevel.NONE)
+        private final long[] counts;
+        
+        private final long count;
+        
+        private final long sum;
+        
+        private final long max;
+        
+        /**
+         * 获取平均值.
+         * 
+         * @return 平均值, 没有记录时返回0
+         */
+        public long getMean() {
+            return 0L == count ? 0L : sum / count;
+        }
+        
+        /**
+         * 获取百分位值.
+         * 
+         * @param percentile 百分位, 取值范围为0至100
+         * @return 百分位值, 没有记录时返回0
+         */
+        public long getPercentile(final double percentile) {
+            if (0L == count) {
+                return 0L;
+            }
+            long targetCount = Math.max(1L, (long) Math.ceil(percentile / 100d * count));
+            long accumulated = 0L;
+            for (int i = 0; i < counts.length; i++) {
+                accumulated += counts[i];
+                if (accumulated >= targetCount) {
+                    return Math.min(getBucketUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -21,21 +21,26 @@ import com.dangdang.ddframe.job.api.JobType;
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfiguration;
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfigurationService;
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobExecutionType;
+import com.dangdang.ddframe.job.cloud.scheduler.statistics.job.JobPerformanceStatisticJob;
 import com.dangdang.ddframe.job.cloud.scheduler.statistics.job.JobRunningStatisticJob;
 import com.dangdang.ddframe.job.cloud.scheduler.statistics.job.RegisteredJobStatisticJob;
 import com.dangdang.ddframe.job.cloud.scheduler.statistics.job.TaskResultStatisticJob;
 import com.dangdang.ddframe.job.cloud.scheduler.statistics.util.StatisticTimeUtils;
+import com.dangdang.ddframe.job.context.TaskContext;
 import com.dangdang.ddframe.job.event.rdb.JobEventRdbConfiguration;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import com.dangdang.ddframe.job.statistics.StatisticInterval;
 import com.dangdang.ddframe.job.statistics.rdb.StatisticRdbRepository;
 import com.dangdang.ddframe.job.statistics.type.job.JobExecutionTypeStatistics;
+import com.dangdang.ddframe.job.statistics.type.job.JobPerformanceStatistics;
 import com.dangdang.ddframe.job.statistics.type.job.JobRegisterStatistics;
 import com.dangdang.ddframe.job.statistics.type.job.JobRunningStatistics;
 import com.dangdang.ddframe.job.statistics.type.job.JobTypeStatistics;
 import com.dangdang.ddframe.job.statistics.type.task.TaskResultStatistics;
 import com.dangdang.ddframe.job.statistics.type.task.TaskRunningStatistics;
 import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -48,6 +53,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 统计作业调度管理器.
@@ -70,6 +76,10 @@ public final class StatisticManager {
     
     private final Map<StatisticInterval, TaskResultMetaData> statisticData;
     
+    private final JobPerformanceAggregator performanceAggregator = new JobPerformanceAggregator();
+    
+    private final Cache<String, Long> taskStartTimes = CacheBuilder.newBuilder().maximumSize(100000L).expireAfterWrite(1L, TimeUnit.DAYS).build();
+    
     private StatisticRdbRepository rdbRepository;
     
     private StatisticManager(final CoordinatorRegistryCenter registryCenter, final Optional<JobEventRdbConfiguration> jobEventRdbConfiguration,
@@ -125,32 +135,79 @@ public final class StatisticManager {
             scheduler.register(new TaskResultStatisticJob(StatisticInterval.DAY, statisticData.get(StatisticInterval.DAY), rdbRepository));
             scheduler.register(new JobRunningStatisticJob(registryCenter, rdbRepository));
             scheduler.register(new RegisteredJobStatisticJob(configurationService, rdbRepository));
+            scheduler.register(new JobPerformanceStatisticJob(performanceAggregator, rdbRepository));
         }
     }
     
     /**
      * 停止统计作业调度.
+     * 
+     * <p>
+     * 停止后释放单例, 再次获取时创建新的管理器.
+     * </p>
      */
     public void shutdown() {
         scheduler.shutdown();
+        synchronized (StatisticManager.class) {
+            if (this == instance) {
+                instance = null;
+            }
+        }
+    }
+    
+    /**
+     * 任务开始运行.
+     * 
+     * @param taskContext 任务运行时上下文
+     */
+    public void taskStarted(final TaskContext taskContext) {
+        if (isRdbConfigured()) {
+            taskStartTimes.put(taskContext.getId(), System.currentTimeMillis());
+        }
     }
     
     /**
      * 任务运行成功.
+     * 
+     * @param taskContext 任务运行时上下文
      */
-    public void taskRunSuccessfully() {
+    public void taskRunSuccessfully(final TaskContext taskContext) {
         statisticData.get(StatisticInterval.MINUTE).incrementAndGetSuccessCount();
         statisticData.get(StatisticInterval.HOUR).incrementAndGetSuccessCount();
         statisticData.get(StatisticInterval.DAY).incrementAndGetSuccessCount();
+        if (isRdbConfigured()) {
+            String jobName = taskContext.getMetaInfo().getJobName();
+            performanceAggregator.recordSuccess(jobName, findAppName(jobName), pollLatency(taskContext));
+        }
     }
     
     /**
      * 作业运行失败.
+     * 
+     * @param taskContext 任务运行时上下文
      */
-    public void taskRunFailed() {
+    public void taskRunFailed(final TaskContext taskContext) {
         statisticData.get(StatisticInterval.MINUTE).incrementAndGetFailedCount();
         statisticData.get(StatisticInterval.HOUR).incrementAndGetFailedCount();
         statisticData.get(StatisticInterval.DAY).incrementAndGetFailedCount();
+        if (isRdbConfigured()) {
+            String jobName = taskContext.getMetaInfo().getJobName();
+            performanceAggregator.recordFailure(jobName, findAppName(jobName), pollLatency(taskContext));
+        }
+    }
+    
+    private long pollLatency(final TaskContext taskContext) {
+        Long startTime = taskStartTimes.getIfPresent(taskContext.getId());
+        if (null == startTime) {
+            return -1L;
+        }
+        taskStartTimes.invalidate(taskContext.getId());
+        return System.currentTimeMillis() - startTime;
+    }
+    
+    private String findAppName(final String jobName) {
+        Optional<CloudJobConfiguration> jobConfig = configurationService.load(jobName);
+        return jobConfig.isPresent() ? jobConfig.get().getAppName() : null;
     }
     
     private boolean isRdbConfigured() {
@@ -206,7 +263,22 @@ public final class StatisticManager {
         if (!isRdbConfigured()) {
             return Collections.emptyList();
         }
-        return rdbRepository.findTaskResultStatistics(StatisticTimeUtils.getStatisticTime(StatisticInterval.HOUR, -24), StatisticInterval.MINUTE);
+        Date from = StatisticTimeUtils.getStatisticTime(StatisticInterval.HOUR, -24);
+        return rdbRepository.findTaskResultStatistics(from, StatisticInterval.getResolution(from, new Date()));
+    }
+    
+    /**
+     * 获取最近一天的作业性能统计数据集合.
+     * 
+     * @param dimension 统计维度
+     * @param name 作业名称或应用名称
+     * @return 作业性能统计数据对象集合
+     */
+    public List<JobPerformanceStatistics> findJobPerformanceStatisticsDaily(final JobPerformanceStatistics.Dimension dimension, final String name) {
+        if (!isRdbConfigured()) {
+            return Collections.emptyList();
+        }
+        return rdbRepository.findJobPerformanceStatistics(StatisticTimeUtils.getStatisticTime(StatisticInterval.HOUR, -24), dimension, name);
     }
     
     /**
@@ -257,7 +329,8 @@ public final class StatisticManager {
         if (!isRdbConfigured()) {
             return Collections.emptyList();
         }
-        return rdbRepository.findTaskRunningStatistics(StatisticTimeUtils.getStatisticTime(StatisticInterval.DAY, -7));
+        Date from = StatisticTimeUtils.getStatisticTime(StatisticInterval.DAY, -7);
+        return rdbRepository.findTaskRunningStatistics(from, StatisticInterval.getResolution(from, new Date()));
     }
     
     /**
@@ -269,7 +342,8 @@ public final class StatisticManager {
         if (!isRdbConfigured()) {
             return Collections.emptyList();
         }
-        return rdbRepository.findJobRunningStatistics(StatisticTimeUtils.getStatisticTime(StatisticInterval.DAY, -7));
+        Date from = StatisticTimeUtils.getStatisticTime(StatisticInterval.DAY, -7);
+        return rdbRepository.findJobRunningStatistics(from, StatisticInterval.getResolution(from, new Date()));
     }
     
     /**
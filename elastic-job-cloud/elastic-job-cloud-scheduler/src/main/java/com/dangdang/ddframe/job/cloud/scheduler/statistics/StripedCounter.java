@@ -0,0 +1,87 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.statistics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 分段计数器.
+ * 
+ * <p>
+ * 不同线程按线程号写入不同的分段, 分段之间以填充隔开避免伪共享, 读取时合计全部分段.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+final class StripedCounter {
+    
+    private static final int STRIPES = 16;
+    
+    private static final int PADDING = 8;
+    
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+    
+    /**
+     * 增加计数.
+     * 
+     * @param delta 增加值
+     */
+    void add(final long delta) {
+        cells.addAndGet(getCellIndex(), delta);
+    }
+    
+    /**
+     * 计数加一.
+     */
+    void increment() {
+        add(1L);
+    }
+    
+    /**
+     * 获取合计值.
+     * 
+     * @return 合计值
+     */
+    long sum() {
+        long result = 0L;
+        for (int i = 0; i < STRIPES; i++) {
+            result += cells.get(i * PADDING);
+        }
+        return result;
+    }
+    
+    /**
+     * 获取合计值并清零.
+     * 
+     * @return 合计值
+     */
+    long sumThenReset() {
+        long result = 0L;
+        for (int i = 0; i < STRIPES; i++) {
+            result += cells.getAndSet(i * PADDING, 0L);
+        }
+        return result;
+    }
+    
+    private static int getCellIndex() {
+        long threadId = Thread.currentThread().getId();
+        int hash = (int) (threadId ^ (threadId >>> 32));
+        hash ^= hash >>> 16;
+        return (hash & (STRIPES - 1)) * PADDING;
+    }
+}
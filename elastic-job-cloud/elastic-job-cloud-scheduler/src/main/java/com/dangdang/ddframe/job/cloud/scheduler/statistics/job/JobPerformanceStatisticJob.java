@@ -0,0 +1,92 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.statistics.job;
+
+import com.dangdang.ddframe.job.cloud.scheduler.statistics.JobPerformanceAggregator;
+import com.dangdang.ddframe.job.cloud.scheduler.statistics.util.StatisticTimeUtils;
+import com.dangdang.ddframe.job.statistics.StatisticInterval;
+import com.dangdang.ddframe.job.statistics.rdb.StatisticRdbRepository;
+import com.dangdang.ddframe.job.statistics.type.job.JobPerformanceStatistics;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 作业性能统计作业.
+ * 
+ * <p>
+ * 每个统计周期取出流式聚合器中按作业和应用聚合的结果, 以一次批量插入写入数据库.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Slf4j
+public final class JobPerformanceStatisticJob extends AbstractStatisticJob {
+    
+    private static final StatisticInterval EXECUTE_INTERVAL = StatisticInterval.MINUTE;
+    
+    private JobPerformanceAggregator aggregator;
+    
+    private StatisticRdbRepository repository;
+    
+    @Override
+    public JobDetail buildJobDetail() {
+        return JobBuilder.newJob(this.getClass()).withIdentity(getJobName()).build();
+    }
+    
+    @Override
+    public Trigger buildTrigger() {
+        return TriggerBuilder.newTrigger()
+                .withIdentity(getTriggerName())
+                .withSchedule(CronScheduleBuilder.cronSchedule(EXECUTE_INTERVAL.getCron())
+                .withMisfireHandlingInstructionDoNothing()).build();
+    }
+    
+    @Override
+    public Map<String, Object> getDataMap() {
+        Map<String, Object> result = new HashMap<>(2);
+        result.put("aggregator", aggregator);
+        result.put("repository", repository);
+        return result;
+    }
+    
+    @Override
+    public void execute(final JobExecutionContext context) throws JobExecutionException {
+        List<JobPerformanceStatistics> jobPerformanceStatisticsList = aggregator.drain(StatisticTimeUtils.getCurrentStatisticTime(EXECUTE_INTERVAL));
+        if (jobPerformanceStatisticsList.isEmpty()) {
+            return;
+        }
+        log.debug("Add jobPerformanceStatistics, size is:{}", jobPerformanceStatisticsList.size());
+        repository.batchAddJobPerformanceStatistics(jobPerformanceStatisticsList);
+    }
+}
@@ -20,7 +20,6 @@ package com.dangdang.ddframe.job.cloud.scheduler.statistics.job;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import com.dangdang.ddframe.job.cloud.scheduler.state.running.RunningService;
 import com.dangdang.ddframe.job.cloud.scheduler.statistics.util.StatisticTimeUtils;
-import com.dangdang.ddframe.job.context.TaskContext;
 import com.dangdang.ddframe.job.statistics.StatisticInterval;
 import com.dangdang.ddframe.job.statistics.rdb.StatisticRdbRepository;
 import com.dangdang.ddframe.job.statistics.type.job.JobRunningStatistics;
@@ -37,11 +36,11 @@ import org.quartz.JobExecutionException;
 import org.quartz.Trigger;
 import org.quartz.TriggerBuilder;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * 运行中的任务统计作业.
@@ -92,66 +91,51 @@ public final class JobRunningStatisticJob extends AbstractStatisticJob {
     
     @Override
     public void execute(final JobExecutionContext context) throws JobExecutionException {
-        Map<String, Set<TaskContext>> allRunningTasks = runningService.getAllRunningTasks();
-        statisticJob(getJobRunningCount(allRunningTasks));
-        statisticTask(getTaskRunningCount(allRunningTasks));
+        statisticJob(runningService.getRunningJobCount());
+        statisticTask(runningService.getRunningTaskCount());
+        repository.rollupJobRunningStatistics();
+        repository.rollupTaskRunningStatistics();
     }
     
     private void statisticJob(final int runningCount) {
         Optional<JobRunningStatistics> latestOne = repository.findLatestJobRunningStatistics();
+        List<JobRunningStatistics> jobRunningStatisticsList = new ArrayList<>();
         if (latestOne.isPresent()) {
-            fillBlankIfNeeded(latestOne.get());
+            fillBlankIfNeeded(latestOne.get(), jobRunningStatisticsList);
         }
-        JobRunningStatistics jobRunningStatistics = new JobRunningStatistics(runningCount, StatisticTimeUtils.getCurrentStatisticTime(EXECUTE_INTERVAL));
+        jobRunningStatisticsList.add(new JobRunningStatistics(runningCount, StatisticTimeUtils.getCurrentStatisticTime(EXECUTE_INTERVAL)));
         log.debug("Add jobRunningStatistics, runningCount is:{}", runningCount);
-        repository.add(jobRunningStatistics);
+        repository.batchAddJobRunningStatistics(jobRunningStatisticsList);
     }
     
     private void statisticTask(final int runningCount) {
         Optional<TaskRunningStatistics> latestOne = repository.findLatestTaskRunningStatistics();
+        List<TaskRunningStatistics> taskRunningStatisticsList = new ArrayList<>();
         if (latestOne.isPresent()) {
-            fillBlankIfNeeded(latestOne.get());
+            fillBlankIfNeeded(latestOne.get(), taskRunningStatisticsList);
         }
-        TaskRunningStatistics taskRunningStatistics = new TaskRunningStatistics(runningCount, StatisticTimeUtils.getCurrentStatisticTime(EXECUTE_INTERVAL));
+        taskRunningStatisticsList.add(new TaskRunningStatistics(runningCount, StatisticTimeUtils.getCurrentStatisticTime(EXECUTE_INTERVAL)));
         log.debug("Add taskRunningStatistics, runningCount is:{}", runningCount);
-        repository.add(taskRunningStatistics);
+        repository.batchAddTaskRunningStatistics(taskRunningStatisticsList);
     }
     
-    private int getJobRunningCount(final Map<String, Set<TaskContext>> allRunningTasks) {
-        int result = 0;
-        for (Map.Entry<String, Set<TaskContext>> entry : allRunningTasks.entrySet()) {
-            if (!entry.getValue().isEmpty()) {
-                result++;
-            }
-        }
-        return result;
-    }
-    
-    private int getTaskRunningCount(final Map<String, Set<TaskContext>> allRunningTasks) {
-        int result = 0;
-        for (Map.Entry<String, Set<TaskContext>> entry : allRunningTasks.entrySet()) {
-            result += entry.getValue().size();
-        }
-        return result;
-    }
-    
-    private void fillBlankIfNeeded(final JobRunningStatistics latestOne) {
+    private void fillBlankIfNeeded(final JobRunningStatistics latestOne, final List<JobRunningStatistics> jobRunningStatisticsList) {
         List<Date> blankDateRange = findBlankStatisticTimes(latestOne.getStatisticsTime(), EXECUTE_INTERVAL);
         if (!blankDateRange.isEmpty()) {
             log.debug("Fill blank range of jobRunningStatistics, range is:{}", blankDateRange);
         }
         for (Date each : blankDateRange) {
-            repository.add(new JobRunningStatistics(latestOne.getRunningCount(), each));
+            jobRunningStatisticsList.add(new JobRunningStatistics(latestOne.getRunningCount(), each));
         }
     }
     
-    private void fillBlankIfNeeded(final TaskRunningStatistics latestOne) {
+    private void fillBlankIfNeeded(final TaskRunningStatistics latestOne, final List<TaskRunningStatistics> taskRunningStatisticsList) {
         List<Date> blankDateRange = findBlankStatisticTimes(latestOne.getStatisticsTime(), EXECUTE_INTERVAL);
         if (!blankDateRange.isEmpty()) {
             log.debug("Fill blank range of taskRunningStatistics, range is:{}", blankDateRange);
         }
         for (Date each : blankDateRange) {
-            repository.add(new TaskRunningStatistics(latestOne.getRunningCount(), each));
+            taskRunningStatisticsList.add(new TaskRunningStatistics(latestOne.getRunningCount(), each));
         }
     }
 }
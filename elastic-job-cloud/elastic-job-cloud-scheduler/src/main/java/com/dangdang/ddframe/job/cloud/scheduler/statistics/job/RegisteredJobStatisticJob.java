@@ -35,6 +35,7 @@ import org.quartz.JobExecutionException;
 import org.quartz.Trigger;
 import org.quartz.TriggerBuilder;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -81,22 +82,23 @@ public final class RegisteredJobStatisticJob extends AbstractStatisticJob {
     @Override
     public void execute(final JobExecutionContext context) throws JobExecutionException {
         Optional<JobRegisterStatistics> latestOne = repository.findLatestJobRegisterStatistics();
+        List<JobRegisterStatistics> jobRegisterStatisticsList = new ArrayList<>();
         if (latestOne.isPresent()) {
-            fillBlankIfNeeded(latestOne.get());
+            fillBlankIfNeeded(latestOne.get(), jobRegisterStatisticsList);
         }
         int registeredCount = configurationService.loadAll().size();
-        JobRegisterStatistics jobRegisterStatistics = new JobRegisterStatistics(registeredCount, StatisticTimeUtils.getCurrentStatisticTime(execInterval));
+        jobRegisterStatisticsList.add(new JobRegisterStatistics(registeredCount, StatisticTimeUtils.getCurrentStatisticTime(execInterval)));
         log.debug("Add jobRegisterStatistics, registeredCount is:{}", registeredCount);
-        repository.add(jobRegisterStatistics);
+        repository.batchAddJobRegisterStatistics(jobRegisterStatisticsList);
     }
     
-    private void fillBlankIfNeeded(final JobRegisterStatistics latestOne) {
+    private void fillBlankIfNeeded(final JobRegisterStatistics latestOne, final List<JobRegisterStatistics> jobRegisterStatisticsList) {
         List<Date> blankDateRange = findBlankStatisticTimes(latestOne.getStatisticsTime(), execInterval);
         if (!blankDateRange.isEmpty()) {
             log.debug("Fill blank range of jobRegisterStatistics, range is:{}", blankDateRange);
         }
         for (Date each : blankDateRange) {
-            repository.add(new JobRegisterStatistics(latestOne.getRegisteredCount(), each));
+            jobRegisterStatisticsList.add(new JobRegisterStatistics(latestOne.getRegisteredCount(), each));
         }
     }
 }
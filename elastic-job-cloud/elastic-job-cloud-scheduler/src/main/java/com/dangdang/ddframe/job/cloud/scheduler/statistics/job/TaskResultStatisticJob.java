@@ -35,6 +35,7 @@ import org.quartz.JobExecutionException;
 import org.quartz.Trigger;
 import org.quartz.TriggerBuilder;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -84,25 +85,26 @@ public final class TaskResultStatisticJob extends AbstractStatisticJob {
     @Override
     public void execute(final JobExecutionContext context) throws JobExecutionException {
         Optional<TaskResultStatistics> latestOne = repository.findLatestTaskResultStatistics(statisticInterval);
+        List<TaskResultStatistics> taskResultStatisticsList = new ArrayList<>();
         if (latestOne.isPresent()) {
-            fillBlankIfNeeded(latestOne.get());
+            fillBlankIfNeeded(latestOne.get(), taskResultStatisticsList);
         }
-        TaskResultStatistics taskResultStatistics = new TaskResultStatistics(
+        taskResultStatisticsList.add(new TaskResultStatistics(
                 sharedData.getSuccessCount(), sharedData.getFailedCount(), statisticInterval,
-                StatisticTimeUtils.getCurrentStatisticTime(statisticInterval));
+                StatisticTimeUtils.getCurrentStatisticTime(statisticInterval)));
         log.debug("Add taskResultStatistics, statisticInterval is:{}, successCount is:{}, failedCount is:{}", 
                 statisticInterval, sharedData.getSuccessCount(), sharedData.getFailedCount());
-        repository.add(taskResultStatistics);
+        repository.batchAddTaskResultStatistics(taskResultStatisticsList);
         sharedData.reset();
     }
     
-    private void fillBlankIfNeeded(final TaskResultStatistics latestOne) {
+    private void fillBlankIfNeeded(final TaskResultStatistics latestOne, final List<TaskResultStatistics> taskResultStatisticsList) {
         List<Date> blankDateRange = findBlankStatisticTimes(latestOne.getStatisticsTime(), statisticInterval);
         if (!blankDateRange.isEmpty()) {
             log.debug("Fill blank range of taskResultStatistics, range is:{}", blankDateRange);
         }
         for (Date each : blankDateRange) {
-            repository.add(new TaskResultStatistics(latestOne.getSuccessCount(), latestOne.getFailedCount(), statisticInterval, each));
+            taskResultStatisticsList.add(new TaskResultStatistics(latestOne.getSuccessCount(), latestOne.getFailedCount(), statisticInterval, each));
         }
     }
 }
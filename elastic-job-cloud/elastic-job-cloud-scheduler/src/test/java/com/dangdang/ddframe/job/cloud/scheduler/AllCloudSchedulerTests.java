@@ -24,6 +24,7 @@ import com.dangdang.ddframe.job.cloud.scheduler.ha.AllHATests;
 import com.dangdang.ddframe.job.cloud.scheduler.mesos.AllMesosTests;
 import com.dangdang.ddframe.job.cloud.scheduler.producer.AllProducerTests;
 import com.dangdang.ddframe.job.cloud.scheduler.restful.AllRestfulTests;
+import com.dangdang.ddframe.job.cloud.scheduler.simulator.AllSimulatorTests;
 import com.dangdang.ddframe.job.cloud.scheduler.state.AllStateTests;
 import com.dangdang.ddframe.job.cloud.scheduler.statistics.AllStatisticTests;
 import org.junit.runner.RunWith;
@@ -39,7 +40,8 @@ import org.junit.runners.Suite;
         AllRestfulTests.class, 
         AllMesosTests.class,
         AllStatisticTests.class,
-        AllHATests.class
+        AllHATests.class,
+        AllSimulatorTests.class
     })
 public final class AllCloudSchedulerTests {
 }
@@ -25,7 +25,8 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
         AllCloudAppConfigTests.class,
-        AllCloudJobConfigTests.class
+        AllCloudJobConfigTests.class, 
+        CloudConfigurationRepositoryTest.class
     })
 public final class AllConfigTests {
 }
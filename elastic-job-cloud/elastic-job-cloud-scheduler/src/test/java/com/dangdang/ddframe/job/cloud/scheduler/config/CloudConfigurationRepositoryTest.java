@@ -0,0 +1,122 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.config;
+
+import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfiguration;
+import com.dangdang.ddframe.job.cloud.scheduler.fixture.CloudJsonConstants;
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableMap;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.zookeeper.data.Stat;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collection;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public final class CloudConfigurationRepositoryTest {
+    
+    @Mock
+    private CoordinatorRegistryCenter regCenter;
+    
+    @Mock
+    private TreeCache cache;
+    
+    @Test
+    public void assertStart() {
+        CloudConfigurationRepository.getInstance(regCenter).start();
+        verify(regCenter).addCacheData("/config/job");
+        verify(regCenter).addCacheData("/config/app");
+    }
+    
+    @Test
+    public void assertStartWithExistedCache() {
+        when(regCenter.getRawCache("/config/job")).thenReturn(cache);
+        when(regCenter.getRawCache("/config/app")).thenReturn(cache);
+        CloudConfigurationRepository.getInstance(regCenter).start();
+        verify(regCenter, never()).addCacheData("/config/job");
+        verify(regCenter, never()).addCacheData("/config/app");
+    }
+    
+    @Test
+    public void assertGetInstanceForSameRegistryCenter() {
+        assertThat(CloudConfigurationRepository.getInstance(regCenter), sameInstance(CloudConfigurationRepository.getInstance(regCenter)));
+    }
+    
+    @Test
+    public void assertLoadJobConfigurationWithoutCache() {
+        when(regCenter.get("/config/job/test_job")).thenReturn(CloudJsonConstants.getJobJson());
+        assertThat(CloudConfigurationRepository.getInstance(regCenter).loadJobConfiguration("test_job").get().getJobName(), is("test_job"));
+        verify(regCenter).get("/config/job/test_job");
+    }
+    
+    @Test
+    public void assertLoadJobConfigurationFromCacheWithSameVersion() {
+        when(regCenter.getRawCache("/config/job")).thenReturn(cache);
+        when(cache.getCurrentData("/config/job/test_job")).thenReturn(createChildData("/config/job/test_job", 1L, CloudJsonConstants.getJobJson()));
+        CloudConfigurationRepository repository = CloudConfigurationRepository.getInstance(regCenter);
+        CloudJobConfiguration actual = repository.loadJobConfiguration("test_job").get();
+        assertThat(repository.loadJobConfiguration("test_job").get(), sameInstance(actual));
+        verify(regCenter, never()).get("/config/job/test_job");
+    }
+    
+    @Test
+    public void assertLoadJobConfigurationFromCacheWithNewVersion() {
+        when(regCenter.getRawCache("/config/job")).thenReturn(cache);
+        when(cache.getCurrentData("/config/job/test_job")).thenReturn(
+                createChildData("/config/job/test_job", 1L, CloudJsonConstants.getJobJson()), createChildData("/config/job/test_job", 2L, CloudJsonConstants.getJobJson()));
+        CloudConfigurationRepository repository = CloudConfigurationRepository.getInstance(regCenter);
+        CloudJobConfiguration actual = repository.loadJobConfiguration("test_job").get();
+        assertThat(repository.loadJobConfiguration("test_job").get(), not(sameInstance(actual)));
+    }
+    
+    @Test
+    public void assertLoadAppConfigurationWithoutConfig() {
+        assertFalse(CloudConfigurationRepository.getInstance(regCenter).loadAppConfiguration("test_app").isPresent());
+    }
+    
+    @Test
+    public void assertLoadAllJobConfigurationsFromCache() {
+        when(regCenter.getRawCache("/config/job")).thenReturn(cache);
+        when(cache.getCurrentChildren("/config/job")).thenReturn(ImmutableMap.of("test_job", createChildData("/config/job/test_job", 1L, CloudJsonConstants.getJobJson())));
+        when(cache.getCurrentData("/config/job/test_job")).thenReturn(createChildData("/config/job/test_job", 1L, CloudJsonConstants.getJobJson()));
+        Collection<CloudJobConfiguration> actual = CloudConfigurationRepository.getInstance(regCenter).loadAllJobConfigurations();
+        assertThat(actual.size(), is(1));
+        assertThat(actual.iterator().next().getJobName(), is("test_job"));
+        verify(regCenter, never()).getChildrenKeys("/config/job");
+    }
+    
+    private ChildData createChildData(final String path, final long version, final String data) {
+        Stat stat = new Stat();
+        stat.setMzxid(version);
+        return new ChildData(path, stat, data.getBytes(Charsets.UTF_8));
+    }
+}
@@ -29,6 +29,7 @@ import java.util.Map;
 import java.util.Properties;
 
 import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.junit.Assert.assertThat;
@@ -102,10 +103,24 @@ public final class BootstrapEnvironmentTest {
         assertThat(jobEventRdbConfigurationMap.get(EnvironmentArgument.EVENT_TRACE_RDB_PASSWORD.getKey()), is("password"));
     }
     
+    @Test
+    public void assertIsCompactTaskData() throws NoSuchFieldException {
+        assertFalse(bootstrapEnvironment.isCompactTaskData());
+        Properties properties = new Properties();
+        properties.setProperty(EnvironmentArgument.COMPACT_TASK_DATA.getKey(), "true");
+        ReflectionUtils.setFieldValue(bootstrapEnvironment, "properties", properties);
+        assertTrue(bootstrapEnvironment.isCompactTaskData());
+        ReflectionUtils.setFieldValue(bootstrapEnvironment, "properties", new Properties());
+    }
+    
     @Test
     public void assertReconcileConfiguration() throws NoSuchFieldException {
         FrameworkConfiguration configuration = bootstrapEnvironment.getFrameworkConfiguration();
         assertThat(configuration.getReconcileIntervalMinutes(), is(-1));
+        assertThat(configuration.getImplicitReconcileIntervalMinutes(), is(1440));
+        assertThat(configuration.getReconcileStaleSeconds(), is(300));
+        assertThat(configuration.getReconcileBatchSize(), is(1000));
+        assertThat(configuration.getReconcileBatchIntervalMilliseconds(), is(1000L));
         assertFalse(configuration.isEnabledReconcile());
         Properties properties = new Properties();
         properties.setProperty(EnvironmentArgument.RECONCILE_INTERVAL_MINUTES.getKey(), "0");
@@ -35,7 +35,10 @@ import org.junit.runners.Suite;
         FrameworkIDServiceTest.class, 
         MesosStateServiceTest.class, 
         ReconcileServiceTest.class, 
-        AppConstraintEvaluatorTest.class
+        AppConstraintEvaluatorTest.class, 
+        TaskLaunchMetricsTest.class, 
+        TaskStatusDispatcherTest.class, 
+        TaskStatusTrackerTest.class
     })
 public final class AllMesosTests {
 }
@@ -51,6 +51,7 @@ import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public final class AppConstraintEvaluatorTest {
@@ -145,6 +146,20 @@ public final class AppConstraintEvaluatorTest {
         assertThat(getAssignedTaskNumber(result), is(1));
     }
     
+    @Test
+    public void assertLoadConfigOncePerRound() throws Exception {
+        when(facadeService.load("once")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("once", "once-app")));
+        when(facadeService.loadAppConfig("once-app")).thenReturn(Optional.of(CloudAppConfigurationBuilder.createCloudAppConfiguration("once-app")));
+        List<TaskRequest> tasks = new ArrayList<>(10);
+        for (int i = 0; i < 10; i++) {
+            tasks.add(getTask("once"));
+        }
+        SchedulingResult result = taskScheduler.scheduleOnce(tasks, Arrays.asList(getLease(0, SUFFICIENT_CPU, SUFFICIENT_MEM), getLease(1, SUFFICIENT_CPU, SUFFICIENT_MEM)));
+        assertThat(getAssignedTaskNumber(result), is(10));
+        verify(facadeService).load("once");
+        verify(facadeService).loadAppConfig("once-app");
+    }
+    
     private VirtualMachineLease getLease(final int index, final double cpus, final double mem) {
         return new VMLeaseObject(Protos.Offer.newBuilder()
                 .setId(Protos.OfferID.newBuilder().setValue("offer" + index))
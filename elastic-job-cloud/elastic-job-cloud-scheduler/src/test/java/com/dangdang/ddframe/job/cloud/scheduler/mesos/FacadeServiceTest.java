@@ -46,6 +46,7 @@ import org.unitils.util.ReflectionUtils;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertFalse;
@@ -104,6 +105,7 @@ public final class FacadeServiceTest {
     public void assertStart() {
         facadeService.start();
         verify(runningService).start();
+        verify(readyService).start();
     }
     
     @Test
@@ -146,6 +148,13 @@ public final class FacadeServiceTest {
         verify(runningService).add(taskContext);
     }
     
+    @Test
+    public void assertAddRunningCollection() {
+        List<TaskContext> taskContexts = Collections.singletonList(TaskContext.from(TaskNode.builder().build().getTaskNodeValue()));
+        facadeService.addRunning(taskContexts);
+        verify(runningService).add(taskContexts);
+    }
+    
     @Test
     public void assertUpdateDaemonStatus() {
         TaskContext taskContext = TaskContext.from(TaskNode.builder().build().getTaskNodeValue());
@@ -261,6 +270,7 @@ public final class FacadeServiceTest {
     public void assertStop() {
         facadeService.stop();
         verify(runningService).clear();
+        verify(readyService).stop();
     }
     
     @Test
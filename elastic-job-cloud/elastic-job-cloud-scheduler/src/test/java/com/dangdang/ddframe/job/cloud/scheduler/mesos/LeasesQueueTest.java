@@ -18,9 +18,13 @@
 package com.dangdang.ddframe.job.cloud.scheduler.mesos;
 
 import com.dangdang.ddframe.job.cloud.scheduler.mesos.fixture.OfferBuilder;
+import com.netflix.fenzo.VirtualMachineLease;
 import org.junit.Test;
 
+import java.util.List;
+
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -35,4 +39,24 @@ public final class LeasesQueueTest {
         leasesQueue.offer(OfferBuilder.createOffer("offer_2"));
         assertThat(leasesQueue.drainTo().size(), is(2));
     }
+    
+    @Test
+    public void assertOfferDuplicated() {
+        leasesQueue.offer(OfferBuilder.createOffer("offer_1"));
+        leasesQueue.offer(OfferBuilder.createOffer("offer_1"));
+        assertThat(leasesQueue.size(), is(1));
+        assertThat(leasesQueue.drainTo().size(), is(1));
+    }
+    
+    @Test
+    public void assertRescind() {
+        leasesQueue.offer(OfferBuilder.createOffer("offer_1"));
+        leasesQueue.offer(OfferBuilder.createOffer("offer_2"));
+        assertTrue(leasesQueue.rescind("offer_1"));
+        assertFalse(leasesQueue.rescind("offer_1"));
+        List<VirtualMachineLease> actual = leasesQueue.drainTo();
+        assertThat(actual.size(), is(1));
+        assertThat(actual.get(0).getOffer().getId().getValue(), is("offer_2"));
+        assertThat(leasesQueue.size(), is(0));
+    }
 }
@@ -17,26 +17,34 @@
 
 package com.dangdang.ddframe.job.cloud.scheduler.mesos;
 
+import com.dangdang.ddframe.job.cloud.scheduler.env.BootstrapEnvironment;
+import com.dangdang.ddframe.job.cloud.scheduler.env.BootstrapEnvironment.EnvironmentArgument;
 import com.dangdang.ddframe.job.context.TaskContext;
 import com.google.common.collect.Sets;
 import org.apache.mesos.Protos;
 import org.apache.mesos.SchedulerDriver;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.unitils.util.ReflectionUtils;
 
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -59,12 +67,26 @@ public final class ReconcileServiceTest {
         reconcileService = new ReconcileService(schedulerDriver, facadeService);
     }
     
+    @After
+    public void tearDown() throws NoSuchFieldException {
+        ReflectionUtils.setFieldValue(BootstrapEnvironment.getInstance(), "properties", new Properties());
+        TaskStatusTracker.getInstance().retain(Collections.<String>emptySet());
+    }
+    
     @Test
     public void assertRunOneIteration() throws Exception {
         reconcileService.runOneIteration();
         verify(schedulerDriver).reconcileTasks(Collections.<Protos.TaskStatus>emptyList());
     }
     
+    @Test
+    public void assertRunOneIterationWithFreshTasks() throws Exception {
+        when(facadeService.getAllRunningTasks()).thenReturn(createRunningTaskMap());
+        reconcileService.runOneIteration();
+        reconcileService.runOneIteration();
+        verify(schedulerDriver).reconcileTasks(Mockito.<Collection<Protos.TaskStatus>>any());
+        verify(schedulerDriver).reconcileTasks(Collections.<Protos.TaskStatus>emptyList());
+    }
     
     @Test
     public void assertImplicitReconcile() {
@@ -86,4 +108,52 @@ public final class ReconcileServiceTest {
             assertThat(each.getState(), is(Protos.TaskState.TASK_RUNNING));
         }
     }
+    
+    @Test
+    public void assertExplicitReconcileInBatches() throws NoSuchFieldException {
+        setBatchSize(1);
+        when(facadeService.getAllRunningTasks()).thenReturn(createRunningTaskMap());
+        reconcileService.explicitReconcile();
+        verify(schedulerDriver, times(2)).reconcileTasks(taskStatusCaptor.capture());
+        for (Collection<Protos.TaskStatus> each : taskStatusCaptor.getAllValues()) {
+            assertThat(each.size(), is(1));
+        }
+    }
+    
+    @Test
+    public void assertIncrementalReconcileWithoutStaleTasks() {
+        when(facadeService.getAllRunningTasks()).thenReturn(createRunningTaskMap());
+        reconcileService.incrementalReconcile();
+        verify(schedulerDriver, never()).reconcileTasks(Mockito.<Collection<Protos.TaskStatus>>any());
+        assertThat(TaskStatusTracker.getInstance().size(), is(2));
+    }
+    
+    @Test
+    public void assertIncrementalReconcileWithStaleTasks() {
+        when(facadeService.getAllRunningTasks()).thenReturn(createRunningTaskMap());
+        TaskStatusTracker.getInstance().touch("transient_test_job@-@0@-@READY@-@SLAVE-S0@-@UUID", 0L);
+        TaskStatusTracker.getInstance().touch("transient_test_job@-@1@-@READY@-@SLAVE-S0@-@UUID");
+        TaskStatusTracker.getInstance().touch("finished_test_job@-@0@-@READY@-@SLAVE-S0@-@UUID", 0L);
+        reconcileService.incrementalReconcile();
+        verify(schedulerDriver).reconcileTasks(taskStatusCaptor.capture());
+        assertThat(taskStatusCaptor.getValue().size(), is(1));
+        assertThat(taskStatusCaptor.getValue().iterator().next().getTaskId().getValue(), is("transient_test_job@-@0@-@READY@-@SLAVE-S0@-@UUID"));
+        assertThat(TaskStatusTracker.getInstance().size(), is(2));
+        reconcileService.incrementalReconcile();
+        verify(schedulerDriver).reconcileTasks(Mockito.<Collection<Protos.TaskStatus>>any());
+    }
+    
+    private Map<String, Set<TaskContext>> createRunningTaskMap() {
+        Map<String, Set<TaskContext>> result = new HashMap<>();
+        result.put("transient_test_job", Sets.newHashSet(
+                TaskContext.from("transient_test_job@-@0@-@READY@-@SLAVE-S0@-@UUID"), TaskContext.from("transient_test_job@-@1@-@READY@-@SLAVE-S0@-@UUID")));
+        return result;
+    }
+    
+    private void setBatchSize(final int batchSize) throws NoSuchFieldException {
+        Properties properties = new Properties();
+        properties.setProperty(EnvironmentArgument.RECONCILE_BATCH_SIZE.getKey(), String.valueOf(batchSize));
+        properties.setProperty(EnvironmentArgument.RECONCILE_BATCH_INTERVAL_MILLISECONDS.getKey(), "0");
+        ReflectionUtils.setFieldValue(BootstrapEnvironment.getInstance(), "properties", properties);
+    }
 }
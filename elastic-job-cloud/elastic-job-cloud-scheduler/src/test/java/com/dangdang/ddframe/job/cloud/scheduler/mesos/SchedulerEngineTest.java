@@ -27,6 +27,7 @@ import com.dangdang.ddframe.job.context.TaskContext;
 import com.dangdang.ddframe.job.event.JobEventBus;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import com.google.common.base.Optional;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.netflix.fenzo.TaskScheduler;
 import com.netflix.fenzo.functions.Action2;
 import org.apache.mesos.Protos;
@@ -34,19 +35,26 @@ import org.apache.mesos.SchedulerDriver;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.unitils.util.ReflectionUtils;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -66,11 +74,14 @@ public final class SchedulerEngineTest {
     @Mock
     private StatisticManager statisticManager;
     
+    @Mock
+    private SchedulerDriver schedulerDriver;
+    
     private SchedulerEngine schedulerEngine;
     
     @Before
     public void setUp() throws NoSuchFieldException {
-        schedulerEngine = new SchedulerEngine(taskScheduler, facadeService, new JobEventBus(), frameworkIDService, statisticManager);
+        schedulerEngine = new SchedulerEngine(taskScheduler, facadeService, new JobEventBus(), frameworkIDService, statisticManager, MoreExecutors.newDirectExecutorService());
         ReflectionUtils.setFieldValue(schedulerEngine, "facadeService", facadeService);
         when(facadeService.load("test_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job")));
         new RunningService(Mockito.mock(CoordinatorRegistryCenter.class)).clear();
@@ -91,7 +102,6 @@ public final class SchedulerEngineTest {
     
     @Test
     public void assertResourceOffers() {
-        SchedulerDriver schedulerDriver = mock(SchedulerDriver.class);
         List<Protos.Offer> offers = Arrays.asList(OfferBuilder.createOffer("offer_0"), OfferBuilder.createOffer("offer_1"));
         schedulerEngine.resourceOffers(schedulerDriver, offers);
         assertThat(LeasesQueue.getInstance().drainTo().size(), is(2));
@@ -103,39 +113,85 @@ public final class SchedulerEngineTest {
         verify(taskScheduler).expireLease("myOffer");
     }
     
+    @Test
+    public void assertOfferRescindedBeforeScheduled() {
+        LeasesQueue.getInstance().offer(OfferBuilder.createOffer("queued_offer"));
+        schedulerEngine.offerRescinded(null, Protos.OfferID.newBuilder().setValue("queued_offer").build());
+        verify(taskScheduler, never()).expireLease("queued_offer");
+        assertTrue(LeasesQueue.getInstance().drainTo().isEmpty());
+    }
+    
     @Test
     public void assertRunningStatusUpdateForDaemonJobBegin() {
         TaskNode taskNode = TaskNode.builder().build();
-        schedulerEngine.statusUpdate(null, Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
+        schedulerEngine.statusUpdate(schedulerDriver, Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
                 .setState(Protos.TaskState.TASK_RUNNING).setMessage("BEGIN").setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build());
         verify(facadeService).updateDaemonStatus(TaskContext.from(taskNode.getTaskNodeValue()), false);
+        verify(statisticManager).taskStarted(TaskContext.from(taskNode.getTaskNodeValue()));
     }
     
     @Test
     public void assertRunningStatusUpdateForDaemonJobComplete() {
         TaskNode taskNode = TaskNode.builder().build();
-        schedulerEngine.statusUpdate(null, Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
+        schedulerEngine.statusUpdate(schedulerDriver, Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
                 .setState(Protos.TaskState.TASK_RUNNING).setMessage("COMPLETE").setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build());
         verify(facadeService).updateDaemonStatus(TaskContext.from(taskNode.getTaskNodeValue()), true);
+        verify(statisticManager).taskRunSuccessfully(TaskContext.from(taskNode.getTaskNodeValue()));
     }
     
     @Test
     public void assertRunningStatusUpdateForOther() {
         TaskNode taskNode = TaskNode.builder().build();
-        schedulerEngine.statusUpdate(null, Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
+        schedulerEngine.statusUpdate(schedulerDriver, Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
                 .setState(Protos.TaskState.TASK_RUNNING).setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build());
         verify(facadeService, times(0)).updateDaemonStatus(TaskContext.from(taskNode.getTaskNodeValue()), eq(anyBoolean()));
+        verify(statisticManager).taskStarted(TaskContext.from(taskNode.getTaskNodeValue()));
     }
     
     @Test
     public void assertFinishedStatusUpdateWithoutLaunchedTasks() {
         TaskNode taskNode = TaskNode.builder().build();
-        schedulerEngine.statusUpdate(null, Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
+        schedulerEngine.statusUpdate(schedulerDriver, Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
                 .setState(Protos.TaskState.TASK_FINISHED).setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build());
-        verify(facadeService).removeRunning(TaskContext.from(taskNode.getTaskNodeValue()));
+        verify(facadeService).removeRunning(Collections.singletonList(TaskContext.from(taskNode.getTaskNodeValue())));
         verify(taskScheduler, times(0)).getTaskUnAssigner();
     }
     
+    @Test
+    public void assertStatusUpdateAcknowledgedAfterHandled() {
+        TaskNode taskNode = TaskNode.builder().build();
+        Protos.TaskStatus taskStatus = Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
+                .setState(Protos.TaskState.TASK_FINISHED).setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build();
+        schedulerEngine.statusUpdate(schedulerDriver, taskStatus);
+        InOrder inOrder = Mockito.inOrder(statisticManager, schedulerDriver);
+        inOrder.verify(statisticManager).taskRunSuccessfully(TaskContext.from(taskNode.getTaskNodeValue()));
+        inOrder.verify(schedulerDriver).acknowledgeStatusUpdate(taskStatus);
+    }
+    
+    @Test
+    public void assertStatusUpdateNotAcknowledgedWhenHandleFailure() {
+        TaskNode taskNode = TaskNode.builder().build();
+        Protos.TaskStatus taskStatus = Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
+                .setState(Protos.TaskState.TASK_FINISHED).setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build();
+        doThrow(new IllegalStateException()).when(statisticManager).taskRunSuccessfully(TaskContext.from(taskNode.getTaskNodeValue()));
+        schedulerEngine.statusUpdate(schedulerDriver, taskStatus);
+        verify(schedulerDriver, never()).acknowledgeStatusUpdate(taskStatus);
+    }
+    
+    @Test
+    public void assertShutdown() {
+        ExecutorService taskStatusExecutor = mock(ExecutorService.class);
+        new SchedulerEngine(taskScheduler, facadeService, new JobEventBus(), frameworkIDService, statisticManager, taskStatusExecutor).shutdown();
+        verify(taskStatusExecutor).shutdownNow();
+    }
+    
+    @Test
+    public void assertAwaitTermination() throws InterruptedException {
+        ExecutorService taskStatusExecutor = mock(ExecutorService.class);
+        when(taskStatusExecutor.awaitTermination(1000L, TimeUnit.MILLISECONDS)).thenReturn(true);
+        assertTrue(new SchedulerEngine(taskScheduler, facadeService, new JobEventBus(), frameworkIDService, statisticManager, taskStatusExecutor).awaitTermination(1000L));
+    }
+    
     @Test
     public void assertFinishedStatusUpdate() {
         @SuppressWarnings("unchecked")
@@ -143,11 +199,11 @@ public final class SchedulerEngineTest {
         when(taskScheduler.getTaskUnAssigner()).thenReturn(taskUnAssigner);
         TaskNode taskNode = TaskNode.builder().build();
         when(facadeService.popMapping(taskNode.getTaskNodeValue())).thenReturn("localhost");
-        schedulerEngine.statusUpdate(null, Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
+        schedulerEngine.statusUpdate(schedulerDriver, Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
                 .setState(Protos.TaskState.TASK_FINISHED).setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build());
-        verify(facadeService).removeRunning(TaskContext.from(taskNode.getTaskNodeValue()));
+        verify(facadeService).removeRunning(Collections.singletonList(TaskContext.from(taskNode.getTaskNodeValue())));
         verify(taskUnAssigner).call(TaskContext.getIdForUnassignedSlave(taskNode.getTaskNodeValue()), "localhost");
-        verify(statisticManager).taskRunSuccessfully();
+        verify(statisticManager).taskRunSuccessfully(TaskContext.from(taskNode.getTaskNodeValue()));
     }
     
     @Test
@@ -157,9 +213,9 @@ public final class SchedulerEngineTest {
         when(taskScheduler.getTaskUnAssigner()).thenReturn(taskUnAssigner);
         TaskNode taskNode = TaskNode.builder().build();
         when(facadeService.popMapping(taskNode.getTaskNodeValue())).thenReturn("localhost");
-        schedulerEngine.statusUpdate(null, Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
+        schedulerEngine.statusUpdate(schedulerDriver, Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
                 .setState(Protos.TaskState.TASK_KILLED).setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build());
-        verify(facadeService).removeRunning(TaskContext.from(taskNode.getTaskNodeValue()));
+        verify(facadeService).removeRunning(Collections.singletonList(TaskContext.from(taskNode.getTaskNodeValue())));
         verify(facadeService).addDaemonJobToReadyQueue("test_job");
         verify(taskUnAssigner).call(TaskContext.getIdForUnassignedSlave(taskNode.getTaskNodeValue()), "localhost");
     }
@@ -171,12 +227,12 @@ public final class SchedulerEngineTest {
         when(taskScheduler.getTaskUnAssigner()).thenReturn(taskUnAssigner);
         TaskNode taskNode = TaskNode.builder().build();
         when(facadeService.popMapping(taskNode.getTaskNodeValue())).thenReturn("localhost");
-        schedulerEngine.statusUpdate(null, Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
+        schedulerEngine.statusUpdate(schedulerDriver, Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
                 .setState(Protos.TaskState.TASK_FAILED).setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build());
         verify(facadeService).recordFailoverTask(TaskContext.from(taskNode.getTaskNodeValue()));
-        verify(facadeService).removeRunning(TaskContext.from(taskNode.getTaskNodeValue()));
+        verify(facadeService).removeRunning(Collections.singletonList(TaskContext.from(taskNode.getTaskNodeValue())));
         verify(taskUnAssigner).call(TaskContext.getIdForUnassignedSlave(taskNode.getTaskNodeValue()), "localhost");
-        verify(statisticManager).taskRunFailed();
+        verify(statisticManager).taskRunFailed(TaskContext.from(taskNode.getTaskNodeValue()));
     }
     
     @Test
@@ -186,12 +242,12 @@ public final class SchedulerEngineTest {
         when(taskScheduler.getTaskUnAssigner()).thenReturn(taskUnAssigner);
         TaskNode taskNode = TaskNode.builder().build();
         when(facadeService.popMapping(taskNode.getTaskNodeValue())).thenReturn("localhost");
-        schedulerEngine.statusUpdate(null, Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
+        schedulerEngine.statusUpdate(schedulerDriver, Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue()))
                 .setState(Protos.TaskState.TASK_ERROR).setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build());
         verify(facadeService).recordFailoverTask(TaskContext.from(taskNode.getTaskNodeValue()));
-        verify(facadeService).removeRunning(TaskContext.from(taskNode.getTaskNodeValue()));
+        verify(facadeService).removeRunning(Collections.singletonList(TaskContext.from(taskNode.getTaskNodeValue())));
         verify(taskUnAssigner).call(TaskContext.getIdForUnassignedSlave(taskNode.getTaskNodeValue()), "localhost");
-        verify(statisticManager).taskRunFailed();
+        verify(statisticManager).taskRunFailed(TaskContext.from(taskNode.getTaskNodeValue()));
     }
     
     @Test
@@ -201,12 +257,12 @@ public final class SchedulerEngineTest {
         when(taskScheduler.getTaskUnAssigner()).thenReturn(taskUnAssigner);
         TaskNode taskNode = TaskNode.builder().build();
         when(facadeService.popMapping(taskNode.getTaskNodeValue())).thenReturn("localhost");
-        schedulerEngine.statusUpdate(null, Protos.TaskStatus.newBuilder()
+        schedulerEngine.statusUpdate(schedulerDriver, Protos.TaskStatus.newBuilder()
                 .setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue())).setState(Protos.TaskState.TASK_LOST).setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build());
         verify(facadeService).recordFailoverTask(TaskContext.from(taskNode.getTaskNodeValue()));
-        verify(facadeService).removeRunning(TaskContext.from(taskNode.getTaskNodeValue()));
+        verify(facadeService).removeRunning(Collections.singletonList(TaskContext.from(taskNode.getTaskNodeValue())));
         verify(taskUnAssigner).call(TaskContext.getIdForUnassignedSlave(taskNode.getTaskNodeValue()), "localhost");
-        verify(statisticManager).taskRunFailed();
+        verify(statisticManager).taskRunFailed(TaskContext.from(taskNode.getTaskNodeValue()));
     }
     
     @Test
@@ -216,13 +272,13 @@ public final class SchedulerEngineTest {
         when(taskScheduler.getTaskUnAssigner()).thenReturn(taskUnAssigner);
         TaskNode taskNode = TaskNode.builder().build();
         when(facadeService.popMapping(taskNode.getTaskNodeValue())).thenReturn("localhost");
-        schedulerEngine.statusUpdate(null, Protos.TaskStatus.newBuilder()
+        schedulerEngine.statusUpdate(schedulerDriver, Protos.TaskStatus.newBuilder()
                 .setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue())).setState(Protos.TaskState.TASK_DROPPED)
                 .setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build());
         verify(facadeService).recordFailoverTask(TaskContext.from(taskNode.getTaskNodeValue()));
-        verify(facadeService).removeRunning(TaskContext.from(taskNode.getTaskNodeValue()));
+        verify(facadeService).removeRunning(Collections.singletonList(TaskContext.from(taskNode.getTaskNodeValue())));
         verify(taskUnAssigner).call(TaskContext.getIdForUnassignedSlave(taskNode.getTaskNodeValue()), "localhost");
-        verify(statisticManager).taskRunFailed();
+        verify(statisticManager).taskRunFailed(TaskContext.from(taskNode.getTaskNodeValue()));
     }
     
     @Test
@@ -232,12 +288,12 @@ public final class SchedulerEngineTest {
         when(taskScheduler.getTaskUnAssigner()).thenReturn(taskUnAssigner);
         TaskNode taskNode = TaskNode.builder().build();
         when(facadeService.popMapping(taskNode.getTaskNodeValue())).thenReturn("localhost");
-        schedulerEngine.statusUpdate(null, Protos.TaskStatus.newBuilder()
+        schedulerEngine.statusUpdate(schedulerDriver, Protos.TaskStatus.newBuilder()
                 .setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue())).setState(Protos.TaskState.TASK_GONE).setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build());
         verify(facadeService).recordFailoverTask(TaskContext.from(taskNode.getTaskNodeValue()));
-        verify(facadeService).removeRunning(TaskContext.from(taskNode.getTaskNodeValue()));
+        verify(facadeService).removeRunning(Collections.singletonList(TaskContext.from(taskNode.getTaskNodeValue())));
         verify(taskUnAssigner).call(TaskContext.getIdForUnassignedSlave(taskNode.getTaskNodeValue()), "localhost");
-        verify(statisticManager).taskRunFailed();
+        verify(statisticManager).taskRunFailed(TaskContext.from(taskNode.getTaskNodeValue()));
     }
     
     @Test
@@ -247,31 +303,31 @@ public final class SchedulerEngineTest {
         when(taskScheduler.getTaskUnAssigner()).thenReturn(taskUnAssigner);
         TaskNode taskNode = TaskNode.builder().build();
         when(facadeService.popMapping(taskNode.getTaskNodeValue())).thenReturn("localhost");
-        schedulerEngine.statusUpdate(null, Protos.TaskStatus.newBuilder()
+        schedulerEngine.statusUpdate(schedulerDriver, Protos.TaskStatus.newBuilder()
                 .setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue())).setState(Protos.TaskState.TASK_GONE_BY_OPERATOR)
                 .setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build());
         verify(facadeService).recordFailoverTask(TaskContext.from(taskNode.getTaskNodeValue()));
-        verify(facadeService).removeRunning(TaskContext.from(taskNode.getTaskNodeValue()));
+        verify(facadeService).removeRunning(Collections.singletonList(TaskContext.from(taskNode.getTaskNodeValue())));
         verify(taskUnAssigner).call(TaskContext.getIdForUnassignedSlave(taskNode.getTaskNodeValue()), "localhost");
-        verify(statisticManager).taskRunFailed();
+        verify(statisticManager).taskRunFailed(TaskContext.from(taskNode.getTaskNodeValue()));
     }
     
     @Test
     public void assertUnknownStatusUpdate() {
         TaskNode taskNode = TaskNode.builder().build();
-        schedulerEngine.statusUpdate(null, Protos.TaskStatus.newBuilder()
+        schedulerEngine.statusUpdate(schedulerDriver, Protos.TaskStatus.newBuilder()
                 .setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue())).setState(Protos.TaskState.TASK_UNKNOWN)
                 .setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build());
-        verify(statisticManager).taskRunFailed();
+        verify(statisticManager).taskRunFailed(TaskContext.from(taskNode.getTaskNodeValue()));
     }
     
     @Test
     public void assertUnReachedStatusUpdate() {
         TaskNode taskNode = TaskNode.builder().build();
-        schedulerEngine.statusUpdate(null, Protos.TaskStatus.newBuilder()
+        schedulerEngine.statusUpdate(schedulerDriver, Protos.TaskStatus.newBuilder()
                 .setTaskId(Protos.TaskID.newBuilder().setValue(taskNode.getTaskNodeValue())).setState(Protos.TaskState.TASK_UNREACHABLE)
                 .setSlaveId(Protos.SlaveID.newBuilder().setValue("slave-S0")).build());
-        verify(statisticManager).taskRunFailed();
+        verify(statisticManager).taskRunFailed(TaskContext.from(taskNode.getTaskNodeValue()));
     }
     
     @Test
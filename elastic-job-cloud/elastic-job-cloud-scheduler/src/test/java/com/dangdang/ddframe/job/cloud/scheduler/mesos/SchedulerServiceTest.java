@@ -49,6 +49,9 @@ public class SchedulerServiceTest {
     @Mock
     private FacadeService facadeService;
     
+    @Mock
+    private SchedulerEngine schedulerEngine;
+    
     @Mock
     private SchedulerDriver schedulerDriver;
     
@@ -71,7 +74,7 @@ public class SchedulerServiceTest {
     
     @Before
     public void setUp() throws Exception {
-        schedulerService = new SchedulerService(env, facadeService, schedulerDriver,  
+        schedulerService = new SchedulerService(env, facadeService, schedulerEngine, schedulerDriver,  
                 producerManager, statisticManager, cloudJobConfigurationListener, 
                 taskLaunchScheduledService, restfulService, reconcileService);
     }
@@ -117,6 +120,7 @@ public class SchedulerServiceTest {
         inOrder.verify(statisticManager).shutdown();
         inOrder.verify(producerManager).shutdown();
         inOrder.verify(schedulerDriver).stop(true);
+        inOrder.verify(schedulerEngine).shutdown();
         inOrder.verify(facadeService).stop();
         inOrder.verify(reconcileService).stopAsync();
     }
@@ -132,12 +136,13 @@ public class SchedulerServiceTest {
         inOrder.verify(statisticManager).shutdown();
         inOrder.verify(producerManager).shutdown();
         inOrder.verify(schedulerDriver).stop(true);
+        inOrder.verify(schedulerEngine).shutdown();
         inOrder.verify(facadeService).stop();
         inOrder.verify(reconcileService, never()).stopAsync();
     }
     
     private InOrder getInOrder() {
-        return Mockito.inOrder(facadeService, schedulerDriver,
+        return Mockito.inOrder(facadeService, schedulerEngine, schedulerDriver,
                 producerManager, statisticManager, cloudJobConfigurationListener,
                 taskLaunchScheduledService, restfulService, reconcileService);
     }
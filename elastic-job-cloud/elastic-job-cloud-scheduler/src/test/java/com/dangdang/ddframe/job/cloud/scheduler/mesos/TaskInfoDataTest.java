@@ -17,7 +17,9 @@
 
 package com.dangdang.ddframe.job.cloud.scheduler.mesos;
 
+import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfiguration;
 import com.dangdang.ddframe.job.cloud.scheduler.fixture.CloudJobConfigurationBuilder;
+import com.dangdang.ddframe.job.context.TaskDataCodec;
 import com.dangdang.ddframe.job.executor.ShardingContexts;
 import org.apache.commons.lang3.SerializationUtils;
 import org.junit.Test;
@@ -35,20 +37,38 @@ public final class TaskInfoDataTest {
     
     @Test
     public void assertSerializeSimpleJob() {
-        TaskInfoData actual = new TaskInfoData(shardingContexts, CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job"));
-        assertSerialize((Map) SerializationUtils.deserialize(actual.serialize()));
+        TaskInfoData actual = new TaskInfoData(shardingContexts, CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job"), true);
+        assertSerialize(TaskDataCodec.decode(actual.serialize()));
     }
     
     @Test
     public void assertSerializeDataflowJob() {
-        TaskInfoData actual = new TaskInfoData(shardingContexts, CloudJobConfigurationBuilder.createDataflowCloudJobConfiguration("test_job"));
-        assertSerialize((Map) SerializationUtils.deserialize(actual.serialize()));
+        TaskInfoData actual = new TaskInfoData(shardingContexts, CloudJobConfigurationBuilder.createDataflowCloudJobConfiguration("test_job"), true);
+        assertSerialize(TaskDataCodec.decode(actual.serialize()));
     }
     
     @Test
     public void assertSerializeScriptJob() {
-        TaskInfoData actual = new TaskInfoData(shardingContexts, CloudJobConfigurationBuilder.createScriptCloudJobConfiguration("test_job"));
-        assertSerialize((Map) SerializationUtils.deserialize(actual.serialize()));
+        TaskInfoData actual = new TaskInfoData(shardingContexts, CloudJobConfigurationBuilder.createScriptCloudJobConfiguration("test_job"), true);
+        assertSerialize(TaskDataCodec.decode(actual.serialize()));
+    }
+    
+    @Test
+    public void assertSerializeWithSameJobConfiguration() {
+        CloudJobConfiguration jobConfig = CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job");
+        ShardingContexts otherShardingContexts = new ShardingContexts("other_task_id", "test_job", 3, "test_param", Collections.singletonMap(1, "B"));
+        new TaskInfoData(shardingContexts, jobConfig, true).serialize();
+        Map<String, Object> actual = TaskDataCodec.decode(new TaskInfoData(otherShardingContexts, jobConfig, true).serialize());
+        assertThat(((ShardingContexts) actual.get("shardingContext")).getTaskId(), is("other_task_id"));
+        assertThat(((Map) actual.get("jobConfigContext")).get("jobName"), is((Object) "test_job"));
+    }
+    
+    @Test
+    public void assertSerializeWithJavaSerialization() {
+        TaskInfoData actual = new TaskInfoData(shardingContexts, CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job"), false);
+        Map<String, Object> deserialized = SerializationUtils.deserialize(actual.serialize());
+        assertSerialize(deserialized);
+        assertThat(((Map) deserialized.get("jobConfigContext")).get("jobName"), is((Object) "test_job"));
     }
     
     private void assertSerialize(final Map expected) {
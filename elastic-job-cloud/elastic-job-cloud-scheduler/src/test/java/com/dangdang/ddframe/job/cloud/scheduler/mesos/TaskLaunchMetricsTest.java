@@ -0,0 +1,133 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.mesos;
+
+import com.dangdang.ddframe.job.cloud.scheduler.mesos.TaskLaunchMetrics.Hop;
+import com.dangdang.ddframe.job.cloud.scheduler.mesos.TaskLaunchMetrics.Stage;
+import com.dangdang.ddframe.job.cloud.scheduler.mesos.fixture.OfferBuilder;
+import com.netflix.fenzo.VirtualMachineLease;
+import com.netflix.fenzo.plugins.VMLeaseObject;
+import org.apache.mesos.Protos;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class TaskLaunchMetricsTest {
+    
+    @Test
+    public void assertRecordStage() {
+        TaskLaunchMetrics launchMetrics = TaskLaunchMetrics.getInstance();
+        launchMetrics.recordStage(Stage.BUILD, 100L);
+        launchMetrics.recordStage(Stage.BUILD, 50L);
+        Map<String, Long> actual = launchMetrics.snapshot();
+        assertThat(actual.get("build_last_ms"), is(50L));
+        assertTrue(actual.get("build_max_ms") >= 100L);
+    }
+    
+    @Test
+    public void assertRecordRound() {
+        TaskLaunchMetrics launchMetrics = TaskLaunchMetrics.getInstance();
+        long roundCount = launchMetrics.snapshot().get("round_count");
+        long launchedTaskCount = launchMetrics.snapshot().get("launched_task_count");
+        long roundToLaunchCount = launchMetrics.snapshot().get("round_to_launch_count");
+        launchMetrics.recordRound(3, 2, 20L);
+        Map<String, Long> actual = launchMetrics.snapshot();
+        assertThat(actual.get("round_count"), is(roundCount + 1));
+        assertThat(actual.get("launched_task_count"), is(launchedTaskCount + 3));
+        assertThat(actual.get("round_to_launch_count"), is(roundToLaunchCount + 1));
+        assertTrue(actual.get("round_tasks_max") >= 3L);
+        assertTrue(actual.get("round_offers_max") >= 2L);
+        assertTrue(actual.get("round_to_launch_max_ms") >= 20L);
+    }
+    
+    @Test
+    public void assertRecordIdleRound() {
+        TaskLaunchMetrics launchMetrics = TaskLaunchMetrics.getInstance();
+        long idleRoundCount = launchMetrics.snapshot().get("idle_round_count");
+        long declinedOfferCount = launchMetrics.snapshot().get("declined_offer_count");
+        launchMetrics.recordIdleRound(2);
+        Map<String, Long> actual = launchMetrics.snapshot();
+        assertThat(actual.get("idle_round_count"), is(idleRoundCount + 1));
+        assertThat(actual.get("declined_offer_count"), is(declinedOfferCount + 2));
+    }
+    
+    @Test
+    public void assertRecordTaskRunning() {
+        TaskLaunchMetrics launchMetrics = TaskLaunchMetrics.getInstance();
+        long offerWaitCount = launchMetrics.snapshot().get("offer_wait_count");
+        long launchToRunningCount = launchMetrics.snapshot().get("launch_to_running_count");
+        long offerToRunningCount = launchMetrics.snapshot().get("offer_to_running_count");
+        launchMetrics.recordOfferReceived("running_offer");
+        launchMetrics.recordOffersDrained(Collections.<VirtualMachineLease>singletonList(new VMLeaseObject(OfferBuilder.createOffer("running_offer"))));
+        launchMetrics.recordTasksLaunched(Collections.singletonList(Protos.OfferID.newBuilder().setValue("running_offer").build()), 
+                Collections.singletonList(createTaskInfo("running_task")));
+        launchMetrics.recordTaskRunning("running_task");
+        launchMetrics.recordTaskRunning("running_task");
+        Map<String, Long> actual = launchMetrics.snapshot();
+        assertThat(actual.get("offer_wait_count"), is(offerWaitCount + 1));
+        assertThat(actual.get("launch_to_running_count"), is(launchToRunningCount + 1));
+        assertThat(actual.get("offer_to_running_count"), is(offerToRunningCount + 1));
+    }
+    
+    @Test
+    public void assertRecordTaskTerminatedBeforeRunning() {
+        TaskLaunchMetrics launchMetrics = TaskLaunchMetrics.getInstance();
+        long launchToRunningCount = launchMetrics.snapshot().get("launch_to_running_count");
+        launchMetrics.recordTasksLaunched(Collections.singletonList(Protos.OfferID.newBuilder().setValue("terminated_offer").build()), 
+                Collections.singletonList(createTaskInfo("terminated_task")));
+        launchMetrics.recordTaskTerminated("terminated_task");
+        launchMetrics.recordTaskRunning("terminated_task");
+        assertThat(launchMetrics.snapshot().get("launch_to_running_count"), is(launchToRunningCount));
+    }
+    
+    @Test
+    public void assertRecordOfferRemoved() {
+        TaskLaunchMetrics launchMetrics = TaskLaunchMetrics.getInstance();
+        long offerWaitCount = launchMetrics.snapshot().get("offer_wait_count");
+        launchMetrics.recordOfferReceived("removed_offer");
+        launchMetrics.recordOfferRemoved("removed_offer");
+        launchMetrics.recordOffersDrained(Collections.<VirtualMachineLease>singletonList(new VMLeaseObject(OfferBuilder.createOffer("removed_offer"))));
+        assertThat(launchMetrics.snapshot().get("offer_wait_count"), is(offerWaitCount));
+    }
+    
+    @Test
+    public void assertSnapshotContainsAllHops() {
+        Map<String, Long> actual = TaskLaunchMetrics.getInstance().snapshot();
+        for (Hop each : Hop.values()) {
+            assertTrue(actual.containsKey(each.name().toLowerCase() + "_p99_ms"));
+        }
+    }
+    
+    @Test
+    public void assertSnapshotContainsAllStages() {
+        Map<String, Long> actual = TaskLaunchMetrics.getInstance().snapshot();
+        for (Stage each : Stage.values()) {
+            assertTrue(actual.containsKey(each.name().toLowerCase() + "_avg_ms"));
+        }
+    }
+    
+    private Protos.TaskInfo createTaskInfo(final String taskId) {
+        return Protos.TaskInfo.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskId)).setName(taskId)
+                .setSlaveId(Protos.SlaveID.newBuilder().setValue("slave_id")).build();
+    }
+}
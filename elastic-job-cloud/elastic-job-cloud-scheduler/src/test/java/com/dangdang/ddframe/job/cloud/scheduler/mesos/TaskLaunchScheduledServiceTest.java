@@ -22,6 +22,7 @@ import com.dangdang.ddframe.job.cloud.scheduler.context.JobContext;
 import com.dangdang.ddframe.job.cloud.scheduler.fixture.CloudAppConfigurationBuilder;
 import com.dangdang.ddframe.job.cloud.scheduler.fixture.CloudJobConfigurationBuilder;
 import com.dangdang.ddframe.job.cloud.scheduler.mesos.fixture.OfferBuilder;
+import com.dangdang.ddframe.job.cloud.scheduler.state.TaskLaunchSignal;
 import com.dangdang.ddframe.job.context.ExecutionType;
 import com.dangdang.ddframe.job.context.TaskContext;
 import com.dangdang.ddframe.job.context.TaskContext.MetaInfo;
@@ -30,7 +31,7 @@ import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent;
 import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
-import com.google.common.util.concurrent.AbstractScheduledService.Scheduler;
+import com.google.common.util.concurrent.Service;
 import com.netflix.fenzo.SchedulingResult;
 import com.netflix.fenzo.TaskAssignmentResult;
 import com.netflix.fenzo.TaskRequest;
@@ -39,6 +40,7 @@ import com.netflix.fenzo.VMAssignmentResult;
 import com.netflix.fenzo.VirtualMachineLease;
 import com.netflix.fenzo.functions.Action2;
 import com.netflix.fenzo.plugins.VMLeaseObject;
+import org.apache.mesos.Protos;
 import org.apache.mesos.SchedulerDriver;
 import org.junit.After;
 import org.junit.Before;
@@ -51,11 +53,11 @@ import org.mockito.junit.MockitoJUnitRunner;
 import java.util.HashMap;
 import java.util.Map;
 
-import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -99,10 +101,12 @@ public final class TaskLaunchScheduledServiceTest {
         when(facadeService.load("failover_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("failover_job")));
         when(facadeService.getFailoverTaskId(any(MetaInfo.class))).thenReturn(Optional.of(String.format("%s@-@0@-@%s@-@unassigned-slave@-@0", "failover_job",  ExecutionType.FAILOVER.name())));
         when(taskScheduler.getTaskAssigner()).thenReturn(mock(Action2.class));
+        long launchedTaskCount = TaskLaunchMetrics.getInstance().snapshot().get("launched_task_count");
         taskLaunchScheduledService.runOneIteration();
         verify(facadeService).removeLaunchTasksFromQueue(ArgumentMatchers.<TaskContext>anyList());
         verify(facadeService).loadAppConfig("test_app");
         verify(jobEventBus).post(ArgumentMatchers.<JobStatusTraceEvent>any());
+        assertThat(TaskLaunchMetrics.getInstance().snapshot().get("launched_task_count"), is(launchedTaskCount + 1));
     }
     
     @Test
@@ -130,8 +134,37 @@ public final class TaskLaunchScheduledServiceTest {
     }
     
     @Test
-    public void assertScheduler() throws Exception {
-        assertThat(taskLaunchScheduledService.scheduler(), instanceOf(Scheduler.class));
+    public void assertRunOneIterationWithoutPendingTasks() {
+        LeasesQueue.getInstance().drainTo();
+        LeasesQueue.getInstance().offer(OfferBuilder.createOffer("offer_idle"));
+        long idleRoundCount = TaskLaunchMetrics.getInstance().snapshot().get("idle_round_count");
+        assertThat(taskLaunchScheduledService.runOneIteration(), is(0));
+        verify(schedulerDriver).declineOffer(ArgumentMatchers.eq(Protos.OfferID.newBuilder().setValue("offer_idle").build()), any(Protos.Filters.class));
+        verify(taskScheduler, never()).scheduleOnce(ArgumentMatchers.<TaskRequest>anyList(), ArgumentMatchers.<VirtualMachineLease>anyList());
+        assertThat(TaskLaunchMetrics.getInstance().snapshot().get("idle_round_count"), is(idleRoundCount + 1));
+    }
+    
+    @Test
+    public void assertRunOneIterationReviveOffersAfterDeclined() {
+        LeasesQueue.getInstance().drainTo();
+        LeasesQueue.getInstance().offer(OfferBuilder.createOffer("offer_idle"));
+        taskLaunchScheduledService.runOneIteration();
+        when(facadeService.getEligibleJobContext()).thenReturn(Lists.newArrayList(
+                JobContext.from(CloudJobConfigurationBuilder.createCloudJobConfiguration("ready_job"), ExecutionType.READY)));
+        when(taskScheduler.scheduleOnce(ArgumentMatchers.<TaskRequest>anyList(), ArgumentMatchers.<VirtualMachineLease>anyList()))
+                .thenReturn(new SchedulingResult(new HashMap<String, VMAssignmentResult>()));
+        assertThat(taskLaunchScheduledService.runOneIteration(), is(0));
+        taskLaunchScheduledService.runOneIteration();
+        verify(schedulerDriver).reviveOffers();
+    }
+    
+    @Test
+    public void assertStartAndStop() {
+        TaskLaunchScheduledService service = new TaskLaunchScheduledService(schedulerDriver, taskScheduler, facadeService, jobEventBus);
+        service.startAsync().awaitRunning();
+        TaskLaunchSignal.getInstance().signal();
+        service.stopAsync().awaitTerminated();
+        assertThat(service.state(), is(Service.State.TERMINATED));
     }
     
     @Test
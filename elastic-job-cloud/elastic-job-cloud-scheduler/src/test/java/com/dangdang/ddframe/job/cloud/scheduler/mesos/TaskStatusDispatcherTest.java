@@ -0,0 +1,119 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.mesos;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.mesos.Protos;
+import org.apache.mesos.SchedulerDriver;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class TaskStatusDispatcherTest {
+    
+    @Test
+    public void assertDispatchWithDirectExecutor() {
+        RecordingHandler handler = new RecordingHandler(2);
+        TaskStatusDispatcher dispatcher = new TaskStatusDispatcher(handler, MoreExecutors.newDirectExecutorService(), 4);
+        dispatcher.dispatch(null, "test_job", createTaskStatus("task_0"));
+        dispatcher.dispatch(null, "test_job", createTaskStatus("task_1"));
+        assertThat(handler.batches.size(), is(2));
+        assertThat(handler.getTaskIds(), is(Arrays.asList("task_0", "task_1")));
+    }
+    
+    @Test
+    public void assertDispatchSameJobInOrder() throws InterruptedException {
+        int count = 1000;
+        RecordingHandler handler = new RecordingHandler(count);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            TaskStatusDispatcher dispatcher = new TaskStatusDispatcher(handler, executorService, 4);
+            List<String> expected = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                expected.add("task_" + i);
+                dispatcher.dispatch(null, "test_job", createTaskStatus("task_" + i));
+            }
+            assertTrue(handler.latch.await(10L, TimeUnit.SECONDS));
+            assertThat(handler.getTaskIds(), is(expected));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void assertDispatchWhenHandlerFailure() {
+        final List<String> actual = new ArrayList<>();
+        TaskStatusDispatcher dispatcher = new TaskStatusDispatcher(new TaskStatusDispatcher.TaskStatusHandler() {
+            
+            @Override
+            public void handle(final SchedulerDriver schedulerDriver, final List<Protos.TaskStatus> taskStatuses) {
+                actual.add(taskStatuses.get(0).getTaskId().getValue());
+                throw new IllegalStateException();
+            }
+        }, MoreExecutors.newDirectExecutorService(), 1);
+        dispatcher.dispatch(null, "test_job", createTaskStatus("task_0"));
+        dispatcher.dispatch(null, "test_job", createTaskStatus("task_1"));
+        assertThat(actual, is(Arrays.asList("task_0", "task_1")));
+    }
+    
+    private Protos.TaskStatus createTaskStatus(final String taskId) {
+        return Protos.TaskStatus.newBuilder().setTaskId(Protos.TaskID.newBuilder().setValue(taskId)).setState(Protos.TaskState.TASK_FINISHED).build();
+    }
+    
+    private static final class RecordingHandler implements TaskStatusDispatcher.TaskStatusHandler {
+        
+        private final List<List<Protos.TaskStatus>> batches = Collections.synchronizedList(new ArrayList<List<Protos.TaskStatus>>());
+        
+        private final CountDownLatch latch;
+        
+        RecordingHandler(final int expectedCount) {
+            latch = new CountDownLatch(expectedCount);
+        }
+        
+        @Override
+        public void handle(final SchedulerDriver schedulerDriver, final List<Protos.TaskStatus> taskStatuses) {
+            batches.add(new ArrayList<>(taskStatuses));
+            for (int i = 0; i < taskStatuses.size(); i++) {
+                latch.countDown();
+            }
+        }
+        
+        List<String> getTaskIds() {
+            List<String> result = new ArrayList<>();
+            synchronized (batches) {
+                for (List<Protos.TaskStatus> each : batches) {
+                    for (Protos.TaskStatus taskStatus : each) {
+                        result.add(taskStatus.getTaskId().getValue());
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.mesos;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class TaskStatusTrackerTest {
+    
+    private final TaskStatusTracker tracker = TaskStatusTracker.getInstance();
+    
+    @After
+    public void tearDown() {
+        tracker.retain(Collections.<String>emptySet());
+    }
+    
+    @Test
+    public void assertIsStaleWhenFirstSeen() {
+        assertFalse(tracker.isStale("task_0", 0L));
+        assertThat(tracker.size(), is(1));
+        assertTrue(tracker.isStale("task_0", 0L));
+    }
+    
+    @Test
+    public void assertIsStaleAfterTouch() {
+        tracker.touch("task_0", 0L);
+        tracker.touch("task_1");
+        assertTrue(tracker.isStale("task_0", 60000L));
+        assertFalse(tracker.isStale("task_1", 60000L));
+    }
+    
+    @Test
+    public void assertRemove() {
+        tracker.touch("task_0", 0L);
+        tracker.remove("task_0");
+        assertFalse(tracker.isStale("task_0", 0L));
+    }
+    
+    @Test
+    public void assertRetain() {
+        tracker.touch("task_0");
+        tracker.touch("task_1");
+        tracker.retain(Collections.singleton("task_1"));
+        assertThat(tracker.size(), is(1));
+    }
+}
@@ -21,6 +21,8 @@ import com.dangdang.ddframe.job.cloud.scheduler.state.ready.ReadyService;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.quartz.JobBuilder;
@@ -28,6 +30,11 @@ import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.quartz.JobKey;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -56,7 +63,31 @@ public final class ProducerJobTest {
         when(jobExecutionContext.getJobDetail()).thenReturn(JobBuilder.newJob(TransientProducerScheduler.ProducerJob.class).withIdentity("0/30 * * * * ?").build());
         repository.put(JobKey.jobKey("0/30 * * * * ?"), "test_job");
         producerJob.execute(jobExecutionContext);
-        verify(readyService).addTransient("test_job");
+        verify(readyService).addTransient(Collections.singletonList("test_job"));
         repository.remove("test_job");
     }
+    
+    @Test
+    public void assertExecuteWithJobsSharingCron() throws JobExecutionException {
+        when(jobExecutionContext.getJobDetail()).thenReturn(JobBuilder.newJob(TransientProducerScheduler.ProducerJob.class).withIdentity("0/30 * * * * ?").build());
+        repository.put(JobKey.jobKey("0/30 * * * * ?"), "test_job_1");
+        repository.put(JobKey.jobKey("0/30 * * * * ?"), "test_job_2");
+        producerJob.execute(jobExecutionContext);
+        verify(readyService).addTransient(ArgumentMatchers.argThat(new ArgumentMatcher<Collection<String>>() {
+            
+            @Override
+            public boolean matches(final Collection<String> argument) {
+                return 2 == argument.size() && argument.containsAll(Arrays.asList("test_job_1", "test_job_2"));
+            }
+        }));
+        repository.remove("test_job_1");
+        repository.remove("test_job_2");
+    }
+    
+    @Test
+    public void assertExecuteWithoutJobs() throws JobExecutionException {
+        when(jobExecutionContext.getJobDetail()).thenReturn(JobBuilder.newJob(TransientProducerScheduler.ProducerJob.class).withIdentity("0/30 * * * * ?").build());
+        producerJob.execute(jobExecutionContext);
+        verify(readyService, never()).addTransient(ArgumentMatchers.<String>anyCollection());
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.producer;
+
+import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfigurationService;
+import com.dangdang.ddframe.job.cloud.scheduler.fixture.CloudJobConfigurationBuilder;
+import com.dangdang.ddframe.job.cloud.scheduler.state.ready.ReadyService;
+import com.dangdang.ddframe.job.reg.zookeeper.EmbedZookeeperConfiguration;
+import com.dangdang.ddframe.job.reg.zookeeper.EmbedZookeeperRegistryCenter;
+import org.quartz.JobKey;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 瞬时作业触发到进入待执行队列的耗时基准.
+ * 
+ * <p>
+ * 以进程内启动的内嵌Zookeeper注册中心代替Zookeeper集群, 将全部作业注册到同一cron表达式, 分别计时批量入队和逐个入队两种方式处理一次触发的耗时.
+ * 每次触发后将作业移出队列, 移出不计入耗时.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class TransientProducerBenchmark {
+    
+    private static final JobKey JOB_KEY = JobKey.jobKey("0/30 * * * * ?");
+    
+    private final TransientProducerRepository repository = new TransientProducerRepository();
+    
+    private final ReadyService readyService;
+    
+    private final int iterations;
+    
+    public TransientProducerBenchmark(final int jobCount, final int iterations) {
+        EmbedZookeeperRegistryCenter regCenter = new EmbedZookeeperRegistryCenter(new EmbedZookeeperConfiguration(TransientProducerBenchmark.class.getName()));
+        regCenter.init();
+        CloudJobConfigurationService configService = new CloudJobConfigurationService(regCenter);
+        for (int i = 0; i < jobCount; i++) {
+            String jobName = "benchmark_job_" + i;
+            configService.add(CloudJobConfigurationBuilder.createCloudJobConfiguration(jobName));
+            repository.put(JOB_KEY, jobName);
+        }
+        readyService = new ReadyService(regCenter);
+        readyService.start();
+        this.iterations = iterations;
+    }
+    
+    /**
+     * 计时批量入队, 与作业生成器的触发处理相同.
+     * 
+     * @return 每次触发的耗时中位数, 单位: 微秒
+     */
+    public double measureBatch() {
+        long[] elapsedNanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long startTime = System.nanoTime();
+            List<String> jobNames = repository.get(JOB_KEY);
+            readyService.addTransient(jobNames);
+            elapsedNanos[i] = System.nanoTime() - startTime;
+            readyService.remove(jobNames);
+        }
+        return getMedianMicros(elapsedNanos);
+    }
+    
+    /**
+     * 计时逐个入队.
+     * 
+     * @return 每次触发的耗时中位数, 单位: 微秒
+     */
+    public double measureOneByOne() {
+        long[] elapsedNanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long startTime = System.nanoTime();
+            List<String> jobNames = repository.get(JOB_KEY);
+            for (String each : jobNames) {
+                readyService.addTransient(each);
+            }
+            elapsedNanos[i] = System.nanoTime() - startTime;
+            readyService.remove(jobNames);
+        }
+        return getMedianMicros(elapsedNanos);
+    }
+    
+    private double getMedianMicros(final long[] elapsedNanos) {
+        Arrays.sort(elapsedNanos);
+        return elapsedNanos[elapsedNanos.length / 2] / 1000d;
+    }
+    
+    /**
+     * 预热后输出两种入队方式的每次触发耗时.
+     * 
+     * <p>
+     * 规模可通过系统属性调整, 如: -Dbenchmark.jobs=200 -Dbenchmark.iterations=500.
+     * </p>
+     * 
+     * @param args 命令行参数
+     */
+    // CHECKSTYLE:OFF
+    public static void main(final String[] args) {
+        // CHECKSTYLE:ON
+        TransientProducerBenchmark benchmark = new TransientProducerBenchmark(Integer.getInteger("benchmark.jobs", 200), Integer.getInteger("benchmark.iterations", 500));
+        benchmark.measureBatch();
+        benchmark.measureOneByOne();
+        System.out.println(String.format("batch: %.1f us/fire, one by one: %.1f us/fire", benchmark.measureBatch(), benchmark.measureOneByOne()));
+        System.exit(0);
+    }
+}
@@ -23,8 +23,15 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.quartz.JobExecutionException;
 import org.quartz.JobKey;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -54,6 +61,43 @@ public final class TransientProducerRepositoryTest {
         transientProducerRepository.remove(jobName);
     }
     
+    @Test
+    public void assertPutReturnsPreviousJobKey() {
+        assertNull(transientProducerRepository.put(jobKey, jobName));
+        assertNull(transientProducerRepository.put(jobKey, jobName));
+        assertThat(transientProducerRepository.put(JobKey.jobKey("0/15 * * * * ?"), jobName), is(jobKey));
+        assertFalse(transientProducerRepository.containsKey(jobKey));
+        transientProducerRepository.remove(jobName);
+    }
+    
+    @Test
+    public void assertPutConcurrently() throws InterruptedException {
+        int threadCount = 8;
+        final int jobCountPerThread = 100;
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            final int threadIndex = i;
+            executorService.submit(new Callable<Void>() {
+                
+                @Override
+                public Void call() throws InterruptedException {
+                    startLatch.await();
+                    for (int j = 0; j < jobCountPerThread; j++) {
+                        transientProducerRepository.put(jobKey, "test_job_" + threadIndex + "_" + j);
+                    }
+                    return null;
+                }
+            });
+        }
+        startLatch.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10L, TimeUnit.SECONDS));
+        assertThat(transientProducerRepository.get(jobKey).size(), is(threadCount * jobCountPerThread));
+        transientProducerRepository.removeAll();
+        assertFalse(transientProducerRepository.containsKey(jobKey));
+    }
+    
     @Test
     public void assertPutMoreJobWithChangedCron() throws JobExecutionException {
         String jobName2 = "other_test_job";
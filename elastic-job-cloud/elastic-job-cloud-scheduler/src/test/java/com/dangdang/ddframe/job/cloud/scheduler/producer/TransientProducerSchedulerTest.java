@@ -18,8 +18,12 @@
 package com.dangdang.ddframe.job.cloud.scheduler.producer;
 
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfiguration;
+import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobExecutionType;
 import com.dangdang.ddframe.job.cloud.scheduler.fixture.CloudJobConfigurationBuilder;
+import com.dangdang.ddframe.job.cloud.scheduler.fixture.TestSimpleJob;
 import com.dangdang.ddframe.job.cloud.scheduler.state.ready.ReadyService;
+import com.dangdang.ddframe.job.config.JobCoreConfiguration;
+import com.dangdang.ddframe.job.config.simple.SimpleJobConfiguration;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -28,6 +32,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.quartz.CronScheduleBuilder;
 import org.quartz.JobBuilder;
 import org.quartz.JobDetail;
+import org.quartz.JobKey;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 import org.quartz.Trigger;
@@ -35,6 +40,11 @@ import org.quartz.TriggerBuilder;
 import org.quartz.TriggerKey;
 import org.unitils.util.ReflectionUtils;
 
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -72,12 +82,72 @@ public final class TransientProducerSchedulerTest {
         verify(scheduler).scheduleJob(jobDetail, trigger);
     }
     
+    @Test
+    public void assertRegisterWithChangedCron() throws SchedulerException {
+        CloudJobConfiguration changedJobConfig = new CloudJobConfiguration("test_app", new SimpleJobConfiguration(
+                JobCoreConfiguration.newBuilder("test_job", "0/15 * * * * ?", 10).build(), TestSimpleJob.class.getCanonicalName()), 1.0d, 128.0d, CloudJobExecutionType.TRANSIENT);
+        when(scheduler.checkExists(jobDetail.getKey())).thenReturn(false);
+        when(scheduler.checkExists(JobKey.jobKey("0/15 * * * * ?"))).thenReturn(false);
+        transientProducerScheduler.register(jobConfig);
+        transientProducerScheduler.register(changedJobConfig);
+        verify(scheduler).unscheduleJob(TriggerKey.triggerKey(jobConfig.getTypeConfig().getCoreConfig().getCron()));
+        verify(scheduler, never()).unscheduleJob(TriggerKey.triggerKey("0/15 * * * * ?"));
+    }
+    
     @Test
     public void assertDeregister() throws SchedulerException {
         transientProducerScheduler.deregister(jobConfig);
         verify(scheduler).unscheduleJob(TriggerKey.triggerKey(jobConfig.getTypeConfig().getCoreConfig().getCron()));
     }
     
+    @Test
+    public void assertConcurrentRegisterAndDeregisterSameJob() throws InterruptedException {
+        final CloudJobConfiguration changedJobConfig = new CloudJobConfiguration("test_app", new SimpleJobConfiguration(
+                JobCoreConfiguration.newBuilder("test_job", "0/15 * * * * ?", 10).build(), TestSimpleJob.class.getCanonicalName()), 1.0d, 128.0d, CloudJobExecutionType.TRANSIENT);
+        TransientProducerRepository repository = (TransientProducerRepository) ReflectionUtils.getFieldValue(transientProducerScheduler, 
+                ReflectionUtils.getFieldWithName(TransientProducerScheduler.class, "repository", false));
+        for (int i = 0; i < 2000; i++) {
+            final CountDownLatch startLatch = new CountDownLatch(1);
+            Thread registerThread = new Thread(new Runnable() {
+                
+                @Override
+                public void run() {
+                    awaitQuietly(startLatch);
+                    transientProducerScheduler.register(changedJobConfig);
+                }
+            });
+            Thread deregisterThread = new Thread(new Runnable() {
+                
+                @Override
+                public void run() {
+                    awaitQuietly(startLatch);
+                    transientProducerScheduler.deregister(jobConfig);
+                }
+            });
+            transientProducerScheduler.register(jobConfig);
+            registerThread.start();
+            deregisterThread.start();
+            startLatch.countDown();
+            registerThread.join();
+            deregisterThread.join();
+            boolean inOldCron = repository.get(JobKey.jobKey(jobConfig.getTypeConfig().getCoreConfig().getCron())).contains("test_job");
+            boolean inNewCron = repository.get(JobKey.jobKey("0/15 * * * * ?")).contains("test_job");
+            assertFalse(inOldCron && inNewCron);
+            transientProducerScheduler.deregister(changedJobConfig);
+            transientProducerScheduler.deregister(jobConfig);
+            assertTrue(repository.get(JobKey.jobKey(jobConfig.getTypeConfig().getCoreConfig().getCron())).isEmpty());
+            assertTrue(repository.get(JobKey.jobKey("0/15 * * * * ?")).isEmpty());
+        }
+    }
+    
+    private void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
     @Test
     public void assertShutdown() throws SchedulerException {
         transientProducerScheduler.shutdown();
@@ -22,6 +22,7 @@ import com.dangdang.ddframe.job.cloud.scheduler.fixture.CloudAppJsonConstants;
 import com.dangdang.ddframe.job.cloud.scheduler.fixture.CloudJsonConstants;
 import com.dangdang.ddframe.job.cloud.scheduler.fixture.TaskNode;
 import com.dangdang.ddframe.job.cloud.scheduler.state.failover.FailoverTaskInfo;
+import com.dangdang.ddframe.job.cloud.scheduler.state.ready.ReadyService;
 import com.dangdang.ddframe.job.cloud.scheduler.state.running.RunningService;
 import com.dangdang.ddframe.job.context.ExecutionType;
 import com.dangdang.ddframe.job.context.TaskContext;
@@ -158,6 +159,7 @@ public final class CloudJobRestfulApiTest extends AbstractCloudRestfulApiTest {
         when(getRegCenter().isExisted("/state/ready")).thenReturn(true);
         when(getRegCenter().getChildrenKeys("/state/ready")).thenReturn(Lists.newArrayList("test_job"));
         when(getRegCenter().get("/state/ready/test_job")).thenReturn("1");
+        new ReadyService(getRegCenter()).start();
         Map<String, String> expectedMap = new HashMap<>();
         expectedMap.put("jobName", "test_job");
         expectedMap.put("times", "1");
@@ -301,6 +303,18 @@ public final class CloudJobRestfulApiTest extends AbstractCloudRestfulApiTest {
                 is(GsonFactory.getGson().toJson(Collections.emptyList())));
     }
     
+    @Test
+    public void assertFindJobPerformanceStatistics() throws Exception {
+        assertThat(sentGetRequest("http://127.0.0.1:19000/api/job/statistics/performance/job/test_job"), 
+                is(GsonFactory.getGson().toJson(Collections.emptyList())));
+    }
+    
+    @Test
+    public void assertFindJobPerformanceStatisticsDaily() throws Exception {
+        assertThat(sentGetRequest("http://127.0.0.1:19000/api/job/statistics/performance/job/test_job?since=last24hours"), 
+                is(GsonFactory.getGson().toJson(Collections.emptyList())));
+    }
+    
     @Test
     public void assertIsDisabled() throws Exception {
         when(getRegCenter().isExisted("/state/disable/job/test_job")).thenReturn(true);
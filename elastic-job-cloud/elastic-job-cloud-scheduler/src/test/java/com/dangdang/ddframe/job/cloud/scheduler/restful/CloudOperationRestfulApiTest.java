@@ -23,6 +23,8 @@ import org.unitils.util.ReflectionUtils;
 
 import static com.dangdang.ddframe.job.cloud.scheduler.restful.RestfulTestsUtil.sentGetRequest;
 import static com.dangdang.ddframe.job.cloud.scheduler.restful.RestfulTestsUtil.sentRequest;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.when;
@@ -57,4 +59,14 @@ public class CloudOperationRestfulApiTest extends AbstractCloudRestfulApiTest {
         when(getRegCenter().getDirectly(HANode.FRAMEWORK_ID_NODE)).thenReturn("not-exists");
         assertThat(sentGetRequest("http://127.0.0.1:19000/api/operate/sandbox?appName=foo_app"), is("[]"));
     }
+    
+    @Test
+    public void assertLaunchMetrics() throws Exception {
+        assertThat(sentGetRequest("http://127.0.0.1:19000/api/operate/metrics/launch"), containsString("\"round_count\":"));
+    }
+    
+    @Test
+    public void assertRdbMetrics() throws Exception {
+        assertThat(sentGetRequest("http://127.0.0.1:19000/api/operate/metrics/rdb"), startsWith("{"));
+    }
 }
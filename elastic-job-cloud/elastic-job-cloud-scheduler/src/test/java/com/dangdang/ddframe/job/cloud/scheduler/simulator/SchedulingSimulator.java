@@ -0,0 +1,231 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.simulator;
+
+import com.dangdang.ddframe.job.cloud.scheduler.config.app.CloudAppConfiguration;
+import com.dangdang.ddframe.job.cloud.scheduler.config.app.CloudAppConfigurationService;
+import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfiguration;
+import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfigurationService;
+import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobExecutionType;
+import com.dangdang.ddframe.job.cloud.scheduler.fixture.TestSimpleJob;
+import com.dangdang.ddframe.job.cloud.scheduler.ha.FrameworkIDService;
+import com.dangdang.ddframe.job.cloud.scheduler.mesos.FacadeService;
+import com.dangdang.ddframe.job.cloud.scheduler.mesos.LeasesQueue;
+import com.dangdang.ddframe.job.cloud.scheduler.mesos.MesosStateService;
+import com.dangdang.ddframe.job.cloud.scheduler.mesos.SchedulerEngine;
+import com.dangdang.ddframe.job.cloud.scheduler.mesos.TaskLaunchMetrics;
+import com.dangdang.ddframe.job.cloud.scheduler.mesos.TaskLaunchScheduledService;
+import com.dangdang.ddframe.job.cloud.scheduler.mesos.TaskStatusTracker;
+import com.dangdang.ddframe.job.cloud.scheduler.mesos.fixture.master.MesosMasterServerMock;
+import com.dangdang.ddframe.job.cloud.scheduler.state.running.RunningService;
+import com.dangdang.ddframe.job.cloud.scheduler.statistics.StatisticManager;
+import com.dangdang.ddframe.job.config.JobCoreConfiguration;
+import com.dangdang.ddframe.job.config.simple.SimpleJobConfiguration;
+import com.dangdang.ddframe.job.event.JobEventBus;
+import com.dangdang.ddframe.job.event.rdb.JobEventRdbConfiguration;
+import com.dangdang.ddframe.job.reg.zookeeper.EmbedZookeeperConfiguration;
+import com.dangdang.ddframe.job.reg.zookeeper.EmbedZookeeperRegistryCenter;
+import com.dangdang.ddframe.job.restful.RestfulServer;
+import com.google.common.base.Optional;
+import com.netflix.fenzo.TaskScheduler;
+import com.netflix.fenzo.VirtualMachineLease;
+import com.netflix.fenzo.functions.Action1;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 离线调度模拟器.
+ * 
+ * <p>
+ * 使用真实的调度引擎和任务提交调度服务, 以进程内启动的内嵌Zookeeper注册中心代替Zookeeper集群, 以模拟的调度器驱动代替Mesos, 按配置生成主机资源和瞬时作业.
+ * 开始计时前预先查询一次Mesos状态, 避免HTTP客户端的初始化耗时计入首轮调度.
+ * 模拟期间按触发间隔将全部作业放入待执行队列, 结束后汇总调度轮数, 任务提交延迟和资源装箱率, 作为调度改动的可重复基准.
+ * 调度指标是进程级的, 单独运行模拟器时延迟分位数仅反映本次模拟.
+ * 结束后等待任务状态处理线程退出, 并清理运行中任务, 任务状态时间和统计管理器等进程级状态, 避免影响同一进程中的后续测试.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class SchedulingSimulator {
+    
+    private static final long TERMINATION_TIMEOUT_MILLIS = 10000L;
+    
+    private final SimulationConfiguration config;
+    
+    private final EmbedZookeeperRegistryCenter regCenter = new EmbedZookeeperRegistryCenter(new EmbedZookeeperConfiguration(SchedulingSimulator.class.getName()));
+    
+    private final FacadeService facadeService;
+    
+    private final StatisticManager statisticManager;
+    
+    private final SchedulerEngine schedulerEngine;
+    
+    private final SimulatedSchedulerDriver schedulerDriver;
+    
+    private final TaskLaunchScheduledService taskLaunchScheduledService;
+    
+    public SchedulingSimulator(final SimulationConfiguration config) {
+        this.config = config;
+        regCenter.init();
+        facadeService = new FacadeService(regCenter);
+        TaskScheduler taskScheduler = getTaskScheduler();
+        JobEventBus jobEventBus = new JobEventBus();
+        statisticManager = StatisticManager.getInstance(regCenter, Optional.<JobEventRdbConfiguration>absent());
+        schedulerEngine = new SchedulerEngine(taskScheduler, facadeService, jobEventBus, new FrameworkIDService(regCenter), statisticManager);
+        schedulerDriver = new SimulatedSchedulerDriver(schedulerEngine, config);
+        taskLaunchScheduledService = new TaskLaunchScheduledService(schedulerDriver, taskScheduler, facadeService, jobEventBus);
+    }
+    
+    private TaskScheduler getTaskScheduler() {
+        return new TaskScheduler.Builder()
+                .withLeaseOfferExpirySecs(1000000000L)
+                .withLeaseRejectAction(new Action1<VirtualMachineLease>() {
+                    
+                    @Override
+                    public void call(final VirtualMachineLease lease) {
+                        schedulerDriver.declineOffer(lease.getOffer().getId());
+                    }
+                }).build();
+    }
+    
+    /**
+     * 运行模拟.
+     * 
+     * @return 模拟报告
+     * @throws Exception 模拟的Mesos Master启动失败或等待被中断
+     */
+    public SimulationReport run() throws Exception {
+        List<String> jobNames = registerJobs();
+        RestfulServer masterServer = new RestfulServer(config.getMasterPort());
+        masterServer.start(MesosMasterServerMock.class.getPackage().getName(), Optional.<String>absent(), Optional.<String>absent());
+        Map<String, Long> startMetrics = TaskLaunchMetrics.getInstance().snapshot();
+        long elapsedMillis;
+        try {
+            facadeService.start();
+            schedulerDriver.start();
+            facadeService.loadExecutorInfo();
+            triggerJobs(jobNames);
+            long startTime = System.currentTimeMillis();
+            taskLaunchScheduledService.startAsync().awaitRunning();
+            long endTime = startTime + config.getDurationMillis();
+            long now = startTime;
+            while (now < endTime) {
+                Thread.sleep(Math.min(config.getTriggerIntervalMillis(), endTime - now));
+                now = System.currentTimeMillis();
+                if (now < endTime) {
+                    triggerJobs(jobNames);
+                }
+            }
+            elapsedMillis = now - startTime;
+        } finally {
+            taskLaunchScheduledService.stopAsync().awaitTerminated();
+            schedulerDriver.stop();
+            schedulerEngine.shutdown();
+            schedulerEngine.awaitTermination(TERMINATION_TIMEOUT_MILLIS);
+            facadeService.stop();
+            masterServer.stop();
+            MesosStateService.deregister();
+            LeasesQueue.getInstance().drainTo();
+            new RunningService(regCenter).clear();
+            TaskStatusTracker.getInstance().retain(Collections.<String>emptySet());
+            statisticManager.shutdown();
+            regCenter.close();
+        }
+        return createReport(startMetrics, TaskLaunchMetrics.getInstance().snapshot(), elapsedMillis);
+    }
+    
+    private List<String> registerJobs() {
+        CloudAppConfigurationService appConfigService = new CloudAppConfigurationService(regCenter);
+        CloudJobConfigurationService jobConfigService = new CloudJobConfigurationService(regCenter);
+        List<String> result = new ArrayList<>(config.getAppCount() * config.getJobCountPerApp());
+        for (int i = 0; i < config.getAppCount(); i++) {
+            String appName = "simulator_app_" + i;
+            appConfigService.add(new CloudAppConfiguration(appName, "http://localhost/app.jar", "bin/start.sh", config.getAppCpus(), config.getAppMemoryMB(), true, 0));
+            for (int j = 0; j < config.getJobCountPerApp(); j++) {
+                String jobName = appName + "_job_" + j;
+                jobConfigService.add(new CloudJobConfiguration(appName, new SimpleJobConfiguration(
+                        JobCoreConfiguration.newBuilder(jobName, "0/30 * * * * ?", config.getShardingTotalCount()).misfire(true).build(), TestSimpleJob.class.getCanonicalName()),
+                        config.getJobCpus(), config.getJobMemoryMB(), CloudJobExecutionType.TRANSIENT));
+                result.add(jobName);
+            }
+        }
+        return result;
+    }
+    
+    private void triggerJobs(final List<String> jobNames) {
+        for (String each : jobNames) {
+            facadeService.addTransient(each);
+        }
+    }
+    
+    private SimulationReport createReport(final Map<String, Long> startMetrics, final Map<String, Long> endMetrics, final long elapsedMillis) {
+        return SimulationReport.builder()
+                .elapsedMillis(elapsedMillis)
+                .rounds(endMetrics.get("round_count") - startMetrics.get("round_count"))
+                .idleRounds(endMetrics.get("idle_round_count") - startMetrics.get("idle_round_count"))
+                .launchedTasks(schedulerDriver.getLaunchedTaskCount())
+                .finishedTasks(schedulerDriver.getFinishedTaskCount())
+                .errorTasks(schedulerDriver.getErrorTaskCount())
+                .roundToLaunchP50Millis(endMetrics.get("round_to_launch_p50_ms"))
+                .roundToLaunchP99Millis(endMetrics.get("round_to_launch_p99_ms"))
+                .launchToRunningP50Millis(endMetrics.get("launch_to_running_p50_ms"))
+                .launchToRunningP99Millis(endMetrics.get("launch_to_running_p99_ms"))
+                .offerToRunningP50Millis(endMetrics.get("offer_to_running_p50_ms"))
+                .offerToRunningP99Millis(endMetrics.get("offer_to_running_p99_ms"))
+                .packingEfficiency(schedulerDriver.getPackingEfficiency())
+                .averageUtilization(schedulerDriver.getAverageUtilization())
+                .peakUtilization(schedulerDriver.getPeakUtilization())
+                .build();
+    }
+    
+    /**
+     * 以默认负载运行模拟并输出报告.
+     * 
+     * <p>
+     * 负载规模可通过系统属性调整, 如: -Dsimulator.hosts=50 -Dsimulator.apps=10 -Dsimulator.jobs=20 -Dsimulator.duration=60000.
+     * </p>
+     * 
+     * @param args 命令行参数
+     * @throws Exception 模拟运行异常
+     */
+    // CHECKSTYLE:OFF
+    public static void main(final String[] args) throws Exception {
+        // CHECKSTYLE:ON
+        SimulationConfiguration config = SimulationConfiguration.builder()
+                .hostCount(Integer.getInteger("simulator.hosts", 20))
+                .hostCpus(Integer.getInteger("simulator.hostCpus", 16))
+                .hostMemoryMB(Integer.getInteger("simulator.hostMemory", 65536))
+                .appCount(Integer.getInteger("simulator.apps", 5))
+                .appCpus(1d)
+                .appMemoryMB(128d)
+                .jobCountPerApp(Integer.getInteger("simulator.jobs", 20))
+                .shardingTotalCount(Integer.getInteger("simulator.shards", 3))
+                .jobCpus(0.5d)
+                .jobMemoryMB(256d)
+                .taskDurationMillis(Long.getLong("simulator.taskDuration", 2000L))
+                .triggerIntervalMillis(Long.getLong("simulator.triggerInterval", 1000L))
+                .durationMillis(Long.getLong("simulator.duration", 30000L))
+                .masterPort(Integer.getInteger("simulator.masterPort", 19050))
+                .build();
+        System.out.println(new SchedulingSimulator(config).run());
+        System.exit(0);
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.simulator;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class SchedulingSimulatorTest {
+    
+    @Test
+    public void assertRun() throws Exception {
+        SimulationConfiguration config = SimulationConfiguration.builder().hostCount(2).hostCpus(4d).hostMemoryMB(4096d)
+                .appCount(2).appCpus(0.5d).appMemoryMB(128d).jobCountPerApp(3).shardingTotalCount(2).jobCpus(0.5d).jobMemoryMB(128d)
+                .taskDurationMillis(100L).triggerIntervalMillis(300L).durationMillis(1500L).masterPort(19050).build();
+        SimulationReport actual = new SchedulingSimulator(config).run();
+        assertTrue(actual.getRounds() > 0L);
+        assertTrue(actual.getRoundsPerSecond() > 0d);
+        assertTrue(actual.getLaunchedTasks() > 0L);
+        assertTrue(actual.getFinishedTasks() > 0L);
+        assertThat(actual.getErrorTasks(), is(0L));
+        assertTrue(actual.getPackingEfficiency() > 0d && actual.getPackingEfficiency() <= 1d);
+        assertTrue(actual.getPeakUtilization() > 0d && actual.getPeakUtilization() <= 1d);
+    }
+}
@@ -0,0 +1,526 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.simulator;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.mesos.Protos;
+import org.apache.mesos.Scheduler;
+import org.apache.mesos.SchedulerDriver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模拟的Mesos调度器驱动.
+ * 
+ * <p>
+ * 按配置模拟一组主机, 每台主机的空闲资源以资源邀约的形式提供给调度器.
+ * 提交任务时消耗邀约, 未用完的资源作为新的邀约返还; 同一执行器的首个任务额外占用执行器资源, 执行器上的任务全部结束后释放.
+ * 作业云提交任务时不占用磁盘和端口, 因此每个邀约都携带固定的磁盘和端口资源, 不计入资源消耗.
+ * 邀约中剩余的资源不足以运行任务时, 与Mesos一样以TASK_ERROR状态拒绝该任务.
+ * 任务提交后立即进入运行状态, 运行配置的时长后结束并返还资源.
+ * 被拒绝的邀约在调度器请求重新提供资源时返还.
+ * 所有回调在单独的线程中按顺序执行.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class SimulatedSchedulerDriver implements SchedulerDriver {
+    
+    private static final double RESOURCE_PRECISION = 0.000001d;
+    
+    private static final String CPUS = "cpus";
+    
+    private static final String MEM = "mem";
+    
+    private static final double OFFER_DISK_MB = 1024d * 1024d;
+    
+    private static final long OFFER_BEGIN_PORT = 31000L;
+    
+    private static final long OFFER_END_PORT = 32000L;
+    
+    private static final Protos.FrameworkID FRAMEWORK_ID = Protos.FrameworkID.newBuilder().setValue("elastic-job-cloud-simulator").build();
+    
+    private final Scheduler scheduler;
+    
+    private final SimulationConfiguration config;
+    
+    private final ScheduledExecutorService callbackExecutor = Executors.newSingleThreadScheduledExecutor();
+    
+    private final Map<String, SimulatedHost> hosts = new LinkedHashMap<>();
+    
+    private final Map<String, Protos.Offer> outstandingOffers = new HashMap<>();
+    
+    private final Map<String, Protos.Offer> declinedOffers = new LinkedHashMap<>();
+    
+    private final Map<String, LaunchedTask> launchedTasks = new HashMap<>();
+    
+    private long offerSequence;
+    
+    private long launchedTaskCount;
+    
+    private long finishedTaskCount;
+    
+    private long errorTaskCount;
+    
+    private long utilizationSamples;
+    
+    private double totalPackingEfficiency;
+    
+    private double totalUtilization;
+    
+    private double peakUtilization;
+    
+    public SimulatedSchedulerDriver(final Scheduler scheduler, final SimulationConfiguration config) {
+        this.scheduler = scheduler;
+        this.config = config;
+        for (int i = 0; i < config.getHostCount(); i++) {
+            SimulatedHost host = new SimulatedHost("host-" + i, "slave-" + i);
+            hosts.put(host.hostname, host);
+        }
+    }
+    
+    @Override
+    public Protos.Status start() {
+        Protos.MasterInfo masterInfo = Protos.MasterInfo.newBuilder().setId("simulator-master").setIp(0).setHostname("127.0.0.1").setPort(config.getMasterPort()).build();
+        scheduler.registered(this, FRAMEWORK_ID, masterInfo);
+        List<Protos.Offer> offers = new ArrayList<>(hosts.size());
+        synchronized (this) {
+            for (SimulatedHost each : hosts.values()) {
+                offers.add(createOffer(each, config.getHostCpus(), config.getHostMemoryMB()));
+            }
+        }
+        sendOffers(offers);
+        return Protos.Status.DRIVER_RUNNING;
+    }
+    
+    @Override
+    public Protos.Status stop(final boolean failover) {
+        return stop();
+    }
+    
+    @Override
+    public Protos.Status stop() {
+        callbackExecutor.shutdownNow();
+        return Protos.Status.DRIVER_STOPPED;
+    }
+    
+    @Override
+    public Protos.Status abort() {
+        callbackExecutor.shutdownNow();
+        return Protos.Status.DRIVER_ABORTED;
+    }
+    
+    @Override
+    public Protos.Status join() {
+        try {
+            callbackExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return Protos.Status.DRIVER_STOPPED;
+    }
+    
+    @Override
+    public Protos.Status run() {
+        start();
+        return join();
+    }
+    
+    @Override
+    public Protos.Status requestResources(final Collection<Protos.Request> requests) {
+        return Protos.Status.DRIVER_RUNNING;
+    }
+    
+    @Override
+    public Protos.Status launchTasks(final Collection<Protos.OfferID> offerIds, final Collection<Protos.TaskInfo> tasks, final Protos.Filters filters) {
+        return launchTasks(offerIds, tasks);
+    }
+    
+    @Override
+    public Protos.Status launchTasks(final Collection<Protos.OfferID> offerIds, final Collection<Protos.TaskInfo> tasks) {
+        List<Protos.TaskStatus> statuses = new ArrayList<>(tasks.size());
+        List<Protos.Offer> remainingOffers = new ArrayList<>(1);
+        synchronized (this) {
+            SimulatedHost host = null;
+            double remainingCpus = 0d;
+            double remainingMemoryMB = 0d;
+            for (Protos.OfferID each : offerIds) {
+                Protos.Offer offer = outstandingOffers.remove(each.getValue());
+                if (null != offer) {
+                    host = hosts.get(offer.getHostname());
+                    remainingCpus += getScalar(offer.getResourcesList(), CPUS);
+                    remainingMemoryMB += getScalar(offer.getResourcesList(), MEM);
+                }
+            }
+            for (Protos.TaskInfo each : tasks) {
+                if (null == host) {
+                    statuses.add(createTaskStatus(each.getTaskId(), each.getSlaveId(), Protos.TaskState.TASK_LOST));
+                    continue;
+                }
+                double cpus = getScalar(each.getResourcesList(), CPUS);
+                double memoryMB = getScalar(each.getResourcesList(), MEM);
+                String executorId = each.hasExecutor() ? each.getExecutor().getExecutorId().getValue() : null;
+                boolean newExecutor = null != executorId && !host.executors.containsKey(executorId);
+                double executorCpus = newExecutor ? getScalar(each.getExecutor().getResourcesList(), CPUS) : 0d;
+                double executorMemoryMB = newExecutor ? getScalar(each.getExecutor().getResourcesList(), MEM) : 0d;
+                if (cpus + executorCpus > remainingCpus + RESOURCE_PRECISION || memoryMB + executorMemoryMB > remainingMemoryMB + RESOURCE_PRECISION) {
+                    errorTaskCount++;
+                    statuses.add(createTaskStatus(each.getTaskId(), each.getSlaveId(), Protos.TaskState.TASK_ERROR));
+                    continue;
+                }
+                if (newExecutor) {
+                    host.executors.put(executorId, new ExecutorUsage(executorCpus, executorMemoryMB));
+                }
+                if (null != executorId) {
+                    host.executors.get(executorId).tasks++;
+                }
+                remainingCpus -= cpus + executorCpus;
+                remainingMemoryMB -= memoryMB + executorMemoryMB;
+                host.usedCpus += cpus + executorCpus;
+                host.usedMemoryMB += memoryMB + executorMemoryMB;
+                launchedTasks.put(each.getTaskId().getValue(), new LaunchedTask(host, executorId, cpus, memoryMB));
+                launchedTaskCount++;
+                statuses.add(createTaskStatus(each.getTaskId(), each.getSlaveId(), Protos.TaskState.TASK_RUNNING));
+            }
+            if (null != host && remainingCpus > RESOURCE_PRECISION && remainingMemoryMB > RESOURCE_PRECISION) {
+                remainingOffers.add(createOffer(host, remainingCpus, remainingMemoryMB));
+            }
+            sampleUtilization();
+        }
+        for (Protos.TaskStatus each : statuses) {
+            sendStatus(each);
+            if (Protos.TaskState.TASK_RUNNING == each.getState()) {
+                scheduleFinish(each.getTaskId());
+            }
+        }
+        sendOffers(remainingOffers);
+        return Protos.Status.DRIVER_RUNNING;
+    }
+    
+    @Override
+    public Protos.Status launchTasks(final Protos.OfferID offerId, final Collection<Protos.TaskInfo> tasks, final Protos.Filters filters) {
+        return launchTasks(Collections.singletonList(offerId), tasks);
+    }
+    
+    @Override
+    public Protos.Status launchTasks(final Protos.OfferID offerId, final Collection<Protos.TaskInfo> tasks) {
+        return launchTasks(Collections.singletonList(offerId), tasks);
+    }
+    
+    @Override
+    public Protos.Status killTask(final Protos.TaskID taskId) {
+        callbackExecutor.execute(new Runnable() {
+            
+            @Override
+            public void run() {
+                terminateTask(taskId, Protos.TaskState.TASK_KILLED);
+            }
+        });
+        return Protos.Status.DRIVER_RUNNING;
+    }
+    
+    @Override
+    public Protos.Status acceptOffers(final Collection<Protos.OfferID> offerIds, final Collection<Protos.Offer.Operation> operations, final Protos.Filters filters) {
+        return Protos.Status.DRIVER_RUNNING;
+    }
+    
+    @Override
+    public Protos.Status declineOffer(final Protos.OfferID offerId, final Protos.Filters filters) {
+        return declineOffer(offerId);
+    }
+    
+    @Override
+    public synchronized Protos.Status declineOffer(final Protos.OfferID offerId) {
+        Protos.Offer offer = outstandingOffers.remove(offerId.getValue());
+        if (null != offer) {
+            declinedOffers.put(offerId.getValue(), offer);
+        }
+        return Protos.Status.DRIVER_RUNNING;
+    }
+    
+    @Override
+    public Protos.Status reviveOffers() {
+        List<Protos.Offer> offers;
+        synchronized (this) {
+            offers = new ArrayList<>(declinedOffers.values());
+            declinedOffers.clear();
+            for (Protos.Offer each : offers) {
+                outstandingOffers.put(each.getId().getValue(), each);
+            }
+        }
+        sendOffers(offers);
+        return Protos.Status.DRIVER_RUNNING;
+    }
+    
+    @Override
+    public Protos.Status suppressOffers() {
+        return Protos.Status.DRIVER_RUNNING;
+    }
+    
+    @Override
+    public Protos.Status acknowledgeStatusUpdate(final Protos.TaskStatus status) {
+        return Protos.Status.DRIVER_RUNNING;
+    }
+    
+    @Override
+    public Protos.Status sendFrameworkMessage(final Protos.ExecutorID executorId, final Protos.SlaveID slaveId, final byte[] data) {
+        return Protos.Status.DRIVER_RUNNING;
+    }
+    
+    @Override
+    public Protos.Status reconcileTasks(final Collection<Protos.TaskStatus> statuses) {
+        List<Protos.TaskStatus> result = new ArrayList<>();
+        synchronized (this) {
+            if (statuses.isEmpty()) {
+                for (Map.Entry<String, LaunchedTask> entry : launchedTasks.entrySet()) {
+                    result.add(createTaskStatus(Protos.TaskID.newBuilder().setValue(entry.getKey()).build(), entry.getValue().host.slaveId, Protos.TaskState.TASK_RUNNING));
+                }
+            } else {
+                for (Protos.TaskStatus each : statuses) {
+                    LaunchedTask launchedTask = launchedTasks.get(each.getTaskId().getValue());
+                    result.add(null == launchedTask ? createTaskStatus(each.getTaskId(), each.getSlaveId(), Protos.TaskState.TASK_LOST)
+                            : createTaskStatus(each.getTaskId(), launchedTask.host.slaveId, Protos.TaskState.TASK_RUNNING));
+                }
+            }
+        }
+        for (Protos.TaskStatus each : result) {
+            sendStatus(each);
+        }
+        return Protos.Status.DRIVER_RUNNING;
+    }
+    
+    /**
+     * 获取成功提交的任务数量.
+     * 
+     * @return 成功提交的任务数量
+     */
+    public synchronized long getLaunchedTaskCount() {
+        return launchedTaskCount;
+    }
+    
+    /**
+     * 获取运行结束的任务数量.
+     * 
+     * @return 运行结束的任务数量
+     */
+    public synchronized long getFinishedTaskCount() {
+        return finishedTaskCount;
+    }
+    
+    /**
+     * 获取因资源不足被拒绝的任务数量.
+     * 
+     * @return 被拒绝的任务数量
+     */
+    public synchronized long getErrorTaskCount() {
+        return errorTaskCount;
+    }
+    
+    /**
+     * 获取资源装箱率.
+     * 
+     * @return 每次提交任务后已分配资源的主机的CPU占用率均值
+     */
+    public synchronized double getPackingEfficiency() {
+        return 0L == utilizationSamples ? 0d : totalPackingEfficiency / utilizationSamples;
+    }
+    
+    /**
+     * 获取集群平均CPU占用率.
+     * 
+     * @return 每次提交任务后集群CPU占用率的均值
+     */
+    public synchronized double getAverageUtilization() {
+        return 0L == utilizationSamples ? 0d : totalUtilization / utilizationSamples;
+    }
+    
+    /**
+     * 获取集群CPU占用率峰值.
+     * 
+     * @return 集群CPU占用率峰值
+     */
+    public synchronized double getPeakUtilization() {
+        return peakUtilization;
+    }
+    
+    private void scheduleFinish(final Protos.TaskID taskId) {
+        callbackExecutor.schedule(new Runnable() {
+            
+            @Override
+            public void run() {
+                terminateTask(taskId, Protos.TaskState.TASK_FINISHED);
+            }
+        }, config.getTaskDurationMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    private void terminateTask(final Protos.TaskID taskId, final Protos.TaskState state) {
+        Protos.Offer offer;
+        Protos.TaskStatus taskStatus;
+        synchronized (this) {
+            LaunchedTask launchedTask = launchedTasks.remove(taskId.getValue());
+            if (null == launchedTask) {
+                return;
+            }
+            SimulatedHost host = launchedTask.host;
+            double releasedCpus = launchedTask.cpus;
+            double releasedMemoryMB = launchedTask.memoryMB;
+            if (null != launchedTask.executorId) {
+                ExecutorUsage executorUsage = host.executors.get(launchedTask.executorId);
+                if (0 == --executorUsage.tasks) {
+                    host.executors.remove(launchedTask.executorId);
+                    releasedCpus += executorUsage.cpus;
+                    releasedMemoryMB += executorUsage.memoryMB;
+                }
+            }
+            host.usedCpus -= releasedCpus;
+            host.usedMemoryMB -= releasedMemoryMB;
+            if (Protos.TaskState.TASK_FINISHED == state) {
+                finishedTaskCount++;
+            }
+            offer = createOffer(host, releasedCpus, releasedMemoryMB);
+            taskStatus = createTaskStatus(taskId, host.slaveId, state);
+        }
+        scheduler.statusUpdate(this, taskStatus);
+        scheduler.resourceOffers(this, Collections.singletonList(offer));
+    }
+    
+    private void sendStatus(final Protos.TaskStatus taskStatus) {
+        callbackExecutor.execute(new Runnable() {
+            
+            @Override
+            public void run() {
+                scheduler.statusUpdate(SimulatedSchedulerDriver.this, taskStatus);
+            }
+        });
+    }
+    
+    private void sendOffers(final List<Protos.Offer> offers) {
+        if (offers.isEmpty()) {
+            return;
+        }
+        callbackExecutor.execute(new Runnable() {
+            
+            @Override
+            public void run() {
+                scheduler.resourceOffers(SimulatedSchedulerDriver.this, offers);
+            }
+        });
+    }
+    
+    private void sampleUtilization() {
+        double usedCpus = 0d;
+        int activeHosts = 0;
+        for (SimulatedHost each : hosts.values()) {
+            if (each.usedCpus > RESOURCE_PRECISION) {
+                usedCpus += each.usedCpus;
+                activeHosts++;
+            }
+        }
+        if (0 == activeHosts) {
+            return;
+        }
+        double utilization = usedCpus / (hosts.size() * config.getHostCpus());
+        utilizationSamples++;
+        totalPackingEfficiency += usedCpus / (activeHosts * config.getHostCpus());
+        totalUtilization += utilization;
+        peakUtilization = Math.max(peakUtilization, utilization);
+    }
+    
+    private Protos.Offer createOffer(final SimulatedHost host, final double cpus, final double memoryMB) {
+        Protos.Offer result = Protos.Offer.newBuilder()
+                .setId(Protos.OfferID.newBuilder().setValue("offer-" + offerSequence++))
+                .setFrameworkId(FRAMEWORK_ID)
+                .setSlaveId(host.slaveId)
+                .setHostname(host.hostname)
+                .addResources(createScalarResource(CPUS, cpus))
+                .addResources(createScalarResource(MEM, memoryMB))
+                .addResources(createScalarResource("disk", OFFER_DISK_MB))
+                .addResources(Protos.Resource.newBuilder().setName("ports").setType(Protos.Value.Type.RANGES)
+                        .setRanges(Protos.Value.Ranges.newBuilder().addRange(Protos.Value.Range.newBuilder().setBegin(OFFER_BEGIN_PORT).setEnd(OFFER_END_PORT))))
+                .build();
+        outstandingOffers.put(result.getId().getValue(), result);
+        return result;
+    }
+    
+    private Protos.Resource createScalarResource(final String name, final double value) {
+        return Protos.Resource.newBuilder().setName(name).setType(Protos.Value.Type.SCALAR).setScalar(Protos.Value.Scalar.newBuilder().setValue(value)).build();
+    }
+    
+    private Protos.TaskStatus createTaskStatus(final Protos.TaskID taskId, final Protos.SlaveID slaveId, final Protos.TaskState state) {
+        return Protos.TaskStatus.newBuilder().setTaskId(taskId).setSlaveId(slaveId).setState(state).setSource(Protos.TaskStatus.Source.SOURCE_EXECUTOR).build();
+    }
+    
+    private double getScalar(final List<Protos.Resource> resources, final String name) {
+        double result = 0d;
+        for (Protos.Resource each : resources) {
+            if (name.equals(each.getName())) {
+                result += each.getScalar().getValue();
+            }
+        }
+        return result;
+    }
+    
+    @RequiredArgsConstructor
+    private static final class SimulatedHost {
+        
+        private final String hostname;
+        
+        private final Protos.SlaveID slaveId;
+        
+        private final Map<String, ExecutorUsage> executors = new HashMap<>();
+        
+        private double usedCpus;
+        
+        private double usedMemoryMB;
+        
+        SimulatedHost(final String hostname, final String slaveId) {
+            this(hostname, Protos.SlaveID.newBuilder().setValue(slaveId).build());
+        }
+    }
+    
+    @RequiredArgsConstructor
+    private static final class ExecutorUsage {
+        
+        private final double cpus;
+        
+        private final double memoryMB;
+        
+        private int tasks;
+    }
+    
+    @RequiredArgsConstructor
+    private static final class LaunchedTask {
+        
+        private final SimulatedHost host;
+        
+        private final String executorId;
+        
+        private final double cpus;
+        
+        private final double memoryMB;
+    }
+}
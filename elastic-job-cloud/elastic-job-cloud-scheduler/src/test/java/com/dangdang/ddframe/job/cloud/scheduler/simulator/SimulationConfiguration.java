@@ -0,0 +1,59 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.simulator;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 调度模拟配置.
+ * 
+ * @author zhangliang
+ */
+@Builder
+@Getter
+public final class SimulationConfiguration {
+    
+    private final int hostCount;
+    
+    private final double hostCpus;
+    
+    private final double hostMemoryMB;
+    
+    private final int appCount;
+    
+    private final double appCpus;
+    
+    private final double appMemoryMB;
+    
+    private final int jobCountPerApp;
+    
+    private final int shardingTotalCount;
+    
+    private final double jobCpus;
+    
+    private final double jobMemoryMB;
+    
+    private final long taskDurationMillis;
+    
+    private final long triggerIntervalMillis;
+    
+    private final long durationMillis;
+    
+    private final int masterPort;
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.simulator;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 调度模拟报告.
+ * 
+ * <p>
+ * 调度轮数和延迟取自任务提交指标, 资源装箱率为每次提交任务后已分配资源的主机的CPU占用率均值.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Builder
+@Getter
+public final class SimulationReport {
+    
+    private final long elapsedMillis;
+    
+    private final long rounds;
+    
+    private final long idleRounds;
+    
+    private final long launchedTasks;
+    
+    private final long finishedTasks;
+    
+    private final long errorTasks;
+    
+    private final long roundToLaunchP50Millis;
+    
+    private final long roundToLaunchP99Millis;
+    
+    private final long launchToRunningP50Millis;
+    
+    private final long launchToRunningP99Millis;
+    
+    private final long offerToRunningP50Millis;
+    
+    private final long offerToRunningP99Millis;
+    
+    private final double packingEfficiency;
+    
+    private final double averageUtilization;
+    
+    private final double peakUtilization;
+    
+    /**
+     * 获取每秒调度轮数.
+     * 
+     * @return 每秒调度轮数
+     */
+    public double getRoundsPerSecond() {
+        return perSecond(rounds);
+    }
+    
+    /**
+     * 获取每秒提交任务数.
+     * 
+     * @return 每秒提交任务数
+     */
+    public double getLaunchedTasksPerSecond() {
+        return perSecond(launchedTasks);
+    }
+    
+    private double perSecond(final long count) {
+        return 0L == elapsedMillis ? 0d : count * 1000d / elapsedMillis;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append(String.format("elapsed: %d ms, rounds: %d (%.2f/s), idle rounds: %d%n", elapsedMillis, rounds, getRoundsPerSecond(), idleRounds));
+        result.append(String.format("launched tasks: %d (%.2f/s), finished tasks: %d, error tasks: %d%n", launchedTasks, getLaunchedTasksPerSecond(), finishedTasks, errorTasks));
+        result.append(String.format("round to launch p50/p99: %d/%d ms%n", roundToLaunchP50Millis, roundToLaunchP99Millis));
+        result.append(String.format("launch to running p50/p99: %d/%d ms%n", launchToRunningP50Millis, launchToRunningP99Millis));
+        result.append(String.format("offer to running p50/p99: %d/%d ms%n", offerToRunningP50Millis, offerToRunningP99Millis));
+        result.append(String.format("packing efficiency: %.2f%%, cluster utilization avg/peak: %.2f%%/%.2f%%",
+                packingEfficiency * 100, averageUtilization * 100, peakUtilization * 100));
+        return result.toString();
+    }
+}
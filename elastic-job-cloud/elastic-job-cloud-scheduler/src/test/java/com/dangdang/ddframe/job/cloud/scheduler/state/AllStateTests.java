@@ -23,6 +23,7 @@ import com.dangdang.ddframe.job.cloud.scheduler.state.disable.job.DisableJobNode
 import com.dangdang.ddframe.job.cloud.scheduler.state.disable.job.DisableJobServiceTest;
 import com.dangdang.ddframe.job.cloud.scheduler.state.failover.FailoverNodeTest;
 import com.dangdang.ddframe.job.cloud.scheduler.state.failover.FailoverServiceTest;
+import com.dangdang.ddframe.job.cloud.scheduler.state.ready.ReadyJobQueueTest;
 import com.dangdang.ddframe.job.cloud.scheduler.state.ready.ReadyNodeTest;
 import com.dangdang.ddframe.job.cloud.scheduler.state.ready.ReadyServiceTest;
 import com.dangdang.ddframe.job.cloud.scheduler.state.running.RunningNodeTest;
@@ -34,6 +35,7 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
         ReadyNodeTest.class, 
         ReadyServiceTest.class, 
+        ReadyJobQueueTest.class, 
         FailoverNodeTest.class, 
         FailoverServiceTest.class,
         RunningNodeTest.class,
@@ -41,7 +43,10 @@ import org.junit.runners.Suite;
         DisableAppNodeTest.class,
         DisableAppServiceTest.class,
         DisableJobNodeTest.class,
-        DisableJobServiceTest.class
+        DisableJobServiceTest.class,
+        StateNodeTransactionTest.class,
+        StateNodeReaderTest.class, 
+        TaskLaunchSignalTest.class
     })
 public final class AllStateTests {
 }
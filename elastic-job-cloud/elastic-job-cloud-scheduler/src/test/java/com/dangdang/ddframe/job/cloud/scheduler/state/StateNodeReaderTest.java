@@ -0,0 +1,57 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.state;
+
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.zookeeper.EmbedZookeeperConfiguration;
+import com.dangdang.ddframe.job.reg.zookeeper.EmbedZookeeperRegistryCenter;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class StateNodeReaderTest {
+    
+    @Test
+    public void assertReadWithAsyncRegistryCenter() {
+        EmbedZookeeperRegistryCenter regCenter = new EmbedZookeeperRegistryCenter(new EmbedZookeeperConfiguration(StateNodeReaderTest.class.getName()));
+        regCenter.init();
+        try {
+            regCenter.persist("/state/test_job", "1");
+            StateNodeReader reader = new StateNodeReader(regCenter);
+            assertThat(reader.getDirectly(Arrays.asList("/state/test_job", "/state/other_job")), is(Arrays.asList("1", null)));
+            assertThat(reader.isExisted(Arrays.asList("/state/test_job", "/state/other_job")), is(Arrays.asList(true, false)));
+        } finally {
+            regCenter.close();
+        }
+    }
+    
+    @Test
+    public void assertReadWithoutAsyncRegistryCenter() {
+        CoordinatorRegistryCenter regCenter = mock(CoordinatorRegistryCenter.class);
+        when(regCenter.getDirectly("/state/test_job")).thenReturn("1");
+        when(regCenter.isExisted("/state/test_job")).thenReturn(true);
+        StateNodeReader reader = new StateNodeReader(regCenter);
+        assertThat(reader.getDirectly(Arrays.asList("/state/test_job", "/state/other_job")), is(Arrays.asList("1", null)));
+        assertThat(reader.isExisted(Arrays.asList("/state/test_job", "/state/other_job")), is(Arrays.asList(true, false)));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.state;
+
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.zookeeper.EmbedZookeeperConfiguration;
+import com.dangdang.ddframe.job.reg.zookeeper.EmbedZookeeperRegistryCenter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public final class StateNodeTransactionTest {
+    
+    private EmbedZookeeperRegistryCenter regCenter;
+    
+    @Before
+    public void setUp() {
+        regCenter = new EmbedZookeeperRegistryCenter(new EmbedZookeeperConfiguration(StateNodeTransactionTest.class.getName()));
+        regCenter.init();
+    }
+    
+    @After
+    public void tearDown() {
+        regCenter.close();
+    }
+    
+    @Test
+    public void assertRemoveInTransaction() {
+        for (int i = 0; i < StateNodeTransaction.CHUNK_SIZE + 10; i++) {
+            regCenter.persist("/state/test_job/task_" + i, "");
+        }
+        StateNodeTransaction transaction = new StateNodeTransaction(regCenter);
+        for (int i = 0; i < StateNodeTransaction.CHUNK_SIZE + 10; i++) {
+            transaction.remove("/state/test_job/task_" + i);
+        }
+        transaction.commit();
+        assertTrue(regCenter.getChildrenKeys("/state/test_job").isEmpty());
+    }
+    
+    @Test
+    public void assertRemoveWhenNodeAbsent() {
+        regCenter.persist("/state/test_job/task_0", "");
+        regCenter.persist("/state/test_job/task_2", "");
+        new StateNodeTransaction(regCenter).remove("/state/test_job/task_0").remove("/state/test_job/task_1").remove("/state/test_job/task_2").commit();
+        assertFalse(regCenter.isExisted("/state/test_job/task_0"));
+        assertFalse(regCenter.isExisted("/state/test_job/task_2"));
+    }
+    
+    @Test
+    public void assertCreateAndUpdateInTransaction() {
+        regCenter.persist("/state/test_job/task_0", "0");
+        new StateNodeTransaction(regCenter).create("/state/other_job", "").create("/state/other_job/task_1", "1").update("/state/test_job/task_0", "00").commit();
+        assertThat(regCenter.getDirectly("/state/other_job/task_1"), is("1"));
+        assertThat(regCenter.getDirectly("/state/test_job/task_0"), is("00"));
+    }
+    
+    @Test
+    public void assertCreateAndUpdateWhenTransactionFailure() {
+        regCenter.persist("/state/test_job/task_0", "0");
+        new StateNodeTransaction(regCenter).create("/state/test_job/task_0", "1").create("/state/other_job/task_1", "1").update("/state/test_job/task_2", "2").commit();
+        assertThat(regCenter.getDirectly("/state/test_job/task_0"), is("0"));
+        assertThat(regCenter.getDirectly("/state/other_job/task_1"), is("1"));
+        assertThat(regCenter.getDirectly("/state/test_job/task_2"), is("2"));
+    }
+    
+    @Test
+    public void assertRemoveWithoutCuratorClient() {
+        CoordinatorRegistryCenter mockRegCenter = mock(CoordinatorRegistryCenter.class);
+        new StateNodeTransaction(mockRegCenter).remove("/state/test_job/task_0").remove("/state/test_job/task_1").commit();
+        verify(mockRegCenter).remove("/state/test_job/task_0");
+        verify(mockRegCenter).remove("/state/test_job/task_1");
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.state;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class TaskLaunchSignalTest {
+    
+    private final TaskLaunchSignal launchSignal = TaskLaunchSignal.getInstance();
+    
+    @Test
+    public void assertAwaitWithoutSignal() throws InterruptedException {
+        launchSignal.await(0L, TimeUnit.MILLISECONDS);
+        assertFalse(launchSignal.await(10L, TimeUnit.MILLISECONDS));
+    }
+    
+    @Test
+    public void assertAwaitWithSignal() throws InterruptedException {
+        launchSignal.signal();
+        launchSignal.signal();
+        assertTrue(launchSignal.await(10L, TimeUnit.SECONDS));
+        assertFalse(launchSignal.await(0L, TimeUnit.MILLISECONDS));
+    }
+    
+    @Test
+    public void assertAwaitWakenUpBySignal() throws InterruptedException {
+        launchSignal.await(0L, TimeUnit.MILLISECONDS);
+        Thread signalThread = new Thread() {
+            
+            @Override
+            public void run() {
+                launchSignal.signal();
+            }
+        };
+        signalThread.start();
+        assertTrue(launchSignal.await(10L, TimeUnit.SECONDS));
+        signalThread.join();
+    }
+}
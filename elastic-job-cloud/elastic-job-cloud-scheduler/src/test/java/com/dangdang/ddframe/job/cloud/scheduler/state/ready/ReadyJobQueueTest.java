@@ -0,0 +1,182 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.state.ready;
+
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public final class ReadyJobQueueTest {
+    
+    @Mock
+    private CoordinatorRegistryCenter regCenter;
+    
+    private final List<Runnable> syncTasks = new ArrayList<>();
+    
+    private final List<Long> retryDelays = new ArrayList<>();
+    
+    private final ScheduledThreadPoolExecutor syncExecutor = new ScheduledThreadPoolExecutor(1) {
+        
+        @Override
+        public void execute(final Runnable command) {
+            syncTasks.add(command);
+        }
+        
+        @Override
+        public ScheduledFuture<?> schedule(final Runnable command, final long delay, final TimeUnit unit) {
+            syncTasks.add(command);
+            retryDelays.add(unit.toMillis(delay));
+            return null;
+        }
+    };
+    
+    private ReadyJobQueue readyJobQueue;
+    
+    @Before
+    public void setUp() {
+        readyJobQueue = new ReadyJobQueue(regCenter, syncExecutor);
+    }
+    
+    private void increase(final String jobName) {
+        readyJobQueue.addAll(Collections.singletonList(jobName), true, Integer.MAX_VALUE);
+    }
+    
+    @Test
+    public void assertLoad() {
+        when(regCenter.isExisted(ReadyNode.ROOT)).thenReturn(true);
+        when(regCenter.getChildrenKeys(ReadyNode.ROOT)).thenReturn(Arrays.asList("test_job_1", "test_job_2"));
+        when(regCenter.get("/state/ready/test_job_1")).thenReturn("3");
+        when(regCenter.get("/state/ready/test_job_2")).thenReturn("");
+        assertThat(readyJobQueue.size(), is(1));
+        assertThat(readyJobQueue.get("test_job_1"), is(3));
+        assertNull(readyJobQueue.get("test_job_2"));
+    }
+    
+    @Test
+    public void assertChangesMergedIntoOneSync() {
+        increase("test_job");
+        increase("test_job");
+        increase("test_job");
+        assertThat(syncTasks.size(), is(1));
+        verify(regCenter, never()).persist(any(String.class), any(String.class));
+        syncTasks.get(0).run();
+        verify(regCenter).persist("/state/ready/test_job", "3");
+        verify(regCenter, never()).persist("/state/ready/test_job", "1");
+    }
+    
+    @Test
+    public void assertSyncAfterDecreaseToZero() {
+        increase("test_job");
+        readyJobQueue.sync();
+        readyJobQueue.decrease(Collections.singletonList("test_job"));
+        readyJobQueue.sync();
+        verify(regCenter).persist("/state/ready/test_job", "1");
+        verify(regCenter).remove("/state/ready/test_job");
+        assertThat(readyJobQueue.size(), is(0));
+    }
+    
+    @Test
+    public void assertSyncWithoutPersistedNodeRemoved() {
+        increase("test_job");
+        readyJobQueue.remove("test_job");
+        readyJobQueue.sync();
+        verify(regCenter, never()).persist(any(String.class), any(String.class));
+        verify(regCenter, never()).remove("/state/ready/test_job");
+    }
+    
+    @Test
+    public void assertAddAllOverCapacity() {
+        increase("test_job_1");
+        increase("test_job_2");
+        assertThat(readyJobQueue.addAll(Arrays.asList("test_job_1", "test_job_2", "test_job_3"), true, 1), is(1));
+        assertThat(readyJobQueue.get("test_job_1"), is(2));
+        assertThat(readyJobQueue.get("test_job_2"), is(2));
+        assertNull(readyJobQueue.get("test_job_3"));
+    }
+    
+    @Test
+    public void assertAddAllWithoutAccumulation() {
+        increase("test_job");
+        increase("test_job");
+        readyJobQueue.sync();
+        readyJobQueue.addAll(Arrays.asList("test_job", "other_job"), false, Integer.MAX_VALUE);
+        readyJobQueue.sync();
+        verify(regCenter).persist("/state/ready/test_job", "2");
+        verify(regCenter).persist("/state/ready/test_job", "1");
+        verify(regCenter).persist("/state/ready/other_job", "1");
+    }
+    
+    @Test
+    public void assertSet() {
+        readyJobQueue.set("test_job", 1);
+        readyJobQueue.set("test_job", 1);
+        readyJobQueue.sync();
+        assertThat(readyJobQueue.getAll().get("test_job"), is(1));
+        verify(regCenter).persist("/state/ready/test_job", "1");
+    }
+    
+    @Test
+    public void assertRetrySyncWithBackoffWhenCommitFailure() {
+        doThrow(new RuntimeException()).when(regCenter).persist("/state/ready/test_job", "1");
+        increase("test_job");
+        syncTasks.get(0).run();
+        syncTasks.get(1).run();
+        assertThat(retryDelays, is(Arrays.asList(100L, 200L)));
+        doNothing().when(regCenter).persist("/state/ready/test_job", "1");
+        syncTasks.get(2).run();
+        verify(regCenter, times(3)).persist("/state/ready/test_job", "1");
+        assertThat(syncTasks.size(), is(3));
+        increase("other_job");
+        doThrow(new RuntimeException()).when(regCenter).persist("/state/ready/other_job", "1");
+        syncTasks.get(3).run();
+        assertThat(retryDelays.get(2), is(100L));
+    }
+    
+    @Test
+    public void assertClose() {
+        increase("test_job");
+        readyJobQueue.close();
+        verify(regCenter).persist("/state/ready/test_job", "1");
+        assertTrue(syncExecutor.isShutdown());
+        assertThat(readyJobQueue.getJobNames().size(), is(0));
+    }
+}
@@ -31,10 +31,12 @@ import com.google.common.collect.Lists;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.unitils.util.ReflectionUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -74,35 +76,65 @@ public final class ReadyServiceTest {
         ReflectionUtils.setFieldValue(readyService, "runningService", runningService);
     }
     
+    private void mockReadyJobs(final String... jobNameAndTimesPairs) {
+        List<String> jobNames = new ArrayList<>(jobNameAndTimesPairs.length / 2);
+        for (int i = 0; i < jobNameAndTimesPairs.length; i += 2) {
+            jobNames.add(jobNameAndTimesPairs[i]);
+            when(regCenter.get(ReadyNode.getReadyJobNodePath(jobNameAndTimesPairs[i]))).thenReturn(jobNameAndTimesPairs[i + 1]);
+        }
+        when(regCenter.isExisted(ReadyNode.ROOT)).thenReturn(true);
+        when(regCenter.getChildrenKeys(ReadyNode.ROOT)).thenReturn(jobNames);
+    }
+    
+    private void syncReadyJobQueue() {
+        ReadyJobQueue.getInstance(regCenter).sync();
+    }
+    
+    private void mockFullReadyQueue() {
+        int jobStateQueueSize = BootstrapEnvironment.getInstance().getFrameworkConfiguration().getJobStateQueueSize();
+        List<String> jobNames = new ArrayList<>(jobStateQueueSize + 1);
+        for (int i = 0; i <= jobStateQueueSize; i++) {
+            jobNames.add("ready_job_" + i);
+        }
+        when(regCenter.isExisted(ReadyNode.ROOT)).thenReturn(true);
+        when(regCenter.getChildrenKeys(ReadyNode.ROOT)).thenReturn(jobNames);
+        when(regCenter.get(ArgumentMatchers.startsWith(ReadyNode.ROOT))).thenReturn("1");
+    }
+    
     @Test
     public void assertAddTransientWithJobConfigIsNotPresent() {
         when(configService.load("test_job")).thenReturn(Optional.<CloudJobConfiguration>absent());
         readyService.addTransient("test_job");
-        verify(regCenter, times(0)).isExisted("/state/ready");
-        verify(regCenter, times(0)).persist((String) any(), eq(""));
+        syncReadyJobQueue();
+        verify(regCenter, times(0)).persist((String) any(), (String) any());
+        assertTrue(readyService.getAllReadyTasks().isEmpty());
     }
     
     @Test
     public void assertAddTransientWithJobConfigIsNotTransient() {
         when(configService.load("test_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job", CloudJobExecutionType.DAEMON)));
         readyService.addTransient("test_job");
-        verify(regCenter, times(0)).isExisted("/state/ready");
-        verify(regCenter, times(0)).persist((String) any(), eq(""));
+        syncReadyJobQueue();
+        verify(regCenter, times(0)).persist((String) any(), (String) any());
+        assertTrue(readyService.getAllReadyTasks().isEmpty());
     }
     
     @Test
     public void assertAddTransientWhenJobExistedAndEnableMisfired() {
         when(configService.load("test_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job")));
-        when(regCenter.getDirectly("/state/ready/test_job")).thenReturn("1");
+        mockReadyJobs("test_job", "1");
         readyService.addTransient("test_job");
+        syncReadyJobQueue();
         verify(regCenter).persist("/state/ready/test_job", "2");
+        assertThat(readyService.getAllReadyTasks().get("test_job"), is(2));
     }
     
     @Test
     public void assertAddTransientWhenJobExistedAndDisableMisfired() {
         when(configService.load("test_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job", false)));
-        when(regCenter.getDirectly("/state/ready/test_job")).thenReturn("1");
+        mockReadyJobs("test_job", "3");
         readyService.addTransient("test_job");
+        syncReadyJobQueue();
         verify(regCenter).persist("/state/ready/test_job", "1");
     }
     
@@ -110,20 +142,37 @@ public final class ReadyServiceTest {
     public void assertAddTransientWhenJobNotExisted() {
         when(configService.load("test_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job")));
         readyService.addTransient("test_job");
+        syncReadyJobQueue();
         verify(regCenter).persist("/state/ready/test_job", "1");
     }
     
+    @Test
+    public void assertAddTransientInBatch() {
+        when(configService.load("test_job_1")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job_1")));
+        when(configService.load("test_job_2")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job_2", false)));
+        when(configService.load("test_job_3")).thenReturn(Optional.<CloudJobConfiguration>absent());
+        mockReadyJobs("test_job_1", "1", "test_job_2", "2");
+        readyService.addTransient(Arrays.asList("test_job_1", "test_job_2", "test_job_3"));
+        syncReadyJobQueue();
+        verify(regCenter).persist("/state/ready/test_job_1", "2");
+        verify(regCenter).persist("/state/ready/test_job_2", "1");
+        verify(regCenter, times(0)).persist(eq("/state/ready/test_job_3"), (String) any());
+        assertThat(readyService.getAllReadyTasks().size(), is(2));
+    }
+    
     @Test
     public void assertAddTransientWithOverJobQueueSize() {
-        when(regCenter.getNumChildren(ReadyNode.ROOT)).thenReturn(BootstrapEnvironment.getInstance().getFrameworkConfiguration().getJobStateQueueSize() + 1);
+        mockFullReadyQueue();
         readyService.addTransient("test_job");
+        syncReadyJobQueue();
         verify(regCenter, times(0)).persist("/state/ready/test_job", "1");
     }
     
     @Test
     public void assertAddDaemonWithOverJobQueueSize() {
-        when(regCenter.getNumChildren(ReadyNode.ROOT)).thenReturn(BootstrapEnvironment.getInstance().getFrameworkConfiguration().getJobStateQueueSize() + 1);
+        mockFullReadyQueue();
         readyService.addDaemon("test_job");
+        syncReadyJobQueue();
         verify(regCenter, times(0)).persist("/state/ready/test_job", "1");
     }
     
@@ -131,7 +180,7 @@ public final class ReadyServiceTest {
     public void assertAddDaemonWithJobConfigIsNotPresent() {
         when(configService.load("test_job")).thenReturn(Optional.<CloudJobConfiguration>absent());
         readyService.addDaemon("test_job");
-        verify(regCenter, times(0)).isExisted("/state/ready");
+        syncReadyJobQueue();
         verify(regCenter, times(0)).persist((String) any(), eq("1"));
     }
     
@@ -139,7 +188,7 @@ public final class ReadyServiceTest {
     public void assertAddDaemonWithJobConfigIsNotDaemon() {
         when(configService.load("test_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job")));
         readyService.addDaemon("test_job");
-        verify(regCenter, times(0)).isExisted("/state/ready");
+        syncReadyJobQueue();
         verify(regCenter, times(0)).persist((String) any(), eq("1"));
     }
     
@@ -147,6 +196,7 @@ public final class ReadyServiceTest {
     public void assertAddDaemonWithoutRootNode() {
         when(configService.load("test_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job", CloudJobExecutionType.DAEMON)));
         readyService.addDaemon("test_job");
+        syncReadyJobQueue();
         verify(regCenter).persist("/state/ready/test_job", "1");
     }
     
@@ -154,6 +204,7 @@ public final class ReadyServiceTest {
     public void assertAddDaemonWithSameJobName() {
         when(configService.load("test_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job", CloudJobExecutionType.DAEMON)));
         readyService.addDaemon("test_job");
+        syncReadyJobQueue();
         verify(regCenter).persist((String) any(), eq("1"));
     }
     
@@ -162,6 +213,7 @@ public final class ReadyServiceTest {
         when(configService.load("test_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job", CloudJobExecutionType.DAEMON)));
         when(runningService.isJobRunning("test_job")).thenReturn(true);
         readyService.addDaemon("test_job");
+        syncReadyJobQueue();
         verify(regCenter, never()).persist((String) any(), eq("1"));
     }
     
@@ -169,6 +221,7 @@ public final class ReadyServiceTest {
     public void assertAddDaemonWithoutSameJobName() {
         when(configService.load("test_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job", CloudJobExecutionType.DAEMON)));
         readyService.addDaemon("test_job");
+        syncReadyJobQueue();
         verify(regCenter).persist("/state/ready/test_job", "1");
     }
     
@@ -183,6 +236,7 @@ public final class ReadyServiceTest {
     public void assertSetMisfireDisabledWhenJobIsNotExisted() {
         when(configService.load("test_job")).thenReturn(Optional.<CloudJobConfiguration>absent());
         readyService.setMisfireDisabled("test_job");
+        syncReadyJobQueue();
         verify(regCenter, times(0)).persist("/state/ready/test_job", "1");
     }
     
@@ -190,21 +244,22 @@ public final class ReadyServiceTest {
     public void assertSetMisfireDisabledWhenReadyNodeNotExisted() {
         when(configService.load("test_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job")));
         readyService.setMisfireDisabled("test_job");
+        syncReadyJobQueue();
         verify(regCenter, times(0)).persist("/state/ready/test_job", "1");
     }
     
     @Test
     public void assertSetMisfireDisabledWhenReadyNodeExisted() {
         when(configService.load("test_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job")));
-        when(regCenter.getDirectly("/state/ready/test_job")).thenReturn("100");
+        mockReadyJobs("test_job", "100");
         readyService.setMisfireDisabled("test_job");
+        syncReadyJobQueue();
         verify(regCenter).persist("/state/ready/test_job", "1");
     }
     
     @Test
     public void assertGetAllEligibleJobContextsWithRootNode() {
-        when(regCenter.isExisted("/state/ready")).thenReturn(true);
-        when(regCenter.getChildrenKeys("/state/ready")).thenReturn(Arrays.asList("not_existed_job", "running_job", "ineligible_job", "eligible_job"));
+        mockReadyJobs("not_existed_job", "1", "running_job", "1", "ineligible_job", "1", "eligible_job", "1");
         when(configService.load("not_existed_job")).thenReturn(Optional.<CloudJobConfiguration>absent());
         when(configService.load("running_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("running_job")));
         when(configService.load("eligible_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("eligible_job")));
@@ -217,13 +272,13 @@ public final class ReadyServiceTest {
         verify(configService).load("not_existed_job");
         verify(configService).load("running_job");
         verify(configService).load("eligible_job");
+        syncReadyJobQueue();
         verify(regCenter).remove("/state/ready/not_existed_job");
     }
     
     @Test
     public void assertGetAllEligibleJobContextsWithRootNodeAndDaemonJob() {
-        when(regCenter.isExisted("/state/ready")).thenReturn(true);
-        when(regCenter.getChildrenKeys("/state/ready")).thenReturn(Arrays.asList("not_existed_job", "running_job"));
+        mockReadyJobs("not_existed_job", "1", "running_job", "1");
         when(configService.load("not_existed_job")).thenReturn(Optional.<CloudJobConfiguration>absent());
         when(configService.load("running_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("running_job", CloudJobExecutionType.DAEMON)));
         when(runningService.isJobRunning("running_job")).thenReturn(true);
@@ -236,13 +291,37 @@ public final class ReadyServiceTest {
     
     @Test
     public void assertRemove() {
-        when(regCenter.getDirectly("/state/ready/test_job_1")).thenReturn("1");
-        when(regCenter.getDirectly("/state/ready/test_job_2")).thenReturn("2");
+        mockReadyJobs("test_job_1", "1", "test_job_2", "2");
         readyService.remove(Arrays.asList("test_job_1", "test_job_2"));
+        syncReadyJobQueue();
         verify(regCenter).persist("/state/ready/test_job_2", "1");
         verify(regCenter).remove("/state/ready/test_job_1");
         verify(regCenter, times(0)).persist("/state/ready/test_job_1", "0");
         verify(regCenter, times(0)).remove("/state/ready/test_job_2");
+        assertThat(readyService.getAllReadyTasks().size(), is(1));
+    }
+    
+    @Test
+    public void assertAddTransientWithoutReadingRegCenter() {
+        when(configService.load("test_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job")));
+        mockReadyJobs("test_job", "1");
+        readyService.start();
+        readyService.addTransient("test_job");
+        readyService.addTransient("test_job");
+        verify(regCenter, times(1)).getChildrenKeys(ReadyNode.ROOT);
+        verify(regCenter, times(0)).getNumChildren(ReadyNode.ROOT);
+        verify(regCenter, times(0)).getDirectly((String) any());
+        syncReadyJobQueue();
+        verify(regCenter).persist("/state/ready/test_job", "3");
+    }
+    
+    @Test
+    public void assertStop() {
+        mockReadyJobs("test_job", "1");
+        assertThat(readyService.getAllReadyTasks().size(), is(1));
+        readyService.stop();
+        when(regCenter.isExisted(ReadyNode.ROOT)).thenReturn(false);
+        assertTrue(readyService.getAllReadyTasks().isEmpty());
     }
     
     @Test
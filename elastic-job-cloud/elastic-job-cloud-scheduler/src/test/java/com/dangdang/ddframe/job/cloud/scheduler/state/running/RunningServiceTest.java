@@ -104,6 +104,17 @@ public final class RunningServiceTest {
         assertThat(runningService.getRunningTasks("other_job").iterator().next(), is(TaskContext.from(taskNode.getTaskNodeValue())));
     }
     
+    @Test
+    public void assertAddCollection() {
+        TaskContext taskContext0 = TaskContext.from(TaskNode.builder().shardingItem(1).build().getTaskNodeValue());
+        TaskContext taskContext1 = TaskContext.from(TaskNode.builder().shardingItem(2).build().getTaskNodeValue());
+        runningService.add(Arrays.asList(taskContext0, taskContext1, taskContextT));
+        assertThat(runningService.getRunningTasks("test_job").size(), is(3));
+        verify(regCenter).persist("/state/running/test_job", "");
+        verify(regCenter).persist(RunningNode.getRunningTaskNodePath(taskContext0.getMetaInfo().toString()), taskContext0.getId());
+        verify(regCenter).persist(RunningNode.getRunningTaskNodePath(taskContext1.getMetaInfo().toString()), taskContext1.getId());
+    }
+    
     @Test
     public void assertUpdateIdle() {
         runningService.updateIdle(taskContext, true);
@@ -111,6 +122,14 @@ public final class RunningServiceTest {
         assertTrue(runningService.getRunningTasks("test_job").iterator().next().isIdle());
     }
     
+    @Test
+    public void assertUpdateIdleWhenTaskNotRunning() {
+        TaskContext otherTaskContext = TaskContext.from(TaskNode.builder().shardingItem(1).build().getTaskNodeValue());
+        runningService.updateIdle(otherTaskContext, true);
+        assertThat(runningService.getRunningTasks("test_job").size(), is(2));
+        assertTrue(runningService.isTaskRunning(otherTaskContext.getMetaInfo()));
+    }
+    
     @Test
     public void assertRemoveByJobName() {
         runningService.remove("test_job");
@@ -146,6 +165,23 @@ public final class RunningServiceTest {
         assertFalse(runningService.isTaskRunning(TaskContext.MetaInfo.from(TaskNode.builder().shardingItem(2).build().getTaskNodePath())));
     }
     
+    @Test
+    public void assertIsTaskNotRunningAfterRemove() {
+        when(regCenter.isExisted(RunningNode.getRunningJobNodePath("test_job"))).thenReturn(true);
+        when(regCenter.getChildrenKeys(RunningNode.getRunningJobNodePath("test_job"))).thenReturn(Collections.<String>emptyList());
+        runningService.remove(TaskContext.from(taskContext.getId()));
+        assertFalse(runningService.isTaskRunning(taskContext.getMetaInfo()));
+    }
+    
+    @Test
+    public void assertGetRunningCount() {
+        assertThat(runningService.getRunningJobCount(), is(2));
+        assertThat(runningService.getRunningTaskCount(), is(2));
+        runningService.remove("test_job_t");
+        assertThat(runningService.getRunningJobCount(), is(1));
+        assertThat(runningService.getRunningTaskCount(), is(1));
+    }
+    
     @Test
     public void assertMappingOperate() {
         String taskId = TaskNode.builder().build().getTaskNodeValue();
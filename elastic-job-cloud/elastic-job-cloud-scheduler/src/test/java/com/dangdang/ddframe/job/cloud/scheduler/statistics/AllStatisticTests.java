@@ -21,6 +21,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 import com.dangdang.ddframe.job.cloud.scheduler.statistics.job.BaseStatisticJobTest;
+import com.dangdang.ddframe.job.cloud.scheduler.statistics.job.JobPerformanceStatisticJobTest;
 import com.dangdang.ddframe.job.cloud.scheduler.statistics.job.JobRunningStatisticJobTest;
 import com.dangdang.ddframe.job.cloud.scheduler.statistics.job.RegisteredJobStatisticJobTest;
 import com.dangdang.ddframe.job.cloud.scheduler.statistics.job.TaskResultStatisticJobTest;
@@ -35,7 +36,11 @@ import com.dangdang.ddframe.job.cloud.scheduler.statistics.util.StatisticTimeUti
         StatisticTimeUtilsTest.class, 
         RegisteredJobStatisticJobTest.class, 
         TaskResultStatisticJobTest.class, 
-        JobRunningStatisticJobTest.class
+        JobRunningStatisticJobTest.class, 
+        JobPerformanceStatisticJobTest.class, 
+        StripedCounterTest.class, 
+        LatencyHistogramTest.class, 
+        JobPerformanceAggregatorTest.class
     })
 public final class AllStatisticTests {
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.statistics;
+
+import com.dangdang.ddframe.job.statistics.type.job.JobPerformanceStatistics;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class JobPerformanceAggregatorTest {
+    
+    @Test
+    public void assertDrainWhenNothingRecorded() {
+        assertTrue(new JobPerformanceAggregator().drain(new Date()).isEmpty());
+    }
+    
+    @Test
+    public void assertDrain() {
+        JobPerformanceAggregator aggregator = new JobPerformanceAggregator();
+        aggregator.recordSuccess("test_job_1", "test_app", 10L);
+        aggregator.recordSuccess("test_job_1", "test_app", 30L);
+        aggregator.recordFailure("test_job_1", "test_app", 20L);
+        aggregator.recordSuccess("test_job_2", "test_app", -1L);
+        aggregator.recordFailure("test_job_3", null, 5L);
+        Date statisticsTime = new Date();
+        List<JobPerformanceStatistics> actual = aggregator.drain(statisticsTime);
+        assertThat(actual.size(), is(4));
+        Map<String, JobPerformanceStatistics> actualMap = new HashMap<>(actual.size(), 1);
+        for (JobPerformanceStatistics each : actual) {
+            actualMap.put(each.getDimension() + "_" + each.getName(), each);
+            assertThat(each.getStatisticsTime(), is(statisticsTime));
+        }
+        JobPerformanceStatistics job1 = actualMap.get("JOB_test_job_1");
+        assertThat(job1.getSuccessCount(), is(2));
+        assertThat(job1.getFailedCount(), is(1));
+        assertThat(job1.getAverageLatency(), is(20L));
+        assertThat(job1.getMaxLatency(), is(30L));
+        JobPerformanceStatistics job2 = actualMap.get("JOB_test_job_2");
+        assertThat(job2.getSuccessCount(), is(1));
+        assertThat(job2.getAverageLatency(), is(0L));
+        assertThat(actualMap.get("JOB_test_job_3").getFailedCount(), is(1));
+        JobPerformanceStatistics app = actualMap.get("APP_test_app");
+        assertThat(app.getSuccessCount(), is(3));
+        assertThat(app.getFailedCount(), is(1));
+        assertThat(app.getMaxLatency(), is(30L));
+    }
+    
+    @Test
+    public void assertDrainAgainAfterDrained() {
+        JobPerformanceAggregator aggregator = new JobPerformanceAggregator();
+        aggregator.recordSuccess("test_job", "test_app", 10L);
+        assertThat(aggregator.drain(new Date()).size(), is(2));
+        assertTrue(aggregator.drain(new Date()).isEmpty());
+        aggregator.recordFailure("test_job", "test_app", 10L);
+        assertThat(aggregator.drain(new Date()).size(), is(2));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.statistics;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+    
+    @Test
+    public void assertGetBucketIndex() {
+        assertThat(LatencyHistogram.getBucketIndex(0L), is(0));
+        assertThat(LatencyHistogram.getBucketIndex(7L), is(7));
+        assertThat(LatencyHistogram.getBucketIndex(8L), is(8));
+        assertThat(LatencyHistogram.getBucketIndex(15L), is(15));
+        assertThat(LatencyHistogram.getBucketIndex(16L), is(16));
+        assertThat(LatencyHistogram.getBucketIndex(17L), is(16));
+        assertThat(LatencyHistogram.getBucketIndex(18L), is(17));
+    }
+    
+    @Test
+    public void assertBucketUpperBoundIsWithinRelativeError() {
+        for (long value = 1L; value < 1000000L; value = value * 3 + 1) {
+            long upperBound = LatencyHistogram.getBucketUpperBound(LatencyHistogram.getBucketIndex(value));
+            assertTrue(upperBound >= value);
+            assertTrue(upperBound - value <= value / 8);
+        }
+    }
+    
+    @Test
+    public void assertSnapshotWhenEmpty() {
+        LatencyHistogram.Snapshot actual = new LatencyHistogram().snapshotAndReset();
+        assertThat(actual.getCount(), is(0L));
+        assertThat(actual.getMean(), is(0L));
+        assertThat(actual.getPercentile(99d), is(0L));
+        assertThat(actual.getMax(), is(0L));
+    }
+    
+    @Test
+    public void assertSnapshotAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1L; i <= 100L; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-1L);
+        LatencyHistogram.Snapshot actual = histogram.snapshotAndReset();
+        assertThat(actual.getCount(), is(100L));
+        assertThat(actual.getSum(), is(5050L));
+        assertThat(actual.getMean(), is(50L));
+        assertThat(actual.getMax(), is(100L));
+        assertTrue(actual.getPercentile(50d) >= 50L && actual.getPercentile(50d) <= 55L);
+        assertTrue(actual.getPercentile(99d) >= 99L && actual.getPercentile(99d) <= 100L);
+        assertThat(actual.getPercentile(100d), is(100L));
+        assertThat(histogram.snapshotAndReset().getCount(), is(0L));
+    }
+    
+    @Test
+    public void assertSnapshot() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10L);
+        histogram.record(30L);
+        LatencyHistogram.Snapshot actual = histogram.snapshot();
+        assertThat(actual.getCount(), is(2L));
+        assertThat(actual.getMean(), is(20L));
+        assertThat(actual.getMax(), is(30L));
+        assertThat(histogram.snapshot().getCount(), is(2L));
+    }
+}
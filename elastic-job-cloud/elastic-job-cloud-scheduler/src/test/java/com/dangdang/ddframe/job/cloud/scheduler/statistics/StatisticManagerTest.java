@@ -20,10 +20,13 @@ package com.dangdang.ddframe.job.cloud.scheduler.statistics;
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobConfigurationService;
 import com.dangdang.ddframe.job.cloud.scheduler.config.job.CloudJobExecutionType;
 import com.dangdang.ddframe.job.cloud.scheduler.fixture.CloudJobConfigurationBuilder;
+import com.dangdang.ddframe.job.cloud.scheduler.fixture.TaskNode;
+import com.dangdang.ddframe.job.context.TaskContext;
 import com.dangdang.ddframe.job.event.rdb.JobEventRdbConfiguration;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import com.dangdang.ddframe.job.statistics.StatisticInterval;
 import com.dangdang.ddframe.job.statistics.rdb.StatisticRdbRepository;
+import com.dangdang.ddframe.job.statistics.type.job.JobPerformanceStatistics;
 import com.dangdang.ddframe.job.statistics.type.job.JobRegisterStatistics;
 import com.dangdang.ddframe.job.statistics.type.job.JobRunningStatistics;
 import com.dangdang.ddframe.job.statistics.type.task.TaskResultStatistics;
@@ -39,11 +42,14 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.unitils.util.ReflectionUtils;
 
 import java.util.Date;
+import java.util.List;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -104,12 +110,39 @@ public class StatisticManagerTest {
         ReflectionUtils.setFieldValue(statisticManager, "scheduler", scheduler);
         statisticManager.shutdown();
         verify(scheduler).shutdown();
+        assertNotSame(statisticManager, StatisticManager.getInstance(regCenter, jobEventRdbConfiguration));
     }
     
     @Test
     public void assertTaskRun() throws NoSuchFieldException {
-        statisticManager.taskRunSuccessfully();
-        statisticManager.taskRunFailed();
+        ReflectionUtils.setFieldValue(statisticManager, "rdbRepository", null);
+        TaskContext taskContext = TaskContext.from(TaskNode.builder().build().getTaskNodeValue());
+        statisticManager.taskStarted(taskContext);
+        statisticManager.taskRunSuccessfully(taskContext);
+        statisticManager.taskRunFailed(taskContext);
+        assertTrue(getPerformanceAggregator().drain(new Date()).isEmpty());
+    }
+    
+    @Test
+    public void assertTaskRunWhenRdbIsConfigured() throws NoSuchFieldException {
+        ReflectionUtils.setFieldValue(statisticManager, "rdbRepository", rdbRepository);
+        ReflectionUtils.setFieldValue(statisticManager, "configurationService", configurationService);
+        when(configurationService.load("test_job")).thenReturn(Optional.of(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job")));
+        TaskContext taskContext = TaskContext.from(TaskNode.builder().build().getTaskNodeValue());
+        statisticManager.taskStarted(taskContext);
+        statisticManager.taskRunSuccessfully(taskContext);
+        statisticManager.taskRunFailed(taskContext);
+        List<JobPerformanceStatistics> actual = getPerformanceAggregator().drain(new Date());
+        assertThat(actual.size(), is(2));
+        for (JobPerformanceStatistics each : actual) {
+            assertThat(each.getSuccessCount(), is(1));
+            assertThat(each.getFailedCount(), is(1));
+        }
+        verify(configurationService, times(2)).load("test_job");
+    }
+    
+    private JobPerformanceAggregator getPerformanceAggregator() throws NoSuchFieldException {
+        return (JobPerformanceAggregator) ReflectionUtils.getFieldValue(statisticManager, StatisticManager.class.getDeclaredField("performanceAggregator"));
     }
     
     @Test
@@ -166,10 +199,10 @@ public class StatisticManagerTest {
     @Test
     public void assertFindTaskRunningStatisticsWhenRdbIsConfigured() throws NoSuchFieldException {
         ReflectionUtils.setFieldValue(statisticManager, "rdbRepository", rdbRepository);
-        when(rdbRepository.findTaskRunningStatistics(any(Date.class)))
+        when(rdbRepository.findTaskRunningStatistics(any(Date.class), eq(StatisticInterval.HOUR)))
             .thenReturn(Lists.newArrayList(new TaskRunningStatistics(10, new Date())));
         assertThat(statisticManager.findTaskRunningStatisticsWeekly().size(), is(1));
-        verify(rdbRepository).findTaskRunningStatistics(any(Date.class));
+        verify(rdbRepository).findTaskRunningStatistics(any(Date.class), eq(StatisticInterval.HOUR));
     }
     
     @Test
@@ -181,10 +214,25 @@ public class StatisticManagerTest {
     @Test
     public void assertFindJobRunningStatisticsWhenRdbIsConfigured() throws NoSuchFieldException {
         ReflectionUtils.setFieldValue(statisticManager, "rdbRepository", rdbRepository);
-        when(rdbRepository.findJobRunningStatistics(any(Date.class)))
+        when(rdbRepository.findJobRunningStatistics(any(Date.class), eq(StatisticInterval.HOUR)))
             .thenReturn(Lists.newArrayList(new JobRunningStatistics(10, new Date())));
         assertThat(statisticManager.findJobRunningStatisticsWeekly().size(), is(1));
-        verify(rdbRepository).findJobRunningStatistics(any(Date.class));
+        verify(rdbRepository).findJobRunningStatistics(any(Date.class), eq(StatisticInterval.HOUR));
+    }
+    
+    @Test
+    public void assertFindJobPerformanceStatisticsWhenRdbIsNotConfigured() throws NoSuchFieldException {
+        ReflectionUtils.setFieldValue(statisticManager, "rdbRepository", null);
+        assertTrue(statisticManager.findJobPerformanceStatisticsDaily(JobPerformanceStatistics.Dimension.JOB, "test_job").isEmpty());
+    }
+    
+    @Test
+    public void assertFindJobPerformanceStatisticsWhenRdbIsConfigured() throws NoSuchFieldException {
+        ReflectionUtils.setFieldValue(statisticManager, "rdbRepository", rdbRepository);
+        when(rdbRepository.findJobPerformanceStatistics(any(Date.class), eq(JobPerformanceStatistics.Dimension.JOB), eq("test_job")))
+            .thenReturn(Lists.newArrayList(new JobPerformanceStatistics(JobPerformanceStatistics.Dimension.JOB, "test_job", 1, 0, 10L, 10L, 10L, 10L, 10L, new Date())));
+        assertThat(statisticManager.findJobPerformanceStatisticsDaily(JobPerformanceStatistics.Dimension.JOB, "test_job").size(), is(1));
+        verify(rdbRepository).findJobPerformanceStatistics(any(Date.class), eq(JobPerformanceStatistics.Dimension.JOB), eq("test_job"));
     }
     
     @Test
@@ -234,9 +282,9 @@ public class StatisticManagerTest {
     @Test
     public void assertFindTaskResultStatisticsDailyWhenRdbIsConfigured() throws NoSuchFieldException {
         ReflectionUtils.setFieldValue(statisticManager, "rdbRepository", rdbRepository);
-        when(rdbRepository.findTaskResultStatistics(any(Date.class), any(StatisticInterval.class)))
+        when(rdbRepository.findTaskResultStatistics(any(Date.class), eq(StatisticInterval.MINUTE)))
             .thenReturn(Lists.newArrayList(new TaskResultStatistics(10, 5, StatisticInterval.MINUTE, new Date())));
         assertThat(statisticManager.findTaskResultStatisticsDaily().size(), is(1));
-        verify(rdbRepository).findTaskResultStatistics(any(Date.class), any(StatisticInterval.class));
+        verify(rdbRepository).findTaskResultStatistics(any(Date.class), eq(StatisticInterval.MINUTE));
     }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.cloud.scheduler.statistics.job;
+
+import com.dangdang.ddframe.job.cloud.scheduler.statistics.JobPerformanceAggregator;
+import com.dangdang.ddframe.job.statistics.rdb.StatisticRdbRepository;
+import com.dangdang.ddframe.job.statistics.type.job.JobPerformanceStatistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.quartz.SchedulerException;
+
+import java.util.Collection;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JobPerformanceStatisticJobTest {
+    
+    @Mock
+    private StatisticRdbRepository repository;
+    
+    @Captor
+    private ArgumentCaptor<Collection<JobPerformanceStatistics>> jobPerformanceStatisticsCaptor;
+    
+    private JobPerformanceAggregator aggregator;
+    
+    private JobPerformanceStatisticJob jobPerformanceStatisticJob;
+    
+    @Before
+    public void setUp() {
+        aggregator = new JobPerformanceAggregator();
+        jobPerformanceStatisticJob = new JobPerformanceStatisticJob(aggregator, repository);
+    }
+    
+    @Test
+    public void assertBuildJobDetail() {
+        assertThat(jobPerformanceStatisticJob.buildJobDetail().getKey().getName(), is(JobPerformanceStatisticJob.class.getSimpleName()));
+    }
+    
+    @Test
+    public void assertBuildTrigger() {
+        assertThat(jobPerformanceStatisticJob.buildTrigger().getKey().getName(), is(JobPerformanceStatisticJob.class.getSimpleName() + "Trigger"));
+    }
+    
+    @Test
+    public void assertGetDataMap() {
+        assertThat((JobPerformanceAggregator) jobPerformanceStatisticJob.getDataMap().get("aggregator"), is(aggregator));
+        assertThat((StatisticRdbRepository) jobPerformanceStatisticJob.getDataMap().get("repository"), is(repository));
+    }
+    
+    @Test
+    public void assertExecuteWhenNothingRecorded() throws SchedulerException {
+        jobPerformanceStatisticJob.execute(null);
+        verifyZeroInteractions(repository);
+    }
+    
+    @Test
+    public void assertExecute() throws SchedulerException {
+        aggregator.recordSuccess("test_job_1", "test_app", 10L);
+        aggregator.recordFailure("test_job_2", "test_app", 20L);
+        jobPerformanceStatisticJob.execute(null);
+        verify(repository).batchAddJobPerformanceStatistics(jobPerformanceStatisticsCaptor.capture());
+        assertThat(jobPerformanceStatisticsCaptor.getValue().size(), is(3));
+    }
+}
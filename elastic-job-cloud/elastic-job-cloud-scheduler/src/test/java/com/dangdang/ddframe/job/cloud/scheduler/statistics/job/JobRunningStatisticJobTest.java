@@ -20,35 +20,29 @@ package com.dangdang.ddframe.job.cloud.scheduler.statistics.job;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.quartz.SchedulerException;
 import org.quartz.Trigger;
 
-import com.dangdang.ddframe.job.cloud.scheduler.fixture.TaskNode;
 import com.dangdang.ddframe.job.cloud.scheduler.state.running.RunningService;
 import com.dangdang.ddframe.job.cloud.scheduler.statistics.util.StatisticTimeUtils;
-import com.dangdang.ddframe.job.context.TaskContext;
 import com.dangdang.ddframe.job.statistics.StatisticInterval;
 import com.dangdang.ddframe.job.statistics.rdb.StatisticRdbRepository;
 import com.dangdang.ddframe.job.statistics.type.job.JobRunningStatistics;
 import com.dangdang.ddframe.job.statistics.type.task.TaskRunningStatistics;
 import com.google.common.base.Optional;
 
+import java.util.Collection;
+
 @RunWith(MockitoJUnitRunner.class)
 public class JobRunningStatisticJobTest {
     
@@ -58,6 +52,12 @@ public class JobRunningStatisticJobTest {
     @Mock
     private StatisticRdbRepository repository;
     
+    @Captor
+    private ArgumentCaptor<Collection<TaskRunningStatistics>> taskRunningStatisticsCaptor;
+    
+    @Captor
+    private ArgumentCaptor<Collection<JobRunningStatistics>> jobRunningStatisticsCaptor;
+    
     private JobRunningStatisticJob jobRunningStatisticJob;
     
     @Before
@@ -90,14 +90,16 @@ public class JobRunningStatisticJobTest {
         Optional<TaskRunningStatistics> latestTaskRunningStatistics = Optional.absent();
         when(repository.findLatestJobRunningStatistics()).thenReturn(latestJobRunningStatistics);
         when(repository.findLatestTaskRunningStatistics()).thenReturn(latestTaskRunningStatistics);
-        when(repository.add(any(JobRunningStatistics.class))).thenReturn(true);
-        when(repository.add(any(TaskRunningStatistics.class))).thenReturn(true);
-        when(runningService.getAllRunningTasks()).thenReturn(Collections.<String, Set<TaskContext>>emptyMap());
         jobRunningStatisticJob.execute(null);
         verify(repository).findLatestJobRunningStatistics();
-        verify(repository).add(any(JobRunningStatistics.class));
-        verify(repository).add(any(TaskRunningStatistics.class));
-        verify(runningService).getAllRunningTasks();
+        verify(repository).batchAddJobRunningStatistics(jobRunningStatisticsCaptor.capture());
+        assertThat(jobRunningStatisticsCaptor.getValue().size(), is(1));
+        verify(repository).batchAddTaskRunningStatistics(taskRunningStatisticsCaptor.capture());
+        assertThat(taskRunningStatisticsCaptor.getValue().size(), is(1));
+        verify(runningService).getRunningJobCount();
+        verify(runningService).getRunningTaskCount();
+        verify(repository).rollupJobRunningStatistics();
+        verify(repository).rollupTaskRunningStatistics();
     }
     
     @Test
@@ -106,18 +108,18 @@ public class JobRunningStatisticJobTest {
         Optional<TaskRunningStatistics> latestTaskRunningStatistics = Optional.of(new TaskRunningStatistics(0, StatisticTimeUtils.getStatisticTime(StatisticInterval.MINUTE, -3)));
         when(repository.findLatestJobRunningStatistics()).thenReturn(latestJobRunningStatistics);
         when(repository.findLatestTaskRunningStatistics()).thenReturn(latestTaskRunningStatistics);
-        when(repository.add(any(JobRunningStatistics.class))).thenReturn(true);
-        when(repository.add(any(TaskRunningStatistics.class))).thenReturn(true);
-        Map<String, Set<TaskContext>> jobMap = new HashMap<>(1);
-        Set<TaskContext> jobSet = new HashSet<>(1);
-        jobSet.add(TaskContext.from(TaskNode.builder().jobName("test_job").build().getTaskNodeValue()));
-        jobMap.put("test_job", jobSet);
-        when(runningService.getAllRunningTasks()).thenReturn(jobMap);
+        when(runningService.getRunningJobCount()).thenReturn(1);
+        when(runningService.getRunningTaskCount()).thenReturn(2);
         jobRunningStatisticJob.execute(null);
         verify(repository).findLatestJobRunningStatistics();
         verify(repository).findLatestTaskRunningStatistics();
-        verify(repository, times(3)).add(any(JobRunningStatistics.class));
-        verify(repository, times(3)).add(any(TaskRunningStatistics.class));
-        verify(runningService).getAllRunningTasks();
+        verify(repository).batchAddJobRunningStatistics(jobRunningStatisticsCaptor.capture());
+        assertThat(jobRunningStatisticsCaptor.getValue().size(), is(3));
+        verify(repository).batchAddTaskRunningStatistics(taskRunningStatisticsCaptor.capture());
+        assertThat(taskRunningStatisticsCaptor.getValue().size(), is(3));
+        verify(runningService).getRunningJobCount();
+        verify(runningService).getRunningTaskCount();
+        verify(repository).rollupJobRunningStatistics();
+        verify(repository).rollupTaskRunningStatistics();
     }
 }
@@ -28,15 +28,17 @@ import com.google.common.collect.Lists;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.quartz.SchedulerException;
 import org.quartz.Trigger;
 
+import java.util.Collection;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
-import static org.mockito.Mockito.any;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -49,6 +51,9 @@ public class RegisteredJobStatisticJobTest {
     @Mock
     private StatisticRdbRepository repository;
     
+    @Captor
+    private ArgumentCaptor<Collection<JobRegisterStatistics>> jobRegisterStatisticsCaptor;
+    
     private RegisteredJobStatisticJob registeredJobStatisticJob;
     
     @Before
@@ -79,11 +84,11 @@ public class RegisteredJobStatisticJobTest {
     public void assertExecuteWhenRepositoryIsEmpty() throws SchedulerException {
         Optional<JobRegisterStatistics> latestOne = Optional.absent();
         when(repository.findLatestJobRegisterStatistics()).thenReturn(latestOne);
-        when(repository.add(any(JobRegisterStatistics.class))).thenReturn(true);
         when(configurationService.loadAll()).thenReturn(Lists.newArrayList(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job")));
         registeredJobStatisticJob.execute(null);
         verify(repository).findLatestJobRegisterStatistics();
-        verify(repository).add(any(JobRegisterStatistics.class));
+        verify(repository).batchAddJobRegisterStatistics(jobRegisterStatisticsCaptor.capture());
+        assertThat(jobRegisterStatisticsCaptor.getValue().size(), is(1));
         verify(configurationService).loadAll();
     }
     
@@ -91,11 +96,11 @@ public class RegisteredJobStatisticJobTest {
     public void assertExecute() throws SchedulerException {
         Optional<JobRegisterStatistics> latestOne = Optional.of(new JobRegisterStatistics(0, StatisticTimeUtils.getStatisticTime(StatisticInterval.DAY, -3)));
         when(repository.findLatestJobRegisterStatistics()).thenReturn(latestOne);
-        when(repository.add(any(JobRegisterStatistics.class))).thenReturn(true);
         when(configurationService.loadAll()).thenReturn(Lists.newArrayList(CloudJobConfigurationBuilder.createCloudJobConfiguration("test_job")));
         registeredJobStatisticJob.execute(null);
         verify(repository).findLatestJobRegisterStatistics();
-        verify(repository, times(3)).add(any(JobRegisterStatistics.class));
+        verify(repository).batchAddJobRegisterStatistics(jobRegisterStatisticsCaptor.capture());
+        assertThat(jobRegisterStatisticsCaptor.getValue().size(), is(3));
         verify(configurationService).loadAll();
     }
 }
@@ -19,7 +19,6 @@ package com.dangdang.ddframe.job.cloud.scheduler.statistics.job;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -27,6 +26,8 @@ import static org.mockito.Mockito.when;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.quartz.SchedulerException;
@@ -39,6 +40,8 @@ import com.dangdang.ddframe.job.statistics.rdb.StatisticRdbRepository;
 import com.dangdang.ddframe.job.statistics.type.task.TaskResultStatistics;
 import com.google.common.base.Optional;
 
+import java.util.Collection;
+
 @RunWith(MockitoJUnitRunner.class)
 public class TaskResultStatisticJobTest {
     
@@ -49,6 +52,9 @@ public class TaskResultStatisticJobTest {
     @Mock
     private StatisticRdbRepository repository;
     
+    @Captor
+    private ArgumentCaptor<Collection<TaskResultStatistics>> taskResultStatisticsCaptor;
+    
     private TaskResultStatisticJob taskResultStatisticJob;
     
     @Before
@@ -87,11 +93,13 @@ public class TaskResultStatisticJobTest {
         for (StatisticInterval each : StatisticInterval.values()) {
             taskResultStatisticJob.setStatisticInterval(each);
             when(repository.findLatestTaskResultStatistics(each)).thenReturn(latestOne);
-            when(repository.add(any(TaskResultStatistics.class))).thenReturn(true);
             taskResultStatisticJob.execute(null);
             verify(repository).findLatestTaskResultStatistics(each);
         }
-        verify(repository, times(3)).add(any(TaskResultStatistics.class));
+        verify(repository, times(StatisticInterval.values().length)).batchAddTaskResultStatistics(taskResultStatisticsCaptor.capture());
+        for (Collection<TaskResultStatistics> each : taskResultStatisticsCaptor.getAllValues()) {
+            assertThat(each.size(), is(1));
+        }
     }
     
     @Test
@@ -100,10 +108,12 @@ public class TaskResultStatisticJobTest {
             taskResultStatisticJob.setStatisticInterval(each);
             Optional<TaskResultStatistics> latestOne = Optional.of(new TaskResultStatistics(0, 0, each, StatisticTimeUtils.getStatisticTime(each, -3)));
             when(repository.findLatestTaskResultStatistics(each)).thenReturn(latestOne);
-            when(repository.add(any(TaskResultStatistics.class))).thenReturn(true);
             taskResultStatisticJob.execute(null);
             verify(repository).findLatestTaskResultStatistics(each);
         }
-        verify(repository, times(StatisticInterval.values().length * 3)).add(any(TaskResultStatistics.class));
+        verify(repository, times(StatisticInterval.values().length)).batchAddTaskResultStatistics(taskResultStatisticsCaptor.capture());
+        for (Collection<TaskResultStatistics> each : taskResultStatisticsCaptor.getAllValues()) {
+            assertThat(each.size(), is(3));
+        }
     }
 }
@@ -17,23 +17,27 @@
 
 package com.dangdang.ddframe.job.context;
 
-import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
-import com.google.common.base.Splitter;
-import com.google.common.collect.Lists;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 /**
  * 任务运行时上下文.
+ * 
+ * <p>
+ * 最近创建或解析的任务主键的解析结果会被缓存, 提交任务和处理任务状态时由主键获取任务上下文无需重复解析.
+ * </p>
  *
  * @author zhangliang
  * @author caohao
@@ -47,6 +51,10 @@ public final class TaskContext {
     
     private static final String UNASSIGNED_SLAVE_ID = "unassigned-slave";
     
+    private static final int MAX_PARSED_IDS = 16384;
+    
+    private static final Cache<String, ParsedId> PARSED_IDS = CacheBuilder.newBuilder().maximumSize(MAX_PARSED_IDS).build();
+    
     private String id;
     
     private final MetaInfo metaInfo;
@@ -67,6 +75,7 @@ public final class TaskContext {
         this.type = type;
         this.slaveId = slaveId;
         id = Joiner.on(DELIMITER).join(metaInfo, type, slaveId, UUID.randomUUID().toString());
+        PARSED_IDS.put(id, new ParsedId(metaInfo, type, slaveId));
     }
     
     private TaskContext(final String id, final MetaInfo metaInfo, final ExecutionType type, final String slaveId) {
@@ -83,9 +92,35 @@ public final class TaskContext {
      * @return 任务上下文
      */
     public static TaskContext from(final String id) {
-        String[] result = id.split(DELIMITER);
-        Preconditions.checkState(5 == result.length);
-        return new TaskContext(id, MetaInfo.from(result[0] + DELIMITER + result[1]), ExecutionType.valueOf(result[2]), result[3]);
+        ParsedId parsedId = PARSED_IDS.getIfPresent(id);
+        if (null == parsedId) {
+            parsedId = parse(id);
+            PARSED_IDS.put(id, parsedId);
+        }
+        return new TaskContext(id, parsedId.metaInfo, parsedId.type, parsedId.slaveId);
+    }
+    
+    private static ParsedId parse(final String id) {
+        List<String> result = split(id);
+        Preconditions.checkState(5 == result.size());
+        return new ParsedId(MetaInfo.from(id.substring(0, result.get(0).length() + DELIMITER.length() + result.get(1).length())), 
+                ExecutionType.valueOf(result.get(2)), result.get(3));
+    }
+    
+    private static List<String> split(final String value) {
+        List<String> result = new ArrayList<>(5);
+        int start = 0;
+        int end;
+        while ((end = value.indexOf(DELIMITER, start)) >= 0) {
+            result.add(value.substring(start, end));
+            start = end + DELIMITER.length();
+        }
+        result.add(value.substring(start));
+        int size = result.size();
+        while (size > 1 && result.get(size - 1).isEmpty()) {
+            result.remove(--size);
+        }
+        return result;
     }
     
     /**
@@ -106,6 +141,7 @@ public final class TaskContext {
     public void setSlaveId(final String slaveId) {
         id = id.replaceAll(this.slaveId, slaveId);
         this.slaveId = slaveId;
+        PARSED_IDS.put(id, new ParsedId(metaInfo, type, slaveId));
     }
     
     /**
@@ -124,21 +160,45 @@ public final class TaskContext {
      * @return 任务执行器主键
      */
     public String getExecutorId(final String appName) {
+        return getExecutorId(appName, slaveId);
+    }
+    
+    /**
+     * 获取任务执行器主键.
+     * 
+     * @param appName 应用名称
+     * @param slaveId 任务执行服务器主键
+     * @return 任务执行器主键
+     */
+    public static String getExecutorId(final String appName, final String slaveId) {
         return Joiner.on(DELIMITER).join(appName, slaveId);
     }
     
     /**
      * 任务元信息.
+     * 
+     * <p>
+     * 由字符串解析的元信息在被引用期间会被缓存, 相同的字符串不会重复解析.
+     * </p>
      */
-    @RequiredArgsConstructor
-    @Getter
-    @EqualsAndHashCode
+    @EqualsAndHashCode(of = {"jobName", "shardingItems"})
     public static class MetaInfo {
         
+        private static final Cache<String, MetaInfo> PARSED_META_INFOS = CacheBuilder.newBuilder().weakValues().build();
+        
+        @Getter
         private final String jobName;
         
+        @Getter
         private final List<Integer> shardingItems;
         
+        private String text;
+        
+        public MetaInfo(final String jobName, final List<Integer> shardingItems) {
+            this.jobName = jobName;
+            this.shardingItems = shardingItems;
+        }
+        
         /**
          * 根据任务元信息字符串获取元信息对象.
          *
@@ -146,21 +206,52 @@ public final class TaskContext {
          * @return 元信息对象
          */
         public static MetaInfo from(final String value) {
-            String[] result = value.split(DELIMITER);
-            Preconditions.checkState(1 == result.length || 2 == result.length || 5 == result.length);
-            return new MetaInfo(result[0], 1 == result.length || "".equals(result[1]) ? Collections.<Integer>emptyList() : Lists.transform(Splitter.on(",").splitToList(result[1]), 
-                    new Function<String, Integer>() {
-                        
-                        @Override
-                        public Integer apply(final String input) {
-                            return Integer.parseInt(input);
-                        }
-                    }));
+            ParsedId parsedId = PARSED_IDS.getIfPresent(value);
+            if (null != parsedId) {
+                return parsedId.metaInfo;
+            }
+            MetaInfo result = PARSED_META_INFOS.getIfPresent(value);
+            if (null == result) {
+                result = parse(value);
+                PARSED_META_INFOS.put(value, result);
+            }
+            return result;
+        }
+        
+        private static MetaInfo parse(final String value) {
+            List<String> result = split(value);
+            Preconditions.checkState(1 == result.size() || 2 == result.size() || 5 == result.size());
+            if (1 == result.size() || result.get(1).isEmpty()) {
+                return new MetaInfo(result.get(0), Collections.<Integer>emptyList());
+            }
+            String shardingItemsText = result.get(1);
+            List<Integer> shardingItems = new ArrayList<>();
+            int start = 0;
+            int end;
+            while ((end = shardingItemsText.indexOf(',', start)) >= 0) {
+                shardingItems.add(Integer.parseInt(shardingItemsText.substring(start, end)));
+                start = end + 1;
+            }
+            shardingItems.add(Integer.parseInt(shardingItemsText.substring(start)));
+            return new MetaInfo(result.get(0), Collections.unmodifiableList(shardingItems));
         }
         
         @Override
         public String toString() {
-            return Joiner.on(DELIMITER).join(jobName, Joiner.on(",").join(shardingItems));
+            if (null == text) {
+                text = Joiner.on(DELIMITER).join(jobName, Joiner.on(",").join(shardingItems));
+            }
+            return text;
         }
     }
+    
+    @RequiredArgsConstructor
+    private static final class ParsedId {
+        
+        private final MetaInfo metaInfo;
+        
+        private final ExecutionType type;
+        
+        private final String slaveId;
+    }
 }
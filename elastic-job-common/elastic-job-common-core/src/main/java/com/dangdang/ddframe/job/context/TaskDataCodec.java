@@ -0,0 +1,181 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.context;
+
+import com.dangdang.ddframe.job.exception.JobSystemException;
+import com.dangdang.ddframe.job.executor.ShardingContexts;
+import com.google.common.base.Charsets;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.commons.lang3.SerializationUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 任务数据编解码器.
+ * 
+ * <p>
+ * 任务数据由分片上下文和作业配置上下文组成.
+ * 作业配置上下文可预先编码为片段, 同一作业版本的所有任务共享该片段, 编码任务数据时直接拷贝.
+ * 解码时兼容使用Java序列化的任务数据.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TaskDataCodec {
+    
+    /**
+     * 分片上下文的键.
+     */
+    public static final String SHARDING_CONTEXT_KEY = "shardingContext";
+    
+    /**
+     * 作业配置上下文的键.
+     */
+    public static final String JOB_CONFIG_CONTEXT_KEY = "jobConfigContext";
+    
+    private static final byte[] MAGIC = {'E', 'J', 1};
+    
+    private static final int NULL_LENGTH = -1;
+    
+    /**
+     * 编码作业配置上下文片段.
+     * 
+     * @param jobConfigContext 作业配置上下文
+     * @return 作业配置上下文片段
+     */
+    public static byte[] encodeJobConfigContext(final Map<String, String> jobConfigContext) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(512);
+        try (DataOutputStream output = new DataOutputStream(result)) {
+            output.writeInt(jobConfigContext.size());
+            for (Map.Entry<String, String> each : jobConfigContext.entrySet()) {
+                writeString(output, each.getKey());
+                writeString(output, each.getValue());
+            }
+        } catch (final IOException ex) {
+            throw new JobSystemException(ex);
+        }
+        return result.toByteArray();
+    }
+    
+    /**
+     * 编码任务数据.
+     * 
+     * @param shardingContexts 分片上下文
+     * @param jobConfigContextFragment 作业配置上下文片段
+     * @return 任务数据
+     */
+    public static byte[] encode(final ShardingContexts shardingContexts, final byte[] jobConfigContextFragment) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(256 + jobConfigContextFragment.length);
+        try (DataOutputStream output = new DataOutputStream(result)) {
+            output.write(MAGIC);
+            writeString(output, shardingContexts.getTaskId());
+            writeString(output, shardingContexts.getJobName());
+            output.writeInt(shardingContexts.getShardingTotalCount());
+            writeString(output, shardingContexts.getJobParameter());
+            output.writeInt(shardingContexts.getShardingItemParameters().size());
+            for (Map.Entry<Integer, String> each : shardingContexts.getShardingItemParameters().entrySet()) {
+                output.writeInt(each.getKey());
+                writeString(output, each.getValue());
+            }
+            output.writeInt(shardingContexts.getJobEventSamplingCount());
+            output.writeInt(shardingContexts.getCurrentJobEventSamplingCount());
+            output.writeBoolean(shardingContexts.isAllowSendJobEvent());
+            output.write(jobConfigContextFragment);
+        } catch (final IOException ex) {
+            throw new JobSystemException(ex);
+        }
+        return result.toByteArray();
+    }
+    
+    /**
+     * 解码任务数据.
+     * 
+     * @param data 任务数据
+     * @return 包含分片上下文和作业配置上下文的映射
+     */
+    public static Map<String, Object> decode(final byte[] data) {
+        if (!isCompact(data)) {
+            return SerializationUtils.deserialize(data);
+        }
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(data, MAGIC.length, data.length - MAGIC.length))) {
+            String taskId = readString(input);
+            String jobName = readString(input);
+            int shardingTotalCount = input.readInt();
+            String jobParameter = readString(input);
+            int shardingItemCount = input.readInt();
+            Map<Integer, String> shardingItemParameters = new LinkedHashMap<>(shardingItemCount, 1);
+            for (int i = 0; i < shardingItemCount; i++) {
+                shardingItemParameters.put(input.readInt(), readString(input));
+            }
+            ShardingContexts shardingContexts = new ShardingContexts(taskId, jobName, shardingTotalCount, jobParameter, shardingItemParameters, input.readInt());
+            shardingContexts.setCurrentJobEventSamplingCount(input.readInt());
+            shardingContexts.setAllowSendJobEvent(input.readBoolean());
+            int jobConfigContextSize = input.readInt();
+            Map<String, String> jobConfigContext = new LinkedHashMap<>(jobConfigContextSize, 1);
+            for (int i = 0; i < jobConfigContextSize; i++) {
+                jobConfigContext.put(readString(input), readString(input));
+            }
+            Map<String, Object> result = new LinkedHashMap<>(2, 1);
+            result.put(SHARDING_CONTEXT_KEY, shardingContexts);
+            result.put(JOB_CONFIG_CONTEXT_KEY, jobConfigContext);
+            return result;
+        } catch (final IOException ex) {
+            throw new JobSystemException(ex);
+        }
+    }
+    
+    private static boolean isCompact(final byte[] data) {
+        if (data.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (MAGIC[i] != data[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static void writeString(final DataOutputStream output, final String value) throws IOException {
+        if (null == value) {
+            output.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(Charsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+    
+    private static String readString(final DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (NULL_LENGTH == length) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, Charsets.UTF_8);
+    }
+}
@@ -17,12 +17,10 @@
 
 package com.dangdang.ddframe.job.event.rdb;
 
-import com.dangdang.ddframe.job.context.ExecutionType;
 import com.dangdang.ddframe.job.event.type.JobExecutionEvent;
 import com.dangdang.ddframe.job.event.type.JobExecutionEventThrowable;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent;
-import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.Source;
-import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.State;
+import com.dangdang.ddframe.job.util.rdb.RdbTemplate;
 import com.google.common.base.CaseFormat;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
@@ -33,10 +31,8 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Timestamp;
 import java.util.Collection;
 import java.util.Date;
 import java.util.LinkedList;
@@ -48,7 +44,6 @@ import java.util.Map;
  *
  * @author liguangyun
  */
-@RequiredArgsConstructor
 @Slf4j
 public final class JobEventRdbSearch {
     
@@ -62,7 +57,30 @@ public final class JobEventRdbSearch {
     private static final List<String> FIELDS_JOB_STATUS_TRACE_LOG = 
             Lists.newArrayList("id", "job_name", "original_task_id", "task_id", "slave_id", "source", "execution_type", "sharding_item", "state", "message", "creation_time");
     
-    private final DataSource dataSource;
+    private static final RdbTemplate.RowMapper<Integer> COUNT_MAPPER = new RdbTemplate.RowMapper<Integer>() {
+        
+        @Override
+        public Integer mapRow(final ResultSet resultSet) throws SQLException {
+            return resultSet.getInt(1);
+        }
+    };
+    
+    private static final RdbTemplate.RowMapper<JobExecutionEvent> JOB_EXECUTION_EVENT_MAPPER = new RdbTemplate.RowMapper<JobExecutionEvent>() {
+        
+        @Override
+        public JobExecutionEvent mapRow(final ResultSet resultSet) throws SQLException {
+            return new JobExecutionEvent(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3), resultSet.getString(4),
+                    resultSet.getString(5), JobExecutionEvent.ExecutionSource.valueOf(resultSet.getString(6)), Integer.valueOf(resultSet.getString(7)), 
+                    new Date(resultSet.getTimestamp(8).getTime()), resultSet.getTimestamp(9) == null ? null : new Date(resultSet.getTimestamp(9).getTime()), 
+                    resultSet.getBoolean(10), new JobExecutionEventThrowable(null, resultSet.getString(11)));
+        }
+    };
+    
+    private final RdbTemplate rdbTemplate;
+    
+    public JobEventRdbSearch(final DataSource dataSource) {
+        rdbTemplate = new RdbTemplate(dataSource);
+    }
     
     /**
      * 检索作业运行执行轨迹.
@@ -71,7 +89,7 @@ public final class JobEventRdbSearch {
      * @return 作业执行轨迹检索结果
      */
     public Result<JobExecutionEvent> findJobExecutionEvents(final Condition condition) {
-        return new Result<>(getEventCount(TABLE_JOB_EXECUTION_LOG, FIELDS_JOB_EXECUTION_LOG, condition), getJobExecutionEvents(condition));
+        return findEvents(TABLE_JOB_EXECUTION_LOG, FIELDS_JOB_EXECUTION_LOG, condition, JOB_EXECUTION_EVENT_MAPPER);
     }
     
     /**
@@ -81,79 +99,27 @@ public final class JobEventRdbSearch {
      * @return 作业状态轨迹检索结果
      */
     public Result<JobStatusTraceEvent> findJobStatusTraceEvents(final Condition condition) {
-        return new Result<>(getEventCount(TABLE_JOB_STATUS_TRACE_LOG, FIELDS_JOB_STATUS_TRACE_LOG, condition), getJobStatusTraceEvents(condition));
-    }
-    
-    private List<JobExecutionEvent> getJobExecutionEvents(final Condition condition) {
-        List<JobExecutionEvent> result = new LinkedList<>();
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = createDataPreparedStatement(conn, TABLE_JOB_EXECUTION_LOG, FIELDS_JOB_EXECUTION_LOG, condition);
-                ResultSet resultSet = preparedStatement.executeQuery()
-                ) {
-            while (resultSet.next()) {
-                JobExecutionEvent jobExecutionEvent = new JobExecutionEvent(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3), resultSet.getString(4),
-                        resultSet.getString(5), JobExecutionEvent.ExecutionSource.valueOf(resultSet.getString(6)), Integer.valueOf(resultSet.getString(7)), 
-                        new Date(resultSet.getTimestamp(8).getTime()), resultSet.getTimestamp(9) == null ? null : new Date(resultSet.getTimestamp(9).getTime()), 
-                        resultSet.getBoolean(10), new JobExecutionEventThrowable(null, resultSet.getString(11)) 
-                        );
-                result.add(jobExecutionEvent);
-            }
-        } catch (final SQLException ex) {
-            // TODO 记录失败直接输出日志,未来可考虑配置化
-            log.error("Fetch JobExecutionEvent from DB error:", ex);
-        }
-        return result;
-    }
-    
-    private List<JobStatusTraceEvent> getJobStatusTraceEvents(final Condition condition) {
-        List<JobStatusTraceEvent> result = new LinkedList<>();
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = createDataPreparedStatement(conn, TABLE_JOB_STATUS_TRACE_LOG, FIELDS_JOB_STATUS_TRACE_LOG, condition);
-                ResultSet resultSet = preparedStatement.executeQuery()
-                ) {
-            while (resultSet.next()) {
-                JobStatusTraceEvent jobStatusTraceEvent = new JobStatusTraceEvent(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3), resultSet.getString(4),
-                        resultSet.getString(5), Source.valueOf(resultSet.getString(6)), ExecutionType.valueOf(resultSet.getString(7)), resultSet.getString(8),
-                        State.valueOf(resultSet.getString(9)), resultSet.getString(10), new Date(resultSet.getTimestamp(11).getTime()));
-                result.add(jobStatusTraceEvent);
-            }
-        } catch (final SQLException ex) {
-            // TODO 记录失败直接输出日志,未来可考虑配置化
-            log.error("Fetch JobStatusTraceEvent from DB error:", ex);
-        }
-        return result;
+        return findEvents(TABLE_JOB_STATUS_TRACE_LOG, FIELDS_JOB_STATUS_TRACE_LOG, condition, JobEventRdbStorage.JOB_STATUS_TRACE_EVENT_MAPPER);
     }
     
-    private int getEventCount(final String tableName, final Collection<String> tableFields, final Condition condition) {
-        int result = 0;
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = createCountPreparedStatement(conn, tableName, tableFields, condition);
-                ResultSet resultSet = preparedStatement.executeQuery()
-                ) {
-            resultSet.next();
-            result = resultSet.getInt(1);
+    private <T> Result<T> findEvents(final String tableName, final Collection<String> tableFields, final Condition condition, final RdbTemplate.RowMapper<T> rowMapper) {
+        try {
+            return rdbTemplate.execute(new RdbTemplate.ConnectionCallback<Result<T>>() {
+                
+                @Override
+                public Result<T> doInConnection(final Connection conn) throws SQLException {
+                    List<Object> parameters = buildWhereParameters(tableFields, condition);
+                    int total = rdbTemplate.queryForFirst("count_" + tableName.toLowerCase(), buildCountSql(tableName, tableFields, condition), COUNT_MAPPER, parameters.toArray()).or(0);
+                    parameters.addAll(buildLimitParameters(condition.getPage(), condition.getPerPage()));
+                    List<T> rows = rdbTemplate.query("find_" + tableName.toLowerCase(), buildDataSql(tableName, tableFields, condition), rowMapper, parameters.toArray());
+                    return new Result<>(total, rows);
+                }
+            });
         } catch (final SQLException ex) {
             // TODO 记录失败直接输出日志,未来可考虑配置化
-            log.error("Fetch EventCount from DB error:", ex);
+            log.error("Fetch {} from DB error:", tableName, ex);
+            return new Result<>(0, new LinkedList<T>());
         }
-        return result;
-    }
-    
-    private PreparedStatement createDataPreparedStatement(final Connection conn, final String tableName, final Collection<String> tableFields, final Condition condition) throws SQLException {
-        String sql = buildDataSql(tableName, tableFields, condition);
-        PreparedStatement preparedStatement = conn.prepareStatement(sql);
-        setBindValue(preparedStatement, tableFields, condition);
-        return preparedStatement;
-    }
-    
-    private PreparedStatement createCountPreparedStatement(final Connection conn, final String tableName, final Collection<String> tableFields, final Condition condition) throws SQLException {
-        String sql = buildCountSql(tableName, tableFields, condition);
-        PreparedStatement preparedStatement = conn.prepareStatement(sql);
-        setBindValue(preparedStatement, tableFields, condition);
-        return preparedStatement;
     }
     
     private String buildDataSql(final String tableName, final Collection<String> tableFields, final Condition condition) {
@@ -175,7 +141,7 @@ public final class JobEventRdbSearch {
     }
     
     private String buildSelectCount(final String tableName) {
-        return String.format("SELECT COUNT(1) FROM %s", tableName);
+        return "SELECT COUNT(1) FROM " + tableName;
     }
     
     private String buildSelect(final String tableName, final Collection<String> tableFields) {
@@ -209,22 +175,23 @@ public final class JobEventRdbSearch {
         return sqlBuilder.toString();
     }
     
-    private void setBindValue(final PreparedStatement preparedStatement, final Collection<String> tableFields, final Condition condition) throws SQLException {
-        int index = 1;
+    private List<Object> buildWhereParameters(final Collection<String> tableFields, final Condition condition) {
+        List<Object> result = new LinkedList<>();
         if (null != condition.getFields() && !condition.getFields().isEmpty()) {
             for (Map.Entry<String, Object> entry : condition.getFields().entrySet()) {
                 String lowerUnderscore = CaseFormat.LOWER_CAMEL.to(CaseFormat.LOWER_UNDERSCORE, entry.getKey());
                 if (null != entry.getValue() && tableFields.contains(lowerUnderscore)) {
-                    preparedStatement.setString(index++, String.valueOf(entry.getValue()));
+                    result.add(String.valueOf(entry.getValue()));
                 }
             }
         }
         if (null != condition.getStartTime()) {
-            preparedStatement.setTimestamp(index++, new Timestamp(condition.getStartTime().getTime()));
+            result.add(condition.getStartTime());
         }
         if (null != condition.getEndTime()) {
-            preparedStatement.setTimestamp(index, new Timestamp(condition.getEndTime().getTime()));
+            result.add(condition.getEndTime());
         }
+        return result;
     }
     
     private String getTableTimeField(final String tableName) {
@@ -261,13 +228,11 @@ public final class JobEventRdbSearch {
     }
     
     private String buildLimit(final int page, final int perPage) {
-        StringBuilder sqlBuilder = new StringBuilder();
-        if (page > 0 && perPage > 0) {
-            sqlBuilder.append(" LIMIT ").append((page - 1) * perPage).append(",").append(perPage);
-        } else {
-            sqlBuilder.append(" LIMIT ").append(Condition.DEFAULT_PAGE_SIZE);
-        }
-        return sqlBuilder.toString();
+        return page > 0 && perPage > 0 ? " LIMIT ?,?" : " LIMIT ?";
+    }
+    
+    private List<Object> buildLimitParameters(final int page, final int perPage) {
+        return page > 0 && perPage > 0 ? Lists.<Object>newArrayList((page - 1) * perPage, perPage) : Lists.<Object>newArrayList(Condition.DEFAULT_PAGE_SIZE);
     }
     
     /**
@@ -22,6 +22,7 @@ import com.dangdang.ddframe.job.event.type.JobExecutionEvent;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.Source;
 import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.State;
+import com.dangdang.ddframe.job.util.rdb.RdbTemplate;
 import com.google.common.base.Strings;
 import lombok.extern.slf4j.Slf4j;
 
@@ -31,10 +32,8 @@ import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Timestamp;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
@@ -46,18 +45,39 @@ import java.util.UUID;
 @Slf4j
 final class JobEventRdbStorage {
     
+    static final RdbTemplate.RowMapper<JobStatusTraceEvent> JOB_STATUS_TRACE_EVENT_MAPPER = new RdbTemplate.RowMapper<JobStatusTraceEvent>() {
+        
+        @Override
+        public JobStatusTraceEvent mapRow(final ResultSet resultSet) throws SQLException {
+            return new JobStatusTraceEvent(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3), resultSet.getString(4),
+                    resultSet.getString(5), Source.valueOf(resultSet.getString(6)), ExecutionType.valueOf(resultSet.getString(7)), resultSet.getString(8),
+                    State.valueOf(resultSet.getString(9)), resultSet.getString(10), new Date(resultSet.getTimestamp(11).getTime()));
+        }
+    };
+    
     private static final String TABLE_JOB_EXECUTION_LOG = "JOB_EXECUTION_LOG";
     
     private static final String TABLE_JOB_STATUS_TRACE_LOG = "JOB_STATUS_TRACE_LOG";
     
     private static final String TASK_ID_STATE_INDEX = "TASK_ID_STATE_INDEX";
     
+    private static final RdbTemplate.RowMapper<String> ORIGINAL_TASK_ID_MAPPER = new RdbTemplate.RowMapper<String>() {
+        
+        @Override
+        public String mapRow(final ResultSet resultSet) throws SQLException {
+            return resultSet.getString(1);
+        }
+    };
+    
     private final DataSource dataSource;
     
+    private final RdbTemplate rdbTemplate;
+    
     private DatabaseType databaseType;
     
     JobEventRdbStorage(final DataSource dataSource) throws SQLException {
         this.dataSource = dataSource;
+        rdbTemplate = new RdbTemplate(dataSource);
         initTablesAndIndexes();
     }
     
@@ -164,19 +184,9 @@ final class JobEventRdbStorage {
         boolean result = false;
         String sql = "INSERT INTO `" + TABLE_JOB_EXECUTION_LOG + "` (`id`, `job_name`, `task_id`, `hostname`, `ip`, `sharding_item`, `execution_source`, `is_success`, `start_time`) "
                 + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?);";
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
-            preparedStatement.setString(1, jobExecutionEvent.getId());
-            preparedStatement.setString(2, jobExecutionEvent.getJobName());
-            preparedStatement.setString(3, jobExecutionEvent.getTaskId());
-            preparedStatement.setString(4, jobExecutionEvent.getHostname());
-            preparedStatement.setString(5, jobExecutionEvent.getIp());
-            preparedStatement.setInt(6, jobExecutionEvent.getShardingItem());
-            preparedStatement.setString(7, jobExecutionEvent.getSource().toString());
-            preparedStatement.setBoolean(8, jobExecutionEvent.isSuccess());
-            preparedStatement.setTimestamp(9, new Timestamp(jobExecutionEvent.getStartTime().getTime()));
-            preparedStatement.execute();
+        try {
+            rdbTemplate.update("insert_job_execution_log", sql, jobExecutionEvent.getId(), jobExecutionEvent.getJobName(), jobExecutionEvent.getTaskId(), jobExecutionEvent.getHostname(), 
+                    jobExecutionEvent.getIp(), jobExecutionEvent.getShardingItem(), jobExecutionEvent.getSource().toString(), jobExecutionEvent.isSuccess(), jobExecutionEvent.getStartTime());
             result = true;
         } catch (final SQLException ex) {
             if (!isDuplicateRecord(ex)) {
@@ -196,13 +206,8 @@ final class JobEventRdbStorage {
     private boolean updateJobExecutionEventWhenSuccess(final JobExecutionEvent jobExecutionEvent) {
         boolean result = false;
         String sql = "UPDATE `" + TABLE_JOB_EXECUTION_LOG + "` SET `is_success` = ?, `complete_time` = ? WHERE id = ?";
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
-            preparedStatement.setBoolean(1, jobExecutionEvent.isSuccess());
-            preparedStatement.setTimestamp(2, new Timestamp(jobExecutionEvent.getCompleteTime().getTime()));
-            preparedStatement.setString(3, jobExecutionEvent.getId());
-            if (0 == preparedStatement.executeUpdate()) {
+        try {
+            if (0 == rdbTemplate.update("update_job_execution_log_success", sql, jobExecutionEvent.isSuccess(), jobExecutionEvent.getCompleteTime(), jobExecutionEvent.getId())) {
                 return insertJobExecutionEventWhenSuccess(jobExecutionEvent);
             }
             result = true;
@@ -217,20 +222,10 @@ final class JobEventRdbStorage {
         boolean result = false;
         String sql = "INSERT INTO `" + TABLE_JOB_EXECUTION_LOG + "` (`id`, `job_name`, `task_id`, `hostname`, `ip`, `sharding_item`, `execution_source`, `is_success`, `start_time`, `complete_time`) "
                 + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?);";
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
-            preparedStatement.setString(1, jobExecutionEvent.getId());
-            preparedStatement.setString(2, jobExecutionEvent.getJobName());
-            preparedStatement.setString(3, jobExecutionEvent.getTaskId());
-            preparedStatement.setString(4, jobExecutionEvent.getHostname());
-            preparedStatement.setString(5, jobExecutionEvent.getIp());
-            preparedStatement.setInt(6, jobExecutionEvent.getShardingItem());
-            preparedStatement.setString(7, jobExecutionEvent.getSource().toString());
-            preparedStatement.setBoolean(8, jobExecutionEvent.isSuccess());
-            preparedStatement.setTimestamp(9, new Timestamp(jobExecutionEvent.getStartTime().getTime()));
-            preparedStatement.setTimestamp(10, new Timestamp(jobExecutionEvent.getCompleteTime().getTime()));
-            preparedStatement.execute();
+        try {
+            rdbTemplate.update("insert_job_execution_log_success", sql, jobExecutionEvent.getId(), jobExecutionEvent.getJobName(), jobExecutionEvent.getTaskId(), jobExecutionEvent.getHostname(), 
+                    jobExecutionEvent.getIp(), jobExecutionEvent.getShardingItem(), jobExecutionEvent.getSource().toString(), jobExecutionEvent.isSuccess(), 
+                    jobExecutionEvent.getStartTime(), jobExecutionEvent.getCompleteTime());
             result = true;
         } catch (final SQLException ex) {
             if (isDuplicateRecord(ex)) {
@@ -245,14 +240,9 @@ final class JobEventRdbStorage {
     private boolean updateJobExecutionEventFailure(final JobExecutionEvent jobExecutionEvent) {
         boolean result = false;
         String sql = "UPDATE `" + TABLE_JOB_EXECUTION_LOG + "` SET `is_success` = ?, `complete_time` = ?, `failure_cause` = ? WHERE id = ?";
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
-            preparedStatement.setBoolean(1, jobExecutionEvent.isSuccess());
-            preparedStatement.setTimestamp(2, new Timestamp(jobExecutionEvent.getCompleteTime().getTime()));
-            preparedStatement.setString(3, truncateString(jobExecutionEvent.getFailureCause()));
-            preparedStatement.setString(4, jobExecutionEvent.getId());
-            if (0 == preparedStatement.executeUpdate()) {
+        try {
+            if (0 == rdbTemplate.update("update_job_execution_log_failure", sql, 
+                    jobExecutionEvent.isSuccess(), jobExecutionEvent.getCompleteTime(), truncateString(jobExecutionEvent.getFailureCause()), jobExecutionEvent.getId())) {
                 return insertJobExecutionEventWhenFailure(jobExecutionEvent);
             }
             result = true;
@@ -267,20 +257,10 @@ final class JobEventRdbStorage {
         boolean result = false;
         String sql = "INSERT INTO `" + TABLE_JOB_EXECUTION_LOG + "` (`id`, `job_name`, `task_id`, `hostname`, `ip`, `sharding_item`, `execution_source`, `failure_cause`, `is_success`, `start_time`) "
                 + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?);";
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
-            preparedStatement.setString(1, jobExecutionEvent.getId());
-            preparedStatement.setString(2, jobExecutionEvent.getJobName());
-            preparedStatement.setString(3, jobExecutionEvent.getTaskId());
-            preparedStatement.setString(4, jobExecutionEvent.getHostname());
-            preparedStatement.setString(5, jobExecutionEvent.getIp());
-            preparedStatement.setInt(6, jobExecutionEvent.getShardingItem());
-            preparedStatement.setString(7, jobExecutionEvent.getSource().toString());
-            preparedStatement.setString(8, truncateString(jobExecutionEvent.getFailureCause()));
-            preparedStatement.setBoolean(9, jobExecutionEvent.isSuccess());
-            preparedStatement.setTimestamp(10, new Timestamp(jobExecutionEvent.getStartTime().getTime()));
-            preparedStatement.execute();
+        try {
+            rdbTemplate.update("insert_job_execution_log_failure", sql, jobExecutionEvent.getId(), jobExecutionEvent.getJobName(), jobExecutionEvent.getTaskId(), jobExecutionEvent.getHostname(), 
+                    jobExecutionEvent.getIp(), jobExecutionEvent.getShardingItem(), jobExecutionEvent.getSource().toString(), truncateString(jobExecutionEvent.getFailureCause()), 
+                    jobExecutionEvent.isSuccess(), jobExecutionEvent.getStartTime());
             result = true;
         } catch (final SQLException ex) {
             if (isDuplicateRecord(ex)) {
@@ -293,52 +273,43 @@ final class JobEventRdbStorage {
     }
     
     boolean addJobStatusTraceEvent(final JobStatusTraceEvent jobStatusTraceEvent) {
-        String originalTaskId = jobStatusTraceEvent.getOriginalTaskId();
-        if (State.TASK_STAGING != jobStatusTraceEvent.getState()) {
-            originalTaskId = getOriginalTaskId(jobStatusTraceEvent.getTaskId());
-        }
-        boolean result = false;
-        String sql = "INSERT INTO `" + TABLE_JOB_STATUS_TRACE_LOG + "` (`id`, `job_name`, `original_task_id`, `task_id`, `slave_id`, `source`, `execution_type`, `sharding_item`,  " 
-                + "`state`, `message`, `creation_time`) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);";
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
-            preparedStatement.setString(1, UUID.randomUUID().toString());
-            preparedStatement.setString(2, jobStatusTraceEvent.getJobName());
-            preparedStatement.setString(3, originalTaskId);
-            preparedStatement.setString(4, jobStatusTraceEvent.getTaskId());
-            preparedStatement.setString(5, jobStatusTraceEvent.getSlaveId());
-            preparedStatement.setString(6, jobStatusTraceEvent.getSource().toString());
-            preparedStatement.setString(7, jobStatusTraceEvent.getExecutionType().name());
-            preparedStatement.setString(8, jobStatusTraceEvent.getShardingItems());
-            preparedStatement.setString(9, jobStatusTraceEvent.getState().toString());
-            preparedStatement.setString(10, truncateString(jobStatusTraceEvent.getMessage()));
-            preparedStatement.setTimestamp(11, new Timestamp(jobStatusTraceEvent.getCreationTime().getTime()));
-            preparedStatement.execute();
-            result = true;
+        try {
+            return rdbTemplate.execute(new RdbTemplate.ConnectionCallback<Boolean>() {
+                
+                @Override
+                public Boolean doInConnection(final Connection conn) throws SQLException {
+                    String originalTaskId = jobStatusTraceEvent.getOriginalTaskId();
+                    if (State.TASK_STAGING != jobStatusTraceEvent.getState()) {
+                        originalTaskId = getOriginalTaskId(jobStatusTraceEvent.getTaskId());
+                    }
+                    insertJobStatusTraceEvent(jobStatusTraceEvent, originalTaskId);
+                    return true;
+                }
+            });
         } catch (final SQLException ex) {
             // TODO 记录失败直接输出日志,未来可考虑配置化
             log.error(ex.getMessage());
+            return false;
         }
-        return result;
+    }
+    
+    private void insertJobStatusTraceEvent(final JobStatusTraceEvent jobStatusTraceEvent, final String originalTaskId) throws SQLException {
+        String sql = "INSERT INTO `" + TABLE_JOB_STATUS_TRACE_LOG + "` (`id`, `job_name`, `original_task_id`, `task_id`, `slave_id`, `source`, `execution_type`, `sharding_item`,  " 
+                + "`state`, `message`, `creation_time`) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);";
+        rdbTemplate.update("insert_job_status_trace_log", sql, UUID.randomUUID().toString(), jobStatusTraceEvent.getJobName(), originalTaskId, jobStatusTraceEvent.getTaskId(), 
+                jobStatusTraceEvent.getSlaveId(), jobStatusTraceEvent.getSource().toString(), jobStatusTraceEvent.getExecutionType().name(), jobStatusTraceEvent.getShardingItems(), 
+                jobStatusTraceEvent.getState().toString(), truncateString(jobStatusTraceEvent.getMessage()), jobStatusTraceEvent.getCreationTime());
     }
     
     private String getOriginalTaskId(final String taskId) {
-        String sql = String.format("SELECT original_task_id FROM %s WHERE task_id = '%s' and state='%s'", TABLE_JOB_STATUS_TRACE_LOG, taskId, State.TASK_STAGING);
-        String result = "";
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql);
-                ResultSet resultSet = preparedStatement.executeQuery()
-        ) {
-            if (resultSet.next()) {
-                return resultSet.getString("original_task_id");
-            }
+        String sql = "SELECT original_task_id FROM " + TABLE_JOB_STATUS_TRACE_LOG + " WHERE task_id = ? and state = ?";
+        try {
+            return rdbTemplate.queryForFirst("find_original_task_id", sql, ORIGINAL_TASK_ID_MAPPER, taskId, State.TASK_STAGING.name()).or("");
         } catch (final SQLException ex) {
             // TODO 记录失败直接输出日志,未来可考虑配置化
             log.error(ex.getMessage());
         }
-        return result;
+        return "";
     }
     
     private String truncateString(final String str) {
@@ -346,23 +317,14 @@ final class JobEventRdbStorage {
     }
     
     List<JobStatusTraceEvent> getJobStatusTraceEvents(final String taskId) {
-        String sql = String.format("SELECT * FROM %s WHERE task_id = '%s'", TABLE_JOB_STATUS_TRACE_LOG, taskId);
-        List<JobStatusTraceEvent> result = new ArrayList<>();
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql);
-                ResultSet resultSet = preparedStatement.executeQuery()
-                ) {
-            while (resultSet.next()) {
-                JobStatusTraceEvent jobStatusTraceEvent = new JobStatusTraceEvent(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3), resultSet.getString(4),
-                        resultSet.getString(5), Source.valueOf(resultSet.getString(6)), ExecutionType.valueOf(resultSet.getString(7)), resultSet.getString(8),
-                        State.valueOf(resultSet.getString(9)), resultSet.getString(10), new SimpleDateFormat("yyyy-mm-dd HH:MM:SS").parse(resultSet.getString(11)));
-                result.add(jobStatusTraceEvent);
-            }
-        } catch (final SQLException | ParseException ex) {
+        String sql = "SELECT id, job_name, original_task_id, task_id, slave_id, source, execution_type, sharding_item, state, message, creation_time FROM " 
+                + TABLE_JOB_STATUS_TRACE_LOG + " WHERE task_id = ?";
+        try {
+            return rdbTemplate.query("find_job_status_trace_log_by_task_id", sql, JOB_STATUS_TRACE_EVENT_MAPPER, taskId);
+        } catch (final SQLException ex) {
             // TODO 记录失败直接输出日志,未来可考虑配置化
             log.error(ex.getMessage());
         }
-        return result;
+        return new ArrayList<>();
     }
 }
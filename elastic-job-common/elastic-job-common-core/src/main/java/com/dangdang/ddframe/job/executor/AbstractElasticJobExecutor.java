@@ -58,15 +58,12 @@ public abstract class AbstractElasticJobExecutor {
     
     private final JobExceptionHandler jobExceptionHandler;
     
-    private final Map<Integer, String> itemErrorMessages;
-    
     protected AbstractElasticJobExecutor(final JobFacade jobFacade) {
         this.jobFacade = jobFacade;
         jobRootConfig = jobFacade.loadJobRootConfiguration(true);
         jobName = jobRootConfig.getTypeConfig().getCoreConfig().getJobName();
         executorService = ExecutorServiceHandlerRegistry.getExecutorServiceHandler(jobName, (ExecutorServiceHandler) getHandler(JobProperties.JobPropertiesEnum.EXECUTOR_SERVICE_HANDLER));
         jobExceptionHandler = (JobExceptionHandler) getHandler(JobProperties.JobPropertiesEnum.JOB_EXCEPTION_HANDLER);
-        itemErrorMessages = new ConcurrentHashMap<>(jobRootConfig.getTypeConfig().getCoreConfig().getShardingTotalCount(), 1);
     }
     
     private Object getHandler(final JobProperties.JobPropertiesEnum jobPropertiesEnum) {
@@ -100,7 +97,19 @@ public abstract class AbstractElasticJobExecutor {
         } catch (final JobExecutionEnvironmentException cause) {
             jobExceptionHandler.handleException(jobName, cause);
         }
-        ShardingContexts shardingContexts = jobFacade.getShardingContexts();
+        execute(jobFacade.getShardingContexts());
+    }
+    
+    /**
+     * 使用指定的分片上下文执行作业.
+     * 
+     * <p>
+     * 执行状态不在执行器中保存, 同一执行器可被多个任务复用和并发调用.
+     * </p>
+     * 
+     * @param shardingContexts 分片上下文
+     */
+    public final void execute(final ShardingContexts shardingContexts) {
         if (shardingContexts.isAllowSendJobEvent()) {
             jobFacade.postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_STAGING, String.format("Job '%s' execute begin.", jobName));
         }
@@ -119,10 +128,11 @@ public abstract class AbstractElasticJobExecutor {
             //CHECKSTYLE:ON
             jobExceptionHandler.handleException(jobName, cause);
         }
-        execute(shardingContexts, JobExecutionEvent.ExecutionSource.NORMAL_TRIGGER);
+        Map<Integer, String> itemErrorMessages = new ConcurrentHashMap<>(jobRootConfig.getTypeConfig().getCoreConfig().getShardingTotalCount(), 1);
+        execute(shardingContexts, JobExecutionEvent.ExecutionSource.NORMAL_TRIGGER, itemErrorMessages);
         while (jobFacade.isExecuteMisfired(shardingContexts.getShardingItemParameters().keySet())) {
             jobFacade.clearMisfire(shardingContexts.getShardingItemParameters().keySet());
-            execute(shardingContexts, JobExecutionEvent.ExecutionSource.MISFIRE);
+            execute(shardingContexts, JobExecutionEvent.ExecutionSource.MISFIRE, itemErrorMessages);
         }
         jobFacade.failoverIfNecessary();
         try {
@@ -134,7 +144,7 @@ public abstract class AbstractElasticJobExecutor {
         }
     }
     
-    private void execute(final ShardingContexts shardingContexts, final JobExecutionEvent.ExecutionSource executionSource) {
+    private void execute(final ShardingContexts shardingContexts, final JobExecutionEvent.ExecutionSource executionSource, final Map<Integer, String> itemErrorMessages) {
         if (shardingContexts.getShardingItemParameters().isEmpty()) {
             if (shardingContexts.isAllowSendJobEvent()) {
                 jobFacade.postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_FINISHED, String.format("Sharding item for job '%s' is empty.", jobName));
@@ -147,7 +157,7 @@ public abstract class AbstractElasticJobExecutor {
             jobFacade.postJobStatusTraceEvent(taskId, State.TASK_RUNNING, "");
         }
         try {
-            process(shardingContexts, executionSource);
+            process(shardingContexts, executionSource, itemErrorMessages);
         } finally {
             // TODO 考虑增加作业失败的状态，并且考虑如何处理作业失败的整体回路
             jobFacade.registerJobCompleted(shardingContexts);
@@ -163,12 +173,12 @@ public abstract class AbstractElasticJobExecutor {
         }
     }
     
-    private void process(final ShardingContexts shardingContexts, final JobExecutionEvent.ExecutionSource executionSource) {
+    private void process(final ShardingContexts shardingContexts, final JobExecutionEvent.ExecutionSource executionSource, final Map<Integer, String> itemErrorMessages) {
         Collection<Integer> items = shardingContexts.getShardingItemParameters().keySet();
         if (1 == items.size()) {
             int item = shardingContexts.getShardingItemParameters().keySet().iterator().next();
             JobExecutionEvent jobExecutionEvent =  new JobExecutionEvent(shardingContexts.getTaskId(), jobName, executionSource, item);
-            process(shardingContexts, item, jobExecutionEvent);
+            process(shardingContexts, item, jobExecutionEvent, itemErrorMessages);
             return;
         }
         final CountDownLatch latch = new CountDownLatch(items.size());
@@ -182,7 +192,7 @@ public abstract class AbstractElasticJobExecutor {
                 @Override
                 public void run() {
                     try {
-                        process(shardingContexts, each, jobExecutionEvent);
+                        process(shardingContexts, each, jobExecutionEvent, itemErrorMessages);
                     } finally {
                         latch.countDown();
                     }
@@ -196,7 +206,7 @@ public abstract class AbstractElasticJobExecutor {
         }
     }
     
-    private void process(final ShardingContexts shardingContexts, final int item, final JobExecutionEvent startEvent) {
+    private void process(final ShardingContexts shardingContexts, final int item, final JobExecutionEvent startEvent, final Map<Integer, String> itemErrorMessages) {
         if (shardingContexts.isAllowSendJobEvent()) {
             jobFacade.postJobExecutionEvent(startEvent);
         }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.base;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.List;
+
+/**
+ * 支持异步操作的注册中心.
+ * 
+ * <p>
+ * 异步操作立即返回, 调用方可先发起多个相互独立的操作再统一等待结果, 以减少等待注册中心往返的次数.
+ * 节点不存在或已存在时的结果与同步操作一致, 其他异常通过返回的{@link ListenableFuture}抛出.
+ * 不可在注册中心的事件线程中等待返回结果.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public interface AsyncRegistryCenter {
+    
+    /**
+     * 异步直接从注册中心而非本地缓存获取数据.
+     * 
+     * @param key 键
+     * @return 值, 键不存在时为null
+     */
+    ListenableFuture<String> getDirectlyAsync(String key);
+    
+    /**
+     * 异步获取数据是否存在.
+     * 
+     * @param key 键
+     * @return 数据是否存在
+     */
+    ListenableFuture<Boolean> isExistedAsync(String key);
+    
+    /**
+     * 异步获取子节点名称集合.
+     * 
+     * @param key 键
+     * @return 子节点名称集合, 键不存在时为空集合
+     */
+    ListenableFuture<List<String>> getChildrenKeysAsync(String key);
+    
+    /**
+     * 异步持久化注册数据.
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 操作结果
+     */
+    ListenableFuture<Void> persistAsync(String key, String value);
+    
+    /**
+     * 异步持久化临时注册数据.
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 操作结果
+     */
+    ListenableFuture<Void> persistEphemeralAsync(String key, String value);
+    
+    /**
+     * 异步更新注册数据.
+     * 
+     * @param key 键
+     * @param value 值
+     * @return 操作结果
+     */
+    ListenableFuture<Void> updateAsync(String key, String value);
+    
+    /**
+     * 异步删除注册数据.
+     * 
+     * @param key 键
+     * @return 操作结果, 键不存在时视为成功
+     */
+    ListenableFuture<Void> removeAsync(String key);
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.base;
+
+import com.dangdang.ddframe.job.reg.exception.RegExceptionHandler;
+import com.google.common.util.concurrent.ListenableFuture;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 异步注册中心工具类.
+ * 
+ * @author zhangliang
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class AsyncRegistryCenterUtils {
+    
+    /**
+     * 按顺序等待全部异步操作的结果.
+     * 
+     * <p>
+     * 失败的操作按{@link RegExceptionHandler}处理, 被忽略的异常和等待被中断时对应的结果为null.
+     * </p>
+     * 
+     * @param futures 异步操作结果列表
+     * @param <T> 结果类型
+     * @return 与异步操作一一对应的结果列表
+     */
+    public static <T> List<T> awaitAll(final List<ListenableFuture<T>> futures) {
+        List<T> result = new ArrayList<>(futures.size());
+        for (ListenableFuture<T> each : futures) {
+            try {
+                result.add(each.get());
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                result.add(null);
+            } catch (final ExecutionException ex) {
+                RegExceptionHandler.handleException(ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex);
+                result.add(null);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.base;
+
+/**
+ * 本地缓存访问监听器.
+ * 
+ * @author zhangliang
+ */
+public interface CacheAccessListener {
+    
+    /**
+     * 访问本地缓存时调用.
+     * 
+     * @param hit 是否命中本地缓存, 未命中时已直接从注册中心获取数据
+     */
+    void onCacheAccess(boolean hit);
+}
@@ -26,6 +26,19 @@ import java.util.List;
  */
 public interface CoordinatorRegistryCenter extends RegistryCenter {
     
+    /**
+     * 获取注册数据并通知是否命中本地缓存.
+     * 
+     * <p>
+     * 本地缓存中不存在时直接从注册中心获取, 计为未命中.
+     * </p>
+     * 
+     * @param key 键
+     * @param listener 本地缓存访问监听器
+     * @return 值
+     */
+    String get(String key, CacheAccessListener listener);
+    
     /**
      * 直接从注册中心而非本地缓存获取数据.
      * 
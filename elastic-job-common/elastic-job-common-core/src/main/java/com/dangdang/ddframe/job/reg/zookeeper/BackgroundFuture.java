@@ -0,0 +1,76 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.google.common.util.concurrent.AbstractFuture;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.KeeperException.Code;
+
+/**
+ * 以Curator后台回调完成的异步结果.
+ * 
+ * @param <T> 结果类型
+ * 
+ * @author zhangliang
+ */
+abstract class BackgroundFuture<T> extends AbstractFuture<T> implements BackgroundCallback {
+    
+    @Override
+    public final void processResult(final CuratorFramework client, final CuratorEvent event) {
+        try {
+            complete(client, Code.get(event.getResultCode()), event);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            setException(ex);
+        }
+    }
+    
+    /**
+     * 根据后台操作的返回码完成结果.
+     * 
+     * @param client 客户端
+     * @param code 返回码
+     * @param event 后台操作事件
+     * @throws Exception 继续发起后台操作时的异常
+     */
+    protected abstract void complete(CuratorFramework client, Code code, CuratorEvent event) throws Exception;
+    
+    @Override
+    protected boolean set(final T value) {
+        return super.set(value);
+    }
+    
+    @Override
+    protected boolean setException(final Throwable throwable) {
+        return super.setException(throwable);
+    }
+    
+    /**
+     * 以返回码对应的异常完成结果.
+     * 
+     * @param code 返回码
+     * @param event 后台操作事件
+     */
+    protected void fail(final Code code, final CuratorEvent event) {
+        setException(KeeperException.create(code, event.getPath()));
+    }
+}
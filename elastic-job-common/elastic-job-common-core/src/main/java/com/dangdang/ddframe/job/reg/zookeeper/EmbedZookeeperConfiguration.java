@@ -0,0 +1,58 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.apache.zookeeper.server.ZooKeeperServer;
+
+/**
+ * 基于内嵌Zookeeper的注册中心配置.
+ * 
+ * @author zhangliang
+ */
+@Getter
+@Setter
+@RequiredArgsConstructor
+public final class EmbedZookeeperConfiguration {
+    
+    /**
+     * 命名空间.
+     */
+    private final String namespace;
+    
+    /**
+     * 内嵌Zookeeper的监听端口号.
+     * 缺省为随机可用端口.
+     */
+    private int port;
+    
+    /**
+     * 内嵌Zookeeper的心跳间隔时间.
+     * 单位毫秒.
+     */
+    private int tickTimeMilliseconds = ZooKeeperServer.DEFAULT_TICK_TIME;
+    
+    /**
+     * 内嵌Zookeeper的数据目录.
+     * 缺省使用临时目录, 关闭注册中心时删除, 即数据仅保存在进程内.
+     * 配置后数据持久化至该目录, 重启后恢复.
+     */
+    private String dataDirectory;
+}
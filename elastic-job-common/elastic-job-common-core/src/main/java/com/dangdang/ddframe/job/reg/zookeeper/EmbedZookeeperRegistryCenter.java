@@ -0,0 +1,280 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.dangdang.ddframe.job.reg.base.AsyncRegistryCenter;
+import com.dangdang.ddframe.job.reg.base.CacheAccessListener;
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.exception.RegExceptionHandler;
+import com.google.common.base.Strings;
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.ListenableFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.zookeeper.server.ServerCnxnFactory;
+import org.apache.zookeeper.server.ZooKeeperServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * 基于内嵌Zookeeper的注册中心.
+ * 
+ * <p>
+ * 在当前进程内启动单机Zookeeper并通过本地回环地址连接, 适用于单节点部署, 无需额外部署Zookeeper集群.
+ * 未配置数据目录时使用临时目录且不强制刷盘, 写入不受磁盘同步限制.
+ * 临时节点, 监听, 事务及选举的语义与{@link ZookeeperRegistryCenter}完全一致, 原生客户端仍为{@link CuratorFramework}.
+ * 需要真实注册中心的测试和离线调度模拟也统一使用本注册中心, 原生客户端, 数据缓存和批量事务均与生产环境走相同的代码路径.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Slf4j
+public final class EmbedZookeeperRegistryCenter implements CoordinatorRegistryCenter, AsyncRegistryCenter {
+    
+    private static final String LOOPBACK_ADDRESS = "127.0.0.1";
+    
+    private static final int MAX_CLIENT_CONNECTIONS = 60;
+    
+    private static final String FORCE_SYNC_PROPERTY = "zookeeper.forceSync";
+    
+    private final EmbedZookeeperConfiguration embedZkConfig;
+    
+    private File dataDirectory;
+    
+    private boolean temporaryDataDirectory;
+    
+    private ServerCnxnFactory serverCnxnFactory;
+    
+    private ZookeeperRegistryCenter delegate;
+    
+    public EmbedZookeeperRegistryCenter(final EmbedZookeeperConfiguration embedZkConfig) {
+        this.embedZkConfig = embedZkConfig;
+    }
+    
+    @Override
+    public void init() {
+        temporaryDataDirectory = Strings.isNullOrEmpty(embedZkConfig.getDataDirectory());
+        dataDirectory = temporaryDataDirectory ? Files.createTempDir() : new File(embedZkConfig.getDataDirectory());
+        try {
+            ZooKeeperServer zkServer = createZookeeperServer();
+            serverCnxnFactory = ServerCnxnFactory.createFactory(new InetSocketAddress(LOOPBACK_ADDRESS, embedZkConfig.getPort()), MAX_CLIENT_CONNECTIONS);
+            serverCnxnFactory.startup(zkServer);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            close();
+            RegExceptionHandler.handleException(ex);
+            return;
+        }
+        log.debug("Elastic job: embed zookeeper registry center init, connect string is: {}.", getConnectString());
+        delegate = new ZookeeperRegistryCenter(new ZookeeperConfiguration(getConnectString(), embedZkConfig.getNamespace()));
+        delegate.init();
+    }
+    
+    /**
+     * 创建内嵌Zookeeper服务.
+     * 
+     * <p>
+     * 临时目录中的数据在关闭时即被删除, 事务日志无需在每次写入后强制刷盘, 因此关闭强制刷盘, 避免写入受限于磁盘同步.
+     * Zookeeper在创建事务日志时读取强制刷盘的系统属性, 创建后即恢复该属性, 不影响其他Zookeeper服务.
+     * </p>
+     */
+    private ZooKeeperServer createZookeeperServer() throws IOException {
+        if (!temporaryDataDirectory) {
+            return new ZooKeeperServer(dataDirectory, dataDirectory, embedZkConfig.getTickTimeMilliseconds());
+        }
+        synchronized (EmbedZookeeperRegistryCenter.class) {
+            String originalForceSync = System.getProperty(FORCE_SYNC_PROPERTY);
+            System.setProperty(FORCE_SYNC_PROPERTY, "no");
+            try {
+                return new ZooKeeperServer(dataDirectory, dataDirectory, embedZkConfig.getTickTimeMilliseconds());
+            } finally {
+                if (null == originalForceSync) {
+                    System.clearProperty(FORCE_SYNC_PROPERTY);
+                } else {
+                    System.setProperty(FORCE_SYNC_PROPERTY, originalForceSync);
+                }
+            }
+        }
+    }
+    
+    @Override
+    public void close() {
+        if (null != delegate) {
+            delegate.close();
+            delegate = null;
+        }
+        if (null != serverCnxnFactory) {
+            serverCnxnFactory.shutdown();
+            serverCnxnFactory = null;
+        }
+        if (temporaryDataDirectory && null != dataDirectory) {
+            delete(dataDirectory);
+            dataDirectory = null;
+        }
+    }
+    
+    private void delete(final File file) {
+        File[] children = file.listFiles();
+        if (null != children) {
+            for (File each : children) {
+                delete(each);
+            }
+        }
+        if (!file.delete()) {
+            log.warn("Elastic job: cannot delete embed zookeeper data file '{}'.", file);
+        }
+    }
+    
+    /**
+     * 获取内嵌Zookeeper的连接地址.
+     * 
+     * <p>其他进程可通过该地址连接至本注册中心.</p>
+     * 
+     * @return 内嵌Zookeeper的连接地址
+     */
+    public String getConnectString() {
+        return LOOPBACK_ADDRESS + ":" + serverCnxnFactory.getLocalPort();
+    }
+    
+    @Override
+    public String get(final String key) {
+        return delegate.get(key);
+    }
+    
+    @Override
+    public String get(final String key, final CacheAccessListener listener) {
+        return delegate.get(key, listener);
+    }
+    
+    @Override
+    public String getDirectly(final String key) {
+        return delegate.getDirectly(key);
+    }
+    
+    @Override
+    public List<String> getChildrenKeys(final String key) {
+        return delegate.getChildrenKeys(key);
+    }
+    
+    @Override
+    public int getNumChildren(final String key) {
+        return delegate.getNumChildren(key);
+    }
+    
+    @Override
+    public boolean isExisted(final String key) {
+        return delegate.isExisted(key);
+    }
+    
+    @Override
+    public void persist(final String key, final String value) {
+        delegate.persist(key, value);
+    }
+    
+    @Override
+    public void update(final String key, final String value) {
+        delegate.update(key, value);
+    }
+    
+    @Override
+    public void persistEphemeral(final String key, final String value) {
+        delegate.persistEphemeral(key, value);
+    }
+    
+    @Override
+    public String persistSequential(final String key, final String value) {
+        return delegate.persistSequential(key, value);
+    }
+    
+    @Override
+    public void persistEphemeralSequential(final String key) {
+        delegate.persistEphemeralSequential(key);
+    }
+    
+    @Override
+    public void remove(final String key) {
+        delegate.remove(key);
+    }
+    
+    @Override
+    public long getRegistryCenterTime(final String key) {
+        return delegate.getRegistryCenterTime(key);
+    }
+    
+    @Override
+    public Object getRawClient() {
+        return delegate.getRawClient();
+    }
+    
+    @Override
+    public void addCacheData(final String cachePath) {
+        delegate.addCacheData(cachePath);
+    }
+    
+    @Override
+    public void evictCacheData(final String cachePath) {
+        delegate.evictCacheData(cachePath);
+    }
+    
+    @Override
+    public Object getRawCache(final String cachePath) {
+        return delegate.getRawCache(cachePath);
+    }
+    
+    @Override
+    public ListenableFuture<String> getDirectlyAsync(final String key) {
+        return delegate.getDirectlyAsync(key);
+    }
+    
+    @Override
+    public ListenableFuture<Boolean> isExistedAsync(final String key) {
+        return delegate.isExistedAsync(key);
+    }
+    
+    @Override
+    public ListenableFuture<List<String>> getChildrenKeysAsync(final String key) {
+        return delegate.getChildrenKeysAsync(key);
+    }
+    
+    @Override
+    public ListenableFuture<Void> persistAsync(final String key, final String value) {
+        return delegate.persistAsync(key, value);
+    }
+    
+    @Override
+    public ListenableFuture<Void> persistEphemeralAsync(final String key, final String value) {
+        return delegate.persistEphemeralAsync(key, value);
+    }
+    
+    @Override
+    public ListenableFuture<Void> updateAsync(final String key, final String value) {
+        return delegate.updateAsync(key, value);
+    }
+    
+    @Override
+    public ListenableFuture<Void> removeAsync(final String key) {
+        return delegate.removeAsync(key);
+    }
+}
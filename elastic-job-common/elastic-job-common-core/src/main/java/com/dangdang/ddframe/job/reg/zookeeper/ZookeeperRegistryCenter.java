@@ -17,23 +17,29 @@
 
 package com.dangdang.ddframe.job.reg.zookeeper;
 
+import com.dangdang.ddframe.job.reg.base.AsyncRegistryCenter;
+import com.dangdang.ddframe.job.reg.base.CacheAccessListener;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import com.dangdang.ddframe.job.reg.exception.RegExceptionHandler;
 import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ListenableFuture;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.framework.api.ACLProvider;
+import org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.curator.framework.api.CuratorEvent;
 import org.apache.curator.framework.recipes.cache.ChildData;
 import org.apache.curator.framework.recipes.cache.TreeCache;
 import org.apache.curator.retry.ExponentialBackoffRetry;
 import org.apache.curator.utils.CloseableUtils;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.KeeperException.Code;
 import org.apache.zookeeper.ZooDefs;
 import org.apache.zookeeper.data.ACL;
 import org.apache.zookeeper.data.Stat;
@@ -52,13 +58,21 @@ import java.util.concurrent.TimeUnit;
  * @author zhangliang
  */
 @Slf4j
-public final class ZookeeperRegistryCenter implements CoordinatorRegistryCenter {
+public final class ZookeeperRegistryCenter implements CoordinatorRegistryCenter, AsyncRegistryCenter {
     
     @Getter(AccessLevel.PROTECTED)
     private ZookeeperConfiguration zkConfig;
     
     private final Map<String, TreeCache> caches = new HashMap<>();
     
+    private static final Comparator<String> CHILDREN_KEYS_COMPARATOR = new Comparator<String>() {
+        
+        @Override
+        public int compare(final String o1, final String o2) {
+            return o2.compareTo(o1);
+        }
+    };
+    
     @Getter
     private CuratorFramework client;
     
@@ -132,17 +146,28 @@ public final class ZookeeperRegistryCenter implements CoordinatorRegistryCenter
     
     @Override
     public String get(final String key) {
-        TreeCache cache = findTreeCache(key);
-        if (null == cache) {
-            return getDirectly(key);
+        ChildData resultInCache = getCachedData(key);
+        if (null != resultInCache) {
+            return null == resultInCache.getData() ? null : new String(resultInCache.getData(), Charsets.UTF_8);
         }
-        ChildData resultInCache = cache.getCurrentData(key);
+        return getDirectly(key);
+    }
+    
+    @Override
+    public String get(final String key, final CacheAccessListener listener) {
+        ChildData resultInCache = getCachedData(key);
+        listener.onCacheAccess(null != resultInCache);
         if (null != resultInCache) {
             return null == resultInCache.getData() ? null : new String(resultInCache.getData(), Charsets.UTF_8);
         }
         return getDirectly(key);
     }
     
+    private ChildData getCachedData(final String key) {
+        TreeCache cache = findTreeCache(key);
+        return null == cache ? null : cache.getCurrentData(key);
+    }
+    
     private TreeCache findTreeCache(final String key) {
         for (Entry<String, TreeCache> entry : caches.entrySet()) {
             if (key.startsWith(entry.getKey())) {
@@ -168,13 +193,7 @@ public final class ZookeeperRegistryCenter implements CoordinatorRegistryCenter
     public List<String> getChildrenKeys(final String key) {
         try {
             List<String> result = client.getChildren().forPath(key);
-            Collections.sort(result, new Comparator<String>() {
-                
-                @Override
-                public int compare(final String o1, final String o2) {
-                    return o2.compareTo(o1);
-                }
-            });
+            Collections.sort(result, CHILDREN_KEYS_COMPARATOR);
             return result;
          //CHECKSTYLE:OFF
         } catch (final Exception ex) {
@@ -330,4 +349,190 @@ public final class ZookeeperRegistryCenter implements CoordinatorRegistryCenter
     public Object getRawCache(final String cachePath) {
         return caches.get(cachePath + "/");
     }
+    
+    @Override
+    public ListenableFuture<String> getDirectlyAsync(final String key) {
+        BackgroundFuture<String> result = new BackgroundFuture<String>() {
+            
+            @Override
+            protected void complete(final CuratorFramework client, final Code code, final CuratorEvent event) {
+                if (Code.OK == code) {
+                    set(new String(event.getData(), Charsets.UTF_8));
+                } else if (Code.NONODE == code) {
+                    set(null);
+                } else {
+                    fail(code, event);
+                }
+            }
+        };
+        try {
+            client.getData().inBackground(result).forPath(key);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(ex);
+        }
+        return result;
+    }
+    
+    @Override
+    public ListenableFuture<Boolean> isExistedAsync(final String key) {
+        BackgroundFuture<Boolean> result = new BackgroundFuture<Boolean>() {
+            
+            @Override
+            protected void complete(final CuratorFramework client, final Code code, final CuratorEvent event) {
+                if (Code.OK == code || Code.NONODE == code) {
+                    set(null != event.getStat());
+                } else {
+                    fail(code, event);
+                }
+            }
+        };
+        try {
+            client.checkExists().inBackground(result).forPath(key);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(ex);
+        }
+        return result;
+    }
+    
+    @Override
+    public ListenableFuture<List<String>> getChildrenKeysAsync(final String key) {
+        BackgroundFuture<List<String>> result = new BackgroundFuture<List<String>>() {
+            
+            @Override
+            protected void complete(final CuratorFramework client, final Code code, final CuratorEvent event) {
+                if (Code.OK == code) {
+                    List<String> children = event.getChildren();
+                    Collections.sort(children, CHILDREN_KEYS_COMPARATOR);
+                    set(children);
+                } else if (Code.NONODE == code) {
+                    set(Collections.<String>emptyList());
+                } else {
+                    fail(code, event);
+                }
+            }
+        };
+        try {
+            client.getChildren().inBackground(result).forPath(key);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(ex);
+        }
+        return result;
+    }
+    
+    @Override
+    public ListenableFuture<Void> persistAsync(final String key, final String value) {
+        final byte[] data = value.getBytes(Charsets.UTF_8);
+        BackgroundFuture<Void> result = new BackgroundFuture<Void>() {
+            
+            @Override
+            protected void complete(final CuratorFramework client, final Code code, final CuratorEvent event) throws Exception {
+                if (Code.OK == code) {
+                    set(null);
+                } else if (Code.NODEEXISTS == code) {
+                    client.setData().inBackground(forwardTo(this)).forPath(key, data);
+                } else {
+                    fail(code, event);
+                }
+            }
+        };
+        try {
+            client.create().creatingParentsIfNeeded().withMode(CreateMode.PERSISTENT).inBackground(result).forPath(key, data);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(ex);
+        }
+        return result;
+    }
+    
+    @Override
+    public ListenableFuture<Void> persistEphemeralAsync(final String key, final String value) {
+        final byte[] data = value.getBytes(Charsets.UTF_8);
+        BackgroundFuture<Void> result = new BackgroundFuture<Void>() {
+            
+            @Override
+            protected void complete(final CuratorFramework client, final Code code, final CuratorEvent event) throws Exception {
+                if (Code.OK == code || Code.NONODE == code) {
+                    client.create().creatingParentsIfNeeded().withMode(CreateMode.EPHEMERAL).inBackground(forwardTo(this)).forPath(key, data);
+                } else {
+                    fail(code, event);
+                }
+            }
+        };
+        try {
+            client.delete().deletingChildrenIfNeeded().inBackground(result).forPath(key);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(ex);
+        }
+        return result;
+    }
+    
+    @Override
+    public ListenableFuture<Void> updateAsync(final String key, final String value) {
+        BackgroundFuture<Void> result = new BackgroundFuture<Void>() {
+            
+            @Override
+            protected void complete(final CuratorFramework client, final Code code, final CuratorEvent event) {
+                if (Code.OK == code) {
+                    set(null);
+                } else {
+                    fail(code, event);
+                }
+            }
+        };
+        try {
+            client.setData().inBackground(result).forPath(key, value.getBytes(Charsets.UTF_8));
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(ex);
+        }
+        return result;
+    }
+    
+    @Override
+    public ListenableFuture<Void> removeAsync(final String key) {
+        BackgroundFuture<Void> result = new BackgroundFuture<Void>() {
+            
+            @Override
+            protected void complete(final CuratorFramework client, final Code code, final CuratorEvent event) {
+                if (Code.OK == code || Code.NONODE == code) {
+                    set(null);
+                } else {
+                    fail(code, event);
+                }
+            }
+        };
+        try {
+            client.delete().deletingChildrenIfNeeded().inBackground(result).forPath(key);
+        //CHECKSTYLE:OFF
+        } catch (final Exception ex) {
+        //CHECKSTYLE:ON
+            result.setException(ex);
+        }
+        return result;
+    }
+    
+    private BackgroundCallback forwardTo(final BackgroundFuture<Void> target) {
+        return new BackgroundCallback() {
+            
+            @Override
+            public void processResult(final CuratorFramework client, final CuratorEvent event) {
+                Code code = Code.get(event.getResultCode());
+                if (Code.OK == code) {
+                    target.set(null);
+                } else {
+                    target.fail(code, event);
+                }
+            }
+        };
+    }
 }
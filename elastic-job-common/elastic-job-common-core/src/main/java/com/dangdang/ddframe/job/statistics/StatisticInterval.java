@@ -20,6 +20,9 @@ package com.dangdang.ddframe.job.statistics;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
 /**
  * 统计时间间隔.
  *
@@ -36,4 +39,24 @@ public enum StatisticInterval {
     DAY("0 0 0 * * ?");
     
     private final String cron;
+    
+    /**
+     * 根据查询的时间范围选择统计数据的精度.
+     * 
+     * <p>两天以内按分钟, 两个月以内按小时, 更长的时间范围按天, 使查询返回的数据量不随历史数据增长.</p>
+     * 
+     * @param from 开始时间
+     * @param to 结束时间
+     * @return 统计时间间隔
+     */
+    public static StatisticInterval getResolution(final Date from, final Date to) {
+        long range = to.getTime() - from.getTime();
+        if (range <= TimeUnit.DAYS.toMillis(2L)) {
+            return MINUTE;
+        }
+        if (range <= TimeUnit.DAYS.toMillis(60L)) {
+            return HOUR;
+        }
+        return DAY;
+    }
 }
@@ -18,10 +18,12 @@
 package com.dangdang.ddframe.job.statistics.rdb;
 
 import com.dangdang.ddframe.job.statistics.StatisticInterval;
+import com.dangdang.ddframe.job.statistics.type.job.JobPerformanceStatistics;
 import com.dangdang.ddframe.job.statistics.type.job.JobRegisterStatistics;
 import com.dangdang.ddframe.job.statistics.type.job.JobRunningStatistics;
 import com.dangdang.ddframe.job.statistics.type.task.TaskResultStatistics;
 import com.dangdang.ddframe.job.statistics.type.task.TaskRunningStatistics;
+import com.dangdang.ddframe.job.util.rdb.RdbTemplate;
 import com.google.common.base.Optional;
 import lombok.extern.slf4j.Slf4j;
 
@@ -31,11 +33,16 @@ import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * 统计信息数据仓库，基于数据库.
@@ -53,8 +60,56 @@ public class StatisticRdbRepository {
     
     private static final String TABLE_JOB_REGISTER_STATISTICS = "JOB_REGISTER_STATISTICS";
     
+    private static final String TABLE_JOB_PERFORMANCE_STATISTICS = "JOB_PERFORMANCE_STATISTICS";
+    
+    private static final int MAX_ROWS_PER_INSERT = 500;
+    
+    private static final int MAX_ROLLUP_PERIODS = 24;
+    
+    private static final RdbTemplate.RowMapper<TaskRunningStatistics> TASK_RUNNING_STATISTICS_MAPPER = new RdbTemplate.RowMapper<TaskRunningStatistics>() {
+        
+        @Override
+        public TaskRunningStatistics mapRow(final ResultSet resultSet) throws SQLException {
+            return new TaskRunningStatistics(resultSet.getLong(1), resultSet.getInt(2), new Date(resultSet.getTimestamp(3).getTime()), new Date(resultSet.getTimestamp(4).getTime()));
+        }
+    };
+    
+    private static final RdbTemplate.RowMapper<JobRunningStatistics> JOB_RUNNING_STATISTICS_MAPPER = new RdbTemplate.RowMapper<JobRunningStatistics>() {
+        
+        @Override
+        public JobRunningStatistics mapRow(final ResultSet resultSet) throws SQLException {
+            return new JobRunningStatistics(resultSet.getLong(1), resultSet.getInt(2), new Date(resultSet.getTimestamp(3).getTime()), new Date(resultSet.getTimestamp(4).getTime()));
+        }
+    };
+    
+    private static final RdbTemplate.RowMapper<JobRegisterStatistics> JOB_REGISTER_STATISTICS_MAPPER = new RdbTemplate.RowMapper<JobRegisterStatistics>() {
+        
+        @Override
+        public JobRegisterStatistics mapRow(final ResultSet resultSet) throws SQLException {
+            return new JobRegisterStatistics(resultSet.getLong(1), resultSet.getInt(2), new Date(resultSet.getTimestamp(3).getTime()), new Date(resultSet.getTimestamp(4).getTime()));
+        }
+    };
+    
+    private static final RdbTemplate.RowMapper<long[]> ROLLUP_MAPPER = new RdbTemplate.RowMapper<long[]>() {
+        
+        @Override
+        public long[] mapRow(final ResultSet resultSet) throws SQLException {
+            return new long[] {resultSet.getInt(1), resultSet.getTimestamp(2).getTime()};
+        }
+    };
+    
+    private static final RdbTemplate.RowMapper<Date> TIME_MAPPER = new RdbTemplate.RowMapper<Date>() {
+        
+        @Override
+        public Date mapRow(final ResultSet resultSet) throws SQLException {
+            return null == resultSet.getTimestamp(1) ? null : new Date(resultSet.getTimestamp(1).getTime());
+        }
+    };
+    
     private final DataSource dataSource;
     
+    private final RdbTemplate rdbTemplate;
+    
     /**
      * 构造函数.
      * 
@@ -63,6 +118,7 @@ public class StatisticRdbRepository {
      */
     public StatisticRdbRepository(final DataSource dataSource) throws SQLException {
         this.dataSource = dataSource;
+        rdbTemplate = new RdbTemplate(dataSource);
         initTables();
     }
     
@@ -72,6 +128,8 @@ public class StatisticRdbRepository {
             createTaskRunningTableIfNeeded(conn);
             createJobRunningTableIfNeeded(conn);
             createJobRegisterTableIfNeeded(conn);
+            createJobPerformanceTableIfNeeded(conn);
+            createStatisticsTimeIndexesIfNeeded(conn);
         }
     }
     
@@ -101,15 +159,17 @@ public class StatisticRdbRepository {
     
     private void createTaskRunningTableIfNeeded(final Connection conn) throws SQLException {
         DatabaseMetaData dbMetaData = conn.getMetaData();
-        try (ResultSet resultSet = dbMetaData.getTables(null, null, TABLE_TASK_RUNNING_STATISTICS, new String[]{"TABLE"})) {
-            if (!resultSet.next()) {
-                createTaskRunningTable(conn);
+        for (StatisticInterval each : StatisticInterval.values()) {
+            try (ResultSet resultSet = dbMetaData.getTables(null, null, getRunningTableName(TABLE_TASK_RUNNING_STATISTICS, each), new String[]{"TABLE"})) {
+                if (!resultSet.next()) {
+                    createTaskRunningTable(conn, each);
+                }
             }
         }
     }
     
-    private void createTaskRunningTable(final Connection conn) throws SQLException {
-        String dbSchema = "CREATE TABLE `" + TABLE_TASK_RUNNING_STATISTICS + "` ("
+    private void createTaskRunningTable(final Connection conn, final StatisticInterval statisticInterval) throws SQLException {
+        String dbSchema = "CREATE TABLE `" + getRunningTableName(TABLE_TASK_RUNNING_STATISTICS, statisticInterval) + "` ("
                 + "`id` BIGINT NOT NULL AUTO_INCREMENT, "
                 + "`running_count` INT(11),"
                 + "`statistics_time` TIMESTAMP NOT NULL,"
@@ -122,15 +182,17 @@ public class StatisticRdbRepository {
     
     private void createJobRunningTableIfNeeded(final Connection conn) throws SQLException {
         DatabaseMetaData dbMetaData = conn.getMetaData();
-        try (ResultSet resultSet = dbMetaData.getTables(null, null, TABLE_JOB_RUNNING_STATISTICS, new String[]{"TABLE"})) {
-            if (!resultSet.next()) {
-                createJobRunningTable(conn);
+        for (StatisticInterval each : StatisticInterval.values()) {
+            try (ResultSet resultSet = dbMetaData.getTables(null, null, getRunningTableName(TABLE_JOB_RUNNING_STATISTICS, each), new String[]{"TABLE"})) {
+                if (!resultSet.next()) {
+                    createJobRunningTable(conn, each);
+                }
             }
         }
     }
     
-    private void createJobRunningTable(final Connection conn) throws SQLException {
-        String dbSchema = "CREATE TABLE `" + TABLE_JOB_RUNNING_STATISTICS + "` ("
+    private void createJobRunningTable(final Connection conn, final StatisticInterval statisticInterval) throws SQLException {
+        String dbSchema = "CREATE TABLE `" + getRunningTableName(TABLE_JOB_RUNNING_STATISTICS, statisticInterval) + "` ("
                 + "`id` BIGINT NOT NULL AUTO_INCREMENT, "
                 + "`running_count` INT(11),"
                 + "`statistics_time` TIMESTAMP NOT NULL,"
@@ -141,6 +203,10 @@ public class StatisticRdbRepository {
         }
     }
     
+    private String getRunningTableName(final String tableName, final StatisticInterval statisticInterval) {
+        return StatisticInterval.MINUTE == statisticInterval ? tableName : tableName + "_" + statisticInterval;
+    }
+    
     private void createJobRegisterTableIfNeeded(final Connection conn) throws SQLException {
         DatabaseMetaData dbMetaData = conn.getMetaData();
         try (ResultSet resultSet = dbMetaData.getTables(null, null, TABLE_JOB_REGISTER_STATISTICS, new String[]{"TABLE"})) {
@@ -162,6 +228,62 @@ public class StatisticRdbRepository {
         }
     }
     
+    private void createJobPerformanceTableIfNeeded(final Connection conn) throws SQLException {
+        DatabaseMetaData dbMetaData = conn.getMetaData();
+        try (ResultSet resultSet = dbMetaData.getTables(null, null, TABLE_JOB_PERFORMANCE_STATISTICS, new String[]{"TABLE"})) {
+            if (!resultSet.next()) {
+                createJobPerformanceTable(conn);
+            }
+        }
+    }
+    
+    private void createJobPerformanceTable(final Connection conn) throws SQLException {
+        String dbSchema = "CREATE TABLE `" + TABLE_JOB_PERFORMANCE_STATISTICS + "` ("
+                + "`id` BIGINT NOT NULL AUTO_INCREMENT, "
+                + "`dimension` VARCHAR(10) NOT NULL,"
+                + "`name` VARCHAR(100) NOT NULL,"
+                + "`success_count` INT(11),"
+                + "`failed_count` INT(11),"
+                + "`average_latency` BIGINT,"
+                + "`p50_latency` BIGINT,"
+                + "`p90_latency` BIGINT,"
+                + "`p99_latency` BIGINT,"
+                + "`max_latency` BIGINT,"
+                + "`statistics_time` TIMESTAMP NOT NULL,"
+                + "`creation_time` TIMESTAMP NOT NULL,"
+                + "PRIMARY KEY (`id`));";
+        try (PreparedStatement preparedStatement = conn.prepareStatement(dbSchema)) {
+            preparedStatement.execute();
+        }
+    }
+    
+    private void createStatisticsTimeIndexesIfNeeded(final Connection conn) throws SQLException {
+        for (StatisticInterval each : StatisticInterval.values()) {
+            createStatisticsTimeIndexIfNeeded(conn, TABLE_TASK_RESULT_STATISTICS + "_" + each);
+            createStatisticsTimeIndexIfNeeded(conn, getRunningTableName(TABLE_TASK_RUNNING_STATISTICS, each));
+            createStatisticsTimeIndexIfNeeded(conn, getRunningTableName(TABLE_JOB_RUNNING_STATISTICS, each));
+        }
+        createStatisticsTimeIndexIfNeeded(conn, TABLE_JOB_REGISTER_STATISTICS);
+        createIndexIfNeeded(conn, TABLE_JOB_PERFORMANCE_STATISTICS, "IDX_" + TABLE_JOB_PERFORMANCE_STATISTICS + "_NAME_TIME", "`dimension`, `name`, `statistics_time`");
+    }
+    
+    private void createStatisticsTimeIndexIfNeeded(final Connection conn, final String tableName) throws SQLException {
+        createIndexIfNeeded(conn, tableName, "IDX_" + tableName + "_TIME", "`statistics_time`");
+    }
+    
+    private void createIndexIfNeeded(final Connection conn, final String tableName, final String indexName, final String columns) throws SQLException {
+        try (ResultSet resultSet = conn.getMetaData().getIndexInfo(null, null, tableName, false, false)) {
+            while (resultSet.next()) {
+                if (indexName.equalsIgnoreCase(resultSet.getString("INDEX_NAME"))) {
+                    return;
+                }
+            }
+        }
+        try (PreparedStatement preparedStatement = conn.prepareStatement("CREATE INDEX `" + indexName + "` ON `" + tableName + "` (" + columns + ");")) {
+            preparedStatement.execute();
+        }
+    }
+    
     /**
      * 添加任务运行结果统计数据.
      * 
@@ -169,23 +291,10 @@ public class StatisticRdbRepository {
      * @return 添加操作是否成功
      */
     public boolean add(final TaskResultStatistics taskResultStatistics) {
-        boolean result = false;
-        String sql = "INSERT INTO `" + TABLE_TASK_RESULT_STATISTICS + "_" + taskResultStatistics.getStatisticInterval()
-                + "` (`success_count`, `failed_count`, `statistics_time`, `creation_time`) VALUES (?, ?, ?, ?);";
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
-            preparedStatement.setInt(1, taskResultStatistics.getSuccessCount());
-            preparedStatement.setInt(2, taskResultStatistics.getFailedCount());
-            preparedStatement.setTimestamp(3, new Timestamp(taskResultStatistics.getStatisticsTime().getTime()));
-            preparedStatement.setTimestamp(4, new Timestamp(taskResultStatistics.getCreationTime().getTime()));
-            preparedStatement.execute();
-            result = true;
-        } catch (final SQLException ex) {
-            // TODO 记录失败直接输出日志,未来可考虑配置化
-            log.error("Insert taskResultStatistics to DB error:", ex);
-        }
-        return result;
+        String tableName = TABLE_TASK_RESULT_STATISTICS + "_" + taskResultStatistics.getStatisticInterval();
+        String sql = "INSERT INTO `" + tableName + "` (`success_count`, `failed_count`, `statistics_time`, `creation_time`) VALUES (?, ?, ?, ?);";
+        return insert(tableName, sql, "taskResultStatistics", 
+                taskResultStatistics.getSuccessCount(), taskResultStatistics.getFailedCount(), taskResultStatistics.getStatisticsTime(), taskResultStatistics.getCreationTime());
     }
     
     /**
@@ -195,71 +304,318 @@ public class StatisticRdbRepository {
      * @return 添加操作是否成功
      */
     public boolean add(final TaskRunningStatistics taskRunningStatistics) {
-        boolean result = false;
         String sql = "INSERT INTO `" + TABLE_TASK_RUNNING_STATISTICS + "` (`running_count`, `statistics_time`, `creation_time`) VALUES (?, ?, ?);";
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
-            preparedStatement.setInt(1, taskRunningStatistics.getRunningCount());
-            preparedStatement.setTimestamp(2, new Timestamp(taskRunningStatistics.getStatisticsTime().getTime()));
-            preparedStatement.setTimestamp(3, new Timestamp(taskRunningStatistics.getCreationTime().getTime()));
-            preparedStatement.execute();
+        return insert(TABLE_TASK_RUNNING_STATISTICS, sql, "taskRunningStatistics", 
+                taskRunningStatistics.getRunningCount(), taskRunningStatistics.getStatisticsTime(), taskRunningStatistics.getCreationTime());
+    }
+    
+    /**
+     * 添加运行中的作业统计数据.
+     * 
+     * @param jobRunningStatistics 运行中的作业统计数据对象
+     * @return 添加操作是否成功
+     */
+    public boolean add(final JobRunningStatistics jobRunningStatistics) {
+        String sql = "INSERT INTO `" + TABLE_JOB_RUNNING_STATISTICS + "` (`running_count`, `statistics_time`, `creation_time`) VALUES (?, ?, ?);";
+        return insert(TABLE_JOB_RUNNING_STATISTICS, sql, "jobRunningStatistics", 
+                jobRunningStatistics.getRunningCount(), jobRunningStatistics.getStatisticsTime(), jobRunningStatistics.getCreationTime());
+    }
+    
+    /**
+     * 添加作业注册统计数据.
+     * 
+     * @param jobRegisterStatistics 作业注册统计数据对象
+     * @return 添加操作是否成功
+     */
+    public boolean add(final JobRegisterStatistics jobRegisterStatistics) {
+        String sql = "INSERT INTO `" + TABLE_JOB_REGISTER_STATISTICS + "` (`registered_count`, `statistics_time`, `creation_time`) VALUES (?, ?, ?);";
+        return insert(TABLE_JOB_REGISTER_STATISTICS, sql, "jobRegisterStatistics", 
+                jobRegisterStatistics.getRegisteredCount(), jobRegisterStatistics.getStatisticsTime(), jobRegisterStatistics.getCreationTime());
+    }
+    
+    private boolean insert(final String tableName, final String sql, final String statisticsName, final Object... parameters) {
+        boolean result = false;
+        try {
+            rdbTemplate.update("insert_" + tableName.toLowerCase(), sql, parameters);
             result = true;
         } catch (final SQLException ex) {
             // TODO 记录失败直接输出日志,未来可考虑配置化
-            log.error("Insert taskRunningStatistics to DB error:", ex);
+            log.error("Insert {} to DB error:", statisticsName, ex);
         }
         return result;
     }
     
     /**
-     * 添加运行中的作业统计数据.
+     * 批量添加任务运行结果统计数据.
      * 
-     * @param jobRunningStatistics 运行中的作业统计数据对象
+     * @param taskResultStatisticsList 任务运行结果统计数据对象集合
      * @return 添加操作是否成功
      */
-    public boolean add(final JobRunningStatistics jobRunningStatistics) {
+    public boolean batchAddTaskResultStatistics(final Collection<TaskResultStatistics> taskResultStatisticsList) {
+        Map<StatisticInterval, List<Object[]>> rowsMap = new LinkedHashMap<>(StatisticInterval.values().length, 1);
+        for (TaskResultStatistics each : taskResultStatisticsList) {
+            if (!rowsMap.containsKey(each.getStatisticInterval())) {
+                rowsMap.put(each.getStatisticInterval(), new ArrayList<Object[]>(taskResultStatisticsList.size()));
+            }
+            rowsMap.get(each.getStatisticInterval()).add(new Object[] {each.getSuccessCount(), each.getFailedCount(), each.getStatisticsTime(), each.getCreationTime()});
+        }
+        boolean result = true;
+        for (Map.Entry<StatisticInterval, List<Object[]>> entry : rowsMap.entrySet()) {
+            result = batchInsert(TABLE_TASK_RESULT_STATISTICS + "_" + entry.getKey(), 
+                    new String[] {"success_count", "failed_count", "statistics_time", "creation_time"}, entry.getValue(), "taskResultStatistics") && result;
+        }
+        return result;
+    }
+    
+    /**
+     * 批量添加运行中的任务统计数据.
+     * 
+     * @param taskRunningStatisticsList 运行中的任务统计数据对象集合
+     * @return 添加操作是否成功
+     */
+    public boolean batchAddTaskRunningStatistics(final Collection<TaskRunningStatistics> taskRunningStatisticsList) {
+        List<Object[]> rows = new ArrayList<>(taskRunningStatisticsList.size());
+        for (TaskRunningStatistics each : taskRunningStatisticsList) {
+            rows.add(new Object[] {each.getRunningCount(), each.getStatisticsTime(), each.getCreationTime()});
+        }
+        return batchInsert(TABLE_TASK_RUNNING_STATISTICS, new String[] {"running_count", "statistics_time", "creation_time"}, rows, "taskRunningStatistics");
+    }
+    
+    /**
+     * 批量添加运行中的作业统计数据.
+     * 
+     * @param jobRunningStatisticsList 运行中的作业统计数据对象集合
+     * @return 添加操作是否成功
+     */
+    public boolean batchAddJobRunningStatistics(final Collection<JobRunningStatistics> jobRunningStatisticsList) {
+        List<Object[]> rows = new ArrayList<>(jobRunningStatisticsList.size());
+        for (JobRunningStatistics each : jobRunningStatisticsList) {
+            rows.add(new Object[] {each.getRunningCount(), each.getStatisticsTime(), each.getCreationTime()});
+        }
+        return batchInsert(TABLE_JOB_RUNNING_STATISTICS, new String[] {"running_count", "statistics_time", "creation_time"}, rows, "jobRunningStatistics");
+    }
+    
+    /**
+     * 批量添加作业注册统计数据.
+     * 
+     * @param jobRegisterStatisticsList 作业注册统计数据对象集合
+     * @return 添加操作是否成功
+     */
+    public boolean batchAddJobRegisterStatistics(final Collection<JobRegisterStatistics> jobRegisterStatisticsList) {
+        List<Object[]> rows = new ArrayList<>(jobRegisterStatisticsList.size());
+        for (JobRegisterStatistics each : jobRegisterStatisticsList) {
+            rows.add(new Object[] {each.getRegisteredCount(), each.getStatisticsTime(), each.getCreationTime()});
+        }
+        return batchInsert(TABLE_JOB_REGISTER_STATISTICS, new String[] {"registered_count", "statistics_time", "creation_time"}, rows, "jobRegisterStatistics");
+    }
+    
+    /**
+     * 批量添加作业性能统计数据.
+     * 
+     * @param jobPerformanceStatisticsList 作业性能统计数据对象集合
+     * @return 添加操作是否成功
+     */
+    public boolean batchAddJobPerformanceStatistics(final Collection<JobPerformanceStatistics> jobPerformanceStatisticsList) {
+        List<Object[]> rows = new ArrayList<>(jobPerformanceStatisticsList.size());
+        for (JobPerformanceStatistics each : jobPerformanceStatisticsList) {
+            rows.add(new Object[] {each.getDimension().name(), each.getName(), each.getSuccessCount(), each.getFailedCount(), 
+                each.getAverageLatency(), each.getP50Latency(), each.getP90Latency(), each.getP99Latency(), each.getMaxLatency(), each.getStatisticsTime(), each.getCreationTime()});
+        }
+        return batchInsert(TABLE_JOB_PERFORMANCE_STATISTICS, new String[] {"dimension", "name", "success_count", "failed_count", 
+            "average_latency", "p50_latency", "p90_latency", "p99_latency", "max_latency", "statistics_time", "creation_time"}, rows, "jobPerformanceStatistics");
+    }
+    
+    private boolean batchInsert(final String tableName, final String[] columns, final List<Object[]> rows, final String statisticsName) {
+        if (rows.isEmpty()) {
+            return true;
+        }
         boolean result = false;
-        String sql = "INSERT INTO `" + TABLE_JOB_RUNNING_STATISTICS + "` (`running_count`, `statistics_time`, `creation_time`) VALUES (?, ?, ?);";
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
-            preparedStatement.setInt(1, jobRunningStatistics.getRunningCount());
-            preparedStatement.setTimestamp(2, new Timestamp(jobRunningStatistics.getStatisticsTime().getTime()));
-            preparedStatement.setTimestamp(3, new Timestamp(jobRunningStatistics.getCreationTime().getTime()));
-            preparedStatement.execute();
+        try {
+            rdbTemplate.execute(new RdbTemplate.ConnectionCallback<Void>() {
+                
+                @Override
+                public Void doInConnection(final Connection conn) throws SQLException {
+                    batchInsert(conn, tableName, columns, rows);
+                    return null;
+                }
+            });
             result = true;
         } catch (final SQLException ex) {
             // TODO 记录失败直接输出日志,未来可考虑配置化
-            log.error("Insert jobRunningStatistics to DB error:", ex);
+            log.error("Batch insert {} to DB error:", statisticsName, ex);
         }
         return result;
     }
     
+    private void batchInsert(final Connection conn, final String tableName, final String[] columns, final List<Object[]> rows) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            for (int fromIndex = 0; fromIndex < rows.size(); fromIndex += MAX_ROWS_PER_INSERT) {
+                insertRows(tableName, columns, rows.subList(fromIndex, Math.min(fromIndex + MAX_ROWS_PER_INSERT, rows.size())));
+            }
+            conn.commit();
+        } catch (final SQLException ex) {
+            conn.rollback();
+            throw ex;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+    
+    private void insertRows(final String tableName, final String[] columns, final List<Object[]> rows) throws SQLException {
+        StringBuilder placeholders = new StringBuilder("(");
+        StringBuilder sql = new StringBuilder("INSERT INTO `").append(tableName).append("` (");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sql.append(", ");
+                placeholders.append(", ");
+            }
+            sql.append('`').append(columns[i]).append('`');
+            placeholders.append('?');
+        }
+        placeholders.append(')');
+        sql.append(") VALUES ");
+        List<Object> parameters = new ArrayList<>(rows.size() * columns.length);
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(placeholders);
+            parameters.addAll(Arrays.asList(rows.get(i)));
+        }
+        sql.append(';');
+        rdbTemplate.update("batch_insert_" + tableName.toLowerCase(), sql.toString(), parameters.toArray());
+    }
+    
     /**
-     * 添加作业注册统计数据.
+     * 汇总运行中的任务统计数据.
      * 
-     * @param jobRegisterStatistics 作业注册统计数据对象
-     * @return 添加操作是否成功
+     * <p>
+     * 将按分钟的统计数据汇总为按小时的统计数据, 再将按小时的统计数据汇总为按天的统计数据.
+     * 只汇总上次汇总后已结束的统计周期, 汇总值为周期内统计数据的平均值.
+     * </p>
+     * 
+     * @return 汇总操作是否成功
      */
-    public boolean add(final JobRegisterStatistics jobRegisterStatistics) {
+    public boolean rollupTaskRunningStatistics() {
+        return rollupRunningStatistics(TABLE_TASK_RUNNING_STATISTICS, "taskRunningStatistics");
+    }
+    
+    /**
+     * 汇总运行中的作业统计数据.
+     * 
+     * <p>
+     * 将按分钟的统计数据汇总为按小时的统计数据, 再将按小时的统计数据汇总为按天的统计数据.
+     * 只汇总上次汇总后已结束的统计周期, 汇总值为周期内统计数据的平均值.
+     * </p>
+     * 
+     * @return 汇总操作是否成功
+     */
+    public boolean rollupJobRunningStatistics() {
+        return rollupRunningStatistics(TABLE_JOB_RUNNING_STATISTICS, "jobRunningStatistics");
+    }
+    
+    private boolean rollupRunningStatistics(final String tableName, final String statisticsName) {
         boolean result = false;
-        String sql = "INSERT INTO `" + TABLE_JOB_REGISTER_STATISTICS + "` (`registered_count`, `statistics_time`, `creation_time`) VALUES (?, ?, ?);";
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql)) {
-            preparedStatement.setInt(1, jobRegisterStatistics.getRegisteredCount());
-            preparedStatement.setTimestamp(2, new Timestamp(jobRegisterStatistics.getStatisticsTime().getTime()));
-            preparedStatement.setTimestamp(3, new Timestamp(jobRegisterStatistics.getCreationTime().getTime()));
-            preparedStatement.execute();
+        final Date now = new Date();
+        try {
+            rdbTemplate.execute(new RdbTemplate.ConnectionCallback<Void>() {
+                
+                @Override
+                public Void doInConnection(final Connection conn) throws SQLException {
+                    Date hourlyRollupTime = rollupRunningStatistics(conn, tableName, StatisticInterval.MINUTE, StatisticInterval.HOUR, now, now);
+                    rollupRunningStatistics(conn, tableName, StatisticInterval.HOUR, StatisticInterval.DAY, hourlyRollupTime, now);
+                    return null;
+                }
+            });
             result = true;
         } catch (final SQLException ex) {
             // TODO 记录失败直接输出日志,未来可考虑配置化
-            log.error("Insert jobRegisterStatistics to DB error:", ex);
+            log.error("Rollup {} error:", statisticsName, ex);
         }
         return result;
     }
     
+    /**
+     * 汇总一个周期的统计数据.
+     * 
+     * <p>
+     * 从上次汇总后的第一条源数据开始, 每次至多汇总{@code MAX_ROLLUP_PERIODS}个目标周期, 首次汇总和中断后的补汇总分多次完成.
+     * </p>
+     * 
+     * @return 已汇总的截止时间, 早于该时间的源数据均已汇总
+     */
+    private Date rollupRunningStatistics(final Connection conn, final String tableName, final StatisticInterval sourceInterval, final StatisticInterval targetInterval, 
+                                         final Date until, final Date now) throws SQLException {
+        String sourceTableName = getRunningTableName(tableName, sourceInterval);
+        Date to = truncate(until, targetInterval);
+        Optional<Date> firstSourceTime = findFirstTime(sourceTableName, findNextRollupTime(getRunningTableName(tableName, targetInterval), targetInterval));
+        if (!firstSourceTime.isPresent()) {
+            return to;
+        }
+        Date from = truncate(firstSourceTime.get(), targetInterval);
+        Date maxTo = addPeriods(from, targetInterval, MAX_ROLLUP_PERIODS);
+        if (maxTo.before(to)) {
+            to = maxTo;
+        }
+        if (!from.before(to)) {
+            return to;
+        }
+        List<long[]> runningCounts = rdbTemplate.query("rollup_" + sourceTableName.toLowerCase(), 
+                "SELECT running_count, statistics_time FROM `" + sourceTableName + "` WHERE statistics_time >= ? AND statistics_time < ?", ROLLUP_MAPPER, from, to);
+        Map<Date, long[]> buckets = new TreeMap<>();
+        for (long[] each : runningCounts) {
+            Date bucket = truncate(new Date(each[1]), targetInterval);
+            if (!buckets.containsKey(bucket)) {
+                buckets.put(bucket, new long[2]);
+            }
+            buckets.get(bucket)[0] += each[0];
+            buckets.get(bucket)[1]++;
+        }
+        List<Object[]> rows = new ArrayList<>(buckets.size());
+        for (Map.Entry<Date, long[]> entry : buckets.entrySet()) {
+            rows.add(new Object[] {(int) Math.round((double) entry.getValue()[0] / entry.getValue()[1]), entry.getKey(), now});
+        }
+        if (!rows.isEmpty()) {
+            batchInsert(conn, getRunningTableName(tableName, targetInterval), new String[] {"running_count", "statistics_time", "creation_time"}, rows);
+        }
+        return to;
+    }
+    
+    private Date findNextRollupTime(final String tableName, final StatisticInterval statisticInterval) throws SQLException {
+        Optional<Date> latestTime = rdbTemplate.queryForFirst("find_latest_time_" + tableName.toLowerCase(), "SELECT max(statistics_time) FROM `" + tableName + "`", TIME_MAPPER);
+        return latestTime.isPresent() ? addPeriods(truncate(latestTime.get(), statisticInterval), statisticInterval, 1) : null;
+    }
+    
+    private Optional<Date> findFirstTime(final String tableName, final Date from) throws SQLException {
+        return null == from
+                ? rdbTemplate.queryForFirst("find_first_time_" + tableName.toLowerCase(), "SELECT min(statistics_time) FROM `" + tableName + "`", TIME_MAPPER)
+                : rdbTemplate.queryForFirst("find_first_time_" + tableName.toLowerCase() + "_since", 
+                        "SELECT min(statistics_time) FROM `" + tableName + "` WHERE statistics_time >= ?", TIME_MAPPER, from);
+    }
+    
+    private Date addPeriods(final Date date, final StatisticInterval statisticInterval, final int periods) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        calendar.add(StatisticInterval.DAY == statisticInterval ? Calendar.DATE : Calendar.HOUR_OF_DAY, periods);
+        return calendar.getTime();
+    }
+    
+    private Date truncate(final Date date, final StatisticInterval statisticInterval) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        calendar.set(Calendar.MILLISECOND, 0);
+        calendar.set(Calendar.SECOND, 0);
+        if (StatisticInterval.MINUTE != statisticInterval) {
+            calendar.set(Calendar.MINUTE, 0);
+        }
+        if (StatisticInterval.DAY == statisticInterval) {
+            calendar.set(Calendar.HOUR_OF_DAY, 0);
+        }
+        return calendar.getTime();
+    }
+    
     /**
      * 获取任务运行结果统计数据集合.
      * 
@@ -268,25 +624,9 @@ public class StatisticRdbRepository {
      * @return 任务运行结果统计数据集合
      */
     public List<TaskResultStatistics> findTaskResultStatistics(final Date from, final StatisticInterval statisticInterval) {
-        List<TaskResultStatistics> result = new LinkedList<>();
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        String sql = String.format("SELECT id, success_count, failed_count, statistics_time, creation_time FROM %s WHERE statistics_time >= '%s' order by id ASC", 
-                TABLE_TASK_RESULT_STATISTICS + "_" + statisticInterval, formatter.format(from));
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql);
-                ResultSet resultSet = preparedStatement.executeQuery()
-                ) {
-            while (resultSet.next()) {
-                TaskResultStatistics taskResultStatistics = new TaskResultStatistics(resultSet.getLong(1), resultSet.getInt(2), resultSet.getInt(3), 
-                        statisticInterval, new Date(resultSet.getTimestamp(4).getTime()), new Date(resultSet.getTimestamp(5).getTime()));
-                result.add(taskResultStatistics);
-            }
-        } catch (final SQLException ex) {
-            // TODO 记录失败直接输出日志,未来可考虑配置化
-            log.error("Fetch taskResultStatistics from DB error:", ex);
-        }
-        return result;
+        String tableName = TABLE_TASK_RESULT_STATISTICS + "_" + statisticInterval;
+        String sql = "SELECT id, success_count, failed_count, statistics_time, creation_time FROM " + tableName + " WHERE statistics_time >= ? order by id ASC";
+        return find(tableName, sql, createTaskResultStatisticsMapper(statisticInterval), "taskResultStatistics", from);
     }
     
     /**
@@ -297,23 +637,17 @@ public class StatisticRdbRepository {
      * @return 合计后的任务运行结果统计数据对象
      */
     public TaskResultStatistics getSummedTaskResultStatistics(final Date from, final StatisticInterval statisticInterval) {
-        TaskResultStatistics result = new TaskResultStatistics(0, 0, statisticInterval, new Date());
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        String sql = String.format("SELECT sum(success_count), sum(failed_count) FROM %s WHERE statistics_time >= '%s'", 
-                TABLE_TASK_RESULT_STATISTICS + "_" + statisticInterval, formatter.format(from));
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql);
-                ResultSet resultSet = preparedStatement.executeQuery()
-                ) {
-            while (resultSet.next()) {
-                result = new TaskResultStatistics(resultSet.getInt(1), resultSet.getInt(2), statisticInterval, new Date());
+        String tableName = TABLE_TASK_RESULT_STATISTICS + "_" + statisticInterval;
+        String sql = "SELECT sum(success_count), sum(failed_count) FROM " + tableName + " WHERE statistics_time >= ?";
+        RdbTemplate.RowMapper<TaskResultStatistics> rowMapper = new RdbTemplate.RowMapper<TaskResultStatistics>() {
+            
+            @Override
+            public TaskResultStatistics mapRow(final ResultSet resultSet) throws SQLException {
+                return new TaskResultStatistics(resultSet.getInt(1), resultSet.getInt(2), statisticInterval, new Date());
             }
-        } catch (final SQLException ex) {
-            // TODO 记录失败直接输出日志,未来可考虑配置化
-            log.error("Fetch summed taskResultStatistics from DB error:", ex);
-        }
-        return result;
+        };
+        List<TaskResultStatistics> result = find("sum_" + tableName, sql, rowMapper, "summed taskResultStatistics", from);
+        return result.isEmpty() ? new TaskResultStatistics(0, 0, statisticInterval, new Date()) : result.get(0);
     }
     
     /**
@@ -323,23 +657,9 @@ public class StatisticRdbRepository {
      * @return 任务运行结果统计数据对象
      */
     public Optional<TaskResultStatistics> findLatestTaskResultStatistics(final StatisticInterval statisticInterval) {
-        TaskResultStatistics result = null;
-        String sql = String.format("SELECT id, success_count, failed_count, statistics_time, creation_time FROM %s order by id DESC LIMIT 1", 
-                TABLE_TASK_RESULT_STATISTICS + "_" + statisticInterval);
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql);
-                ResultSet resultSet = preparedStatement.executeQuery()
-                ) {
-            while (resultSet.next()) {
-                result = new TaskResultStatistics(resultSet.getLong(1), resultSet.getInt(2), resultSet.getInt(3), 
-                        statisticInterval, new Date(resultSet.getTimestamp(4).getTime()), new Date(resultSet.getTimestamp(5).getTime()));
-            }
-        } catch (final SQLException ex) {
-            // TODO 记录失败直接输出日志,未来可考虑配置化
-            log.error("Fetch latest taskResultStatistics from DB error:", ex);
-        }
-        return Optional.fromNullable(result);
+        String tableName = TABLE_TASK_RESULT_STATISTICS + "_" + statisticInterval;
+        String sql = "SELECT id, success_count, failed_count, statistics_time, creation_time FROM " + tableName + " order by id DESC LIMIT 1";
+        return findLatest(tableName, sql, createTaskResultStatisticsMapper(statisticInterval), "taskResultStatistics");
     }
     
     /**
@@ -349,25 +669,22 @@ public class StatisticRdbRepository {
      * @return 运行中的任务统计数据集合
      */
     public List<TaskRunningStatistics> findTaskRunningStatistics(final Date from) {
-        List<TaskRunningStatistics> result = new LinkedList<>();
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        String sql = String.format("SELECT id, running_count, statistics_time, creation_time FROM %s WHERE statistics_time >= '%s' order by id ASC", 
-                TABLE_TASK_RUNNING_STATISTICS, formatter.format(from));
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql);
-                ResultSet resultSet = preparedStatement.executeQuery()
-                ) {
-            while (resultSet.next()) {
-                TaskRunningStatistics taskRunningStatistics = new TaskRunningStatistics(resultSet.getLong(1), resultSet.getInt(2), 
-                        new Date(resultSet.getTimestamp(3).getTime()), new Date(resultSet.getTimestamp(4).getTime()));
-                result.add(taskRunningStatistics);
-            }
-        } catch (final SQLException ex) {
-            // TODO 记录失败直接输出日志,未来可考虑配置化
-            log.error("Fetch taskRunningStatistics from DB error:", ex);
-        }
-        return result;
+        return findTaskRunningStatistics(from, StatisticInterval.MINUTE);
+    }
+    
+    /**
+     * 获取指定精度的运行中的任务统计数据集合.
+     * 
+     * <p>按小时和天的统计数据由{@link #rollupTaskRunningStatistics()}汇总生成.</p>
+     * 
+     * @param from 统计开始时间
+     * @param statisticInterval 统计时间间隔
+     * @return 运行中的任务统计数据集合
+     */
+    public List<TaskRunningStatistics> findTaskRunningStatistics(final Date from, final StatisticInterval statisticInterval) {
+        String tableName = getRunningTableName(TABLE_TASK_RUNNING_STATISTICS, statisticInterval);
+        String sql = "SELECT id, running_count, statistics_time, creation_time FROM " + tableName + " WHERE statistics_time >= ? order by id ASC";
+        return find(tableName, sql, TASK_RUNNING_STATISTICS_MAPPER, "taskRunningStatistics", from);
     }
     
     /**
@@ -377,25 +694,22 @@ public class StatisticRdbRepository {
      * @return 运行中的任务统计数据集合
      */
     public List<JobRunningStatistics> findJobRunningStatistics(final Date from) {
-        List<JobRunningStatistics> result = new LinkedList<>();
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        String sql = String.format("SELECT id, running_count, statistics_time, creation_time FROM %s WHERE statistics_time >= '%s' order by id ASC", 
-                TABLE_JOB_RUNNING_STATISTICS, formatter.format(from));
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql);
-                ResultSet resultSet = preparedStatement.executeQuery()
-                ) {
-            while (resultSet.next()) {
-                JobRunningStatistics jobRunningStatistics = new JobRunningStatistics(resultSet.getLong(1), resultSet.getInt(2), 
-                        new Date(resultSet.getTimestamp(3).getTime()), new Date(resultSet.getTimestamp(4).getTime()));
-                result.add(jobRunningStatistics);
-            }
-        } catch (final SQLException ex) {
-            // TODO 记录失败直接输出日志,未来可考虑配置化
-            log.error("Fetch jobRunningStatistics from DB error:", ex);
-        }
-        return result;
+        return findJobRunningStatistics(from, StatisticInterval.MINUTE);
+    }
+    
+    /**
+     * 获取指定精度的运行中的作业统计数据集合.
+     * 
+     * <p>按小时和天的统计数据由{@link #rollupJobRunningStatistics()}汇总生成.</p>
+     * 
+     * @param from 统计开始时间
+     * @param statisticInterval 统计时间间隔
+     * @return 运行中的作业统计数据集合
+     */
+    public List<JobRunningStatistics> findJobRunningStatistics(final Date from, final StatisticInterval statisticInterval) {
+        String tableName = getRunningTableName(TABLE_JOB_RUNNING_STATISTICS, statisticInterval);
+        String sql = "SELECT id, running_count, statistics_time, creation_time FROM " + tableName + " WHERE statistics_time >= ? order by id ASC";
+        return find(tableName, sql, JOB_RUNNING_STATISTICS_MAPPER, "jobRunningStatistics", from);
     }
     
     /**
@@ -404,23 +718,8 @@ public class StatisticRdbRepository {
      * @return 运行中的任务统计数据对象
      */
     public Optional<TaskRunningStatistics> findLatestTaskRunningStatistics() {
-        TaskRunningStatistics result = null;
-        String sql = String.format("SELECT id, running_count, statistics_time, creation_time FROM %s order by id DESC LIMIT 1", 
-                TABLE_TASK_RUNNING_STATISTICS);
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql);
-                ResultSet resultSet = preparedStatement.executeQuery()
-                ) {
-            while (resultSet.next()) {
-                result = new TaskRunningStatistics(resultSet.getLong(1), resultSet.getInt(2), 
-                        new Date(resultSet.getTimestamp(3).getTime()), new Date(resultSet.getTimestamp(4).getTime()));
-            }
-        } catch (final SQLException ex) {
-            // TODO 记录失败直接输出日志,未来可考虑配置化
-            log.error("Fetch latest taskRunningStatistics from DB error:", ex);
-        }
-        return Optional.fromNullable(result);
+        String sql = "SELECT id, running_count, statistics_time, creation_time FROM " + TABLE_TASK_RUNNING_STATISTICS + " order by id DESC LIMIT 1";
+        return findLatest(TABLE_TASK_RUNNING_STATISTICS, sql, TASK_RUNNING_STATISTICS_MAPPER, "taskRunningStatistics");
     }
     
     /**
@@ -429,23 +728,8 @@ public class StatisticRdbRepository {
      * @return 运行中的任务统计数据对象
      */
     public Optional<JobRunningStatistics> findLatestJobRunningStatistics() {
-        JobRunningStatistics result = null;
-        String sql = String.format("SELECT id, running_count, statistics_time, creation_time FROM %s order by id DESC LIMIT 1", 
-                TABLE_JOB_RUNNING_STATISTICS);
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql);
-                ResultSet resultSet = preparedStatement.executeQuery()
-                ) {
-            while (resultSet.next()) {
-                result = new JobRunningStatistics(resultSet.getLong(1), resultSet.getInt(2), 
-                        new Date(resultSet.getTimestamp(3).getTime()), new Date(resultSet.getTimestamp(4).getTime()));
-            }
-        } catch (final SQLException ex) {
-            // TODO 记录失败直接输出日志,未来可考虑配置化
-            log.error("Fetch latest jobRunningStatistics from DB error:", ex);
-        }
-        return Optional.fromNullable(result);
+        String sql = "SELECT id, running_count, statistics_time, creation_time FROM " + TABLE_JOB_RUNNING_STATISTICS + " order by id DESC LIMIT 1";
+        return findLatest(TABLE_JOB_RUNNING_STATISTICS, sql, JOB_RUNNING_STATISTICS_MAPPER, "jobRunningStatistics");
     }
     
     /**
@@ -455,25 +739,8 @@ public class StatisticRdbRepository {
      * @return 作业注册统计数据集合
      */
     public List<JobRegisterStatistics> findJobRegisterStatistics(final Date from) {
-        List<JobRegisterStatistics> result = new LinkedList<>();
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        String sql = String.format("SELECT id, registered_count, statistics_time, creation_time FROM %s WHERE statistics_time >= '%s' order by id ASC", 
-                TABLE_JOB_REGISTER_STATISTICS, formatter.format(from));
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql);
-                ResultSet resultSet = preparedStatement.executeQuery()
-                ) {
-            while (resultSet.next()) {
-                JobRegisterStatistics jobRegisterStatistics = new JobRegisterStatistics(resultSet.getLong(1), resultSet.getInt(2), 
-                        new Date(resultSet.getTimestamp(3).getTime()), new Date(resultSet.getTimestamp(4).getTime()));
-                result.add(jobRegisterStatistics);
-            }
-        } catch (final SQLException ex) {
-            // TODO 记录失败直接输出日志,未来可考虑配置化
-            log.error("Fetch jobRegisterStatistics from DB error:", ex);
-        }
-        return result;
+        String sql = "SELECT id, registered_count, statistics_time, creation_time FROM " + TABLE_JOB_REGISTER_STATISTICS + " WHERE statistics_time >= ? order by id ASC";
+        return find(TABLE_JOB_REGISTER_STATISTICS, sql, JOB_REGISTER_STATISTICS_MAPPER, "jobRegisterStatistics", from);
     }
     
     /**
@@ -482,22 +749,61 @@ public class StatisticRdbRepository {
      * @return 作业注册统计数据对象
      */
     public Optional<JobRegisterStatistics> findLatestJobRegisterStatistics() {
-        JobRegisterStatistics result = null;
-        String sql = String.format("SELECT id, registered_count, statistics_time, creation_time FROM %s order by id DESC LIMIT 1", 
-                TABLE_JOB_REGISTER_STATISTICS);
-        try (
-                Connection conn = dataSource.getConnection();
-                PreparedStatement preparedStatement = conn.prepareStatement(sql);
-                ResultSet resultSet = preparedStatement.executeQuery()
-                ) {
-            while (resultSet.next()) {
-                result = new JobRegisterStatistics(resultSet.getLong(1), resultSet.getInt(2), 
-                        new Date(resultSet.getTimestamp(3).getTime()), new Date(resultSet.getTimestamp(4).getTime()));
+        String sql = "SELECT id, registered_count, statistics_time, creation_time FROM " + TABLE_JOB_REGISTER_STATISTICS + " order by id DESC LIMIT 1";
+        return findLatest(TABLE_JOB_REGISTER_STATISTICS, sql, JOB_REGISTER_STATISTICS_MAPPER, "jobRegisterStatistics");
+    }
+    
+    /**
+     * 获取作业性能统计数据集合.
+     * 
+     * @param from 统计开始时间
+     * @param dimension 统计维度
+     * @param name 作业名称或应用名称
+     * @return 作业性能统计数据集合
+     */
+    public List<JobPerformanceStatistics> findJobPerformanceStatistics(final Date from, final JobPerformanceStatistics.Dimension dimension, final String name) {
+        String sql = "SELECT id, success_count, failed_count, average_latency, p50_latency, p90_latency, p99_latency, max_latency, statistics_time, creation_time FROM " 
+                + TABLE_JOB_PERFORMANCE_STATISTICS + " WHERE dimension = ? AND name = ? AND statistics_time >= ? order by statistics_time ASC";
+        RdbTemplate.RowMapper<JobPerformanceStatistics> rowMapper = new RdbTemplate.RowMapper<JobPerformanceStatistics>() {
+            
+            @Override
+            public JobPerformanceStatistics mapRow(final ResultSet resultSet) throws SQLException {
+                return new JobPerformanceStatistics(resultSet.getLong(1), dimension, name, resultSet.getInt(2), resultSet.getInt(3), 
+                        resultSet.getLong(4), resultSet.getLong(5), resultSet.getLong(6), resultSet.getLong(7), resultSet.getLong(8), 
+                        new Date(resultSet.getTimestamp(9).getTime()), new Date(resultSet.getTimestamp(10).getTime()));
             }
+        };
+        return find(TABLE_JOB_PERFORMANCE_STATISTICS, sql, rowMapper, "jobPerformanceStatistics", dimension.name(), name, from);
+    }
+    
+    private <T> List<T> find(final String tableName, final String sql, final RdbTemplate.RowMapper<T> rowMapper, final String statisticsName, final Object... parameters) {
+        try {
+            return rdbTemplate.query("find_" + tableName.toLowerCase(), sql, rowMapper, parameters);
+        } catch (final SQLException ex) {
+            // TODO 记录失败直接输出日志,未来可考虑配置化
+            log.error("Fetch {} from DB error:", statisticsName, ex);
+        }
+        return new LinkedList<>();
+    }
+    
+    private <T> Optional<T> findLatest(final String tableName, final String sql, final RdbTemplate.RowMapper<T> rowMapper, final String statisticsName) {
+        try {
+            return rdbTemplate.queryForFirst("find_latest_" + tableName.toLowerCase(), sql, rowMapper);
         } catch (final SQLException ex) {
             // TODO 记录失败直接输出日志,未来可考虑配置化
-            log.error("Fetch latest jobRegisterStatistics from DB error:", ex);
+            log.error("Fetch latest {} from DB error:", statisticsName, ex);
         }
-        return Optional.fromNullable(result);
+        return Optional.absent();
+    }
+    
+    private RdbTemplate.RowMapper<TaskResultStatistics> createTaskResultStatisticsMapper(final StatisticInterval statisticInterval) {
+        return new RdbTemplate.RowMapper<TaskResultStatistics>() {
+            
+            @Override
+            public TaskResultStatistics mapRow(final ResultSet resultSet) throws SQLException {
+                return new TaskResultStatistics(resultSet.getLong(1), resultSet.getInt(2), resultSet.getInt(3), 
+                        statisticInterval, new Date(resultSet.getTimestamp(4).getTime()), new Date(resultSet.getTimestamp(5).getTime()));
+            }
+        };
     }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.statistics.type.job;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * 作业性能统计数据.
+ * 
+ * <p>
+ * 按作业或应用聚合一个统计周期内的任务运行成功数、失败数和运行耗时分布.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@Getter
+@AllArgsConstructor
+@RequiredArgsConstructor
+public final class JobPerformanceStatistics {
+    
+    private long id;
+    
+    private final Dimension dimension;
+    
+    private final String name;
+    
+    private final int successCount;
+    
+    private final int failedCount;
+    
+    private final long averageLatency;
+    
+    private final long p50Latency;
+    
+    private final long p90Latency;
+    
+    private final long p99Latency;
+    
+    private final long maxLatency;
+    
+    private final Date statisticsTime;
+    
+    private Date creationTime = new Date();
+    
+    /**
+     * 获取失败率.
+     * 
+     * @return 失败率, 统计周期内没有任务运行时返回0
+     */
+    public double getFailureRate() {
+        int total = successCount + failedCount;
+        return 0 == total ? 0d : (double) failedCount / total;
+    }
+    
+    /**
+     * 统计维度.
+     */
+    public enum Dimension {
+        
+        JOB, APP
+    }
+}
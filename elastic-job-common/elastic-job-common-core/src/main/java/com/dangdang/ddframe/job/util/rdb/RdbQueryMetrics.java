@@ -0,0 +1,119 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.util.rdb;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据库语句执行指标.
+ * 
+ * <p>
+ * 按语句名称记录执行次数、失败次数、耗时和影响行数, 指标自进程启动后累计.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RdbQueryMetrics {
+    
+    private static final RdbQueryMetrics INSTANCE = new RdbQueryMetrics();
+    
+    private final ConcurrentMap<String, QueryMetrics> queryMetricsMap = new ConcurrentHashMap<>();
+    
+    /**
+     * 获取数据库语句执行指标实例.
+     * 
+     * @return 数据库语句执行指标实例
+     */
+    public static RdbQueryMetrics getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * 记录一次语句执行.
+     * 
+     * @param name 语句名称
+     * @param nanos 耗时纳秒数
+     * @param rows 查询返回或更新影响的行数
+     * @param succeed 是否执行成功
+     */
+    void record(final String name, final long nanos, final int rows, final boolean succeed) {
+        QueryMetrics queryMetrics = queryMetricsMap.get(name);
+        if (null == queryMetrics) {
+            queryMetricsMap.putIfAbsent(name, new QueryMetrics());
+            queryMetrics = queryMetricsMap.get(name);
+        }
+        queryMetrics.record(TimeUnit.NANOSECONDS.toMicros(nanos), rows, succeed);
+    }
+    
+    /**
+     * 获取指标快照.
+     * 
+     * @return 指标名称和值的映射
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, QueryMetrics> sortedQueryMetricsMap = new TreeMap<>(queryMetricsMap);
+        Map<String, Long> result = new LinkedHashMap<>(sortedQueryMetricsMap.size() * 5, 1);
+        for (Map.Entry<String, QueryMetrics> entry : sortedQueryMetricsMap.entrySet()) {
+            String prefix = entry.getKey();
+            QueryMetrics queryMetrics = entry.getValue();
+            long count = queryMetrics.count.get();
+            result.put(prefix + "_count", count);
+            result.put(prefix + "_error_count", queryMetrics.errorCount.get());
+            result.put(prefix + "_avg_us", 0L == count ? 0L : queryMetrics.totalMicros.get() / count);
+            result.put(prefix + "_max_us", queryMetrics.maxMicros.get());
+            result.put(prefix + "_rows", queryMetrics.rows.get());
+        }
+        return result;
+    }
+    
+    private static final class QueryMetrics {
+        
+        private final AtomicLong count = new AtomicLong();
+        
+        private final AtomicLong errorCount = new AtomicLong();
+        
+        private final AtomicLong totalMicros = new AtomicLong();
+        
+        private final AtomicLong maxMicros = new AtomicLong();
+        
+        private final AtomicLong rows = new AtomicLong();
+        
+        void record(final long micros, final int rows, final boolean succeed) {
+            count.incrementAndGet();
+            if (!succeed) {
+                errorCount.incrementAndGet();
+            }
+            totalMicros.addAndGet(micros);
+            this.rows.addAndGet(rows);
+            long current = maxMicros.get();
+            while (micros > current && !maxMicros.compareAndSet(current, micros)) {
+                current = maxMicros.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.util.rdb;
+
+import com.google.common.base.Optional;
+import lombok.RequiredArgsConstructor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 数据库访问模板.
+ * 
+ * <p>
+ * 语句只使用参数化的SQL, 同一语句每次执行的SQL文本相同, 可被驱动和数据库缓存.
+ * 在{@link #execute(ConnectionCallback)}的回调中执行的查询和更新复用同一个数据库连接.
+ * 每条语句按名称记录执行耗时和影响行数, 参见{@link RdbQueryMetrics}.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor
+public final class RdbTemplate {
+    
+    private final DataSource dataSource;
+    
+    private final ThreadLocal<Connection> currentConnection = new ThreadLocal<>();
+    
+    /**
+     * 在同一个数据库连接中执行回调.
+     * 
+     * <p>已在连接回调中时直接复用当前连接.</p>
+     * 
+     * @param callback 连接回调
+     * @param <T> 返回值类型
+     * @return 回调的返回值
+     * @throws SQLException SQL异常
+     */
+    public <T> T execute(final ConnectionCallback<T> callback) throws SQLException {
+        Connection conn = currentConnection.get();
+        if (null != conn) {
+            return callback.doInConnection(conn);
+        }
+        try (Connection newConnection = dataSource.getConnection()) {
+            currentConnection.set(newConnection);
+            return callback.doInConnection(newConnection);
+        } finally {
+            currentConnection.remove();
+        }
+    }
+    
+    /**
+     * 查询.
+     * 
+     * @param name 语句名称, 用于记录指标
+     * @param sql 参数化的SQL
+     * @param rowMapper 结果行映射器
+     * @param parameters 参数
+     * @param <T> 结果类型
+     * @return 结果集合
+     * @throws SQLException SQL异常
+     */
+    public <T> List<T> query(final String name, final String sql, final RowMapper<T> rowMapper, final Object... parameters) throws SQLException {
+        return execute(new ConnectionCallback<List<T>>() {
+            
+            @Override
+            public List<T> doInConnection(final Connection conn) throws SQLException {
+                long startNanos = System.nanoTime();
+                List<T> result = new ArrayList<>();
+                boolean succeed = false;
+                try (PreparedStatement preparedStatement = prepareStatement(conn, sql, parameters);
+                     ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        result.add(rowMapper.mapRow(resultSet));
+                    }
+                    succeed = true;
+                } finally {
+                    RdbQueryMetrics.getInstance().record(name, System.nanoTime() - startNanos, result.size(), succeed);
+                }
+                return result;
+            }
+        });
+    }
+    
+    /**
+     * 查询第一行.
+     * 
+     * @param name 语句名称, 用于记录指标
+     * @param sql 参数化的SQL
+     * @param rowMapper 结果行映射器
+     * @param parameters 参数
+     * @param <T> 结果类型
+     * @return 第一行结果, 没有结果时返回空
+     * @throws SQLException SQL异常
+     */
+    public <T> Optional<T> queryForFirst(final String name, final String sql, final RowMapper<T> rowMapper, final Object... parameters) throws SQLException {
+        List<T> result = query(name, sql, rowMapper, parameters);
+        return result.isEmpty() ? Optional.<T>absent() : Optional.fromNullable(result.get(0));
+    }
+    
+    /**
+     * 更新.
+     * 
+     * @param name 语句名称, 用于记录指标
+     * @param sql 参数化的SQL
+     * @param parameters 参数
+     * @return 影响行数
+     * @throws SQLException SQL异常
+     */
+    public int update(final String name, final String sql, final Object... parameters) throws SQLException {
+        return execute(new ConnectionCallback<Integer>() {
+            
+            @Override
+            public Integer doInConnection(final Connection conn) throws SQLException {
+                long startNanos = System.nanoTime();
+                int result = 0;
+                boolean succeed = false;
+                try (PreparedStatement preparedStatement = prepareStatement(conn, sql, parameters)) {
+                    result = preparedStatement.executeUpdate();
+                    succeed = true;
+                } finally {
+                    RdbQueryMetrics.getInstance().record(name, System.nanoTime() - startNanos, result, succeed);
+                }
+                return result;
+            }
+        });
+    }
+    
+    private PreparedStatement prepareStatement(final Connection conn, final String sql, final Object... parameters) throws SQLException {
+        PreparedStatement result = conn.prepareStatement(sql);
+        try {
+            for (int i = 0; i < parameters.length; i++) {
+                setParameter(result, i + 1, parameters[i]);
+            }
+        } catch (final SQLException ex) {
+            result.close();
+            throw ex;
+        }
+        return result;
+    }
+    
+    private void setParameter(final PreparedStatement preparedStatement, final int index, final Object parameter) throws SQLException {
+        if (null == parameter) {
+            preparedStatement.setNull(index, Types.VARCHAR);
+        } else if (parameter instanceof Date && !(parameter instanceof Timestamp)) {
+            preparedStatement.setTimestamp(index, new Timestamp(((Date) parameter).getTime()));
+        } else {
+            preparedStatement.setObject(index, parameter);
+        }
+    }
+    
+    /**
+     * 数据库连接回调.
+     * 
+     * @param <T> 返回值类型
+     */
+    public interface ConnectionCallback<T> {
+        
+        /**
+         * 使用数据库连接.
+         * 
+         * @param conn 数据库连接
+         * @return 返回值
+         * @throws SQLException SQL异常
+         */
+        T doInConnection(Connection conn) throws SQLException;
+    }
+    
+    /**
+     * 结果行映射器.
+     * 
+     * @param <T> 结果类型
+     */
+    public interface RowMapper<T> {
+        
+        /**
+         * 将结果集的当前行映射为对象.
+         * 
+         * @param resultSet 结果集
+         * @return 映射后的对象
+         * @throws SQLException SQL异常
+         */
+        T mapRow(ResultSet resultSet) throws SQLException;
+    }
+}
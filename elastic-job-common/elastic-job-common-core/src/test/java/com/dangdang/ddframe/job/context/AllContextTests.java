@@ -21,6 +21,9 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses(TaskContextTest.class)
+@Suite.SuiteClasses({
+        TaskContextTest.class, 
+        TaskDataCodecTest.class
+    })
 public final class AllContextTests {
 }
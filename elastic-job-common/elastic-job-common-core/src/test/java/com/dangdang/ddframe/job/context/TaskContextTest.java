@@ -22,9 +22,12 @@ import com.google.common.collect.Lists;
 import org.hamcrest.core.Is;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.hamcrest.core.StringStartsWith.startsWith;
 import static org.junit.Assert.assertThat;
 
@@ -90,6 +93,42 @@ public final class TaskContextTest {
         assertTrue(actual.getShardingItems().isEmpty());
     }
     
+    @Test
+    public void assertMetaInfoFromWithMultipleShardingItems() {
+        TaskContext.MetaInfo actual = TaskContext.MetaInfo.from("test_job@-@0,1,2");
+        assertThat(actual.getShardingItems(), is(Arrays.asList(0, 1, 2)));
+        assertThat(actual.toString(), is("test_job@-@0,1,2"));
+        assertThat(actual, is(new TaskContext.MetaInfo("test_job", Arrays.asList(0, 1, 2))));
+    }
+    
+    @Test
+    public void assertMetaInfoFromParsedOnce() {
+        TaskContext.MetaInfo expected = TaskContext.MetaInfo.from("test_job@-@3");
+        assertThat(TaskContext.MetaInfo.from("test_job@-@3"), sameInstance(expected));
+    }
+    
+    @Test
+    public void assertFromBuiltIdWithoutParsing() {
+        TaskContext expected = new TaskContext("test_job", Lists.newArrayList(0), ExecutionType.READY, "slave-S0");
+        TaskContext actual = TaskContext.from(new String(expected.getId()));
+        assertThat(actual, is(expected));
+        assertThat(actual.getMetaInfo(), sameInstance(expected.getMetaInfo()));
+        assertThat(actual.getSlaveId(), is("slave-S0"));
+        assertThat(TaskContext.MetaInfo.from(new String(expected.getId())), sameInstance(expected.getMetaInfo()));
+        expected.setSlaveId("slave-S1");
+        assertThat(TaskContext.from(new String(expected.getId())).getSlaveId(), is("slave-S1"));
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void assertMetaInfoFromWithIllegalValue() {
+        TaskContext.MetaInfo.from("test_job@-@0@-@READY");
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void assertTaskContextFromWithIllegalValue() {
+        TaskContext.from("test_job@-@0");
+    }
+    
     @Test
     public void assertGetIdForUnassignedSlave() {
         assertThat(TaskContext.getIdForUnassignedSlave("test_job@-@0@-@READY@-@slave-S0@-@0"), is("test_job@-@0@-@READY@-@unassigned-slave@-@0"));
@@ -107,6 +146,11 @@ public final class TaskContextTest {
         assertThat(actual.getExecutorId("app"), is("app@-@slave-S0"));
     }
     
+    @Test
+    public void assertGetExecutorIdBySlaveId() {
+        assertThat(TaskContext.getExecutorId("app", "slave-S0"), is(new TaskContext("test_job", Lists.newArrayList(0), ExecutionType.READY, "slave-S0").getExecutorId("app")));
+    }
+    
     @Test
     public void assertSetSlaveId() {
         TaskContext actual = new TaskContext("test_job", Lists.newArrayList(0), ExecutionType.READY, "slave-S0");
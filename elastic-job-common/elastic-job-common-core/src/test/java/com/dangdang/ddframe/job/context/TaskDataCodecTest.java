@@ -0,0 +1,75 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.context;
+
+import com.dangdang.ddframe.job.executor.ShardingContexts;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+public final class TaskDataCodecTest {
+    
+    @Test
+    public void assertEncodeAndDecode() {
+        ShardingContexts shardingContexts = new ShardingContexts("fake_task_id", "test_job", 10, "param", Collections.singletonMap(1, "B"), 5);
+        shardingContexts.setCurrentJobEventSamplingCount(2);
+        shardingContexts.setAllowSendJobEvent(false);
+        byte[] fragment = TaskDataCodec.encodeJobConfigContext(createJobConfigContext());
+        Map<String, Object> actual = TaskDataCodec.decode(TaskDataCodec.encode(shardingContexts, fragment));
+        ShardingContexts actualShardingContexts = (ShardingContexts) actual.get(TaskDataCodec.SHARDING_CONTEXT_KEY);
+        assertThat(actualShardingContexts.getTaskId(), is("fake_task_id"));
+        assertThat(actualShardingContexts.getJobName(), is("test_job"));
+        assertThat(actualShardingContexts.getShardingTotalCount(), is(10));
+        assertThat(actualShardingContexts.getJobParameter(), is("param"));
+        assertThat(actualShardingContexts.getShardingItemParameters(), is(Collections.singletonMap(1, "B")));
+        assertThat(actualShardingContexts.getJobEventSamplingCount(), is(5));
+        assertThat(actualShardingContexts.getCurrentJobEventSamplingCount(), is(2));
+        assertFalse(actualShardingContexts.isAllowSendJobEvent());
+        @SuppressWarnings("unchecked")
+        Map<String, String> actualJobConfigContext = (Map<String, String>) actual.get(TaskDataCodec.JOB_CONFIG_CONTEXT_KEY);
+        assertThat(actualJobConfigContext, is(createJobConfigContext()));
+        assertNull(actualJobConfigContext.get("beanName"));
+    }
+    
+    @Test
+    public void assertDecodeJavaSerializedData() {
+        LinkedHashMap<String, Object> data = new LinkedHashMap<>(2, 1);
+        data.put(TaskDataCodec.SHARDING_CONTEXT_KEY, new ShardingContexts("fake_task_id", "test_job", 10, "", Collections.<Integer, String>emptyMap()));
+        data.put(TaskDataCodec.JOB_CONFIG_CONTEXT_KEY, createJobConfigContext());
+        Map<String, Object> actual = TaskDataCodec.decode(SerializationUtils.serialize(data));
+        assertThat(((ShardingContexts) actual.get(TaskDataCodec.SHARDING_CONTEXT_KEY)).getTaskId(), is("fake_task_id"));
+        assertThat(actual.get(TaskDataCodec.JOB_CONFIG_CONTEXT_KEY), is((Object) createJobConfigContext()));
+    }
+    
+    private Map<String, String> createJobConfigContext() {
+        Map<String, String> result = new LinkedHashMap<>(4, 1);
+        result.put("jobType", "SIMPLE");
+        result.put("jobName", "test_job");
+        result.put("cron", "");
+        result.put("beanName", null);
+        return result;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.event.rdb;
+
+import com.dangdang.ddframe.job.context.ExecutionType;
+import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent;
+import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.Source;
+import com.dangdang.ddframe.job.event.type.JobStatusTraceEvent.State;
+import com.dangdang.ddframe.job.util.rdb.RdbTemplate;
+import org.apache.commons.dbcp.BasicDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 查询原始任务主键的耗时基准.
+ * 
+ * <p>
+ * 以内嵌H2数据库和DBCP连接池准备作业状态轨迹数据, 分别计时按任务主键拼接SQL文本和使用参数化SQL两种方式的单次查询耗时.
+ * 查询轮流使用不同的任务主键, 拼接方式每次执行的SQL文本都不相同.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class JobEventRdbStorageBenchmark {
+    
+    private static final String FORMATTED_SQL = "SELECT original_task_id FROM JOB_STATUS_TRACE_LOG WHERE task_id = '%s' and state='%s'";
+    
+    private static final String PARAMETERIZED_SQL = "SELECT original_task_id FROM JOB_STATUS_TRACE_LOG WHERE task_id = ? and state = ?";
+    
+    private static final RdbTemplate.RowMapper<String> ORIGINAL_TASK_ID_MAPPER = new RdbTemplate.RowMapper<String>() {
+        
+        @Override
+        public String mapRow(final ResultSet resultSet) throws SQLException {
+            return resultSet.getString(1);
+        }
+    };
+    
+    private final BasicDataSource dataSource;
+    
+    private final RdbTemplate rdbTemplate;
+    
+    private final int taskCount;
+    
+    private final int iterations;
+    
+    public JobEventRdbStorageBenchmark(final int taskCount, final int iterations) throws SQLException {
+        dataSource = new BasicDataSource();
+        dataSource.setDriverClassName(org.h2.Driver.class.getName());
+        dataSource.setUrl("jdbc:h2:mem:job_event_storage_benchmark");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        JobEventRdbStorage storage = new JobEventRdbStorage(dataSource);
+        for (int i = 0; i < taskCount; i++) {
+            JobStatusTraceEvent event = new JobStatusTraceEvent("benchmark_job", getTaskId(i), "fake_slave_id", Source.CLOUD_SCHEDULER, ExecutionType.READY, "0", State.TASK_STAGING, "");
+            event.setOriginalTaskId(getTaskId(i));
+            storage.addJobStatusTraceEvent(event);
+        }
+        rdbTemplate = new RdbTemplate(dataSource);
+        this.taskCount = taskCount;
+        this.iterations = iterations;
+    }
+    
+    private String getTaskId(final int index) {
+        return "benchmark_job@-@0@-@READY@-@fake_slave_id@-@" + index;
+    }
+    
+    /**
+     * 计时拼接SQL文本的查询, 与参数化前的实现相同.
+     * 
+     * @return 每次查询的平均耗时, 单位: 微秒
+     * @throws SQLException SQL异常
+     */
+    public double measureFormatted() throws SQLException {
+        long startTime = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            String sql = String.format(FORMATTED_SQL, getTaskId(i % taskCount), State.TASK_STAGING);
+            try (
+                    Connection conn = dataSource.getConnection();
+                    PreparedStatement preparedStatement = conn.prepareStatement(sql);
+                    ResultSet resultSet = preparedStatement.executeQuery()
+            ) {
+                resultSet.next();
+            }
+        }
+        return (System.nanoTime() - startTime) / 1000d / iterations;
+    }
+    
+    /**
+     * 计时参数化SQL的查询, 与作业状态轨迹存储的实现相同.
+     * 
+     * @return 每次查询的平均耗时, 单位: 微秒
+     * @throws SQLException SQL异常
+     */
+    public double measureParameterized() throws SQLException {
+        long startTime = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            rdbTemplate.queryForFirst("find_original_task_id", PARAMETERIZED_SQL, ORIGINAL_TASK_ID_MAPPER, getTaskId(i % taskCount), State.TASK_STAGING.name());
+        }
+        return (System.nanoTime() - startTime) / 1000d / iterations;
+    }
+    
+    /**
+     * 预热后输出两种查询方式的每次查询耗时.
+     * 
+     * <p>
+     * 规模可通过系统属性调整, 如: -Dbenchmark.tasks=1000 -Dbenchmark.iterations=50000.
+     * </p>
+     * 
+     * @param args 命令行参数
+     * @throws SQLException SQL异常
+     */
+    // CHECKSTYLE:OFF
+    public static void main(final String[] args) throws SQLException {
+        // CHECKSTYLE:ON
+        JobEventRdbStorageBenchmark benchmark = new JobEventRdbStorageBenchmark(Integer.getInteger("benchmark.tasks", 1000), Integer.getInteger("benchmark.iterations", 50000));
+        benchmark.measureFormatted();
+        benchmark.measureParameterized();
+        System.out.println(String.format("formatted: %.1f us/op, parameterized: %.1f us/op", benchmark.measureFormatted(), benchmark.measureParameterized()));
+        benchmark.dataSource.close();
+    }
+}
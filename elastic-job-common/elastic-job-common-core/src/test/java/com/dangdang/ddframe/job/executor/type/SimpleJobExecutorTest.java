@@ -204,6 +204,20 @@ public final class SimpleJobExecutorTest {
         verify(jobFacade, times(2)).registerJobCompleted(shardingContexts);
     }
     
+    @Test
+    public void assertExecuteWithShardingContextsRepeatedly() {
+        ShardingContexts shardingContexts = ShardingContextsBuilder.getMultipleShardingContexts();
+        doThrow(RuntimeException.class).doThrow(RuntimeException.class).doNothing().when(jobCaller).execute();
+        simpleJobExecutor.execute(shardingContexts);
+        simpleJobExecutor.execute(shardingContexts);
+        String lineSeparator = System.getProperty("line.separator");
+        verify(jobFacade).postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_ERROR, 
+                "{0=java.lang.RuntimeException" + lineSeparator + ", 1=java.lang.RuntimeException" + lineSeparator + "}");
+        verify(jobFacade).postJobStatusTraceEvent(shardingContexts.getTaskId(), State.TASK_FINISHED, "");
+        verify(jobFacade, times(0)).getShardingContexts();
+        verify(jobCaller, times(4)).execute();
+    }
+    
     @Test(expected = JobSystemException.class)
     public void assertBeforeJobExecutedFailure() {
         ShardingContexts shardingContexts = ShardingContextsBuilder.getMultipleShardingContexts();
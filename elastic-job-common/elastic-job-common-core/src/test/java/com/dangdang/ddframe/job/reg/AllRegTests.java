@@ -17,9 +17,12 @@
 
 package com.dangdang.ddframe.job.reg;
 
+import com.dangdang.ddframe.job.reg.base.AsyncRegistryCenterUtilsTest;
 import com.dangdang.ddframe.job.reg.exception.RegExceptionHandlerTest;
+import com.dangdang.ddframe.job.reg.zookeeper.EmbedZookeeperRegistryCenterTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperConfigurationTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperElectionServiceTest;
+import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterAsyncTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterForAuthTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterInitFailureTest;
 import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenterMiscellaneousTest;
@@ -40,9 +43,12 @@ import org.junit.runners.Suite.SuiteClasses;
         ZookeeperRegistryCenterQueryWithoutCacheTest.class, 
         ZookeeperRegistryCenterModifyTest.class, 
         ZookeeperRegistryCenterMiscellaneousTest.class,
+        ZookeeperRegistryCenterAsyncTest.class, 
         ZookeeperElectionServiceTest.class,
         RegExceptionHandlerTest.class, 
-        ZookeeperRegistryCenterInitFailureTest.class
+        ZookeeperRegistryCenterInitFailureTest.class, 
+        EmbedZookeeperRegistryCenterTest.class, 
+        AsyncRegistryCenterUtilsTest.class
     })
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class AllRegTests {
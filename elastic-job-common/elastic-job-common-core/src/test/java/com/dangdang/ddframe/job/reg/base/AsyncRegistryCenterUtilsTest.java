@@ -0,0 +1,59 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.base;
+
+import com.dangdang.ddframe.job.reg.exception.RegException;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.apache.zookeeper.KeeperException.NoNodeException;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class AsyncRegistryCenterUtilsTest {
+    
+    @Test
+    public void assertAwaitAll() {
+        assertThat(AsyncRegistryCenterUtils.awaitAll(Arrays.asList(Futures.immediateFuture("value0"), Futures.immediateFuture("value1"))), is(Arrays.asList("value0", "value1")));
+    }
+    
+    @Test
+    public void assertAwaitAllWithIgnoredException() {
+        assertThat(AsyncRegistryCenterUtils.awaitAll(Arrays.asList(Futures.<String>immediateFailedFuture(new NoNodeException()), Futures.immediateFuture("value1"))),
+                is(Arrays.asList(null, "value1")));
+    }
+    
+    @Test(expected = RegException.class)
+    public void assertAwaitAllWithOtherException() {
+        AsyncRegistryCenterUtils.awaitAll(Collections.singletonList(Futures.<String>immediateFailedFuture(new RuntimeException())));
+    }
+    
+    @Test
+    public void assertAwaitAllWhenInterrupted() {
+        ListenableFuture<String> future = SettableFuture.create();
+        Thread.currentThread().interrupt();
+        assertThat(AsyncRegistryCenterUtils.awaitAll(Collections.singletonList(future)), is(Collections.<String>singletonList(null)));
+        assertTrue(Thread.interrupted());
+    }
+}
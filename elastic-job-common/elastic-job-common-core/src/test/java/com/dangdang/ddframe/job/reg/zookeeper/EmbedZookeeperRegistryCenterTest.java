@@ -0,0 +1,101 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.zookeeper.server.ServerCnxnFactory;
+import org.apache.zookeeper.server.ZooKeeperServer;
+import org.apache.zookeeper.server.persistence.FileTxnLog;
+import org.apache.zookeeper.server.persistence.FileTxnSnapLog;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.unitils.util.ReflectionUtils;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class EmbedZookeeperRegistryCenterTest {
+    
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    
+    @Test
+    public void assertPersistAndGetWithCache() {
+        EmbedZookeeperRegistryCenter regCenter = new EmbedZookeeperRegistryCenter(new EmbedZookeeperConfiguration(EmbedZookeeperRegistryCenterTest.class.getName()));
+        regCenter.init();
+        try {
+            regCenter.addCacheData("/test");
+            regCenter.persist("/test/child", "value");
+            regCenter.update("/test/child", "updated_value");
+            assertThat(regCenter.getDirectly("/test/child"), is("updated_value"));
+            assertThat(regCenter.getChildrenKeys("/test").size(), is(1));
+            assertThat(regCenter.getRawClient(), instanceOf(CuratorFramework.class));
+            assertThat(regCenter.getRawCache("/test"), instanceOf(TreeCache.class));
+            regCenter.remove("/test/child");
+            assertFalse(regCenter.isExisted("/test/child"));
+        } finally {
+            regCenter.close();
+        }
+    }
+    
+    @Test
+    public void assertDisableForceSyncForTemporaryDataDirectory() throws NoSuchFieldException {
+        EmbedZookeeperRegistryCenter regCenter = new EmbedZookeeperRegistryCenter(new EmbedZookeeperConfiguration(EmbedZookeeperRegistryCenterTest.class.getName()));
+        regCenter.init();
+        try {
+            assertFalse(isForceSync(regCenter));
+            assertNull(System.getProperty("zookeeper.forceSync"));
+        } finally {
+            regCenter.close();
+        }
+    }
+    
+    @Test
+    public void assertPersistToDataDirectory() throws NoSuchFieldException {
+        EmbedZookeeperConfiguration embedZkConfig = new EmbedZookeeperConfiguration(EmbedZookeeperRegistryCenterTest.class.getName());
+        embedZkConfig.setDataDirectory(temporaryFolder.getRoot().getAbsolutePath());
+        EmbedZookeeperRegistryCenter regCenter = new EmbedZookeeperRegistryCenter(embedZkConfig);
+        regCenter.init();
+        assertTrue(isForceSync(regCenter));
+        regCenter.persist("/persist", "persist_value");
+        regCenter.persistEphemeral("/ephemeral", "ephemeral_value");
+        assertTrue(regCenter.isExisted("/ephemeral"));
+        regCenter.close();
+        regCenter = new EmbedZookeeperRegistryCenter(embedZkConfig);
+        regCenter.init();
+        try {
+            assertThat(regCenter.getDirectly("/persist"), is("persist_value"));
+            assertNull(regCenter.getDirectly("/ephemeral"));
+        } finally {
+            regCenter.close();
+        }
+    }
+    
+    private boolean isForceSync(final EmbedZookeeperRegistryCenter regCenter) throws NoSuchFieldException {
+        ServerCnxnFactory serverCnxnFactory = ReflectionUtils.getFieldValue(regCenter, EmbedZookeeperRegistryCenter.class.getDeclaredField("serverCnxnFactory"));
+        ZooKeeperServer zkServer = ReflectionUtils.getFieldValue(serverCnxnFactory, ServerCnxnFactory.class.getDeclaredField("zkServer"));
+        FileTxnLog txnLog = ReflectionUtils.getFieldValue(zkServer.getTxnLogFactory(), FileTxnSnapLog.class.getDeclaredField("txnLog"));
+        return (boolean) ReflectionUtils.getFieldValue(txnLog, FileTxnLog.class.getDeclaredField("forceSync"));
+    }
+}
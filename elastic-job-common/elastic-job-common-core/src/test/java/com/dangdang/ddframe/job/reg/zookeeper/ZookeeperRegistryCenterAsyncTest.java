@@ -0,0 +1,129 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.reg.zookeeper;
+
+import com.dangdang.ddframe.job.fixture.EmbedTestingServer;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.zookeeper.KeeperException;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class ZookeeperRegistryCenterAsyncTest {
+    
+    private static final ZookeeperConfiguration ZOOKEEPER_CONFIGURATION = new ZookeeperConfiguration(EmbedTestingServer.getConnectionString(), ZookeeperRegistryCenterAsyncTest.class.getName());
+    
+    private static ZookeeperRegistryCenter zkRegCenter;
+    
+    @BeforeClass
+    public static void setUp() {
+        EmbedTestingServer.start();
+        ZOOKEEPER_CONFIGURATION.setConnectionTimeoutMilliseconds(30000);
+        zkRegCenter = new ZookeeperRegistryCenter(ZOOKEEPER_CONFIGURATION);
+        zkRegCenter.init();
+    }
+    
+    @AfterClass
+    public static void tearDown() {
+        zkRegCenter.close();
+    }
+    
+    @Test
+    public void assertPersistAndGetAsync() throws Exception {
+        zkRegCenter.persistAsync("/async/persist", "value").get();
+        zkRegCenter.persistAsync("/async/persist", "new_value").get();
+        assertThat(zkRegCenter.getDirectlyAsync("/async/persist").get(), is("new_value"));
+        assertTrue(zkRegCenter.isExistedAsync("/async/persist").get());
+    }
+    
+    @Test
+    public void assertGetAsyncIfNotExisted() throws Exception {
+        assertNull(zkRegCenter.getDirectlyAsync("/async/not_existed").get());
+        assertFalse(zkRegCenter.isExistedAsync("/async/not_existed").get());
+        assertTrue(zkRegCenter.getChildrenKeysAsync("/async/not_existed").get().isEmpty());
+    }
+    
+    @Test
+    public void assertPipelinedOperations() throws Exception {
+        List<ListenableFuture<Void>> futures = new ArrayList<>(10);
+        for (int i = 0; i < 10; i++) {
+            futures.add(zkRegCenter.persistEphemeralAsync("/async/pipeline/" + i, "ephemeral"));
+        }
+        Futures.allAsList(futures).get();
+        List<String> expected = new ArrayList<>(10);
+        for (int i = 9; i >= 0; i--) {
+            expected.add(String.valueOf(i));
+        }
+        assertThat(zkRegCenter.getChildrenKeysAsync("/async/pipeline").get(), is(expected));
+        assertThat(zkRegCenter.getChildrenKeys("/async/pipeline"), is(expected));
+        futures.clear();
+        for (int i = 0; i < 10; i++) {
+            futures.add(zkRegCenter.removeAsync("/async/pipeline/" + i));
+        }
+        Futures.allAsList(futures).get();
+        assertThat(zkRegCenter.getChildrenKeysAsync("/async/pipeline").get(), is(Collections.<String>emptyList()));
+    }
+    
+    @Test
+    public void assertPersistEphemeralAsyncReplacesExisted() throws Exception {
+        zkRegCenter.persist("/async/ephemeral/child", "value");
+        zkRegCenter.persistEphemeralAsync("/async/ephemeral", "ephemeral").get();
+        assertThat(zkRegCenter.getDirectly("/async/ephemeral"), is("ephemeral"));
+        assertFalse(zkRegCenter.isExisted("/async/ephemeral/child"));
+    }
+    
+    @Test
+    public void assertUpdateAsync() throws Exception {
+        zkRegCenter.persist("/async/update", "before_update");
+        zkRegCenter.updateAsync("/async/update", "after_update").get();
+        assertThat(zkRegCenter.getDirectly("/async/update"), is("after_update"));
+    }
+    
+    @Test
+    public void assertUpdateAsyncIfNotExisted() throws InterruptedException {
+        try {
+            zkRegCenter.updateAsync("/async/update_not_existed", "value").get();
+            fail();
+        } catch (final ExecutionException ex) {
+            assertThat(ex.getCause(), instanceOf(KeeperException.NoNodeException.class));
+        }
+    }
+    
+    @Test
+    public void assertRemoveAsync() throws Exception {
+        zkRegCenter.persist("/async/remove/child", "value");
+        zkRegCenter.removeAsync("/async/remove").get();
+        zkRegCenter.removeAsync("/async/remove").get();
+        assertFalse(zkRegCenter.isExisted("/async/remove"));
+        assertFalse(zkRegCenter.getChildrenKeys("/async").contains("remove"));
+    }
+}
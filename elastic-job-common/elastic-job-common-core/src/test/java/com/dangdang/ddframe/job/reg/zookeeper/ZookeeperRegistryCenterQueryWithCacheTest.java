@@ -18,7 +18,10 @@
 package com.dangdang.ddframe.job.reg.zookeeper;
 
 import com.dangdang.ddframe.job.fixture.EmbedTestingServer;
+import com.dangdang.ddframe.job.reg.base.CacheAccessListener;
 import com.dangdang.ddframe.job.reg.zookeeper.util.ZookeeperRegistryCenterTestUtil;
+import com.dangdang.ddframe.job.util.concurrent.BlockUtils;
+import org.apache.curator.framework.recipes.cache.TreeCache;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -26,6 +29,8 @@ import org.junit.Test;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 public final class ZookeeperRegistryCenterQueryWithCacheTest {
     
@@ -42,6 +47,10 @@ public final class ZookeeperRegistryCenterQueryWithCacheTest {
         zkRegCenter.init();
         ZookeeperRegistryCenterTestUtil.persist(zkRegCenter);
         zkRegCenter.addCacheData("/test");
+        TreeCache cache = (TreeCache) zkRegCenter.getRawCache("/test");
+        for (int i = 0; i < 50 && null == cache.getCurrentData("/test/deep/nested"); i++) {
+            BlockUtils.waitingShortTime();
+        }
     }
     
     @AfterClass
@@ -59,4 +68,18 @@ public final class ZookeeperRegistryCenterQueryWithCacheTest {
         assertThat(zkRegCenter.get("/test"), is("test"));
         assertThat(zkRegCenter.get("/test/deep/nested"), is("deepNested"));
     }
+    
+    @Test
+    public void assertGetFromCacheWithListener() {
+        CacheAccessListener listener = mock(CacheAccessListener.class);
+        assertThat(zkRegCenter.get("/test/deep/nested", listener), is("deepNested"));
+        verify(listener).onCacheAccess(true);
+    }
+    
+    @Test
+    public void assertGetAbsentInCacheWithListener() {
+        CacheAccessListener listener = mock(CacheAccessListener.class);
+        assertNull(zkRegCenter.get("/test/null", listener));
+        verify(listener).onCacheAccess(false);
+    }
 }
@@ -18,6 +18,7 @@
 package com.dangdang.ddframe.job.reg.zookeeper;
 
 import com.dangdang.ddframe.job.fixture.EmbedTestingServer;
+import com.dangdang.ddframe.job.reg.base.CacheAccessListener;
 import com.dangdang.ddframe.job.reg.zookeeper.util.ZookeeperRegistryCenterTestUtil;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -31,6 +32,8 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 public final class ZookeeperRegistryCenterQueryWithoutCacheTest {
     
@@ -60,6 +63,13 @@ public final class ZookeeperRegistryCenterQueryWithoutCacheTest {
         assertThat(zkRegCenter.get("/test/deep/nested"), is("deepNested"));
     }
     
+    @Test
+    public void assertGetFromServerWithListener() {
+        CacheAccessListener listener = mock(CacheAccessListener.class);
+        assertThat(zkRegCenter.get("/test", listener), is("test"));
+        verify(listener).onCacheAccess(false);
+    }
+    
     @Test
     public void assertGetChildrenKeys() {
         assertThat(zkRegCenter.getChildrenKeys("/test"), is(Arrays.asList("deep", "child")));
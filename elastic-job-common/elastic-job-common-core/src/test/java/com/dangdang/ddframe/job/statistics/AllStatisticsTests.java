@@ -25,7 +25,7 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses(StatisticRdbRepositoryTest.class)
+@SuiteClasses({StatisticIntervalTest.class, StatisticRdbRepositoryTest.class})
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class AllStatisticsTests {
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.statistics;
+
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public final class StatisticIntervalTest {
+    
+    @Test
+    public void assertGetResolution() {
+        Date now = new Date();
+        assertThat(StatisticInterval.getResolution(daysAgo(now, 1L), now), is(StatisticInterval.MINUTE));
+        assertThat(StatisticInterval.getResolution(daysAgo(now, 2L), now), is(StatisticInterval.MINUTE));
+        assertThat(StatisticInterval.getResolution(daysAgo(now, 7L), now), is(StatisticInterval.HOUR));
+        assertThat(StatisticInterval.getResolution(daysAgo(now, 60L), now), is(StatisticInterval.HOUR));
+        assertThat(StatisticInterval.getResolution(daysAgo(now, 365L), now), is(StatisticInterval.DAY));
+    }
+    
+    private Date daysAgo(final Date now, final long days) {
+        return new Date(now.getTime() - TimeUnit.DAYS.toMillis(days));
+    }
+}
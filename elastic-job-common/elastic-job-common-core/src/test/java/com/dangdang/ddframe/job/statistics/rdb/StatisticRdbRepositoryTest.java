@@ -18,17 +18,25 @@
 package com.dangdang.ddframe.job.statistics.rdb;
 
 import com.dangdang.ddframe.job.statistics.StatisticInterval;
+import com.dangdang.ddframe.job.statistics.type.job.JobPerformanceStatistics;
 import com.dangdang.ddframe.job.statistics.type.job.JobRegisterStatistics;
 import com.dangdang.ddframe.job.statistics.type.job.JobRunningStatistics;
 import com.dangdang.ddframe.job.statistics.type.task.TaskResultStatistics;
 import com.dangdang.ddframe.job.statistics.type.task.TaskRunningStatistics;
 import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
 import org.apache.commons.dbcp.BasicDataSource;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 import static junit.framework.TestCase.assertTrue;
 import static org.hamcrest.CoreMatchers.is;
@@ -37,11 +45,13 @@ import static org.junit.Assert.assertThat;
 
 public class StatisticRdbRepositoryTest {
     
+    private BasicDataSource dataSource;
+    
     private StatisticRdbRepository  repository;
     
     @Before
     public void setup() throws SQLException {
-        BasicDataSource dataSource = new BasicDataSource();
+        dataSource = new BasicDataSource();
         dataSource.setDriverClassName(org.h2.Driver.class.getName());
         dataSource.setUrl("jdbc:h2:mem:");
         dataSource.setUsername("sa");
@@ -49,6 +59,13 @@ public class StatisticRdbRepositoryTest {
         repository = new StatisticRdbRepository(dataSource);
     }
     
+    @Test
+    public void assertIndexesCreated() throws SQLException {
+        new StatisticRdbRepository(dataSource);
+        assertTrue(isIndexExisted("TASK_RUNNING_STATISTICS_HOUR", "IDX_TASK_RUNNING_STATISTICS_HOUR_TIME"));
+        assertTrue(isIndexExisted("JOB_PERFORMANCE_STATISTICS", "IDX_JOB_PERFORMANCE_STATISTICS_NAME_TIME"));
+    }
+    
     @Test
     public void assertAddTaskResultStatistics() {
         for (StatisticInterval each : StatisticInterval.values()) {
@@ -213,6 +230,145 @@ public class StatisticRdbRepositoryTest {
         assertThat(po.get().getRegisteredCount(), is(200));
     }
     
+    @Test
+    public void assertBatchAddTaskResultStatistics() {
+        Date now = new Date();
+        assertTrue(repository.batchAddTaskResultStatistics(Lists.newArrayList(new TaskResultStatistics(100, 0, StatisticInterval.MINUTE, now), 
+                new TaskResultStatistics(100, 0, StatisticInterval.MINUTE, now), new TaskResultStatistics(100, 0, StatisticInterval.HOUR, now))));
+        assertThat(repository.findTaskResultStatistics(getYesterday(), StatisticInterval.MINUTE).size(), is(2));
+        assertThat(repository.findTaskResultStatistics(getYesterday(), StatisticInterval.HOUR).size(), is(1));
+        assertThat(repository.findTaskResultStatistics(getYesterday(), StatisticInterval.DAY).size(), is(0));
+    }
+    
+    @Test
+    public void assertBatchAddWhenCollectionIsEmpty() {
+        assertTrue(repository.batchAddTaskResultStatistics(Collections.<TaskResultStatistics>emptyList()));
+        assertTrue(repository.batchAddTaskRunningStatistics(Collections.<TaskRunningStatistics>emptyList()));
+        assertTrue(repository.batchAddJobRunningStatistics(Collections.<JobRunningStatistics>emptyList()));
+        assertTrue(repository.batchAddJobRegisterStatistics(Collections.<JobRegisterStatistics>emptyList()));
+        assertTrue(repository.batchAddJobPerformanceStatistics(Collections.<JobPerformanceStatistics>emptyList()));
+    }
+    
+    @Test
+    public void assertBatchAddMoreRowsThanOneInsert() {
+        List<TaskRunningStatistics> taskRunningStatisticsList = new ArrayList<>(1200);
+        List<JobRunningStatistics> jobRunningStatisticsList = new ArrayList<>(1200);
+        List<JobRegisterStatistics> jobRegisterStatisticsList = new ArrayList<>(1200);
+        Date now = new Date();
+        for (int i = 0; i < 1200; i++) {
+            taskRunningStatisticsList.add(new TaskRunningStatistics(i, now));
+            jobRunningStatisticsList.add(new JobRunningStatistics(i, now));
+            jobRegisterStatisticsList.add(new JobRegisterStatistics(i, now));
+        }
+        assertTrue(repository.batchAddTaskRunningStatistics(taskRunningStatisticsList));
+        assertTrue(repository.batchAddJobRunningStatistics(jobRunningStatisticsList));
+        assertTrue(repository.batchAddJobRegisterStatistics(jobRegisterStatisticsList));
+        assertThat(repository.findTaskRunningStatistics(getYesterday()).size(), is(1200));
+        assertThat(repository.findJobRunningStatistics(getYesterday()).size(), is(1200));
+        assertThat(repository.findJobRegisterStatistics(getYesterday()).size(), is(1200));
+        assertThat(repository.findLatestTaskRunningStatistics().get().getRunningCount(), is(1199));
+    }
+    
+    @Test
+    public void assertBatchAddAndFindJobPerformanceStatistics() {
+        Date yesterday = getYesterday();
+        Date now = new Date();
+        assertTrue(repository.batchAddJobPerformanceStatistics(Lists.newArrayList(
+                new JobPerformanceStatistics(JobPerformanceStatistics.Dimension.JOB, "test_job", 9, 1, 10L, 8L, 15L, 30L, 31L, yesterday), 
+                new JobPerformanceStatistics(JobPerformanceStatistics.Dimension.JOB, "test_job", 3, 1, 10L, 8L, 15L, 30L, 31L, now), 
+                new JobPerformanceStatistics(JobPerformanceStatistics.Dimension.APP, "test_app", 12, 2, 10L, 8L, 15L, 30L, 31L, now))));
+        assertThat(repository.findJobPerformanceStatistics(yesterday, JobPerformanceStatistics.Dimension.JOB, "test_job").size(), is(2));
+        assertThat(repository.findJobPerformanceStatistics(now, JobPerformanceStatistics.Dimension.JOB, "test_job").size(), is(1));
+        assertThat(repository.findJobPerformanceStatistics(yesterday, JobPerformanceStatistics.Dimension.JOB, "test_app").size(), is(0));
+        List<JobPerformanceStatistics> actual = repository.findJobPerformanceStatistics(yesterday, JobPerformanceStatistics.Dimension.APP, "test_app");
+        assertThat(actual.size(), is(1));
+        assertThat(actual.get(0).getSuccessCount(), is(12));
+        assertThat(actual.get(0).getFailedCount(), is(2));
+        assertThat(actual.get(0).getP99Latency(), is(30L));
+        assertThat(actual.get(0).getFailureRate(), is(2d / 14));
+    }
+    
+    @Test
+    public void assertRollupWhenTableIsEmpty() {
+        assertTrue(repository.rollupTaskRunningStatistics());
+        assertTrue(repository.rollupJobRunningStatistics());
+        assertThat(repository.findTaskRunningStatistics(getYesterday(), StatisticInterval.HOUR).size(), is(0));
+        assertThat(repository.findJobRunningStatistics(getYesterday(), StatisticInterval.DAY).size(), is(0));
+    }
+    
+    @Test
+    public void assertRollupTaskRunningStatistics() {
+        Date firstHour = getFirstHourOfDaysAgo(3);
+        Date secondHour = new Date(firstHour.getTime() + 60 * 60 * 1000);
+        assertTrue(repository.batchAddTaskRunningStatistics(Lists.newArrayList(new TaskRunningStatistics(100, firstHour), 
+                new TaskRunningStatistics(200, new Date(firstHour.getTime() + 60 * 1000)), new TaskRunningStatistics(300, secondHour), new TaskRunningStatistics(500, new Date()))));
+        assertTrue(repository.rollupTaskRunningStatistics());
+        assertTrue(repository.rollupTaskRunningStatistics());
+        List<TaskRunningStatistics> actualHourly = repository.findTaskRunningStatistics(firstHour, StatisticInterval.HOUR);
+        assertThat(actualHourly.size(), is(2));
+        assertThat(actualHourly.get(0).getRunningCount(), is(150));
+        assertThat(actualHourly.get(0).getStatisticsTime(), is(firstHour));
+        assertThat(actualHourly.get(1).getRunningCount(), is(300));
+        assertThat(actualHourly.get(1).getStatisticsTime(), is(secondHour));
+        List<TaskRunningStatistics> actualDaily = repository.findTaskRunningStatistics(getFirstHourOfDaysAgo(4), StatisticInterval.DAY);
+        assertThat(actualDaily.size(), is(1));
+        assertThat(actualDaily.get(0).getRunningCount(), is(225));
+    }
+    
+    @Test
+    public void assertRollupJobRunningStatistics() {
+        Date firstHour = getFirstHourOfDaysAgo(3);
+        assertTrue(repository.add(new JobRunningStatistics(100, firstHour)));
+        assertTrue(repository.rollupJobRunningStatistics());
+        assertTrue(repository.add(new JobRunningStatistics(200, getFirstHourOfDaysAgo(2))));
+        assertTrue(repository.rollupJobRunningStatistics());
+        assertThat(repository.findJobRunningStatistics(firstHour, StatisticInterval.HOUR).size(), is(2));
+        assertThat(repository.findJobRunningStatistics(getFirstHourOfDaysAgo(4), StatisticInterval.DAY).size(), is(2));
+        assertThat(repository.findJobRunningStatistics(firstHour, StatisticInterval.MINUTE).size(), is(2));
+    }
+    
+    @Test
+    public void assertRollupBackfillInMultipleRuns() {
+        Date firstHour = getFirstHourOfDaysAgo(3);
+        Date laterHour = new Date(firstHour.getTime() + 30 * 60 * 60 * 1000L);
+        assertTrue(repository.batchAddJobRunningStatistics(Lists.newArrayList(new JobRunningStatistics(100, firstHour), new JobRunningStatistics(200, laterHour))));
+        assertTrue(repository.rollupJobRunningStatistics());
+        List<JobRunningStatistics> actualHourly = repository.findJobRunningStatistics(firstHour, StatisticInterval.HOUR);
+        assertThat(actualHourly.size(), is(1));
+        assertThat(actualHourly.get(0).getStatisticsTime(), is(firstHour));
+        assertTrue(repository.rollupJobRunningStatistics());
+        actualHourly = repository.findJobRunningStatistics(firstHour, StatisticInterval.HOUR);
+        assertThat(actualHourly.size(), is(2));
+        assertThat(actualHourly.get(1).getStatisticsTime(), is(laterHour));
+        assertThat(actualHourly.get(1).getRunningCount(), is(200));
+        assertTrue(repository.rollupJobRunningStatistics());
+        assertThat(repository.findJobRunningStatistics(firstHour, StatisticInterval.HOUR).size(), is(2));
+        assertThat(repository.findJobRunningStatistics(getFirstHourOfDaysAgo(4), StatisticInterval.DAY).size(), is(2));
+    }
+    
+    private boolean isIndexExisted(final String tableName, final String indexName) throws SQLException {
+        try (
+                Connection conn = dataSource.getConnection();
+                ResultSet resultSet = conn.getMetaData().getIndexInfo(null, null, tableName, false, false)) {
+            while (resultSet.next()) {
+                if (indexName.equals(resultSet.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    private Date getFirstHourOfDaysAgo(final int days) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.DATE, -days);
+        calendar.set(Calendar.HOUR_OF_DAY, 1);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTime();
+    }
+    
     private Date getYesterday() {
         return new Date(new Date().getTime() - 24 * 60 * 60 * 1000);
     }
@@ -26,6 +26,8 @@ import com.dangdang.ddframe.job.util.env.IpUtilsTest;
 import com.dangdang.ddframe.job.util.env.TimeServiceTest;
 import com.dangdang.ddframe.job.util.json.GsonFactoryTest;
 import com.dangdang.ddframe.job.util.json.JobConfigurationGsonTypeAdapterTest;
+import com.dangdang.ddframe.job.util.rdb.RdbQueryMetricsTest;
+import com.dangdang.ddframe.job.util.rdb.RdbTemplateTest;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.junit.runner.RunWith;
@@ -42,7 +44,9 @@ import org.junit.runners.Suite.SuiteClasses;
         GsonFactoryTest.class, 
         JobConfigurationGsonTypeAdapterTest.class, 
         ShardingItemsTest.class, 
-        ShardingItemParametersTest.class
+        ShardingItemParametersTest.class, 
+        RdbTemplateTest.class, 
+        RdbQueryMetricsTest.class
     })
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class AllUtilTests {
@@ -0,0 +1,41 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.util.rdb;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public final class RdbQueryMetricsTest {
+    
+    @Test
+    public void assertSnapshot() {
+        RdbQueryMetrics.getInstance().record("metrics_test_query", TimeUnit.MICROSECONDS.toNanos(100L), 10, true);
+        RdbQueryMetrics.getInstance().record("metrics_test_query", TimeUnit.MICROSECONDS.toNanos(300L), 0, false);
+        Map<String, Long> actual = RdbQueryMetrics.getInstance().snapshot();
+        assertThat(actual.get("metrics_test_query_count"), is(2L));
+        assertThat(actual.get("metrics_test_query_error_count"), is(1L));
+        assertThat(actual.get("metrics_test_query_avg_us"), is(200L));
+        assertThat(actual.get("metrics_test_query_max_us"), is(300L));
+        assertThat(actual.get("metrics_test_query_rows"), is(10L));
+    }
+}
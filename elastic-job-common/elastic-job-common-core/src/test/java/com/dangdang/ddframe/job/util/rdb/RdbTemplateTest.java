@@ -0,0 +1,125 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.util.rdb;
+
+import com.google.common.base.Optional;
+import org.apache.commons.dbcp.BasicDataSource;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public final class RdbTemplateTest {
+    
+    private static final RdbTemplate.RowMapper<String> NAME_MAPPER = new RdbTemplate.RowMapper<String>() {
+        
+        @Override
+        public String mapRow(final ResultSet resultSet) throws SQLException {
+            return resultSet.getString(1);
+        }
+    };
+    
+    private DataSource dataSource;
+    
+    private RdbTemplate rdbTemplate;
+    
+    @Before
+    public void setUp() throws SQLException {
+        BasicDataSource dataSource = new BasicDataSource();
+        dataSource.setDriverClassName(org.h2.Driver.class.getName());
+        dataSource.setUrl("jdbc:h2:mem:");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        this.dataSource = dataSource;
+        rdbTemplate = new RdbTemplate(dataSource);
+        rdbTemplate.update("create_test_table", "CREATE TABLE IF NOT EXISTS TEST_TABLE (id INT NOT NULL, name VARCHAR(50) NULL, creation_time TIMESTAMP NULL)");
+        rdbTemplate.update("delete_test_table", "DELETE FROM TEST_TABLE");
+    }
+    
+    @Test
+    public void assertUpdateAndQuery() throws SQLException {
+        assertThat(rdbTemplate.update("insert_test_table", "INSERT INTO TEST_TABLE (id, name, creation_time) VALUES (?, ?, ?)", 1, "name_1", new Date()), is(1));
+        assertThat(rdbTemplate.update("insert_test_table", "INSERT INTO TEST_TABLE (id, name, creation_time) VALUES (?, ?, ?)", 2, "name_2", new Date()), is(1));
+        List<String> actual = rdbTemplate.query("find_test_table", "SELECT name FROM TEST_TABLE WHERE id >= ? ORDER BY id ASC", NAME_MAPPER, 1);
+        assertThat(actual.size(), is(2));
+        assertThat(actual.get(0), is("name_1"));
+        assertThat(actual.get(1), is("name_2"));
+    }
+    
+    @Test
+    public void assertUpdateWithNullParameter() throws SQLException {
+        rdbTemplate.update("insert_test_table", "INSERT INTO TEST_TABLE (id, name, creation_time) VALUES (?, ?, ?)", 1, null, null);
+        Optional<String> actual = rdbTemplate.queryForFirst("find_test_table", "SELECT name FROM TEST_TABLE WHERE id = ?", NAME_MAPPER, 1);
+        assertFalse(actual.isPresent());
+    }
+    
+    @Test
+    public void assertQueryForFirst() throws SQLException {
+        rdbTemplate.update("insert_test_table", "INSERT INTO TEST_TABLE (id, name, creation_time) VALUES (?, ?, ?)", 1, "name_1", new Date());
+        assertThat(rdbTemplate.queryForFirst("find_test_table", "SELECT name FROM TEST_TABLE WHERE id = ?", NAME_MAPPER, 1).get(), is("name_1"));
+        assertFalse(rdbTemplate.queryForFirst("find_test_table", "SELECT name FROM TEST_TABLE WHERE id = ?", NAME_MAPPER, 2).isPresent());
+    }
+    
+    @Test
+    public void assertExecuteReuseConnection() throws SQLException {
+        DataSource spiedDataSource = spy(dataSource);
+        final RdbTemplate template = new RdbTemplate(spiedDataSource);
+        template.execute(new RdbTemplate.ConnectionCallback<Void>() {
+            
+            @Override
+            public Void doInConnection(final Connection conn) throws SQLException {
+                template.update("insert_test_table", "INSERT INTO TEST_TABLE (id, name, creation_time) VALUES (?, ?, ?)", 1, "name_1", new Date());
+                assertThat(template.query("find_test_table", "SELECT name FROM TEST_TABLE", NAME_MAPPER).size(), is(1));
+                return null;
+            }
+        });
+        verify(spiedDataSource, times(1)).getConnection();
+    }
+    
+    @Test(expected = SQLException.class)
+    public void assertQueryWithSQLException() throws SQLException {
+        rdbTemplate.query("find_absent_table", "SELECT name FROM ABSENT_TABLE", NAME_MAPPER);
+    }
+    
+    @Test
+    public void assertQueryRecordMetrics() throws SQLException {
+        rdbTemplate.update("insert_metrics_table", "INSERT INTO TEST_TABLE (id, name, creation_time) VALUES (?, ?, ?)", 1, "name_1", new Date());
+        long count = getMetric("find_metrics_table_count");
+        long rows = getMetric("find_metrics_table_rows");
+        rdbTemplate.query("find_metrics_table", "SELECT name FROM TEST_TABLE", NAME_MAPPER);
+        assertThat(getMetric("find_metrics_table_count"), is(count + 1));
+        assertThat(getMetric("find_metrics_table_rows"), is(rows + 1));
+    }
+    
+    private long getMetric(final String name) {
+        Long result = RdbQueryMetrics.getInstance().snapshot().get(name);
+        return null == result ? 0L : result;
+    }
+}
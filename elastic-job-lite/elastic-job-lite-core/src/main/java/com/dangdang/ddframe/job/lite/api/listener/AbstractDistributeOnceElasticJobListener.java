@@ -32,11 +32,11 @@ public abstract class AbstractDistributeOnceElasticJobListener implements Elasti
     
     private final long startedTimeoutMilliseconds;
     
-    private final Object startedWait = new Object();
+    private final ReleaseSignal startedSignal = new ReleaseSignal();
     
     private final long completedTimeoutMilliseconds;
     
-    private final Object completedWait = new Object();
+    private final ReleaseSignal completedSignal = new ReleaseSignal();
     
     @Setter
     private GuaranteeService guaranteeService;
@@ -58,21 +58,13 @@ public abstract class AbstractDistributeOnceElasticJobListener implements Elasti
     
     @Override
     public final void beforeJobExecuted(final ShardingContexts shardingContexts) {
-        guaranteeService.registerStart(shardingContexts.getShardingItemParameters().keySet());
-        if (guaranteeService.isAllStarted()) {
+        long generation = startedSignal.getGeneration();
+        if (guaranteeService.registerStart(shardingContexts.getShardingItemParameters().keySet())) {
             doBeforeJobExecutedAtLastStarted(shardingContexts);
             guaranteeService.clearAllStartedInfo();
             return;
         }
-        long before = timeService.getCurrentMillis();
-        try {
-            synchronized (startedWait) {
-                startedWait.wait(startedTimeoutMilliseconds);
-            }
-        } catch (final InterruptedException ex) {
-            Thread.interrupted();
-        }
-        if (timeService.getCurrentMillis() - before >= startedTimeoutMilliseconds) {
+        if (!startedSignal.await(generation, startedTimeoutMilliseconds, timeService)) {
             guaranteeService.clearAllStartedInfo();
             handleTimeout(startedTimeoutMilliseconds);
         }
@@ -80,21 +72,13 @@ public abstract class AbstractDistributeOnceElasticJobListener implements Elasti
     
     @Override
     public final void afterJobExecuted(final ShardingContexts shardingContexts) {
-        guaranteeService.registerComplete(shardingContexts.getShardingItemParameters().keySet());
-        if (guaranteeService.isAllCompleted()) {
+        long generation = completedSignal.getGeneration();
+        if (guaranteeService.registerComplete(shardingContexts.getShardingItemParameters().keySet())) {
             doAfterJobExecutedAtLastCompleted(shardingContexts);
             guaranteeService.clearAllCompletedInfo();
             return;
         }
-        long before = timeService.getCurrentMillis();
-        try {
-            synchronized (completedWait) {
-                completedWait.wait(completedTimeoutMilliseconds);
-            }
-        } catch (final InterruptedException ex) {
-            Thread.interrupted();
-        }
-        if (timeService.getCurrentMillis() - before >= completedTimeoutMilliseconds) {
+        if (!completedSignal.await(generation, completedTimeoutMilliseconds, timeService)) {
             guaranteeService.clearAllCompletedInfo();
             handleTimeout(completedTimeoutMilliseconds);
         }
@@ -122,17 +106,52 @@ public abstract class AbstractDistributeOnceElasticJobListener implements Elasti
      * 通知任务开始.
      */
     public void notifyWaitingTaskStart() {
-        synchronized (startedWait) {
-            startedWait.notifyAll();
-        }
+        startedSignal.release();
     }
     
     /**
      * 通知任务结束.
      */
     public void notifyWaitingTaskComplete() {
-        synchronized (completedWait) {
-            completedWait.notifyAll();
+        completedSignal.release();
+    }
+    
+    /**
+     * 屏障释放信号.
+     * 
+     * <p>
+     * 每次屏障被最后一个分片项清理时代数加一, 等待者在注册前记录代数, 因此先于等待到达的通知不会丢失.
+     * 等待被中断时恢复中断标记并视为未释放, 由调用方按超时处理.
+     * </p>
+     */
+    private static final class ReleaseSignal {
+        
+        private long generation;
+        
+        synchronized long getGeneration() {
+            return generation;
+        }
+        
+        synchronized void release() {
+            generation++;
+            notifyAll();
+        }
+        
+        synchronized boolean await(final long expectedGeneration, final long timeoutMilliseconds, final TimeService timeService) {
+            long before = timeService.getCurrentMillis();
+            while (expectedGeneration == generation) {
+                long remaining = timeoutMilliseconds - (timeService.getCurrentMillis() - before);
+                if (remaining <= 0L) {
+                    return false;
+                }
+                try {
+                    wait(remaining);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
         }
     }
 }
@@ -18,6 +18,7 @@
 package com.dangdang.ddframe.job.lite.internal.election;
 
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobState;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.lite.internal.storage.LeaderExecutionCallback;
@@ -68,7 +69,8 @@ public final class LeaderService {
         while (!hasLeader() && serverService.hasAvailableServers()) {
             log.info("Leader is electing, waiting for {} ms", 100);
             BlockUtils.waitingShortTime();
-            if (!JobRegistry.getInstance().isShutdown(jobName) && serverService.isAvailableServer(JobRegistry.getInstance().getJobInstance(jobName).getIp())) {
+            JobState jobState = JobRegistry.getInstance().getJobState(jobName);
+            if (!jobState.isShutdown() && serverService.isAvailableServer(jobState.getJobInstance().getIp())) {
                 electLeader();
             }
         }
@@ -81,7 +83,8 @@ public final class LeaderService {
      * @return 当前节点是否是主节点
      */
     public boolean isLeader() {
-        return !JobRegistry.getInstance().isShutdown(jobName) && JobRegistry.getInstance().getJobInstance(jobName).getJobInstanceId().equals(jobNodeStorage.getJobNodeData(LeaderNode.INSTANCE));
+        JobState jobState = JobRegistry.getInstance().getJobState(jobName);
+        return !jobState.isShutdown() && jobState.getJobInstance().getJobInstanceId().equals(jobNodeStorage.getJobNodeData(LeaderNode.INSTANCE));
     }
     
     /**
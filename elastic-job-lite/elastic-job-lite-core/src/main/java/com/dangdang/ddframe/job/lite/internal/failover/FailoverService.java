@@ -18,7 +18,7 @@
 package com.dangdang.ddframe.job.lite.internal.failover;
 
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
-import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobState;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingNode;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingService;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
@@ -86,9 +86,15 @@ public final class FailoverService {
      * @param items 执行完毕失效转移的分片项集合
      */
     public void updateFailoverComplete(final Collection<Integer> items) {
+        jobNodeStorage.removeJobNodesIfExisted(getExecutionFailoverNodes(items));
+    }
+    
+    private List<String> getExecutionFailoverNodes(final Collection<Integer> items) {
+        List<String> result = new ArrayList<>(items.size());
         for (int each : items) {
-            jobNodeStorage.removeJobNodeIfExisted(FailoverNode.getExecutionFailoverNode(each));
+            result.add(FailoverNode.getExecutionFailoverNode(each));
         }
+        return result;
     }
     
     /**
@@ -98,13 +104,12 @@ public final class FailoverService {
      * @return 作业失效转移的分片项集合
      */
     public List<Integer> getFailoverItems(final String jobInstanceId) {
-        List<String> items = jobNodeStorage.getJobNodeChildrenKeys(ShardingNode.ROOT);
+        List<Integer> items = getAllItems();
+        List<String> jobInstanceIds = jobNodeStorage.getJobNodesDataDirectly(getExecutionFailoverNodes(items));
         List<Integer> result = new ArrayList<>(items.size());
-        for (String each : items) {
-            int item = Integer.parseInt(each);
-            String node = FailoverNode.getExecutionFailoverNode(item);
-            if (jobNodeStorage.isJobNodeExisted(node) && jobInstanceId.equals(jobNodeStorage.getJobNodeDataDirectly(node))) {
-                result.add(item);
+        for (int i = 0; i < items.size(); i++) {
+            if (jobInstanceId.equals(jobInstanceIds.get(i))) {
+                result.add(items.get(i));
             }
         }
         Collections.sort(result);
@@ -117,10 +122,11 @@ public final class FailoverService {
      * @return 运行在本作业服务器的失效转移分片项集合
      */
     public List<Integer> getLocalFailoverItems() {
-        if (JobRegistry.getInstance().isShutdown(jobName)) {
+        JobState jobState = JobRegistry.getInstance().getJobState(jobName);
+        if (jobState.isShutdown()) {
             return Collections.emptyList();
         }
-        return getFailoverItems(JobRegistry.getInstance().getJobInstance(jobName).getJobInstanceId());
+        return getFailoverItems(jobState.getJobInstance().getJobInstanceId());
     }
     
     /**
@@ -130,10 +136,11 @@ public final class FailoverService {
      */
     public List<Integer> getLocalTakeOffItems() {
         List<Integer> shardingItems = shardingService.getLocalShardingItems();
+        List<Boolean> existed = jobNodeStorage.isJobNodesExisted(getExecutionFailoverNodes(shardingItems));
         List<Integer> result = new ArrayList<>(shardingItems.size());
-        for (int each : shardingItems) {
-            if (jobNodeStorage.isJobNodeExisted(FailoverNode.getExecutionFailoverNode(each))) {
-                result.add(each);
+        for (int i = 0; i < shardingItems.size(); i++) {
+            if (existed.get(i)) {
+                result.add(shardingItems.get(i));
             }
         }
         return result;
@@ -143,27 +150,32 @@ public final class FailoverService {
      * 删除作业失效转移信息.
      */
     public void removeFailoverInfo() {
-        for (String each : jobNodeStorage.getJobNodeChildrenKeys(ShardingNode.ROOT)) {
-            jobNodeStorage.removeJobNodeIfExisted(FailoverNode.getExecutionFailoverNode(Integer.parseInt(each)));
+        jobNodeStorage.removeJobNodesIfExisted(getExecutionFailoverNodes(getAllItems()));
+    }
+    
+    private List<Integer> getAllItems() {
+        List<String> items = jobNodeStorage.getJobNodeChildrenKeys(ShardingNode.ROOT);
+        List<Integer> result = new ArrayList<>(items.size());
+        for (String each : items) {
+            result.add(Integer.parseInt(each));
         }
+        return result;
     }
     
     class FailoverLeaderExecutionCallback implements LeaderExecutionCallback {
         
         @Override
         public void execute() {
-            if (JobRegistry.getInstance().isShutdown(jobName) || !needFailover()) {
+            JobState jobState = JobRegistry.getInstance().getJobState(jobName);
+            if (jobState.isShutdown() || !needFailover()) {
                 return;
             }
             int crashedItem = Integer.parseInt(jobNodeStorage.getJobNodeChildrenKeys(FailoverNode.ITEMS_ROOT).get(0));
             log.debug("Failover job '{}' begin, crashed item '{}'", jobName, crashedItem);
-            jobNodeStorage.fillEphemeralJobNode(FailoverNode.getExecutionFailoverNode(crashedItem), JobRegistry.getInstance().getJobInstance(jobName).getJobInstanceId());
+            jobNodeStorage.fillEphemeralJobNode(FailoverNode.getExecutionFailoverNode(crashedItem), jobState.getJobInstance().getJobInstanceId());
             jobNodeStorage.removeJobNodeIfExisted(FailoverNode.getItemsNode(crashedItem));
             // TODO 不应使用triggerJob, 而是使用executor统一调度
-            JobScheduleController jobScheduleController = JobRegistry.getInstance().getJobScheduleController(jobName);
-            if (null != jobScheduleController) {
-                jobScheduleController.triggerJob();
-            }
+            jobState.getJobScheduleController().triggerJob();
         }
     }
 }
@@ -0,0 +1,217 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.guarantee;
+
+import com.dangdang.ddframe.job.exception.JobSystemException;
+import com.dangdang.ddframe.job.lite.internal.monitor.JobMetrics;
+import com.dangdang.ddframe.job.lite.internal.monitor.JobMetricsRegistry;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodePath;
+import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.google.common.base.Charsets;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
+import org.apache.curator.framework.api.transaction.CuratorTransactionResult;
+import org.apache.curator.framework.api.transaction.OperationType;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 基于注册中心计数的分布式屏障.
+ * 
+ * <p>
+ * 屏障根节点的子节点为已注册的分片项, 根节点的数据为已注册的分片项数量.
+ * 每次注册通过一次带版本校验的事务同时创建分片项节点并更新计数, 使计数到达分片总数的注册者即为最后一个注册者.
+ * 等待者通过作业缓存监听屏障根节点的删除事件被唤醒.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+final class GuaranteeBarrier {
+    
+    private final CoordinatorRegistryCenter regCenter;
+    
+    private final String jobName;
+    
+    private final String rootNode;
+    
+    private final String rootPath;
+    
+    private final JobNodePath jobNodePath;
+    
+    private final JobNodeStorage jobNodeStorage;
+    
+    private final JobMetrics jobMetrics;
+    
+    GuaranteeBarrier(final CoordinatorRegistryCenter regCenter, final String jobName, final String rootNode) {
+        this.regCenter = regCenter;
+        this.jobName = jobName;
+        this.rootNode = rootNode;
+        jobNodePath = new JobNodePath(jobName);
+        rootPath = jobNodePath.getFullPath(rootNode);
+        jobNodeStorage = new JobNodeStorage(regCenter, jobName);
+        jobMetrics = JobMetricsRegistry.getInstance().getJobMetrics(jobName);
+    }
+    
+    /**
+     * 注册分片项.
+     * 
+     * <p>
+     * 版本冲突或节点已存在说明其他注册者已提交, 重试直至本次的分片项全部提交.
+     * 无法提交时抛出异常, 避免调用方等待一个不会到达分片总数的屏障.
+     * </p>
+     * 
+     * @param shardingItems 待注册的分片项
+     * @param shardingTotalCount 分片总数
+     * @return 是否由本次注册使屏障到达分片总数
+     * @throws JobSystemException 作业已被删除或注册中心访问失败时抛出
+     */
+    boolean register(final Collection<Integer> shardingItems, final int shardingTotalCount) {
+        Set<Integer> pendingItems = new LinkedHashSet<>(shardingItems);
+        boolean fromCache = true;
+        while (!pendingItems.isEmpty()) {
+            Stat stat = null;
+            try {
+                stat = fromCache ? getCachedStat() : getStatDirectly();
+                fromCache = false;
+                if (null == stat) {
+                    createBarrier(pendingItems);
+                    return pendingItems.size() >= shardingTotalCount;
+                }
+                return increaseBarrier(pendingItems, stat.getNumChildren() + pendingItems.size(), stat.getVersion()) >= shardingTotalCount;
+            } catch (final KeeperException.NoNodeException ex) {
+                createGuaranteeRootNode();
+            } catch (final KeeperException.NodeExistsException ex) {
+                if (null != stat) {
+                    removeRegisteredItems(pendingItems);
+                }
+            } catch (final KeeperException.BadVersionException ex) {
+                continue;
+            //CHECKSTYLE:OFF
+            } catch (final Exception ex) {
+            //CHECKSTYLE:ON
+                throw new JobSystemException(ex);
+            }
+        }
+        return false;
+    }
+    
+    private void createGuaranteeRootNode() {
+        jobMetrics.recordRegCenterRead();
+        if (!regCenter.isExisted("/" + jobName)) {
+            throw new JobSystemException("Job '%s' is not existed, can not register sharding items to '%s'.", jobName, rootPath);
+        }
+        jobNodeStorage.createJobNodeIfNeeded(GuaranteeNode.ROOT);
+    }
+    
+    private Stat getCachedStat() throws Exception {
+        TreeCache cache = (TreeCache) regCenter.getRawCache("/" + jobName);
+        if (null == cache) {
+            return getStatDirectly();
+        }
+        jobMetrics.recordCacheAccess(true);
+        ChildData result = cache.getCurrentData(rootPath);
+        return null == result ? null : result.getStat();
+    }
+    
+    private Stat getStatDirectly() throws Exception {
+        jobMetrics.recordRegCenterRead();
+        return getClient().checkExists().forPath(rootPath);
+    }
+    
+    private void createBarrier(final Collection<Integer> items) throws Exception {
+        CuratorTransactionFinal transaction = getClient().inTransaction().create().forPath(rootPath, toBytes(items.size())).and();
+        commit(transaction, items);
+    }
+    
+    /**
+     * 增加屏障计数.
+     * 
+     * <p>
+     * 缓存中的版本号在屏障被删除并重建后可能与新屏障的版本号相同, 因此注册后的数量不能取自缓存的子节点数量.
+     * 事务中更新数据返回的状态包含执行时的子节点数量, 加上本次创建的分片项即为注册后的准确数量.
+     * </p>
+     * 
+     * @return 注册后的分片项数量
+     */
+    private int increaseBarrier(final Collection<Integer> items, final int expectedCount, final int version) throws Exception {
+        CuratorTransactionFinal transaction = getClient().inTransaction().setData().withVersion(version).forPath(rootPath, toBytes(expectedCount)).and();
+        for (CuratorTransactionResult each : commit(transaction, items)) {
+            if (OperationType.SET_DATA == each.getType() && null != each.getResultStat()) {
+                int result = each.getResultStat().getNumChildren() + items.size();
+                if (result != expectedCount) {
+                    correctCount(result, each.getResultStat().getVersion());
+                }
+                return result;
+            }
+        }
+        return expectedCount;
+    }
+    
+    private void correctCount(final int count, final int version) throws Exception {
+        try {
+            jobMetrics.recordRegCenterWrite();
+            getClient().setData().withVersion(version).forPath(rootPath, toBytes(count));
+        } catch (final KeeperException.BadVersionException | KeeperException.NoNodeException ex) {
+            // 计数已被后续注册者更新或屏障已被清理, 无需修正
+        }
+    }
+    
+    private Collection<CuratorTransactionResult> commit(final CuratorTransactionFinal transaction, final Collection<Integer> items) throws Exception {
+        for (int each : items) {
+            transaction.create().forPath(jobNodePath.getFullPath(getItemNode(each))).and();
+        }
+        jobMetrics.recordRegCenterWrite();
+        return transaction.commit();
+    }
+    
+    private void removeRegisteredItems(final Collection<Integer> items) {
+        Iterator<Integer> iterator = items.iterator();
+        while (iterator.hasNext()) {
+            if (jobNodeStorage.isJobNodeExisted(getItemNode(iterator.next()))) {
+                iterator.remove();
+            }
+        }
+    }
+    
+    private String getItemNode(final int shardingItem) {
+        return rootNode + "/" + shardingItem;
+    }
+    
+    private byte[] toBytes(final int count) {
+        return String.valueOf(count).getBytes(Charsets.UTF_8);
+    }
+    
+    private CuratorFramework getClient() {
+        return (CuratorFramework) regCenter.getRawClient();
+    }
+    
+    /**
+     * 清理屏障.
+     */
+    void clear() {
+        jobNodeStorage.removeJobNodeIfExisted(rootNode);
+    }
+}
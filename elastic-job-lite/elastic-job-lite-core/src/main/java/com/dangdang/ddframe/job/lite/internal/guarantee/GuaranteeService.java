@@ -18,7 +18,6 @@
 package com.dangdang.ddframe.job.lite.internal.guarantee;
 
 import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
-import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 
 import java.util.Collection;
@@ -30,12 +29,15 @@ import java.util.Collection;
  */
 public final class GuaranteeService {
     
-    private final JobNodeStorage jobNodeStorage;
+    private final GuaranteeBarrier startedBarrier;
+    
+    private final GuaranteeBarrier completedBarrier;
     
     private final ConfigurationService configService;
     
     public GuaranteeService(final CoordinatorRegistryCenter regCenter, final String jobName) {
-        jobNodeStorage = new JobNodeStorage(regCenter, jobName);
+        startedBarrier = new GuaranteeBarrier(regCenter, jobName, GuaranteeNode.STARTED_ROOT);
+        completedBarrier = new GuaranteeBarrier(regCenter, jobName, GuaranteeNode.COMPLETED_ROOT);
         configService = new ConfigurationService(regCenter, jobName);
     }
     
@@ -43,55 +45,37 @@ public final class GuaranteeService {
      * 根据分片项注册任务开始运行.
      * 
      * @param shardingItems 待注册的分片项
+     * @return 是否由本次注册使所有的任务均启动完毕
      */
-    public void registerStart(final Collection<Integer> shardingItems) {
-        for (int each : shardingItems) {
-            jobNodeStorage.createJobNodeIfNeeded(GuaranteeNode.getStartedNode(each));
-        }
-    }
-    
-    /**
-     * 判断是否所有的任务均启动完毕.
-     *
-     * @return 是否所有的任务均启动完毕
-     */
-    public boolean isAllStarted() {
-        return jobNodeStorage.isJobNodeExisted(GuaranteeNode.STARTED_ROOT)
-                && configService.load(false).getTypeConfig().getCoreConfig().getShardingTotalCount() == jobNodeStorage.getJobNodeChildrenKeys(GuaranteeNode.STARTED_ROOT).size();
+    public boolean registerStart(final Collection<Integer> shardingItems) {
+        return startedBarrier.register(shardingItems, getShardingTotalCount());
     }
     
     /**
      * 清理所有任务启动信息.
      */
     public void clearAllStartedInfo() {
-        jobNodeStorage.removeJobNodeIfExisted(GuaranteeNode.STARTED_ROOT);
+        startedBarrier.clear();
     }
     
     /**
      * 根据分片项注册任务完成运行.
      *
      * @param shardingItems 待注册的分片项
+     * @return 是否由本次注册使所有的任务均执行完毕
      */
-    public void registerComplete(final Collection<Integer> shardingItems) {
-        for (int each : shardingItems) {
-            jobNodeStorage.createJobNodeIfNeeded(GuaranteeNode.getCompletedNode(each));
-        }
+    public boolean registerComplete(final Collection<Integer> shardingItems) {
+        return completedBarrier.register(shardingItems, getShardingTotalCount());
     }
     
     /**
-     * 判断是否所有的任务均执行完毕.
-     *
-     * @return 是否所有的任务均执行完毕
+     * 清理所有任务完成信息.
      */
-    public boolean isAllCompleted() {
-        return jobNodeStorage.isJobNodeExisted(GuaranteeNode.COMPLETED_ROOT)
-                && configService.load(false).getTypeConfig().getCoreConfig().getShardingTotalCount() <= jobNodeStorage.getJobNodeChildrenKeys(GuaranteeNode.COMPLETED_ROOT).size();
+    public void clearAllCompletedInfo() {
+        completedBarrier.clear();
     }
     
-    /**
-     * 清理所有任务启动信息.
-     */
-    public void clearAllCompletedInfo() {
-        jobNodeStorage.removeJobNodeIfExisted(GuaranteeNode.COMPLETED_ROOT);
+    private int getShardingTotalCount() {
+        return configService.load(false).getTypeConfig().getCoreConfig().getShardingTotalCount();
     }
 }
@@ -20,6 +20,7 @@ package com.dangdang.ddframe.job.lite.internal.instance;
 import com.dangdang.ddframe.job.lite.internal.listener.AbstractJobListener;
 import com.dangdang.ddframe.job.lite.internal.listener.AbstractListenerManager;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobState;
 import com.dangdang.ddframe.job.lite.internal.schedule.SchedulerFacade;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import org.apache.curator.framework.recipes.cache.TreeCacheEvent.Type;
@@ -56,7 +57,8 @@ public final class ShutdownListenerManager extends AbstractListenerManager {
         
         @Override
         protected void dataChanged(final String path, final Type eventType, final String data) {
-            if (!JobRegistry.getInstance().isShutdown(jobName) && !JobRegistry.getInstance().getJobScheduleController(jobName).isPaused()
+            JobState jobState = JobRegistry.getInstance().getJobState(jobName);
+            if (!jobState.isShutdown() && !jobState.getJobScheduleController().isPaused()
                     && isRemoveInstance(path, eventType) && !isReconnectedRegistryCenter()) {
                 schedulerFacade.shutdownInstance();
             }
@@ -20,6 +20,7 @@ package com.dangdang.ddframe.job.lite.internal.instance;
 import com.dangdang.ddframe.job.lite.internal.listener.AbstractJobListener;
 import com.dangdang.ddframe.job.lite.internal.listener.AbstractListenerManager;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobState;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import org.apache.curator.framework.recipes.cache.TreeCacheEvent.Type;
 
@@ -56,9 +57,10 @@ public final class TriggerListenerManager extends AbstractListenerManager {
                 return;
             }
             instanceService.clearTriggerFlag();
-            if (!JobRegistry.getInstance().isShutdown(jobName) && !JobRegistry.getInstance().isJobRunning(jobName)) {
+            JobState jobState = JobRegistry.getInstance().getJobState(jobName);
+            if (!jobState.isShutdown() && !jobState.isRunning()) {
                 // TODO 目前是作业运行时不能触发, 未来改为堆积式触发
-                JobRegistry.getInstance().getJobScheduleController(jobName).triggerJob();
+                jobState.getJobScheduleController().triggerJob();
             }
         }
     }
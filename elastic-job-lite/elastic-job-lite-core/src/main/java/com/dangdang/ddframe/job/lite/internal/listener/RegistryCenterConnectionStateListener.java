@@ -4,6 +4,7 @@ import com.dangdang.ddframe.job.lite.internal.sharding.ExecutionService;
 import com.dangdang.ddframe.job.lite.internal.instance.InstanceService;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobState;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.sharding.ShardingService;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
@@ -38,14 +39,15 @@ public final class RegistryCenterConnectionStateListener implements ConnectionSt
     
     @Override
     public void stateChanged(final CuratorFramework client, final ConnectionState newState) {
-        if (JobRegistry.getInstance().isShutdown(jobName)) {
+        JobState jobState = JobRegistry.getInstance().getJobState(jobName);
+        if (jobState.isShutdown()) {
             return;
         }
-        JobScheduleController jobScheduleController = JobRegistry.getInstance().getJobScheduleController(jobName);
+        JobScheduleController jobScheduleController = jobState.getJobScheduleController();
         if (ConnectionState.SUSPENDED == newState || ConnectionState.LOST == newState) {
             jobScheduleController.pauseJob();
         } else if (ConnectionState.RECONNECTED == newState) {
-            serverService.persistOnline(serverService.isEnableServer(JobRegistry.getInstance().getJobInstance(jobName).getIp()));
+            serverService.persistOnline(serverService.isEnableServer(jobState.getJobInstance().getIp()));
             instanceService.persistOnline();
             executionService.clearRunningInfo(shardingService.getLocalShardingItems());
             jobScheduleController.resumeJob();
@@ -0,0 +1,137 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.monitor;
+
+import com.dangdang.ddframe.job.reg.base.CacheAccessListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 作业运行指标.
+ * 
+ * <p>
+ * 记录作业触发延迟, 执行耗时, 注册中心读写次数及本地缓存命中次数, 指标自进程启动后累计.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+public final class JobMetrics implements CacheAccessListener {
+    
+    private final AtomicLong triggerCount = new AtomicLong();
+    
+    private final AtomicLong totalTriggerDelayMilliseconds = new AtomicLong();
+    
+    private final AtomicLong maxTriggerDelayMilliseconds = new AtomicLong();
+    
+    private final AtomicLong totalExecutionMilliseconds = new AtomicLong();
+    
+    private final AtomicLong maxExecutionMilliseconds = new AtomicLong();
+    
+    private final AtomicLong regCenterReadCount = new AtomicLong();
+    
+    private final AtomicLong regCenterWriteCount = new AtomicLong();
+    
+    private final AtomicLong cacheHitCount = new AtomicLong();
+    
+    private final AtomicLong cacheMissCount = new AtomicLong();
+    
+    /**
+     * 记录作业触发.
+     * 
+     * @param triggerDelayMilliseconds 计划触发时间至开始执行的延迟毫秒数
+     * @param executionMilliseconds 执行耗时毫秒数
+     */
+    public void recordTrigger(final long triggerDelayMilliseconds, final long executionMilliseconds) {
+        triggerCount.incrementAndGet();
+        totalTriggerDelayMilliseconds.addAndGet(triggerDelayMilliseconds);
+        updateMax(maxTriggerDelayMilliseconds, triggerDelayMilliseconds);
+        totalExecutionMilliseconds.addAndGet(executionMilliseconds);
+        updateMax(maxExecutionMilliseconds, executionMilliseconds);
+    }
+    
+    /**
+     * 记录注册中心读操作.
+     */
+    public void recordRegCenterRead() {
+        regCenterReadCount.incrementAndGet();
+    }
+    
+    /**
+     * 记录注册中心写操作.
+     */
+    public void recordRegCenterWrite() {
+        regCenterWriteCount.incrementAndGet();
+    }
+    
+    /**
+     * 记录本地缓存访问.
+     * 
+     * @param hit 是否命中缓存
+     */
+    public void recordCacheAccess(final boolean hit) {
+        if (hit) {
+            cacheHitCount.incrementAndGet();
+        } else {
+            cacheMissCount.incrementAndGet();
+        }
+    }
+    
+    /**
+     * 记录本地缓存访问, 未命中时同时记录一次注册中心读操作.
+     * 
+     * @param hit 是否命中缓存
+     */
+    @Override
+    public void onCacheAccess(final boolean hit) {
+        recordCacheAccess(hit);
+        if (!hit) {
+            recordRegCenterRead();
+        }
+    }
+    
+    private void updateMax(final AtomicLong max, final long value) {
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+    
+    /**
+     * 获取指标快照.
+     * 
+     * @return 指标名称和值的映射
+     */
+    public Map<String, String> snapshot() {
+        Map<String, String> result = new LinkedHashMap<>(16, 1);
+        long triggers = triggerCount.get();
+        long cacheHits = cacheHitCount.get();
+        long cacheAccesses = cacheHits + cacheMissCount.get();
+        result.put("trigger_count", String.valueOf(triggers));
+        result.put("trigger_delay_avg_ms", String.valueOf(0L == triggers ? 0L : totalTriggerDelayMilliseconds.get() / triggers));
+        result.put("trigger_delay_max_ms", String.valueOf(maxTriggerDelayMilliseconds.get()));
+        result.put("execution_avg_ms", String.valueOf(0L == triggers ? 0L : totalExecutionMilliseconds.get() / triggers));
+        result.put("execution_max_ms", String.valueOf(maxExecutionMilliseconds.get()));
+        result.put("reg_center_read_count", String.valueOf(regCenterReadCount.get()));
+        result.put("reg_center_write_count", String.valueOf(regCenterWriteCount.get()));
+        result.put("cache_hit_count", String.valueOf(cacheHits));
+        result.put("cache_hit_rate", String.format("%.4f", 0L == cacheAccesses ? 0D : (double) cacheHits / cacheAccesses));
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.monitor;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 作业运行指标注册表.
+ * 
+ * @author zhangliang
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class JobMetricsRegistry {
+    
+    private static final JobMetricsRegistry INSTANCE = new JobMetricsRegistry();
+    
+    private final ConcurrentMap<String, JobMetrics> jobMetricsMap = new ConcurrentHashMap<>();
+    
+    /**
+     * 获取作业运行指标注册表实例.
+     * 
+     * @return 作业运行指标注册表实例
+     */
+    public static JobMetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * 获取作业运行指标.
+     * 
+     * @param jobName 作业名称
+     * @return 作业运行指标
+     */
+    public JobMetrics getJobMetrics(final String jobName) {
+        JobMetrics result = jobMetricsMap.get(jobName);
+        if (null != result) {
+            return result;
+        }
+        JobMetrics created = new JobMetrics();
+        result = jobMetricsMap.putIfAbsent(jobName, created);
+        return null == result ? created : result;
+    }
+    
+    /**
+     * 删除作业运行指标.
+     * 
+     * @param jobName 作业名称
+     */
+    public void remove(final String jobName) {
+        jobMetricsMap.remove(jobName);
+    }
+}
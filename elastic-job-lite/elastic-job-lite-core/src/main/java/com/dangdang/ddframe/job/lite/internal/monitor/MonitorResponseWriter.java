@@ -0,0 +1,120 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.monitor;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Function;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+/**
+ * 监控命令响应输出.
+ * 
+ * <p>
+ * 响应按行写入固定大小的缓冲区, 缓冲区写满即刷出到非阻塞通道, 无需在内存中生成完整的响应.
+ * </p>
+ * 
+ * @author caohao
+ */
+final class MonitorResponseWriter implements Closeable {
+    
+    private static final int BUFFER_SIZE = 8192;
+    
+    private static final long WRITE_TIMEOUT_MILLISECONDS = 10000L;
+    
+    private final SocketChannel channel;
+    
+    private final Function<String, String> lineFilter;
+    
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    
+    private Selector writeSelector;
+    
+    MonitorResponseWriter(final SocketChannel channel, final Function<String, String> lineFilter) {
+        this.channel = channel;
+        this.lineFilter = lineFilter;
+    }
+    
+    /**
+     * 输出一行响应.
+     * 
+     * @param line 响应行
+     * @throws IOException 通道写入异常
+     */
+    void writeLine(final String line) throws IOException {
+        byte[] bytes = (lineFilter.apply(line) + "\n").getBytes(Charsets.UTF_8);
+        if (bytes.length > buffer.remaining()) {
+            flush();
+        }
+        if (bytes.length > buffer.capacity()) {
+            writeFully(ByteBuffer.wrap(bytes));
+        } else {
+            buffer.put(bytes);
+        }
+    }
+    
+    /**
+     * 将缓冲区内容刷出到通道.
+     * 
+     * @throws IOException 通道写入异常
+     */
+    void flush() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+    
+    private void writeFully(final ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            if (0 == channel.write(source)) {
+                awaitWritable();
+            }
+        }
+    }
+    
+    private void awaitWritable() throws IOException {
+        if (null == writeSelector) {
+            writeSelector = Selector.open();
+            channel.register(writeSelector, SelectionKey.OP_WRITE);
+        }
+        if (0 == writeSelector.select(WRITE_TIMEOUT_MILLISECONDS)) {
+            throw new SocketTimeoutException("Monitor response write timeout.");
+        }
+        writeSelector.selectedKeys().clear();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            if (channel.isOpen()) {
+                flush();
+            }
+        } finally {
+            if (null != writeSelector) {
+                writeSelector.close();
+            }
+            channel.close();
+        }
+    }
+}
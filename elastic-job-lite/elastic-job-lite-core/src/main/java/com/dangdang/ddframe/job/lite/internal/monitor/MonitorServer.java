@@ -0,0 +1,298 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.monitor;
+
+import com.dangdang.ddframe.job.lite.internal.util.SensitiveInfoUtils;
+import com.dangdang.ddframe.job.util.concurrent.ExecutorServiceObject;
+import com.google.common.base.Charsets;
+import com.google.common.base.Splitter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 作业监控服务器.
+ * 
+ * <p>
+ * 每个进程仅使用一个选择器线程监听所有监控端口, 相同端口的作业共享同一监听.
+ * 命令由工作线程执行并以流的方式写回客户端.
+ * </p>
+ * 
+ * @author caohao
+ */
+@Slf4j
+final class MonitorServer {
+    
+    private static final MonitorServer INSTANCE = new MonitorServer();
+    
+    private static final int MAX_COMMAND_LENGTH = 1024;
+    
+    private final Map<Integer, MonitorPort> monitorPorts = new HashMap<>();
+    
+    private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>();
+    
+    private final ExecutorService commandExecutor = new ExecutorServiceObject("elastic-job-monitor", Runtime.getRuntime().availableProcessors()).createExecutorService();
+    
+    private Selector selector;
+    
+    private MonitorServer() {
+    }
+    
+    /**
+     * 获取作业监控服务器实例.
+     * 
+     * @return 作业监控服务器实例
+     */
+    static MonitorServer getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * 注册作业监控服务.
+     * 
+     * @param port 监控端口
+     * @param jobName 作业名称
+     * @param monitorService 作业监控服务
+     * @throws IOException 端口监听异常
+     */
+    synchronized void register(final int port, final String jobName, final MonitorService monitorService) throws IOException {
+        MonitorPort monitorPort = monitorPorts.get(port);
+        if (null == monitorPort) {
+            monitorPort = openPort(port);
+            monitorPorts.put(port, monitorPort);
+        }
+        monitorPort.monitorServices.put(jobName, monitorService);
+    }
+    
+    /**
+     * 注销作业监控服务.
+     * 
+     * <p>端口上没有作业时关闭该端口的监听.</p>
+     * 
+     * @param port 监控端口
+     * @param jobName 作业名称
+     */
+    synchronized void unregister(final int port, final String jobName) {
+        MonitorPort monitorPort = monitorPorts.get(port);
+        if (null == monitorPort) {
+            return;
+        }
+        monitorPort.monitorServices.remove(jobName);
+        if (monitorPort.monitorServices.isEmpty()) {
+            monitorPorts.remove(port);
+            closeQuietly(monitorPort.serverChannel);
+            selector.wakeup();
+        }
+    }
+    
+    private MonitorPort openPort(final int port) throws IOException {
+        startIfNecessary();
+        final ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.configureBlocking(false);
+            serverChannel.socket().setReuseAddress(true);
+            serverChannel.socket().bind(new InetSocketAddress(port));
+        } catch (final IOException ex) {
+            closeQuietly(serverChannel);
+            throw ex;
+        }
+        final MonitorPort result = new MonitorPort(serverChannel);
+        pendingTasks.add(new Runnable() {
+            
+            @Override
+            public void run() {
+                try {
+                    serverChannel.register(selector, SelectionKey.OP_ACCEPT, result);
+                } catch (final ClosedChannelException ex) {
+                    log.debug("Elastic job: Monitor port closed before listening.");
+                }
+            }
+        });
+        selector.wakeup();
+        return result;
+    }
+    
+    private void startIfNecessary() throws IOException {
+        if (null != selector) {
+            return;
+        }
+        selector = Selector.open();
+        Thread selectorThread = new Thread("elastic-job-monitor-selector") {
+            
+            @Override
+            public void run() {
+                while (true) {
+                    select();
+                }
+            }
+        };
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+    
+    private void select() {
+        try {
+            selector.select();
+        } catch (final IOException ex) {
+            log.error("Elastic job: Monitor service select failure, error is: ", ex);
+            return;
+        }
+        Runnable task;
+        while (null != (task = pendingTasks.poll())) {
+            task.run();
+        }
+        Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+        while (iterator.hasNext()) {
+            SelectionKey key = iterator.next();
+            iterator.remove();
+            try {
+                if (key.isValid() && key.isAcceptable()) {
+                    accept(key);
+                } else if (key.isValid() && key.isReadable()) {
+                    read(key);
+                }
+            } catch (final IOException ex) {
+                log.error("Elastic job: Monitor service process command failure, error is: ", ex);
+                closeQuietly(key.channel());
+            }
+        }
+    }
+    
+    private void accept(final SelectionKey key) throws IOException {
+        SocketChannel channel = ((ServerSocketChannel) key.channel()).accept();
+        if (null == channel) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ, new CommandReader((MonitorPort) key.attachment()));
+    }
+    
+    private void read(final SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        CommandReader commandReader = (CommandReader) key.attachment();
+        int length = channel.read(commandReader.buffer);
+        String commandLine = commandReader.getCommandLine(length < 0);
+        if (null != commandLine) {
+            key.interestOps(0);
+            commandExecutor.submit(new CommandTask(channel, commandReader.monitorPort, commandLine));
+        } else if (length < 0 || !commandReader.buffer.hasRemaining()) {
+            channel.close();
+        }
+    }
+    
+    private static void closeQuietly(final Channel channel) {
+        try {
+            channel.close();
+        } catch (final IOException ex) {
+            log.error("Elastic job: Monitor service close failure, error is: ", ex);
+        }
+    }
+    
+    private static final class MonitorPort {
+        
+        private final ServerSocketChannel serverChannel;
+        
+        private final ConcurrentNavigableMap<String, MonitorService> monitorServices = new ConcurrentSkipListMap<>();
+        
+        MonitorPort(final ServerSocketChannel serverChannel) {
+            this.serverChannel = serverChannel;
+        }
+    }
+    
+    private static final class CommandReader {
+        
+        private final MonitorPort monitorPort;
+        
+        private final ByteBuffer buffer = ByteBuffer.allocate(MAX_COMMAND_LENGTH);
+        
+        CommandReader(final MonitorPort monitorPort) {
+            this.monitorPort = monitorPort;
+        }
+        
+        String getCommandLine(final boolean endOfStream) {
+            for (int i = 0; i < buffer.position(); i++) {
+                if ('\n' == buffer.get(i)) {
+                    return new String(buffer.array(), 0, i, Charsets.UTF_8).trim();
+                }
+            }
+            return endOfStream && buffer.position() > 0 ? new String(buffer.array(), 0, buffer.position(), Charsets.UTF_8).trim() : null;
+        }
+    }
+    
+    private static final class CommandTask implements Runnable {
+        
+        private final SocketChannel channel;
+        
+        private final MonitorPort monitorPort;
+        
+        private final String commandLine;
+        
+        CommandTask(final SocketChannel channel, final MonitorPort monitorPort, final String commandLine) {
+            this.channel = channel;
+            this.monitorPort = monitorPort;
+            this.commandLine = commandLine;
+        }
+        
+        @Override
+        public void run() {
+            try (MonitorResponseWriter writer = new MonitorResponseWriter(channel, SensitiveInfoUtils.newSensitiveIpFilter())) {
+                List<String> arguments = Splitter.on(' ').omitEmptyStrings().splitToList(commandLine);
+                if (arguments.isEmpty()) {
+                    return;
+                }
+                String command = arguments.get(0);
+                for (MonitorService each : getMonitorServices(arguments)) {
+                    if (MonitorService.DUMP_COMMAND.equalsIgnoreCase(command)) {
+                        each.dump(writer);
+                    } else if (MonitorService.METRICS_COMMAND.equalsIgnoreCase(command)) {
+                        each.writeMetrics(writer);
+                    }
+                }
+            } catch (final IOException ex) {
+                log.error("Elastic job: Monitor service write response failure, error is: ", ex);
+            }
+        }
+        
+        private Collection<MonitorService> getMonitorServices(final List<String> arguments) {
+            if (1 == arguments.size()) {
+                return monitorPort.monitorServices.values();
+            }
+            MonitorService result = monitorPort.monitorServices.get(arguments.get(1));
+            return null == result ? Collections.<MonitorService>emptyList() : Collections.singletonList(result);
+        }
+    }
+}
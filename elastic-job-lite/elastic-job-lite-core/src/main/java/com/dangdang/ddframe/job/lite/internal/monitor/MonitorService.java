@@ -18,22 +18,14 @@
 package com.dangdang.ddframe.job.lite.internal.monitor;
 
 import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
-import com.dangdang.ddframe.job.lite.internal.util.SensitiveInfoUtils;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import com.google.common.base.Joiner;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.recipes.cache.ChildData;
 import org.apache.curator.framework.recipes.cache.TreeCache;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map.Entry;
 
 /**
  * 作业监控服务.
@@ -45,15 +37,15 @@ public final class MonitorService {
     
     public static final String DUMP_COMMAND = "dump";
     
+    public static final String METRICS_COMMAND = "metrics";
+    
     private final String jobName;
     
     private final CoordinatorRegistryCenter regCenter;
     
     private final ConfigurationService configService;
     
-    private ServerSocket serverSocket;
-    
-    private volatile boolean closed;
+    private volatile int port = -1;
     
     public MonitorService(final CoordinatorRegistryCenter regCenter, final String jobName) {
         this.jobName = jobName;
@@ -71,79 +63,61 @@ public final class MonitorService {
         }
         try {
             log.info("Elastic job: Monitor service is running, the port is '{}'", port);
-            openSocketForMonitor(port);
+            MonitorServer.getInstance().register(port, jobName, this);
+            this.port = port;
         } catch (final IOException ex) {
             log.error("Elastic job: Monitor service listen failure, error is: ", ex);
         }
     }
     
-    private void openSocketForMonitor(final int port) throws IOException {
-        serverSocket = new ServerSocket(port);
-        new Thread() {
-            
-            @Override
-            public void run() {
-                while (!closed) {
-                    try {
-                        process(serverSocket.accept());
-                    } catch (final IOException ex) {
-                        log.error("Elastic job: Monitor service open socket for monitor failure, error is: ", ex);
-                    }
-                }
-            }
-        }.start();
-    }
-    
-    private void process(final Socket socket) throws IOException {
-        try (
-                BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
-                Socket autoCloseSocket = socket) {
-            String cmdLine = reader.readLine();
-            if (null != cmdLine && DUMP_COMMAND.equalsIgnoreCase(cmdLine)) {
-                List<String> result = new ArrayList<>();
-                dumpDirectly("/" + jobName, result);
-                outputMessage(writer, Joiner.on("\n").join(SensitiveInfoUtils.filterSensitiveIps(result)) + "\n");
-            }
-        }
+    /**
+     * 输出作业在注册中心及本地缓存中的数据.
+     * 
+     * @param writer 响应输出
+     * @throws IOException 通道写入异常
+     */
+    void dump(final MonitorResponseWriter writer) throws IOException {
+        dumpDirectly("/" + jobName, (TreeCache) regCenter.getRawCache("/" + jobName), writer);
     }
     
-    private void dumpDirectly(final String path, final List<String> result) {
+    private void dumpDirectly(final String path, final TreeCache treeCache, final MonitorResponseWriter writer) throws IOException {
         for (String each : regCenter.getChildrenKeys(path)) {
             String zkPath = path + "/" + each;
             String zkValue = regCenter.get(zkPath);
             if (null == zkValue) {
                 zkValue = "";
             }
-            TreeCache treeCache = (TreeCache) regCenter.getRawCache("/" + jobName);
-            ChildData treeCacheData = treeCache.getCurrentData(zkPath);
+            ChildData treeCacheData = null == treeCache ? null : treeCache.getCurrentData(zkPath);
             String treeCachePath =  null == treeCacheData ? "" : treeCacheData.getPath();
             String treeCacheValue = null == treeCacheData ? "" : new String(treeCacheData.getData());
             if (zkValue.equals(treeCacheValue) && zkPath.equals(treeCachePath)) {
-                result.add(Joiner.on(" | ").join(zkPath, zkValue));
+                writer.writeLine(Joiner.on(" | ").join(zkPath, zkValue));
             } else {
-                result.add(Joiner.on(" | ").join(zkPath, zkValue, treeCachePath, treeCacheValue));
+                writer.writeLine(Joiner.on(" | ").join(zkPath, zkValue, treeCachePath, treeCacheValue));
             }
-            dumpDirectly(zkPath, result);
+            dumpDirectly(zkPath, treeCache, writer);
         }
     }
     
-    private void outputMessage(final BufferedWriter outputWriter, final String msg) throws IOException {
-        outputWriter.append(msg);
-        outputWriter.flush();
+    /**
+     * 输出作业运行指标.
+     * 
+     * @param writer 响应输出
+     * @throws IOException 通道写入异常
+     */
+    void writeMetrics(final MonitorResponseWriter writer) throws IOException {
+        for (Entry<String, String> entry : JobMetricsRegistry.getInstance().getJobMetrics(jobName).snapshot().entrySet()) {
+            writer.writeLine(Joiner.on(" | ").join(jobName, entry.getKey(), entry.getValue()));
+        }
     }
     
     /**
      * 关闭作业监听服务.
      */
     public void close() {
-        closed = true;
-        if (null != serverSocket && !serverSocket.isClosed()) {
-            try {
-                serverSocket.close();
-            } catch (final IOException ex) {
-                log.error("Elastic job: Monitor service close failure, error is: ", ex);
-            }
+        if (port >= 0) {
+            MonitorServer.getInstance().unregister(port, jobName);
+            port = -1;
         }
     }
 }
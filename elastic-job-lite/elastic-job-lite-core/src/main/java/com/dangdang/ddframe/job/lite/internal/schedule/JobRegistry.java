@@ -18,33 +18,32 @@
 package com.dangdang.ddframe.job.lite.internal.schedule;
 
 import com.dangdang.ddframe.job.lite.api.strategy.JobInstance;
+import com.dangdang.ddframe.job.lite.internal.monitor.JobMetricsRegistry;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.google.common.base.Function;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * 作业注册表.
  * 
+ * <p>
+ * 每个作业的状态保存为一个不可变的{@link JobState}, 更新时通过比较并替换整体更新, 读取无需加锁.
+ * 需要读取多项状态时, 应通过{@link #getJobState(String)}获取一次快照后读取.
+ * </p>
+ * 
  * @author zhangliang
  * @author caohao
  */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class JobRegistry {
     
-    private static volatile JobRegistry instance;
-    
-    private Map<String, JobScheduleController> schedulerMap = new ConcurrentHashMap<>();
-    
-    private Map<String, CoordinatorRegistryCenter> regCenterMap = new ConcurrentHashMap<>();
-    
-    private Map<String, JobInstance> jobInstanceMap = new ConcurrentHashMap<>();
-    
-    private Map<String, Boolean> jobRunningMap = new ConcurrentHashMap<>();
+    private static final JobRegistry INSTANCE = new JobRegistry();
     
-    private Map<String, Integer> currentShardingTotalCountMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, JobState> jobStateMap = new ConcurrentHashMap<>();
     
     /**
      * 获取作业注册表实例.
@@ -52,14 +51,18 @@ public final class JobRegistry {
      * @return 作业注册表实例
      */
     public static JobRegistry getInstance() {
-        if (null == instance) {
-            synchronized (JobRegistry.class) {
-                if (null == instance) {
-                    instance = new JobRegistry();
-                }
-            }
-        }
-        return instance;
+        return INSTANCE;
+    }
+    
+    /**
+     * 获取作业运行状态.
+     * 
+     * @param jobName 作业名称
+     * @return 作业运行状态, 作业未注册时返回空状态
+     */
+    public JobState getJobState(final String jobName) {
+        JobState result = jobStateMap.get(jobName);
+        return null == result ? JobState.EMPTY : result;
     }
     
     /**
@@ -70,8 +73,13 @@ public final class JobRegistry {
      * @param regCenter 注册中心
      */
     public void registerJob(final String jobName, final JobScheduleController jobScheduleController, final CoordinatorRegistryCenter regCenter) {
-        schedulerMap.put(jobName, jobScheduleController);
-        regCenterMap.put(jobName, regCenter);
+        update(jobName, new Function<JobState, JobState>() {
+            
+            @Override
+            public JobState apply(final JobState input) {
+                return input.withJobScheduleController(jobScheduleController, regCenter);
+            }
+        });
         regCenter.addCacheData("/" + jobName);
     }
     
@@ -82,7 +90,7 @@ public final class JobRegistry {
      * @return 作业调度控制器
      */
     public JobScheduleController getJobScheduleController(final String jobName) {
-        return schedulerMap.get(jobName);
+        return getJobState(jobName).getJobScheduleController();
     }
     
     /**
@@ -92,7 +100,7 @@ public final class JobRegistry {
      * @return 作业注册中心
      */
     public CoordinatorRegistryCenter getRegCenter(final String jobName) {
-        return regCenterMap.get(jobName);
+        return getJobState(jobName).getRegCenter();
     }
     
     /**
@@ -102,7 +110,13 @@ public final class JobRegistry {
      * @param jobInstance 作业实例
      */
     public void addJobInstance(final String jobName, final JobInstance jobInstance) {
-        jobInstanceMap.put(jobName, jobInstance);
+        update(jobName, new Function<JobState, JobState>() {
+            
+            @Override
+            public JobState apply(final JobState input) {
+                return input.withJobInstance(jobInstance);
+            }
+        });
     }
     
     /**
@@ -112,7 +126,7 @@ public final class JobRegistry {
      * @return 作业运行实例
      */
     public JobInstance getJobInstance(final String jobName) {
-        return jobInstanceMap.get(jobName);
+        return getJobState(jobName).getJobInstance();
     }
     
     /**
@@ -122,8 +136,7 @@ public final class JobRegistry {
      * @return 作业是否在运行
      */
     public boolean isJobRunning(final String jobName) {
-        Boolean result = jobRunningMap.get(jobName);
-        return null == result ? false : result;
+        return getJobState(jobName).isRunning();
     }
     
     /**
@@ -133,7 +146,13 @@ public final class JobRegistry {
      * @param isRunning 作业是否在运行
      */
     public void setJobRunning(final String jobName, final boolean isRunning) {
-        jobRunningMap.put(jobName, isRunning);
+        update(jobName, new Function<JobState, JobState>() {
+            
+            @Override
+            public JobState apply(final JobState input) {
+                return input.withRunning(isRunning);
+            }
+        });
     }
     
     /**
@@ -143,8 +162,7 @@ public final class JobRegistry {
      * @return 当前分片总数
      */
     public int getCurrentShardingTotalCount(final String jobName) {
-        Integer result = currentShardingTotalCountMap.get(jobName);
-        return null == result ? 0 : result;
+        return getJobState(jobName).getCurrentShardingTotalCount();
     }
     
     /**
@@ -154,7 +172,30 @@ public final class JobRegistry {
      * @param currentShardingTotalCount 当前分片总数
      */
     public void setCurrentShardingTotalCount(final String jobName, final int currentShardingTotalCount) {
-        currentShardingTotalCountMap.put(jobName, currentShardingTotalCount);
+        update(jobName, new Function<JobState, JobState>() {
+            
+            @Override
+            public JobState apply(final JobState input) {
+                return input.withCurrentShardingTotalCount(currentShardingTotalCount);
+            }
+        });
+    }
+    
+    private void update(final String jobName, final Function<JobState, JobState> function) {
+        while (true) {
+            JobState current = jobStateMap.get(jobName);
+            if (null == current) {
+                JobState updated = function.apply(JobState.EMPTY);
+                if (JobState.EMPTY == updated || null == jobStateMap.putIfAbsent(jobName, updated)) {
+                    return;
+                }
+            } else {
+                JobState updated = function.apply(current);
+                if (current == updated || jobStateMap.replace(jobName, current, updated)) {
+                    return;
+                }
+            }
+        }
     }
     
     /**
@@ -163,17 +204,17 @@ public final class JobRegistry {
      * @param jobName 作业名称
      */
     public void shutdown(final String jobName) {
-        JobScheduleController scheduleController = schedulerMap.remove(jobName);
-        if (null != scheduleController) {
-            scheduleController.shutdown();
+        JobMetricsRegistry.getInstance().remove(jobName);
+        JobState jobState = jobStateMap.remove(jobName);
+        if (null == jobState) {
+            return;
+        }
+        if (null != jobState.getJobScheduleController()) {
+            jobState.getJobScheduleController().shutdown();
         }
-        CoordinatorRegistryCenter regCenter = regCenterMap.remove(jobName);
-        if (null != regCenter) {
-            regCenter.evictCacheData("/" + jobName);
+        if (null != jobState.getRegCenter()) {
+            jobState.getRegCenter().evictCacheData("/" + jobName);
         }
-        jobInstanceMap.remove(jobName);
-        jobRunningMap.remove(jobName);
-        currentShardingTotalCountMap.remove(jobName);
     }
     
     /**
@@ -183,6 +224,6 @@ public final class JobRegistry {
      * @return 任务调度是否已终止
      */
     public boolean isShutdown(final String jobName) {
-        return !schedulerMap.containsKey(jobName) || !jobInstanceMap.containsKey(jobName);
+        return getJobState(jobName).isShutdown();
     }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.schedule;
+
+import com.dangdang.ddframe.job.lite.api.strategy.JobInstance;
+import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 作业运行状态.
+ * 
+ * <p>
+ * 不可变对象, 状态变化时由作业注册表整体替换.
+ * 持有同一实例读取的调度控制器, 作业实例等状态始终相互一致, 无需多次查询注册表.
+ * </p>
+ * 
+ * @author zhangliang
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public final class JobState {
+    
+    static final JobState EMPTY = new JobState(null, null, null, false, 0);
+    
+    private final JobScheduleController jobScheduleController;
+    
+    private final CoordinatorRegistryCenter regCenter;
+    
+    private final JobInstance jobInstance;
+    
+    private final boolean running;
+    
+    private final int currentShardingTotalCount;
+    
+    JobState withJobScheduleController(final JobScheduleController jobScheduleController, final CoordinatorRegistryCenter regCenter) {
+        return new JobState(jobScheduleController, regCenter, jobInstance, running, currentShardingTotalCount);
+    }
+    
+    JobState withJobInstance(final JobInstance jobInstance) {
+        return new JobState(jobScheduleController, regCenter, jobInstance, running, currentShardingTotalCount);
+    }
+    
+    JobState withRunning(final boolean running) {
+        return running == this.running ? this : new JobState(jobScheduleController, regCenter, jobInstance, running, currentShardingTotalCount);
+    }
+    
+    JobState withCurrentShardingTotalCount(final int currentShardingTotalCount) {
+        return currentShardingTotalCount == this.currentShardingTotalCount ? this : new JobState(jobScheduleController, regCenter, jobInstance, running, currentShardingTotalCount);
+    }
+    
+    /**
+     * 判断任务调度是否已终止.
+     * 
+     * @return 任务调度是否已终止
+     */
+    public boolean isShutdown() {
+        return null == jobScheduleController || null == jobInstance;
+    }
+}
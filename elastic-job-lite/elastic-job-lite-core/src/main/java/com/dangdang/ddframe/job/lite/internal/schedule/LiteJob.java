@@ -3,11 +3,14 @@ package com.dangdang.ddframe.job.lite.internal.schedule;
 import com.dangdang.ddframe.job.api.ElasticJob;
 import com.dangdang.ddframe.job.executor.JobExecutorFactory;
 import com.dangdang.ddframe.job.executor.JobFacade;
+import com.dangdang.ddframe.job.lite.internal.monitor.JobMetricsRegistry;
 import lombok.Setter;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 
+import java.util.Date;
+
 /**
  * Lite调度作业.
  *
@@ -23,6 +26,13 @@ public final class LiteJob implements Job {
     
     @Override
     public void execute(final JobExecutionContext context) throws JobExecutionException {
-        JobExecutorFactory.getJobExecutor(elasticJob, jobFacade).execute();
+        long startTime = System.currentTimeMillis();
+        try {
+            JobExecutorFactory.getJobExecutor(elasticJob, jobFacade).execute();
+        } finally {
+            Date scheduledFireTime = null == context.getScheduledFireTime() ? context.getFireTime() : context.getScheduledFireTime();
+            long triggerDelay = null == scheduledFireTime ? 0L : Math.max(0L, startTime - scheduledFireTime.getTime());
+            JobMetricsRegistry.getInstance().getJobMetrics(context.getJobDetail().getKey().getName()).recordTrigger(triggerDelay, System.currentTimeMillis() - startTime);
+        }
     }
 }
@@ -19,6 +19,7 @@ package com.dangdang.ddframe.job.lite.internal.server;
 
 import com.dangdang.ddframe.job.lite.internal.instance.InstanceNode;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobState;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 
@@ -50,8 +51,9 @@ public final class ServerService {
      * @param enabled 作业是否启用
      */
     public void persistOnline(final boolean enabled) {
-        if (!JobRegistry.getInstance().isShutdown(jobName)) {
-            jobNodeStorage.fillJobNode(serverNode.getServerNode(JobRegistry.getInstance().getJobInstance(jobName).getIp()), enabled ? "" : ServerStatus.DISABLED.name());
+        JobState jobState = JobRegistry.getInstance().getJobState(jobName);
+        if (!jobState.isShutdown()) {
+            jobNodeStorage.fillJobNode(serverNode.getServerNode(jobState.getJobInstance().getIp()), enabled ? "" : ServerStatus.DISABLED.name());
         }
     }
     
@@ -58,9 +58,7 @@ public final class ExecutionService {
         if (!configService.load(true).isMonitorExecution()) {
             return;
         }
-        for (int each : shardingContexts.getShardingItemParameters().keySet()) {
-            jobNodeStorage.fillEphemeralJobNode(ShardingNode.getRunningNode(each), "");
-        }
+        jobNodeStorage.fillEphemeralJobNodes(getRunningNodes(shardingContexts.getShardingItemParameters().keySet()), "");
     }
     
     /**
@@ -73,9 +71,7 @@ public final class ExecutionService {
         if (!configService.load(true).isMonitorExecution()) {
             return;
         }
-        for (int each : shardingContexts.getShardingItemParameters().keySet()) {
-            jobNodeStorage.removeJobNodeIfExisted(ShardingNode.getRunningNode(each));
-        }
+        jobNodeStorage.removeJobNodesIfExisted(getRunningNodes(shardingContexts.getShardingItemParameters().keySet()));
     }
     
     /**
@@ -91,9 +87,15 @@ public final class ExecutionService {
      * @param items 需要清理的分片项列表
      */
     public void clearRunningInfo(final List<Integer> items) {
+        jobNodeStorage.removeJobNodesIfExisted(getRunningNodes(items));
+    }
+    
+    private List<String> getRunningNodes(final Collection<Integer> items) {
+        List<String> result = new ArrayList<>(items.size());
         for (int each : items) {
-            jobNodeStorage.removeJobNodeIfExisted(ShardingNode.getRunningNode(each));
+            result.add(ShardingNode.getRunningNode(each));
         }
+        return result;
     }
     
     /**
@@ -107,12 +109,7 @@ public final class ExecutionService {
         if (null == jobConfig || !jobConfig.isMonitorExecution()) {
             return false;
         }
-        for (int each : items) {
-            if (jobNodeStorage.isJobNodeExisted(ShardingNode.getRunningNode(each))) {
-                return true;
-            }
-        }
-        return false;
+        return jobNodeStorage.isJobNodesExisted(getRunningNodes(items)).contains(true);
     }
     
     /**
@@ -153,9 +150,15 @@ public final class ExecutionService {
      * @param items 需要设置错过执行的任务分片项
      */
     public void setMisfire(final Collection<Integer> items) {
+        jobNodeStorage.createJobNodesIfNeeded(getMisfireNodes(items));
+    }
+    
+    private List<String> getMisfireNodes(final Collection<Integer> items) {
+        List<String> result = new ArrayList<>(items.size());
         for (int each : items) {
-            jobNodeStorage.createJobNodeIfNeeded(ShardingNode.getMisfireNode(each));
+            result.add(ShardingNode.getMisfireNode(each));
         }
+        return result;
     }
     
     /**
@@ -165,13 +168,7 @@ public final class ExecutionService {
      * @return 标记被错过执行的任务分片项
      */
     public List<Integer> getMisfiredJobItems(final Collection<Integer> items) {
-        List<Integer> result = new ArrayList<>(items.size());
-        for (int each : items) {
-            if (jobNodeStorage.isJobNodeExisted(ShardingNode.getMisfireNode(each))) {
-                result.add(each);
-            }
-        }
-        return result;
+        return filterExistedItems(items, jobNodeStorage.isJobNodesExisted(getMisfireNodes(items)));
     }
     
     /**
@@ -180,9 +177,7 @@ public final class ExecutionService {
      * @param items 需要清除错过执行的任务分片项
      */
     public void clearMisfire(final Collection<Integer> items) {
-        for (int each : items) {
-            jobNodeStorage.removeJobNodeIfExisted(ShardingNode.getMisfireNode(each));
-        }
+        jobNodeStorage.removeJobNodesIfExisted(getMisfireNodes(items));
     }
     
     /**
@@ -192,9 +187,18 @@ public final class ExecutionService {
      * @return 禁用的任务分片项
      */
     public List<Integer> getDisabledItems(final List<Integer> items) {
+        List<String> disabledNodes = new ArrayList<>(items.size());
+        for (int each : items) {
+            disabledNodes.add(ShardingNode.getDisabledNode(each));
+        }
+        return filterExistedItems(items, jobNodeStorage.isJobNodesExisted(disabledNodes));
+    }
+    
+    private List<Integer> filterExistedItems(final Collection<Integer> items, final List<Boolean> existed) {
         List<Integer> result = new ArrayList<>(items.size());
+        int index = 0;
         for (int each : items) {
-            if (jobNodeStorage.isJobNodeExisted(ShardingNode.getDisabledNode(each))) {
+            if (existed.get(index++)) {
                 result.add(each);
             }
         }
@@ -26,6 +26,7 @@ import com.dangdang.ddframe.job.lite.internal.election.LeaderService;
 import com.dangdang.ddframe.job.lite.internal.instance.InstanceNode;
 import com.dangdang.ddframe.job.lite.internal.instance.InstanceService;
 import com.dangdang.ddframe.job.lite.internal.schedule.JobRegistry;
+import com.dangdang.ddframe.job.lite.internal.schedule.JobState;
 import com.dangdang.ddframe.job.lite.internal.server.ServerService;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodePath;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
@@ -173,10 +174,11 @@ public final class ShardingService {
      * @return 运行在本作业实例的分片项集合
      */
     public List<Integer> getLocalShardingItems() {
-        if (JobRegistry.getInstance().isShutdown(jobName) || !serverService.isAvailableServer(JobRegistry.getInstance().getJobInstance(jobName).getIp())) {
+        JobState jobState = JobRegistry.getInstance().getJobState(jobName);
+        if (jobState.isShutdown() || !serverService.isAvailableServer(jobState.getJobInstance().getIp())) {
             return Collections.emptyList();
         }
-        return getShardingItems(JobRegistry.getInstance().getJobInstance(jobName).getJobInstanceId());
+        return getShardingItems(jobState.getJobInstance().getJobInstanceId());
     }
     
     /**
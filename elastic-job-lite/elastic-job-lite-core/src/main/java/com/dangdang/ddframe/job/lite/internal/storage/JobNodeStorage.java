@@ -18,8 +18,13 @@
 package com.dangdang.ddframe.job.lite.internal.storage;
 
 import com.dangdang.ddframe.job.exception.JobSystemException;
+import com.dangdang.ddframe.job.lite.internal.monitor.JobMetrics;
+import com.dangdang.ddframe.job.lite.internal.monitor.JobMetricsRegistry;
+import com.dangdang.ddframe.job.reg.base.AsyncRegistryCenter;
+import com.dangdang.ddframe.job.reg.base.AsyncRegistryCenterUtils;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import com.dangdang.ddframe.job.reg.exception.RegExceptionHandler;
+import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
 import org.apache.curator.framework.recipes.cache.TreeCache;
@@ -27,6 +32,8 @@ import org.apache.curator.framework.recipes.cache.TreeCacheListener;
 import org.apache.curator.framework.recipes.leader.LeaderLatch;
 import org.apache.curator.framework.state.ConnectionStateListener;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -34,6 +41,7 @@ import java.util.List;
  * 
  * <p>
  * 作业节点是在普通的节点前加上作业名称的前缀.
+ * 注册中心支持异步操作时, 批量操作先发出全部请求再统一等待结果.
  * </p>
  * 
  * @author zhangliang
@@ -46,10 +54,13 @@ public final class JobNodeStorage {
     
     private final JobNodePath jobNodePath;
     
+    private final JobMetrics jobMetrics;
+    
     public JobNodeStorage(final CoordinatorRegistryCenter regCenter, final String jobName) {
         this.regCenter = regCenter;
         this.jobName = jobName;
         jobNodePath = new JobNodePath(jobName);
+        jobMetrics = JobMetricsRegistry.getInstance().getJobMetrics(jobName);
     }
     
     /**
@@ -59,17 +70,48 @@ public final class JobNodeStorage {
      * @return 作业节点是否存在
      */
     public boolean isJobNodeExisted(final String node) {
+        jobMetrics.recordRegCenterRead();
         return regCenter.isExisted(jobNodePath.getFullPath(node));
     }
     
+    /**
+     * 判断多个作业节点是否存在.
+     * 
+     * @param nodes 作业节点名称列表
+     * @return 与作业节点名称列表顺序一致的是否存在列表
+     */
+    public List<Boolean> isJobNodesExisted(final List<String> nodes) {
+        List<Boolean> result = new ArrayList<>(nodes.size());
+        AsyncRegistryCenter asyncRegCenter = getAsyncRegCenter();
+        if (null == asyncRegCenter) {
+            for (String each : nodes) {
+                result.add(isJobNodeExisted(each));
+            }
+            return result;
+        }
+        List<ListenableFuture<Boolean>> futures = new ArrayList<>(nodes.size());
+        for (String each : nodes) {
+            jobMetrics.recordRegCenterRead();
+            futures.add(asyncRegCenter.isExistedAsync(jobNodePath.getFullPath(each)));
+        }
+        for (Boolean each : AsyncRegistryCenterUtils.awaitAll(futures)) {
+            result.add(Boolean.TRUE.equals(each));
+        }
+        return result;
+    }
+    
     /**
      * 获取作业节点数据.
      * 
+     * <p>
+     * 优先读取本地缓存, 缓存中不存在的节点直接从注册中心读取并计为缓存未命中.
+     * </p>
+     * 
      * @param node 作业节点名称
      * @return 作业节点数据值
      */
     public String getJobNodeData(final String node) {
-        return regCenter.get(jobNodePath.getFullPath(node));
+        return regCenter.get(jobNodePath.getFullPath(node), jobMetrics);
     }
     
     /**
@@ -79,9 +121,33 @@ public final class JobNodeStorage {
      * @return 作业节点数据值
      */
     public String getJobNodeDataDirectly(final String node) {
+        jobMetrics.recordRegCenterRead();
         return regCenter.getDirectly(jobNodePath.getFullPath(node));
     }
     
+    /**
+     * 直接从注册中心而非本地缓存获取多个作业节点数据.
+     * 
+     * @param nodes 作业节点名称列表
+     * @return 与作业节点名称列表顺序一致的作业节点数据值列表, 节点不存在时为null
+     */
+    public List<String> getJobNodesDataDirectly(final List<String> nodes) {
+        AsyncRegistryCenter asyncRegCenter = getAsyncRegCenter();
+        if (null == asyncRegCenter) {
+            List<String> result = new ArrayList<>(nodes.size());
+            for (String each : nodes) {
+                result.add(getJobNodeDataDirectly(each));
+            }
+            return result;
+        }
+        List<ListenableFuture<String>> futures = new ArrayList<>(nodes.size());
+        for (String each : nodes) {
+            jobMetrics.recordRegCenterRead();
+            futures.add(asyncRegCenter.getDirectlyAsync(jobNodePath.getFullPath(each)));
+        }
+        return AsyncRegistryCenterUtils.awaitAll(futures);
+    }
+    
     /**
      * 获取作业节点子节点名称列表.
      * 
@@ -89,6 +155,7 @@ public final class JobNodeStorage {
      * @return 作业节点子节点名称列表
      */
     public List<String> getJobNodeChildrenKeys(final String node) {
+        jobMetrics.recordRegCenterRead();
         return regCenter.getChildrenKeys(jobNodePath.getFullPath(node));
     }
     
@@ -101,11 +168,42 @@ public final class JobNodeStorage {
      */
     public void createJobNodeIfNeeded(final String node) {
         if (isJobRootNodeExisted() && !isJobNodeExisted(node)) {
+            jobMetrics.recordRegCenterWrite();
             regCenter.persist(jobNodePath.getFullPath(node), "");
         }
     }
     
+    /**
+     * 如果不存在则创建多个作业节点.
+     * 
+     * <p>如果作业根节点不存在表示作业已经停止, 不再继续创建节点.</p>
+     * 
+     * @param nodes 作业节点名称列表
+     */
+    public void createJobNodesIfNeeded(final List<String> nodes) {
+        if (nodes.isEmpty() || !isJobRootNodeExisted()) {
+            return;
+        }
+        List<Boolean> existed = isJobNodesExisted(nodes);
+        AsyncRegistryCenter asyncRegCenter = getAsyncRegCenter();
+        List<ListenableFuture<Void>> futures = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            if (existed.get(i)) {
+                continue;
+            }
+            jobMetrics.recordRegCenterWrite();
+            String fullPath = jobNodePath.getFullPath(nodes.get(i));
+            if (null == asyncRegCenter) {
+                regCenter.persist(fullPath, "");
+            } else {
+                futures.add(asyncRegCenter.persistAsync(fullPath, ""));
+            }
+        }
+        AsyncRegistryCenterUtils.awaitAll(futures);
+    }
+    
     private boolean isJobRootNodeExisted() {
+        jobMetrics.recordRegCenterRead();
         return regCenter.isExisted("/" + jobName);
     }
     
@@ -116,10 +214,32 @@ public final class JobNodeStorage {
      */
     public void removeJobNodeIfExisted(final String node) {
         if (isJobNodeExisted(node)) {
+            jobMetrics.recordRegCenterWrite();
             regCenter.remove(jobNodePath.getFullPath(node));
         }
     }
         
+    /**
+     * 删除多个作业节点.
+     * 
+     * @param nodes 作业节点名称集合
+     */
+    public void removeJobNodesIfExisted(final Collection<String> nodes) {
+        AsyncRegistryCenter asyncRegCenter = getAsyncRegCenter();
+        if (null == asyncRegCenter) {
+            for (String each : nodes) {
+                removeJobNodeIfExisted(each);
+            }
+            return;
+        }
+        List<ListenableFuture<Void>> futures = new ArrayList<>(nodes.size());
+        for (String each : nodes) {
+            jobMetrics.recordRegCenterWrite();
+            futures.add(asyncRegCenter.removeAsync(jobNodePath.getFullPath(each)));
+        }
+        AsyncRegistryCenterUtils.awaitAll(futures);
+    }
+    
     /**
      * 填充节点数据.
      *
@@ -127,6 +247,7 @@ public final class JobNodeStorage {
      * @param value 作业节点数据值
      */
     public void fillJobNode(final String node, final Object value) {
+        jobMetrics.recordRegCenterWrite();
         regCenter.persist(jobNodePath.getFullPath(node), value.toString());
     }
     
@@ -137,9 +258,32 @@ public final class JobNodeStorage {
      * @param value 作业节点数据值
      */
     public void fillEphemeralJobNode(final String node, final Object value) {
+        jobMetrics.recordRegCenterWrite();
         regCenter.persistEphemeral(jobNodePath.getFullPath(node), value.toString());
     }
     
+    /**
+     * 填充多个临时节点数据.
+     * 
+     * @param nodes 作业节点名称集合
+     * @param value 作业节点数据值
+     */
+    public void fillEphemeralJobNodes(final Collection<String> nodes, final Object value) {
+        AsyncRegistryCenter asyncRegCenter = getAsyncRegCenter();
+        if (null == asyncRegCenter) {
+            for (String each : nodes) {
+                fillEphemeralJobNode(each, value);
+            }
+            return;
+        }
+        List<ListenableFuture<Void>> futures = new ArrayList<>(nodes.size());
+        for (String each : nodes) {
+            jobMetrics.recordRegCenterWrite();
+            futures.add(asyncRegCenter.persistEphemeralAsync(jobNodePath.getFullPath(each), value.toString()));
+        }
+        AsyncRegistryCenterUtils.awaitAll(futures);
+    }
+    
     /**
      * 更新节点数据.
      * 
@@ -147,6 +291,7 @@ public final class JobNodeStorage {
      * @param value 作业节点数据值
      */
     public void updateJobNode(final String node, final Object value) {
+        jobMetrics.recordRegCenterWrite();
         regCenter.update(jobNodePath.getFullPath(node), value.toString());
     }
     
@@ -157,6 +302,7 @@ public final class JobNodeStorage {
      * @param value 待替换的数据
      */
     public void replaceJobNode(final String node, final Object value) {
+        jobMetrics.recordRegCenterWrite();
         regCenter.persist(jobNodePath.getFullPath(node), value.toString());
     }
 
@@ -166,6 +312,7 @@ public final class JobNodeStorage {
      * @param callback 执行操作的回调
      */
     public void executeInTransaction(final TransactionExecutionCallback callback) {
+        jobMetrics.recordRegCenterWrite();
         try {
             CuratorTransactionFinal curatorTransactionFinal = getClient().inTransaction().check().forPath("/").and();
             callback.execute(curatorTransactionFinal);
@@ -212,6 +359,11 @@ public final class JobNodeStorage {
         getClient().getConnectionStateListenable().addListener(listener);
     }
     
+    private AsyncRegistryCenter getAsyncRegCenter() {
+        return regCenter instanceof AsyncRegistryCenter ? (AsyncRegistryCenter) regCenter : null;
+    }
+    
+    
     private CuratorFramework getClient() {
         return (CuratorFramework) regCenter.getRawClient();
     }
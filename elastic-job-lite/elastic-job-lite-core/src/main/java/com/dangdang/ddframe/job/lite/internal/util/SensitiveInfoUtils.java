@@ -41,6 +41,8 @@ public final class SensitiveInfoUtils {
     
     private static final String FAKE_IP_SAMPLE = "ip";
     
+    private static final Pattern IP_PATTERN = Pattern.compile(IpUtils.IP_REGEX);
+    
     /**
      * 屏蔽替换IP地址敏感信息.
      * 
@@ -48,13 +50,24 @@ public final class SensitiveInfoUtils {
      * @return 替换敏感信息后的字符串列表
      */
     public static List<String> filterSensitiveIps(final List<String> target) {
+        return Lists.transform(target, newSensitiveIpFilter());
+    }
+    
+    /**
+     * 创建屏蔽替换IP地址敏感信息的函数.
+     * 
+     * <p>同一函数对相同的IP地址使用相同的替换值, 适用于逐行处理的场景.</p>
+     * 
+     * @return 屏蔽替换IP地址敏感信息的函数
+     */
+    public static Function<String, String> newSensitiveIpFilter() {
         final Map<String, String> fakeIpMap = new HashMap<>();
         final AtomicInteger step = new AtomicInteger();
-        return Lists.transform(target, new Function<String, String>() {
+        return new Function<String, String>() {
             
             @Override
             public String apply(final String input) {
-                Matcher matcher = Pattern.compile(IpUtils.IP_REGEX).matcher(input);
+                Matcher matcher = IP_PATTERN.matcher(input);
                 String result = input;
                 while (matcher.find()) {
                     String realIp = matcher.group();
@@ -69,6 +82,6 @@ public final class SensitiveInfoUtils {
                 }
                 return result;
             }
-        });
+        };
     }
 }
@@ -26,14 +26,18 @@ import com.dangdang.ddframe.job.util.env.TimeService;
 import com.google.common.collect.Sets;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.unitils.util.ReflectionUtils;
 
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -67,7 +71,7 @@ public final class DistributeOnceElasticJobListenerTest {
     
     @Test
     public void assertBeforeJobExecutedWhenIsAllStarted() {
-        when(guaranteeService.isAllStarted()).thenReturn(true);
+        when(guaranteeService.registerStart(Sets.newHashSet(0, 1))).thenReturn(true);
         distributeOnceElasticJobListener.beforeJobExecuted(shardingContexts);
         verify(guaranteeService).registerStart(Sets.newHashSet(0, 1));
         verify(elasticJobListenerCaller).before();
@@ -76,25 +80,50 @@ public final class DistributeOnceElasticJobListenerTest {
     
     @Test
     public void assertBeforeJobExecutedWhenIsNotAllStartedAndNotTimeout() {
-        when(guaranteeService.isAllStarted()).thenReturn(false);
+        when(guaranteeService.registerStart(ArgumentMatchers.<Integer>anyCollection())).thenAnswer(new Answer<Boolean>() {
+            
+            @Override
+            public Boolean answer(final InvocationOnMock invocation) {
+                distributeOnceElasticJobListener.notifyWaitingTaskStart();
+                return false;
+            }
+        });
         when(timeService.getCurrentMillis()).thenReturn(0L);
         distributeOnceElasticJobListener.beforeJobExecuted(shardingContexts);
         verify(guaranteeService).registerStart(Sets.newHashSet(0, 1));
+        verify(elasticJobListenerCaller, times(0)).before();
         verify(guaranteeService, times(0)).clearAllStartedInfo();
     }
     
     @Test(expected = JobSystemException.class)
     public void assertBeforeJobExecutedWhenIsNotAllStartedAndTimeout() {
-        when(guaranteeService.isAllStarted()).thenReturn(false);
+        when(guaranteeService.registerStart(Sets.newHashSet(0, 1))).thenReturn(false);
         when(timeService.getCurrentMillis()).thenReturn(0L, 2L);
-        distributeOnceElasticJobListener.beforeJobExecuted(shardingContexts);
-        verify(guaranteeService).registerStart(Arrays.asList(0, 1));
-        verify(guaranteeService, times(0)).clearAllStartedInfo();
+        try {
+            distributeOnceElasticJobListener.beforeJobExecuted(shardingContexts);
+        } finally {
+            verify(guaranteeService).clearAllStartedInfo();
+        }
+    }
+    
+    @Test
+    public void assertBeforeJobExecutedWhenIsNotAllStartedAndInterrupted() {
+        when(guaranteeService.registerStart(Sets.newHashSet(0, 1))).thenReturn(false);
+        when(timeService.getCurrentMillis()).thenReturn(0L);
+        Thread.currentThread().interrupt();
+        try {
+            distributeOnceElasticJobListener.beforeJobExecuted(shardingContexts);
+            fail();
+        } catch (final JobSystemException ex) {
+            assertTrue(Thread.interrupted());
+        }
+        verify(elasticJobListenerCaller, times(0)).before();
+        verify(guaranteeService).clearAllStartedInfo();
     }
     
     @Test
     public void assertAfterJobExecutedWhenIsAllCompleted() {
-        when(guaranteeService.isAllCompleted()).thenReturn(true);
+        when(guaranteeService.registerComplete(Sets.newHashSet(0, 1))).thenReturn(true);
         distributeOnceElasticJobListener.afterJobExecuted(shardingContexts);
         verify(guaranteeService).registerComplete(Sets.newHashSet(0, 1));
         verify(elasticJobListenerCaller).after();
@@ -103,19 +132,29 @@ public final class DistributeOnceElasticJobListenerTest {
     
     @Test
     public void assertAfterJobExecutedWhenIsAllCompletedAndNotTimeout() {
-        when(guaranteeService.isAllCompleted()).thenReturn(false);
+        when(guaranteeService.registerComplete(ArgumentMatchers.<Integer>anyCollection())).thenAnswer(new Answer<Boolean>() {
+            
+            @Override
+            public Boolean answer(final InvocationOnMock invocation) {
+                distributeOnceElasticJobListener.notifyWaitingTaskComplete();
+                return false;
+            }
+        });
         when(timeService.getCurrentMillis()).thenReturn(0L);
         distributeOnceElasticJobListener.afterJobExecuted(shardingContexts);
         verify(guaranteeService).registerComplete(Sets.newHashSet(0, 1));
+        verify(elasticJobListenerCaller, times(0)).after();
         verify(guaranteeService, times(0)).clearAllCompletedInfo();
     }
     
     @Test(expected = JobSystemException.class)
     public void assertAfterJobExecutedWhenIsAllCompletedAndTimeout() {
-        when(guaranteeService.isAllCompleted()).thenReturn(false);
+        when(guaranteeService.registerComplete(Sets.newHashSet(0, 1))).thenReturn(false);
         when(timeService.getCurrentMillis()).thenReturn(0L, 2L);
-        distributeOnceElasticJobListener.afterJobExecuted(shardingContexts);
-        verify(guaranteeService).registerComplete(Arrays.asList(0, 1));
-        verify(guaranteeService, times(0)).clearAllCompletedInfo();
+        try {
+            distributeOnceElasticJobListener.afterJobExecuted(shardingContexts);
+        } finally {
+            verify(guaranteeService).clearAllCompletedInfo();
+        }
     }
 }
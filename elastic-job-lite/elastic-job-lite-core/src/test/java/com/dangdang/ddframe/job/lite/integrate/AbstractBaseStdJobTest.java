@@ -47,7 +47,6 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.quartz.SchedulerException;
-import org.unitils.util.ReflectionUtils;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
@@ -140,9 +139,8 @@ public abstract class AbstractBaseStdJobTest {
     }
     
     @After
-    public void tearDown() throws SchedulerException, NoSuchFieldException {
+    public void tearDown() throws SchedulerException {
         jobScheduler.getSchedulerFacade().shutdownInstance();
-        ReflectionUtils.setFieldValue(JobRegistry.getInstance(), "instance", null);
         
     }
     
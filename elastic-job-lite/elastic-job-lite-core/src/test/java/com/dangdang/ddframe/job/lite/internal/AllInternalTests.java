@@ -27,6 +27,7 @@ import com.dangdang.ddframe.job.lite.internal.election.LeaderServiceTest;
 import com.dangdang.ddframe.job.lite.internal.failover.FailoverListenerManagerTest;
 import com.dangdang.ddframe.job.lite.internal.failover.FailoverNodeTest;
 import com.dangdang.ddframe.job.lite.internal.failover.FailoverServiceTest;
+import com.dangdang.ddframe.job.lite.internal.guarantee.GuaranteeBarrierTest;
 import com.dangdang.ddframe.job.lite.internal.guarantee.GuaranteeNodeTest;
 import com.dangdang.ddframe.job.lite.internal.guarantee.GuaranteeServiceTest;
 import com.dangdang.ddframe.job.lite.internal.instance.InstanceNodeTest;
@@ -36,6 +37,7 @@ import com.dangdang.ddframe.job.lite.internal.instance.TriggerListenerManagerTes
 import com.dangdang.ddframe.job.lite.internal.listener.JobListenerTest;
 import com.dangdang.ddframe.job.lite.internal.listener.ListenerManagerTest;
 import com.dangdang.ddframe.job.lite.internal.listener.RegistryCenterConnectionStateListenerTest;
+import com.dangdang.ddframe.job.lite.internal.monitor.JobMetricsTest;
 import com.dangdang.ddframe.job.lite.internal.monitor.MonitorServiceDisableTest;
 import com.dangdang.ddframe.job.lite.internal.monitor.MonitorServiceEnableTest;
 import com.dangdang.ddframe.job.lite.internal.reconcile.ReconcileServiceTest;
@@ -92,7 +94,9 @@ import org.junit.runners.Suite.SuiteClasses;
         ListenerManagerTest.class, 
         JobListenerTest.class,
         MonitorServiceEnableTest.class,
+        JobMetricsTest.class,
         MonitorServiceDisableTest.class, 
+        GuaranteeBarrierTest.class,
         GuaranteeNodeTest.class,
         GuaranteeServiceTest.class, 
         SchedulerFacadeTest.class,
@@ -153,25 +153,17 @@ public final class FailoverServiceTest {
     @Test
     public void assertUpdateFailoverComplete() {
         failoverService.updateFailoverComplete(Arrays.asList(0, 1));
-        verify(jobNodeStorage).removeJobNodeIfExisted("sharding/0/failover");
-        verify(jobNodeStorage).removeJobNodeIfExisted("sharding/1/failover");
+        verify(jobNodeStorage).removeJobNodesIfExisted(Arrays.asList("sharding/0/failover", "sharding/1/failover"));
     }
     
     @Test
     public void assertGetFailoverItems() {
         JobRegistry.getInstance().registerJob("test_job", jobScheduleController, regCenter);
         when(jobNodeStorage.getJobNodeChildrenKeys("sharding")).thenReturn(Arrays.asList("0", "1", "2"));
-        when(jobNodeStorage.isJobNodeExisted("sharding/0/failover")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("sharding/1/failover")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("sharding/2/failover")).thenReturn(false);
-        when(jobNodeStorage.getJobNodeDataDirectly("sharding/0/failover")).thenReturn("127.0.0.1@-@0");
-        when(jobNodeStorage.getJobNodeDataDirectly("sharding/1/failover")).thenReturn("127.0.0.1@-@1");
+        when(jobNodeStorage.getJobNodesDataDirectly(Arrays.asList("sharding/0/failover", "sharding/1/failover", "sharding/2/failover"))).thenReturn(Arrays.asList("127.0.0.1@-@0", "127.0.0.1@-@1", null));
         assertThat(failoverService.getFailoverItems("127.0.0.1@-@1"), is(Collections.singletonList(1)));
         verify(jobNodeStorage).getJobNodeChildrenKeys("sharding");
-        verify(jobNodeStorage).isJobNodeExisted("sharding/0/failover");
-        verify(jobNodeStorage).isJobNodeExisted("sharding/1/failover");
-        verify(jobNodeStorage).getJobNodeDataDirectly("sharding/0/failover");
-        verify(jobNodeStorage).getJobNodeDataDirectly("sharding/1/failover");
+        verify(jobNodeStorage).getJobNodesDataDirectly(Arrays.asList("sharding/0/failover", "sharding/1/failover", "sharding/2/failover"));
         JobRegistry.getInstance().shutdown("test_job");
     }
     
@@ -185,31 +177,20 @@ public final class FailoverServiceTest {
     public void assertGetLocalFailoverItems() {
         JobRegistry.getInstance().registerJob("test_job", jobScheduleController, regCenter);
         when(jobNodeStorage.getJobNodeChildrenKeys("sharding")).thenReturn(Arrays.asList("0", "1", "2"));
-        when(jobNodeStorage.isJobNodeExisted("sharding/0/failover")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("sharding/1/failover")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("sharding/2/failover")).thenReturn(false);
-        when(jobNodeStorage.getJobNodeDataDirectly("sharding/0/failover")).thenReturn("127.0.0.1@-@0");
-        when(jobNodeStorage.getJobNodeDataDirectly("sharding/1/failover")).thenReturn("127.0.0.1@-@1");
+        when(jobNodeStorage.getJobNodesDataDirectly(Arrays.asList("sharding/0/failover", "sharding/1/failover", "sharding/2/failover"))).thenReturn(Arrays.asList("127.0.0.1@-@0", "127.0.0.1@-@1", null));
         assertThat(failoverService.getLocalFailoverItems(), is(Collections.singletonList(0)));
         verify(jobNodeStorage).getJobNodeChildrenKeys("sharding");
-        verify(jobNodeStorage).isJobNodeExisted("sharding/0/failover");
-        verify(jobNodeStorage).isJobNodeExisted("sharding/1/failover");
-        verify(jobNodeStorage).getJobNodeDataDirectly("sharding/0/failover");
-        verify(jobNodeStorage).getJobNodeDataDirectly("sharding/1/failover");
+        verify(jobNodeStorage).getJobNodesDataDirectly(Arrays.asList("sharding/0/failover", "sharding/1/failover", "sharding/2/failover"));
         JobRegistry.getInstance().shutdown("test_job");
     }
     
     @Test
     public void assertGetLocalTakeOffItems() {
         when(shardingService.getLocalShardingItems()).thenReturn(Arrays.asList(0, 1, 2));
-        when(jobNodeStorage.isJobNodeExisted("sharding/0/failover")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("sharding/1/failover")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("sharding/2/failover")).thenReturn(false);
+        when(jobNodeStorage.isJobNodesExisted(Arrays.asList("sharding/0/failover", "sharding/1/failover", "sharding/2/failover"))).thenReturn(Arrays.asList(true, true, false));
         assertThat(failoverService.getLocalTakeOffItems(), is(Arrays.asList(0, 1)));
         verify(shardingService).getLocalShardingItems();
-        verify(jobNodeStorage).isJobNodeExisted("sharding/0/failover");
-        verify(jobNodeStorage).isJobNodeExisted("sharding/1/failover");
-        verify(jobNodeStorage).isJobNodeExisted("sharding/2/failover");
+        verify(jobNodeStorage).isJobNodesExisted(Arrays.asList("sharding/0/failover", "sharding/1/failover", "sharding/2/failover"));
     }
     
     @Test
@@ -217,8 +198,6 @@ public final class FailoverServiceTest {
         when(jobNodeStorage.getJobNodeChildrenKeys("sharding")).thenReturn(Arrays.asList("0", "1", "2"));
         failoverService.removeFailoverInfo();
         verify(jobNodeStorage).getJobNodeChildrenKeys("sharding");
-        verify(jobNodeStorage).removeJobNodeIfExisted("sharding/0/failover");
-        verify(jobNodeStorage).removeJobNodeIfExisted("sharding/1/failover");
-        verify(jobNodeStorage).removeJobNodeIfExisted("sharding/2/failover");
+        verify(jobNodeStorage).removeJobNodesIfExisted(Arrays.asList("sharding/0/failover", "sharding/1/failover", "sharding/2/failover"));
     }
 }
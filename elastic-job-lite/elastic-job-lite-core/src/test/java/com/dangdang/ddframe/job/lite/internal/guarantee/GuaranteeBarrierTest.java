@@ -0,0 +1,169 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.guarantee;
+
+import com.dangdang.ddframe.job.exception.JobSystemException;
+import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperConfiguration;
+import com.dangdang.ddframe.job.reg.zookeeper.ZookeeperRegistryCenter;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.transaction.CuratorTransaction;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.test.TestingServer;
+import org.apache.zookeeper.data.Stat;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+public final class GuaranteeBarrierTest {
+    
+    private static TestingServer testingServer;
+    
+    private static ZookeeperRegistryCenter regCenter;
+    
+    private final GuaranteeBarrier barrier = new GuaranteeBarrier(regCenter, "test_job", GuaranteeNode.STARTED_ROOT);
+    
+    @BeforeClass
+    public static void setUpRegistryCenter() throws Exception {
+        testingServer = new TestingServer();
+        ZookeeperConfiguration zkConfig = new ZookeeperConfiguration(testingServer.getConnectString(), GuaranteeBarrierTest.class.getName());
+        zkConfig.setConnectionTimeoutMilliseconds(30000);
+        regCenter = new ZookeeperRegistryCenter(zkConfig);
+        regCenter.init();
+    }
+    
+    @AfterClass
+    public static void tearDownRegistryCenter() throws Exception {
+        regCenter.close();
+        testingServer.close();
+    }
+    
+    @Before
+    public void setUp() {
+        regCenter.remove("/test_job");
+        regCenter.persist("/test_job/config", "");
+    }
+    
+    @Test
+    public void assertRegisterWhenIsLast() {
+        assertFalse(barrier.register(Arrays.asList(0, 1), 3));
+        assertTrue(barrier.register(Collections.singletonList(2), 3));
+        assertThat(regCenter.getDirectly("/test_job/guarantee/started"), is("3"));
+        assertThat(regCenter.getNumChildren("/test_job/guarantee/started"), is(3));
+    }
+    
+    @Test
+    public void assertRegisterAllItemsOnce() {
+        assertTrue(barrier.register(Arrays.asList(0, 1, 2), 3));
+    }
+    
+    @Test
+    public void assertRegisterRepeatedItems() {
+        assertFalse(barrier.register(Arrays.asList(0, 1), 3));
+        assertFalse(barrier.register(Arrays.asList(0, 1), 3));
+        assertThat(regCenter.getNumChildren("/test_job/guarantee/started"), is(2));
+        assertTrue(barrier.register(Arrays.asList(1, 2), 3));
+        assertThat(regCenter.getNumChildren("/test_job/guarantee/started"), is(3));
+    }
+    
+    @Test
+    public void assertRegisterWithStaleCache() {
+        regCenter.addCacheData("/test_job");
+        try {
+            assertFalse(barrier.register(Collections.singletonList(0), 2));
+            assertTrue(barrier.register(Collections.singletonList(1), 2));
+        } finally {
+            regCenter.evictCacheData("/test_job");
+        }
+    }
+    
+    @Test
+    public void assertRegisterWithStaleStatOfRecreatedBarrier() {
+        assertFalse(barrier.register(Collections.singletonList(0), 3));
+        Stat staleStat = new Stat();
+        staleStat.setNumChildren(2);
+        TreeCache treeCache = mock(TreeCache.class);
+        when(treeCache.getCurrentData("/test_job/guarantee/started")).thenReturn(new ChildData("/test_job/guarantee/started", staleStat, new byte[0]));
+        ZookeeperRegistryCenter staleRegCenter = spy(regCenter);
+        doReturn(treeCache).when(staleRegCenter).getRawCache("/test_job");
+        assertFalse(new GuaranteeBarrier(staleRegCenter, "test_job", GuaranteeNode.STARTED_ROOT).register(Collections.singletonList(1), 3));
+        assertThat(regCenter.getDirectly("/test_job/guarantee/started"), is("2"));
+        assertTrue(barrier.register(Collections.singletonList(2), 3));
+        assertThat(regCenter.getDirectly("/test_job/guarantee/started"), is("3"));
+    }
+    
+    @Test
+    public void assertRegisterWithRepeatedBadVersion() throws Exception {
+        assertFalse(barrier.register(Collections.singletonList(0), 3));
+        final CuratorFramework client = (CuratorFramework) regCenter.getRawClient();
+        final AtomicInteger transactionCount = new AtomicInteger();
+        CuratorFramework conflictedClient = spy(client);
+        doAnswer(new Answer<CuratorTransaction>() {
+            
+            @Override
+            public CuratorTransaction answer(final InvocationOnMock invocation) throws Throwable {
+                if (transactionCount.incrementAndGet() <= 20) {
+                    client.setData().forPath("/test_job/guarantee/started", client.getData().forPath("/test_job/guarantee/started"));
+                }
+                return (CuratorTransaction) invocation.callRealMethod();
+            }
+        }).when(conflictedClient).inTransaction();
+        ZookeeperRegistryCenter conflictedRegCenter = spy(regCenter);
+        doReturn(conflictedClient).when(conflictedRegCenter).getRawClient();
+        assertFalse(new GuaranteeBarrier(conflictedRegCenter, "test_job", GuaranteeNode.STARTED_ROOT).register(Collections.singletonList(1), 3));
+        assertThat(transactionCount.get(), is(21));
+        assertThat(regCenter.getDirectly("/test_job/guarantee/started"), is("2"));
+        assertTrue(barrier.register(Collections.singletonList(2), 3));
+    }
+    
+    @Test(expected = JobSystemException.class)
+    public void assertRegisterWhenJobRootNodeIsNotExisted() {
+        regCenter.remove("/test_job");
+        try {
+            barrier.register(Collections.singletonList(0), 1);
+        } finally {
+            assertFalse(regCenter.isExisted("/test_job"));
+        }
+    }
+    
+    @Test
+    public void assertClear() {
+        barrier.register(Collections.singletonList(0), 2);
+        barrier.clear();
+        assertFalse(regCenter.isExisted("/test_job/guarantee/started"));
+        assertFalse(barrier.register(Collections.singletonList(1), 2));
+        assertThat(regCenter.getDirectly("/test_job/guarantee/started"), is("1"));
+    }
+}
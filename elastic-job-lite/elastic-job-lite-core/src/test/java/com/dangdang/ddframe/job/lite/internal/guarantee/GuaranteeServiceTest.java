@@ -18,13 +18,10 @@
 package com.dangdang.ddframe.job.lite.internal.guarantee;
 
 import com.dangdang.ddframe.job.config.JobCoreConfiguration;
-import com.dangdang.ddframe.job.config.dataflow.DataflowJobConfiguration;
 import com.dangdang.ddframe.job.config.simple.SimpleJobConfiguration;
 import com.dangdang.ddframe.job.lite.config.LiteJobConfiguration;
-import com.dangdang.ddframe.job.lite.fixture.TestDataflowJob;
 import com.dangdang.ddframe.job.lite.fixture.TestSimpleJob;
 import com.dangdang.ddframe.job.lite.internal.config.ConfigurationService;
-import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -41,7 +38,10 @@ import static org.mockito.Mockito.when;
 public final class GuaranteeServiceTest {
     
     @Mock
-    private JobNodeStorage jobNodeStorage;
+    private GuaranteeBarrier startedBarrier;
+    
+    @Mock
+    private GuaranteeBarrier completedBarrier;
     
     @Mock
     private ConfigurationService configService;
@@ -51,81 +51,46 @@ public final class GuaranteeServiceTest {
     @Before
     public void setUp() throws NoSuchFieldException {
         MockitoAnnotations.initMocks(this);
-        ReflectionUtils.setFieldValue(guaranteeService, "jobNodeStorage", jobNodeStorage);
+        ReflectionUtils.setFieldValue(guaranteeService, "startedBarrier", startedBarrier);
+        ReflectionUtils.setFieldValue(guaranteeService, "completedBarrier", completedBarrier);
         ReflectionUtils.setFieldValue(guaranteeService, "configService", configService);
-    }
-    
-    @Test
-    public void assertRegisterStart() {
-        guaranteeService.registerStart(Arrays.asList(0, 1));
-        verify(jobNodeStorage).createJobNodeIfNeeded("guarantee/started/0");
-        verify(jobNodeStorage).createJobNodeIfNeeded("guarantee/started/1");
-    }
-    
-    @Test
-    public void assertIsNotAllStartedWhenRootNodeIsNotExisted() {
-        when(jobNodeStorage.isJobNodeExisted("guarantee/started")).thenReturn(false);
-        assertFalse(guaranteeService.isAllStarted());
-    }
-    
-    @Test
-    public void assertIsNotAllStarted() {
-        when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new DataflowJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
-                TestDataflowJob.class.getCanonicalName(), true)).build());
-        when(jobNodeStorage.isJobNodeExisted("guarantee/started")).thenReturn(true);
-        when(jobNodeStorage.getJobNodeChildrenKeys("guarantee/started")).thenReturn(Arrays.asList("0", "1"));
-        assertFalse(guaranteeService.isAllStarted());
-    }
-    
-    @Test
-    public void assertIsAllStarted() {
-        when(jobNodeStorage.isJobNodeExisted("guarantee/started")).thenReturn(true);
         when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
                 TestSimpleJob.class.getCanonicalName())).build());
-        when(jobNodeStorage.getJobNodeChildrenKeys("guarantee/started")).thenReturn(Arrays.asList("0", "1", "2"));
-        assertTrue(guaranteeService.isAllStarted());
     }
     
     @Test
-    public void assertClearAllStartedInfo() {
-        guaranteeService.clearAllStartedInfo();
-        verify(jobNodeStorage).removeJobNodeIfExisted("guarantee/started");
+    public void assertRegisterStartWhenIsNotAllStarted() {
+        when(startedBarrier.register(Arrays.asList(0, 1), 3)).thenReturn(false);
+        assertFalse(guaranteeService.registerStart(Arrays.asList(0, 1)));
     }
     
     @Test
-    public void assertRegisterComplete() {
-        guaranteeService.registerComplete(Arrays.asList(0, 1));
-        verify(jobNodeStorage).createJobNodeIfNeeded("guarantee/completed/0");
-        verify(jobNodeStorage).createJobNodeIfNeeded("guarantee/completed/1");
+    public void assertRegisterStartWhenIsAllStarted() {
+        when(startedBarrier.register(Arrays.asList(2), 3)).thenReturn(true);
+        assertTrue(guaranteeService.registerStart(Arrays.asList(2)));
     }
     
     @Test
-    public void assertIsNotAllCompletedWhenRootNodeIsNotExisted() {
-        when(jobNodeStorage.isJobNodeExisted("guarantee/completed")).thenReturn(false);
-        assertFalse(guaranteeService.isAllCompleted());
+    public void assertClearAllStartedInfo() {
+        guaranteeService.clearAllStartedInfo();
+        verify(startedBarrier).clear();
     }
     
     @Test
-    public void assertIsNotAllCompleted() {
-        when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 10).build(),
-                TestSimpleJob.class.getCanonicalName())).build());
-        when(jobNodeStorage.isJobNodeExisted("guarantee/completed")).thenReturn(false);
-        when(jobNodeStorage.getJobNodeChildrenKeys("guarantee/completed")).thenReturn(Arrays.asList("0", "1"));
-        assertFalse(guaranteeService.isAllCompleted());
+    public void assertRegisterCompleteWhenIsNotAllCompleted() {
+        when(completedBarrier.register(Arrays.asList(0, 1), 3)).thenReturn(false);
+        assertFalse(guaranteeService.registerComplete(Arrays.asList(0, 1)));
     }
     
     @Test
-    public void assertIsAllCompleted() {
-        when(jobNodeStorage.isJobNodeExisted("guarantee/completed")).thenReturn(true);
-        when(configService.load(false)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
-                TestSimpleJob.class.getCanonicalName())).build());
-        when(jobNodeStorage.getJobNodeChildrenKeys("guarantee/completed")).thenReturn(Arrays.asList("0", "1", "2"));
-        assertTrue(guaranteeService.isAllCompleted());
+    public void assertRegisterCompleteWhenIsAllCompleted() {
+        when(completedBarrier.register(Arrays.asList(2), 3)).thenReturn(true);
+        assertTrue(guaranteeService.registerComplete(Arrays.asList(2)));
     }
     
     @Test
     public void assertClearAllCompletedInfo() {
         guaranteeService.clearAllCompletedInfo();
-        verify(jobNodeStorage).removeJobNodeIfExisted("guarantee/completed");
+        verify(completedBarrier).clear();
     }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 1999-2015 dangdang.com.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+
+package com.dangdang.ddframe.job.lite.internal.monitor;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public final class JobMetricsTest {
+    
+    private final JobMetrics jobMetrics = new JobMetrics();
+    
+    @Test
+    public void assertSnapshotWithoutRecord() {
+        Map<String, String> actual = jobMetrics.snapshot();
+        assertThat(actual.get("trigger_count"), is("0"));
+        assertThat(actual.get("trigger_delay_avg_ms"), is("0"));
+        assertThat(actual.get("cache_hit_rate"), is(String.format("%.4f", 0D)));
+    }
+    
+    @Test
+    public void assertRecordTrigger() {
+        jobMetrics.recordTrigger(10L, 100L);
+        jobMetrics.recordTrigger(30L, 50L);
+        Map<String, String> actual = jobMetrics.snapshot();
+        assertThat(actual.get("trigger_count"), is("2"));
+        assertThat(actual.get("trigger_delay_avg_ms"), is("20"));
+        assertThat(actual.get("trigger_delay_max_ms"), is("30"));
+        assertThat(actual.get("execution_avg_ms"), is("75"));
+        assertThat(actual.get("execution_max_ms"), is("100"));
+    }
+    
+    @Test
+    public void assertRecordRegCenterAccess() {
+        jobMetrics.recordRegCenterRead();
+        jobMetrics.recordRegCenterRead();
+        jobMetrics.recordRegCenterWrite();
+        jobMetrics.recordCacheAccess(true);
+        jobMetrics.recordCacheAccess(true);
+        jobMetrics.recordCacheAccess(true);
+        jobMetrics.recordCacheAccess(false);
+        Map<String, String> actual = jobMetrics.snapshot();
+        assertThat(actual.get("reg_center_read_count"), is("2"));
+        assertThat(actual.get("reg_center_write_count"), is("1"));
+        assertThat(actual.get("cache_hit_count"), is("3"));
+        assertThat(actual.get("cache_hit_rate"), is(String.format("%.4f", 0.75D)));
+    }
+    
+    @Test
+    public void assertOnCacheAccess() {
+        jobMetrics.onCacheAccess(true);
+        jobMetrics.onCacheAccess(false);
+        Map<String, String> actual = jobMetrics.snapshot();
+        assertThat(actual.get("reg_center_read_count"), is("1"));
+        assertThat(actual.get("cache_hit_count"), is("1"));
+        assertThat(actual.get("cache_hit_rate"), is(String.format("%.4f", 0.5D)));
+    }
+}
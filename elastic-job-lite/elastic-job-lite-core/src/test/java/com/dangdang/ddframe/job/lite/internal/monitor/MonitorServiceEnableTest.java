@@ -23,8 +23,10 @@ import org.junit.Test;
 
 import java.io.IOException;
 
+import static org.hamcrest.CoreMatchers.startsWith;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
 
 public final class MonitorServiceEnableTest extends AbstractBaseStdJobTest {
     
@@ -40,4 +42,17 @@ public final class MonitorServiceEnableTest extends AbstractBaseStdJobTest {
         assertNotNull(SocketUtils.sendCommand(MonitorService.DUMP_COMMAND, MONITOR_PORT));
         assertNull(SocketUtils.sendCommand("unknown_command", MONITOR_PORT));
     }
+    
+    @Test
+    public void assertMonitorWithJobNameCommand() throws IOException {
+        initJob();
+        assertThat(SocketUtils.sendCommand(MonitorService.DUMP_COMMAND + " " + getJobName(), MONITOR_PORT), startsWith("/" + getJobName() + "/"));
+        assertNull(SocketUtils.sendCommand(MonitorService.DUMP_COMMAND + " unknown_job", MONITOR_PORT));
+    }
+    
+    @Test
+    public void assertMonitorWithMetricsCommand() throws IOException {
+        initJob();
+        assertThat(SocketUtils.sendCommand(MonitorService.METRICS_COMMAND + " " + getJobName(), MONITOR_PORT), startsWith(getJobName() + " | trigger_count | "));
+    }
 }
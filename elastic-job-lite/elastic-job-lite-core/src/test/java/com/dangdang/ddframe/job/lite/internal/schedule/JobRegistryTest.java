@@ -18,11 +18,16 @@
 package com.dangdang.ddframe.job.lite.internal.schedule;
 
 import com.dangdang.ddframe.job.lite.api.strategy.JobInstance;
+import com.dangdang.ddframe.job.lite.internal.monitor.JobMetrics;
+import com.dangdang.ddframe.job.lite.internal.monitor.JobMetricsRegistry;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
 import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -79,9 +84,11 @@ public final class JobRegistryTest {
         JobScheduleController jobScheduleController = mock(JobScheduleController.class);
         CoordinatorRegistryCenter regCenter = mock(CoordinatorRegistryCenter.class);
         JobRegistry.getInstance().registerJob("test_job_for_shutdown", jobScheduleController, regCenter);
+        JobMetrics jobMetrics = JobMetricsRegistry.getInstance().getJobMetrics("test_job_for_shutdown");
         JobRegistry.getInstance().shutdown("test_job_for_shutdown");
         verify(jobScheduleController).shutdown();
         verify(regCenter).evictCacheData("/test_job_for_shutdown");
+        assertNotSame(jobMetrics, JobMetricsRegistry.getInstance().getJobMetrics("test_job_for_shutdown"));
     }
     
     @Test
@@ -105,4 +112,39 @@ public final class JobRegistryTest {
         JobRegistry.getInstance().addJobInstance("test_job_for_job_not_shutdown", new JobInstance("127.0.0.1@-@0"));
         assertFalse(JobRegistry.getInstance().isShutdown("test_job_for_job_not_shutdown"));
     }
+    
+    @Test
+    public void assertGetJobStateIfNull() {
+        JobState actual = JobRegistry.getInstance().getJobState("null_job_state");
+        assertTrue(actual.isShutdown());
+        assertFalse(actual.isRunning());
+        assertThat(actual.getCurrentShardingTotalCount(), is(0));
+    }
+    
+    @Test
+    public void assertGetJobStateIsImmutableSnapshot() {
+        JobScheduleController jobScheduleController = mock(JobScheduleController.class);
+        CoordinatorRegistryCenter regCenter = mock(CoordinatorRegistryCenter.class);
+        JobRegistry.getInstance().registerJob("test_job_for_state", jobScheduleController, regCenter);
+        JobRegistry.getInstance().addJobInstance("test_job_for_state", new JobInstance("127.0.0.1@-@0"));
+        JobState actual = JobRegistry.getInstance().getJobState("test_job_for_state");
+        JobRegistry.getInstance().setJobRunning("test_job_for_state", true);
+        JobRegistry.getInstance().shutdown("test_job_for_state");
+        assertFalse(actual.isShutdown());
+        assertFalse(actual.isRunning());
+        assertSame(jobScheduleController, actual.getJobScheduleController());
+        assertSame(regCenter, actual.getRegCenter());
+        assertTrue(JobRegistry.getInstance().getJobState("test_job_for_state").isShutdown());
+    }
+    
+    @Test
+    public void assertSetJobRunningFalseAfterShutdown() {
+        JobScheduleController jobScheduleController = mock(JobScheduleController.class);
+        CoordinatorRegistryCenter regCenter = mock(CoordinatorRegistryCenter.class);
+        JobRegistry.getInstance().registerJob("test_job_for_running_after_shutdown", jobScheduleController, regCenter);
+        JobRegistry.getInstance().shutdown("test_job_for_running_after_shutdown");
+        JobRegistry.getInstance().setJobRunning("test_job_for_running_after_shutdown", false);
+        assertNull(JobRegistry.getInstance().getRegCenter("test_job_for_running_after_shutdown"));
+        assertTrue(JobRegistry.getInstance().isShutdown("test_job_for_running_after_shutdown"));
+    }
 }
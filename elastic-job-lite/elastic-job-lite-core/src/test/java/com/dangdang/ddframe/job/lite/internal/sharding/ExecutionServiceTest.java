@@ -28,6 +28,7 @@ import com.dangdang.ddframe.job.lite.internal.schedule.JobScheduleController;
 import com.dangdang.ddframe.job.lite.internal.storage.JobNodeStorage;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.unitils.util.ReflectionUtils;
@@ -71,7 +72,7 @@ public final class ExecutionServiceTest {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(
                 new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(), TestSimpleJob.class.getCanonicalName())).monitorExecution(false).build());
         executionService.registerJobBegin(getShardingContext());
-        verify(jobNodeStorage, times(0)).fillEphemeralJobNode((String) any(), any());
+        verify(jobNodeStorage, times(0)).fillEphemeralJobNodes(ArgumentMatchers.<String>anyCollection(), any());
         assertTrue(JobRegistry.getInstance().isJobRunning("test_job"));
     }
     
@@ -80,9 +81,7 @@ public final class ExecutionServiceTest {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(
                 new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(), TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
         executionService.registerJobBegin(getShardingContext());
-        verify(jobNodeStorage).fillEphemeralJobNode("sharding/0/running", "");
-        verify(jobNodeStorage).fillEphemeralJobNode("sharding/1/running", "");
-        verify(jobNodeStorage).fillEphemeralJobNode("sharding/2/running", "");
+        verify(jobNodeStorage).fillEphemeralJobNodes(Arrays.asList("sharding/0/running", "sharding/1/running", "sharding/2/running"), "");
         assertTrue(JobRegistry.getInstance().isJobRunning("test_job"));
     }
     
@@ -92,8 +91,7 @@ public final class ExecutionServiceTest {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(
                 new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(), TestSimpleJob.class.getCanonicalName())).monitorExecution(false).build());
         executionService.registerJobCompleted(new ShardingContexts("fake_task_id", "test_job", 10, "", Collections.<Integer, String>emptyMap()));
-        verify(jobNodeStorage, times(0)).removeJobNodeIfExisted((String) any());
-        verify(jobNodeStorage, times(0)).createJobNodeIfNeeded((String) any());
+        verify(jobNodeStorage, times(0)).removeJobNodesIfExisted(ArgumentMatchers.<String>anyCollection());
         assertFalse(JobRegistry.getInstance().isJobRunning("test_job"));
     }
     
@@ -103,9 +101,7 @@ public final class ExecutionServiceTest {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(
                 new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(), TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
         executionService.registerJobCompleted(getShardingContext());
-        verify(jobNodeStorage).removeJobNodeIfExisted("sharding/0/running");
-        verify(jobNodeStorage).removeJobNodeIfExisted("sharding/1/running");
-        verify(jobNodeStorage).removeJobNodeIfExisted("sharding/2/running");
+        verify(jobNodeStorage).removeJobNodesIfExisted(Arrays.asList("sharding/0/running", "sharding/1/running", "sharding/2/running"));
         assertFalse(JobRegistry.getInstance().isJobRunning("test_job"));
     }
     
@@ -115,16 +111,13 @@ public final class ExecutionServiceTest {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(
                 new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(), TestSimpleJob.class.getCanonicalName())).monitorExecution(false).build());
         executionService.clearAllRunningInfo();
-        verify(jobNodeStorage).removeJobNodeIfExisted("sharding/0/running");
-        verify(jobNodeStorage).removeJobNodeIfExisted("sharding/1/running");
-        verify(jobNodeStorage).removeJobNodeIfExisted("sharding/2/running");
+        verify(jobNodeStorage).removeJobNodesIfExisted(Arrays.asList("sharding/0/running", "sharding/1/running", "sharding/2/running"));
     }
     
     @Test
     public void assertClearRunningInfo() {
         executionService.clearRunningInfo(Arrays.asList(0, 1));
-        verify(jobNodeStorage).removeJobNodeIfExisted("sharding/0/running");
-        verify(jobNodeStorage).removeJobNodeIfExisted("sharding/1/running");
+        verify(jobNodeStorage).removeJobNodesIfExisted(Arrays.asList("sharding/0/running", "sharding/1/running"));
     }
     
     @Test
@@ -138,8 +131,7 @@ public final class ExecutionServiceTest {
     public void assertHasRunningItemsWithMonitorExecution() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(
                 new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(), TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
-        when(jobNodeStorage.isJobNodeExisted("sharding/0/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("sharding/1/running")).thenReturn(true);
+        when(jobNodeStorage.isJobNodesExisted(Arrays.asList("sharding/0/running", "sharding/1/running", "sharding/2/running"))).thenReturn(Arrays.asList(false, true, false));
         assertTrue(executionService.hasRunningItems(Arrays.asList(0, 1, 2)));
     }
     
@@ -147,9 +139,7 @@ public final class ExecutionServiceTest {
     public void assertNotHaveRunningItems() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(
                 new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(), TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
-        when(jobNodeStorage.isJobNodeExisted("sharding/0/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("sharding/1/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("sharding/2/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodesExisted(Arrays.asList("sharding/0/running", "sharding/1/running", "sharding/2/running"))).thenReturn(Arrays.asList(false, false, false));
         assertFalse(executionService.hasRunningItems(Arrays.asList(0, 1, 2)));
     }
     
@@ -158,8 +148,7 @@ public final class ExecutionServiceTest {
         when(configService.load(true)).thenReturn(
                 LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(), TestSimpleJob.class.getCanonicalName())).build());
         when(jobNodeStorage.getJobNodeChildrenKeys("sharding")).thenReturn(Arrays.asList("0", "1", "2"));
-        when(jobNodeStorage.isJobNodeExisted("sharding/0/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("sharding/1/running")).thenReturn(true);
+        when(jobNodeStorage.isJobNodesExisted(Arrays.asList("sharding/0/running", "sharding/1/running", "sharding/2/running"))).thenReturn(Arrays.asList(false, true, false));
         assertTrue(executionService.hasRunningItems());
     }
     
@@ -167,9 +156,7 @@ public final class ExecutionServiceTest {
     public void assertNotHaveRunningItemsForAll() {
         when(configService.load(true)).thenReturn(
                 LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(), TestSimpleJob.class.getCanonicalName())).build());
-        when(jobNodeStorage.isJobNodeExisted("sharding/0/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("sharding/1/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("sharding/2/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodesExisted(Arrays.asList("sharding/0/running", "sharding/1/running", "sharding/2/running"))).thenReturn(Arrays.asList(false, false, false));
         assertFalse(executionService.hasRunningItems());
     }
     
@@ -177,9 +164,7 @@ public final class ExecutionServiceTest {
     public void assertMisfireIfNotRunning() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(
                 new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(), TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
-        when(jobNodeStorage.isJobNodeExisted("sharding/0/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("sharding/1/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("sharding/2/running")).thenReturn(false);
+        when(jobNodeStorage.isJobNodesExisted(Arrays.asList("sharding/0/running", "sharding/1/running", "sharding/2/running"))).thenReturn(Arrays.asList(false, false, false));
         assertFalse(executionService.misfireIfHasRunningItems(Arrays.asList(0, 1, 2)));
     }
     
@@ -187,40 +172,31 @@ public final class ExecutionServiceTest {
     public void assertMisfireIfRunning() {
         when(configService.load(true)).thenReturn(LiteJobConfiguration.newBuilder(new SimpleJobConfiguration(JobCoreConfiguration.newBuilder("test_job", "0/1 * * * * ?", 3).build(),
                 TestSimpleJob.class.getCanonicalName())).monitorExecution(true).build());
-        when(jobNodeStorage.isJobNodeExisted("sharding/0/running")).thenReturn(false);
-        when(jobNodeStorage.isJobNodeExisted("sharding/1/running")).thenReturn(true);
+        when(jobNodeStorage.isJobNodesExisted(Arrays.asList("sharding/0/running", "sharding/1/running", "sharding/2/running"))).thenReturn(Arrays.asList(false, true, false));
         assertTrue(executionService.misfireIfHasRunningItems(Arrays.asList(0, 1, 2)));
     }
     
     @Test
     public void assertSetMisfire() {
         executionService.setMisfire(Arrays.asList(0, 1, 2));
-        verify(jobNodeStorage).createJobNodeIfNeeded("sharding/0/misfire");
-        verify(jobNodeStorage).createJobNodeIfNeeded("sharding/1/misfire");
-        verify(jobNodeStorage).createJobNodeIfNeeded("sharding/2/misfire");
+        verify(jobNodeStorage).createJobNodesIfNeeded(Arrays.asList("sharding/0/misfire", "sharding/1/misfire", "sharding/2/misfire"));
     }
     
     @Test
     public void assertGetMisfiredJobItems() {
-        when(jobNodeStorage.isJobNodeExisted("sharding/0/misfire")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("sharding/1/misfire")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("sharding/2/misfire")).thenReturn(false);
+        when(jobNodeStorage.isJobNodesExisted(Arrays.asList("sharding/0/misfire", "sharding/1/misfire", "sharding/2/misfire"))).thenReturn(Arrays.asList(true, true, false));
         assertThat(executionService.getMisfiredJobItems(Arrays.asList(0, 1, 2)), is(Arrays.asList(0, 1)));
     }
     
     @Test
     public void assertClearMisfire() {
         executionService.clearMisfire(Arrays.asList(0, 1, 2));
-        verify(jobNodeStorage).removeJobNodeIfExisted("sharding/0/misfire");
-        verify(jobNodeStorage).removeJobNodeIfExisted("sharding/1/misfire");
-        verify(jobNodeStorage).removeJobNodeIfExisted("sharding/2/misfire");
+        verify(jobNodeStorage).removeJobNodesIfExisted(Arrays.asList("sharding/0/misfire", "sharding/1/misfire", "sharding/2/misfire"));
     }
     
     @Test
     public void assertGetDisabledItems() {
-        when(jobNodeStorage.isJobNodeExisted("sharding/0/disabled")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("sharding/1/disabled")).thenReturn(true);
-        when(jobNodeStorage.isJobNodeExisted("sharding/2/disabled")).thenReturn(false);
+        when(jobNodeStorage.isJobNodesExisted(Arrays.asList("sharding/0/disabled", "sharding/1/disabled", "sharding/2/disabled"))).thenReturn(Arrays.asList(true, true, false));
         assertThat(executionService.getDisabledItems(Arrays.asList(0, 1, 2)), is(Arrays.asList(0, 1)));
     }
     
@@ -17,7 +17,11 @@
 
 package com.dangdang.ddframe.job.lite.internal.storage;
 
+import com.dangdang.ddframe.job.lite.internal.monitor.JobMetricsRegistry;
+import com.dangdang.ddframe.job.reg.base.AsyncRegistryCenter;
 import com.dangdang.ddframe.job.reg.base.CoordinatorRegistryCenter;
+import com.dangdang.ddframe.job.reg.exception.RegException;
+import com.google.common.util.concurrent.Futures;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.api.transaction.CuratorTransaction;
 import org.apache.curator.framework.api.transaction.CuratorTransactionBridge;
@@ -28,6 +32,7 @@ import org.apache.curator.framework.listen.Listenable;
 import org.apache.curator.framework.recipes.cache.TreeCache;
 import org.apache.curator.framework.recipes.cache.TreeCacheListener;
 import org.apache.curator.framework.state.ConnectionStateListener;
+import org.apache.zookeeper.KeeperException;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -43,6 +48,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 public final class JobNodeStorageTest {
     
@@ -66,9 +72,9 @@ public final class JobNodeStorageTest {
     
     @Test
     public void assertGetJobNodeData() {
-        when(regCenter.get("/test_job/config/cron")).thenReturn("0/1 * * * * ?");
+        when(regCenter.get("/test_job/config/cron", JobMetricsRegistry.getInstance().getJobMetrics("test_job"))).thenReturn("0/1 * * * * ?");
         assertThat(jobNodeStorage.getJobNodeData("config/cron"), is("0/1 * * * * ?"));
-        verify(regCenter).get("/test_job/config/cron");
+        verify(regCenter).get("/test_job/config/cron", JobMetricsRegistry.getInstance().getJobMetrics("test_job"));
     }
     
     @Test
@@ -137,6 +143,90 @@ public final class JobNodeStorageTest {
         verify(regCenter).persist("/test_job/config/cron", "0/1 * * * * ?");
     }
     
+    @Test
+    public void assertIsJobNodesExisted() {
+        when(regCenter.isExisted("/test_job/sharding/0/running")).thenReturn(true);
+        assertThat(jobNodeStorage.isJobNodesExisted(Arrays.asList("sharding/0/running", "sharding/1/running")), is(Arrays.asList(true, false)));
+    }
+    
+    @Test
+    public void assertIsJobNodesExistedAsync() throws NoSuchFieldException {
+        CoordinatorRegistryCenter asyncRegCenter = mockAsyncRegistryCenter();
+        when(((AsyncRegistryCenter) asyncRegCenter).isExistedAsync("/test_job/sharding/0/running")).thenReturn(Futures.immediateFuture(true));
+        when(((AsyncRegistryCenter) asyncRegCenter).isExistedAsync("/test_job/sharding/1/running")).thenReturn(Futures.immediateFuture(false));
+        assertThat(jobNodeStorage.isJobNodesExisted(Arrays.asList("sharding/0/running", "sharding/1/running")), is(Arrays.asList(true, false)));
+        verify(asyncRegCenter, times(0)).isExisted("/test_job/sharding/0/running");
+    }
+    
+    @Test
+    public void assertGetJobNodesDataDirectlyAsync() throws NoSuchFieldException {
+        CoordinatorRegistryCenter asyncRegCenter = mockAsyncRegistryCenter();
+        when(((AsyncRegistryCenter) asyncRegCenter).getDirectlyAsync("/test_job/sharding/0/failover")).thenReturn(Futures.immediateFuture("127.0.0.1@-@0"));
+        when(((AsyncRegistryCenter) asyncRegCenter).getDirectlyAsync("/test_job/sharding/1/failover")).thenReturn(Futures.<String>immediateFuture(null));
+        assertThat(jobNodeStorage.getJobNodesDataDirectly(Arrays.asList("sharding/0/failover", "sharding/1/failover")), is(Arrays.asList("127.0.0.1@-@0", null)));
+    }
+    
+    @Test
+    public void assertCreateJobNodesIfNeededAsync() throws NoSuchFieldException {
+        CoordinatorRegistryCenter asyncRegCenter = mockAsyncRegistryCenter();
+        when(asyncRegCenter.isExisted("/test_job")).thenReturn(true);
+        when(((AsyncRegistryCenter) asyncRegCenter).isExistedAsync("/test_job/sharding/0/misfire")).thenReturn(Futures.immediateFuture(true));
+        when(((AsyncRegistryCenter) asyncRegCenter).isExistedAsync("/test_job/sharding/1/misfire")).thenReturn(Futures.immediateFuture(false));
+        when(((AsyncRegistryCenter) asyncRegCenter).persistAsync("/test_job/sharding/1/misfire", "")).thenReturn(Futures.<Void>immediateFuture(null));
+        jobNodeStorage.createJobNodesIfNeeded(Arrays.asList("sharding/0/misfire", "sharding/1/misfire"));
+        verify((AsyncRegistryCenter) asyncRegCenter, times(0)).persistAsync("/test_job/sharding/0/misfire", "");
+        verify((AsyncRegistryCenter) asyncRegCenter).persistAsync("/test_job/sharding/1/misfire", "");
+    }
+    
+    @Test
+    public void assertCreateJobNodesIfRootJobNodeIsNotExist() {
+        when(regCenter.isExisted("/test_job")).thenReturn(false);
+        jobNodeStorage.createJobNodesIfNeeded(Arrays.asList("sharding/0/misfire", "sharding/1/misfire"));
+        verify(regCenter, times(0)).persist("/test_job/sharding/0/misfire", "");
+        verify(regCenter, times(0)).persist("/test_job/sharding/1/misfire", "");
+    }
+    
+    @Test
+    public void assertRemoveJobNodesIfExisted() {
+        when(regCenter.isExisted("/test_job/sharding/0/running")).thenReturn(true);
+        jobNodeStorage.removeJobNodesIfExisted(Arrays.asList("sharding/0/running", "sharding/1/running"));
+        verify(regCenter).remove("/test_job/sharding/0/running");
+        verify(regCenter, times(0)).remove("/test_job/sharding/1/running");
+    }
+    
+    @Test
+    public void assertRemoveJobNodesIfExistedAsync() throws NoSuchFieldException {
+        CoordinatorRegistryCenter asyncRegCenter = mockAsyncRegistryCenter();
+        when(((AsyncRegistryCenter) asyncRegCenter).removeAsync("/test_job/sharding/0/running")).thenReturn(Futures.<Void>immediateFuture(null));
+        when(((AsyncRegistryCenter) asyncRegCenter).removeAsync("/test_job/sharding/1/running")).thenReturn(Futures.<Void>immediateFailedFuture(new KeeperException.ConnectionLossException()));
+        jobNodeStorage.removeJobNodesIfExisted(Arrays.asList("sharding/0/running", "sharding/1/running"));
+        verify((AsyncRegistryCenter) asyncRegCenter).removeAsync("/test_job/sharding/0/running");
+        verify((AsyncRegistryCenter) asyncRegCenter).removeAsync("/test_job/sharding/1/running");
+    }
+    
+    @Test
+    public void assertFillEphemeralJobNodesAsync() throws NoSuchFieldException {
+        CoordinatorRegistryCenter asyncRegCenter = mockAsyncRegistryCenter();
+        when(((AsyncRegistryCenter) asyncRegCenter).persistEphemeralAsync("/test_job/sharding/0/running", "")).thenReturn(Futures.<Void>immediateFuture(null));
+        jobNodeStorage.fillEphemeralJobNodes(Arrays.asList("sharding/0/running"), "");
+        verify((AsyncRegistryCenter) asyncRegCenter).persistEphemeralAsync("/test_job/sharding/0/running", "");
+        verify(asyncRegCenter, times(0)).persistEphemeral("/test_job/sharding/0/running", "");
+    }
+    
+    @Test(expected = RegException.class)
+    public void assertFillEphemeralJobNodesAsyncFailure() throws NoSuchFieldException {
+        CoordinatorRegistryCenter asyncRegCenter = mockAsyncRegistryCenter();
+        when(((AsyncRegistryCenter) asyncRegCenter).persistEphemeralAsync("/test_job/sharding/0/running", "")).thenReturn(
+                Futures.<Void>immediateFailedFuture(new KeeperException.SessionExpiredException()));
+        jobNodeStorage.fillEphemeralJobNodes(Arrays.asList("sharding/0/running"), "");
+    }
+    
+    private CoordinatorRegistryCenter mockAsyncRegistryCenter() throws NoSuchFieldException {
+        CoordinatorRegistryCenter result = mock(CoordinatorRegistryCenter.class, withSettings().extraInterfaces(AsyncRegistryCenter.class));
+        ReflectionUtils.setFieldValue(jobNodeStorage, "regCenter", result);
+        return result;
+    }
+    
     @Test
     public void assertFillEphemeralJobNode() {
         jobNodeStorage.fillEphemeralJobNode("config/cron", "0/1 * * * * ?");
@@ -17,6 +17,7 @@
 
 package com.dangdang.ddframe.job.lite.internal.util;
 
+import com.google.common.base.Function;
 import org.junit.Test;
 
 import java.util.Arrays;
@@ -39,4 +40,12 @@ public final class SensitiveInfoUtilsTest {
         List<String> expected = Arrays.asList("/simpleElasticDemoJob/servers/ip1", "/simpleElasticDemoJob/servers/ip2/hostName | ip2");
         assertThat(SensitiveInfoUtils.filterSensitiveIps(actual), is(expected));
     }
+    
+    @Test
+    public void assertNewSensitiveIpFilter() {
+        Function<String, String> filter = SensitiveInfoUtils.newSensitiveIpFilter();
+        assertThat(filter.apply("/simpleElasticDemoJob/servers/127.0.0.1"), is("/simpleElasticDemoJob/servers/ip1"));
+        assertThat(filter.apply("/simpleElasticDemoJob/servers/192.168.0.1"), is("/simpleElasticDemoJob/servers/ip2"));
+        assertThat(filter.apply("/simpleElasticDemoJob/instances/127.0.0.1@-@1"), is("/simpleElasticDemoJob/instances/ip1@-@1"));
+    }
 }